@@ -0,0 +1,71 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.sound.Apu;
+
+/**
+ * {@code Apu.step} with all four channels playing, at the batch sizes the
+ * memory bus uses. Nothing drains the output ring, so once it is full the
+ * samples are still synthesized but dropped, as with a stalled backend.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ApuBenchmark {
+
+    @Param({ "4", "456" })
+    public int cycles;
+
+    private Apu apu;
+
+    @Setup
+    public void setUp() {
+        apu = new Apu();
+        apu.writeRegister(0xFF26, 0x80); // power on
+        apu.writeRegister(0xFF24, 0x77); // full volume both sides
+        apu.writeRegister(0xFF25, 0xFF); // every channel to both sides
+        // Square 1 with a sweep, square 2
+        apu.writeRegister(0xFF10, 0x1F); // subtractive, so the sweep never overflows
+        apu.writeRegister(0xFF11, 0x80);
+        apu.writeRegister(0xFF12, 0xF0);
+        apu.writeRegister(0xFF13, 0x40);
+        apu.writeRegister(0xFF14, 0x86);
+        apu.writeRegister(0xFF16, 0x40);
+        apu.writeRegister(0xFF17, 0xF0);
+        apu.writeRegister(0xFF18, 0x80);
+        apu.writeRegister(0xFF19, 0x87);
+        // Wave with a ramp
+        apu.writeRegister(0xFF1A, 0x80);
+        for (int i = 0; i < 16; i++) {
+            apu.writeRegister(0xFF30 + i, i * 0x11);
+        }
+        apu.writeRegister(0xFF1C, 0x20);
+        apu.writeRegister(0xFF1D, 0x00);
+        apu.writeRegister(0xFF1E, 0x87);
+        // Noise
+        apu.writeRegister(0xFF21, 0xF0);
+        apu.writeRegister(0xFF22, 0x33);
+        apu.writeRegister(0xFF23, 0x80);
+    }
+
+    @Benchmark
+    public void step() {
+        apu.step(cycles);
+    }
+}
@@ -0,0 +1,93 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.GameBoyColor;
+
+/**
+ * Instruction dispatch through {@code GameBoyColor.executeCycle}, which
+ * includes the peripheral stepping every instruction pays for, on loops of
+ * a single instruction class each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CpuBenchmark {
+    private static final int STEPS = 1000;
+
+    @Param({ "alu", "load", "branch", "cb", "mixed" })
+    public String mix;
+
+    private GameBoyColor gbc;
+
+    @Setup
+    public void setUp() {
+        gbc = SyntheticMachine.create(false, program(mix));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int executeCycle() {
+        int cycles = 0;
+        for (int i = 0; i < STEPS; i++) {
+            cycles += gbc.executeCycle();
+        }
+        return cycles;
+    }
+
+    /** Each program is a loop at 0x0150 ending in a jump back to its start. */
+    static int[] program(String mix) {
+        return switch (mix) {
+            case "alu" -> new int[] {
+                    0x80, 0x91, 0xA2, 0xB3, 0xAC, 0x2C, 0x05, 0xBF, // ADD B, SUB C, AND D, OR E, XOR H, INC L, DEC B, CP A
+                    0x89, 0x9A, 0xC6, 0x11, 0xE6, 0xF0, 0x09, 0x27, // ADC C, SBC D, ADD n, AND n, ADD HL,BC, DAA
+                    0xC3, 0x50, 0x01 };
+            case "load" -> new int[] {
+                    0x21, 0x00, 0xC0, // LD HL,0xC000
+                    0x7E, 0x70, 0x2A, 0x46, 0x22, // LD A,(HL); LD (HL),B; LD A,(HL+); LD B,(HL); LD (HL+),A
+                    0xEA, 0x00, 0xC1, 0xFA, 0x00, 0xC1, // LD (0xC100),A; LD A,(0xC100)
+                    0xE0, 0x80, 0xF0, 0x80, // LDH (0x80),A; LDH A,(0x80)
+                    0xC5, 0xD1, 0x48, 0x53, // PUSH BC; POP DE; LD C,B; LD D,E
+                    0xC3, 0x50, 0x01 };
+            case "branch" -> new int[] {
+                    0xCD, 0x60, 0x01, // CALL 0x0160
+                    0xAF, 0x20, 0x02, // XOR A; JR NZ,+2 (not taken)
+                    0x28, 0x00, // JR Z,+0 (taken)
+                    0x18, 0x00, // JR +0
+                    0xC2, 0x50, 0x01, // JP NZ,0x0150 (not taken)
+                    0xC3, 0x50, 0x01, // JP 0x0150
+                    0xAF, 0xC4, 0x00, 0x00, // 0x0160: XOR A; CALL NZ,0x0000 (not taken)
+                    0xC9 }; // RET
+            case "cb" -> new int[] {
+                    0x21, 0x00, 0xC0, // LD HL,0xC000
+                    0xCB, 0x7F, 0xCB, 0xD8, 0xCB, 0x91, 0xCB, 0x02, // BIT 7,A; SET 3,B; RES 2,C; RLC D
+                    0xCB, 0x3B, 0xCB, 0x34, 0xCB, 0x1D, 0xCB, 0x46, // SRL E; SWAP H; RR L; BIT 0,(HL)
+                    0xC3, 0x50, 0x01 };
+            case "mixed" -> new int[] {
+                    0x21, 0x00, 0xC0, // LD HL,0xC000
+                    0x7E, 0x80, 0x77, 0x23, // LD A,(HL); ADD B; LD (HL),A; INC HL
+                    0xCB, 0x37, 0xFE, 0x10, // SWAP A; CP 0x10
+                    0x38, 0x01, 0x3C, // JR C,+1; INC A
+                    0xC5, 0xC1, // PUSH BC; POP BC
+                    0xE0, 0x80, // LDH (0x80),A
+                    0xC3, 0x50, 0x01 };
+            default -> throw new IllegalArgumentException("Unknown mix: " + mix);
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.GameBoyColor;
+import gbc.model.memory.Memory;
+
+/**
+ * {@code Memory.readByte}/{@code writeByte} per address region, with the
+ * LCD off so no access is blocked by the PPU mode. Writes store a value that
+ * keeps cartridge RAM enabled, since ROM-area writes reach the MBC.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MemoryBenchmark {
+    private static final int ACCESSES = 256;
+
+    @Param({ "ROM0", "ROMX", "VRAM", "CART_RAM", "WRAM0", "WRAMX", "ECHO", "OAM", "IO", "HRAM" })
+    public String region;
+
+    private Memory memory;
+    private int base;
+    private int span;
+
+    @Setup
+    public void setUp() {
+        GameBoyColor gbc = SyntheticMachine.idle(false);
+        memory = gbc.getMemory();
+        memory.writeByte(0xFF40, 0x00); // LCD off
+        memory.writeByte(0x0000, 0x0A); // enable cartridge RAM
+        switch (region) {
+            case "ROM0" -> set(0x0150, 0x100);
+            case "ROMX" -> set(0x4000, 0x100);
+            case "VRAM" -> set(0x8000, 0x100);
+            case "CART_RAM" -> set(0xA000, 0x100);
+            case "WRAM0" -> set(0xC000, 0x100);
+            case "WRAMX" -> set(0xD000, 0x100);
+            case "ECHO" -> set(0xE000, 0x100);
+            case "OAM" -> set(0xFE00, 0xA0);
+            case "IO" -> set(0xFF47, 3); // BGP, OBP0, OBP1
+            case "HRAM" -> set(0xFF80, 0x7F);
+            default -> throw new IllegalArgumentException("Unknown region: " + region);
+        }
+    }
+
+    private void set(int base, int span) {
+        this.base = base;
+        this.span = span;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int readByte() {
+        int sum = 0;
+        for (int i = 0; i < ACCESSES; i++) {
+            sum += memory.readByte(base + i % span);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void writeByte() {
+        for (int i = 0; i < ACCESSES; i++) {
+            memory.writeByte(base + i % span, 0x0A);
+        }
+    }
+}
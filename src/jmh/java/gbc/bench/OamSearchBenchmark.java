@@ -0,0 +1,55 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.graphics.OamSearch;
+import gbc.model.memory.Memory;
+
+/** {@code OamSearch.searchSprites} over every visible line, per line. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OamSearchBenchmark {
+    private static final int VISIBLE_LINES = 144;
+
+    @Param({ "0", "10", "40" })
+    public int sprites;
+
+    private OamSearch search;
+
+    @Setup
+    public void setUp() {
+        Memory memory = SyntheticMachine.idle(false).getMemory();
+        memory.writeByte(0xFF40, 0x00);
+        SyntheticMachine.placeSprites(memory, sprites);
+        memory.writeByte(0xFF40, 0x06); // sprites on, 8x16, LCD kept off
+        search = new OamSearch(memory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VISIBLE_LINES)
+    public int searchSprites() {
+        int found = 0;
+        for (int ly = 0; ly < VISIBLE_LINES; ly++) {
+            search.searchSprites(ly);
+            found += search.getActiveSpriteCount();
+        }
+        return found;
+    }
+}
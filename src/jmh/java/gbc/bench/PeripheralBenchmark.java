@@ -0,0 +1,54 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.GameBoyColor;
+import gbc.model.memory.Memory;
+
+/**
+ * {@code Memory.stepPeripherals} in the batch sizes the CPU hands it: one
+ * M-cycle, a long instruction with interrupt dispatch, and a scanline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PeripheralBenchmark {
+
+    @Param({ "4", "20", "456" })
+    public int cycles;
+
+    @Param({ "false", "true" })
+    public boolean cgb;
+
+    private Memory memory;
+
+    @Setup
+    public void setUp() {
+        GameBoyColor gbc = SyntheticMachine.idle(cgb);
+        memory = gbc.getMemory();
+        memory.writeByte(0xFF40, 0x00);
+        SyntheticMachine.fillVram(memory, cgb);
+        SyntheticMachine.placeSprites(memory, 10);
+        memory.writeByte(0xFF40, 0x93); // LCD, background and sprites on
+    }
+
+    @Benchmark
+    public void stepPeripherals() {
+        memory.stepPeripherals(cycles);
+    }
+}
@@ -0,0 +1,79 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.GameBoyColor;
+import gbc.model.graphics.LcdController;
+import gbc.model.graphics.PPU;
+import gbc.model.memory.Memory;
+
+/**
+ * Scanline rendering: the LCD controller and PPU driven dot by dot, as
+ * {@code Memory.stepPeripherals} does, through whole frames. Results are
+ * per scanline, VBlank lines included. With sprites on, lines 0-63 carry
+ * ten sprites each; the window covers the lower right quarter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PpuBenchmark {
+    private static final int LINES = 154;
+    private static final int DOTS_PER_LINE = 456;
+
+    @Param({ "false", "true" })
+    public boolean cgb;
+
+    @Param({ "0", "10" })
+    public int sprites;
+
+    @Param({ "false", "true" })
+    public boolean window;
+
+    private LcdController lcd;
+    private PPU ppu;
+
+    @Setup
+    public void setUp() {
+        GameBoyColor gbc = SyntheticMachine.idle(cgb);
+        Memory memory = gbc.getMemory();
+        memory.writeByte(0xFF40, 0x00);
+        SyntheticMachine.fillVram(memory, cgb);
+        SyntheticMachine.placeSprites(memory, sprites == 0 ? 0 : 40);
+        memory.writeByte(0xFF47, 0xE4);
+        memory.writeByte(0xFF48, 0xD2);
+        memory.writeByte(0xFF49, 0x1B);
+        memory.writeByte(0xFF42, 3); // SCY
+        memory.writeByte(0xFF43, 5); // SCX, a fine scroll
+        memory.writeByte(0xFF4A, 72); // WY
+        memory.writeByte(0xFF4B, 87); // WX
+        int lcdc = 0x80 | 0x01 | (sprites > 0 ? 0x06 : 0) | (window ? 0x60 : 0);
+        memory.writeByte(0xFF40, lcdc);
+        lcd = memory.getLcdController();
+        ppu = gbc.getPpu();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void renderFrame() {
+        for (int dot = 0; dot < LINES * DOTS_PER_LINE; dot++) {
+            lcd.step();
+            ppu.tick(1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package gbc.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.controller.io.SaveState;
+import gbc.model.GameBoyColor;
+
+/**
+ * Machine snapshots in memory and save-state files on disk, for a machine
+ * that has run a few frames so every component holds non-trivial state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SaveStateBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean cgb;
+
+    private GameBoyColor gbc;
+    private byte[] state;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        gbc = SyntheticMachine.create(cgb, CpuBenchmark.program("mixed"));
+        for (int frame = 0; frame < 10; frame++) {
+            gbc.runToVBlank(70224 * 2);
+        }
+        state = gbc.snapshot();
+        file = Files.createTempFile("gbc-bench", ".ss0");
+        SaveState.save(gbc, file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public byte[] snapshot() {
+        return gbc.snapshot();
+    }
+
+    @Benchmark
+    public void restore() {
+        gbc.restore(state);
+    }
+
+    @Benchmark
+    public boolean save() {
+        return SaveState.save(gbc, file);
+    }
+
+    @Benchmark
+    public boolean load() {
+        return SaveState.load(gbc, file);
+    }
+}
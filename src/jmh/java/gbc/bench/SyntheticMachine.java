@@ -0,0 +1,99 @@
+package gbc.bench;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.memory.Memory;
+import gbc.model.sound.Apu;
+
+/**
+ * Machines and memory contents for the benchmarks, built from code so no
+ * copyrighted ROM is needed. Everything is derived from fixed patterns, so
+ * runs are comparable across builds.
+ */
+final class SyntheticMachine {
+    /** MBC1 with 8 KB of RAM, so the external RAM region is real memory. */
+    private static final int CART_MBC1_RAM = 0x03;
+
+    private SyntheticMachine() {
+    }
+
+    /**
+     * A deterministic machine running {@code program} from 0x0150, after a
+     * jump at the entry point. {@code cgb} sets the header's CGB-only flag.
+     */
+    static GameBoyColor create(boolean cgb, int... program) {
+        byte[] rom = new byte[0x8000];
+        rom[0x0100] = 0x00; // NOP
+        rom[0x0101] = (byte) 0xC3; // JP 0x0150
+        rom[0x0102] = 0x50;
+        rom[0x0103] = 0x01;
+        rom[0x0143] = (byte) (cgb ? 0xC0 : 0x00);
+        rom[0x0147] = CART_MBC1_RAM;
+        rom[0x0149] = 0x02; // 8 KB RAM
+        int checksum = 0;
+        for (int i = 0x0134; i <= 0x014C; i++) {
+            checksum = checksum - (rom[i] & 0xFF) - 1;
+        }
+        rom[0x014D] = (byte) checksum;
+        for (int i = 0; i < program.length; i++) {
+            rom[0x0150 + i] = (byte) program[i];
+        }
+        for (int i = 0x4000; i < rom.length; i++) {
+            rom[i] = (byte) (i * 37 >>> 3);
+        }
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setDeterministic(0x5EED);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        return gbc;
+    }
+
+    /** A machine that spins in place, for benchmarks that drive components directly. */
+    static GameBoyColor idle(boolean cgb) {
+        return create(cgb, 0x18, 0xFE); // JR -2
+    }
+
+    /**
+     * Fills VRAM with tile patterns and both tile maps with a tile index
+     * pattern. Must be called with the LCD off.
+     */
+    static void fillVram(Memory memory, boolean cgb) {
+        for (int bank = 0; bank < (cgb ? 2 : 1); bank++) {
+            if (cgb) {
+                memory.writeByte(0xFF4F, bank);
+            }
+            for (int address = 0x8000; address < 0x9800; address++) {
+                memory.writeByte(address, (address * 73 + bank * 11) >>> 2);
+            }
+            for (int address = 0x9800; address < 0xA000; address++) {
+                // Bank 1 holds CGB attributes: palette, bank, flips
+                memory.writeByte(address, bank == 0 ? address * 7 : address * 13 & 0x6F);
+            }
+        }
+        if (cgb) {
+            memory.writeByte(0xFF4F, 0);
+            memory.writeByte(0xFF68, 0x80); // BCPS, auto-increment
+            memory.writeByte(0xFF6A, 0x80); // OCPS, auto-increment
+            for (int i = 0; i < 64; i++) {
+                memory.writeByte(0xFF69, i * 29);
+                memory.writeByte(0xFF6B, i * 31);
+            }
+        }
+    }
+
+    /**
+     * Places {@code count} 8x16 sprites in groups of ten sharing a band of
+     * lines, so up to the first 64 lines carry ten sprites each.
+     */
+    static void placeSprites(Memory memory, int count) {
+        for (int i = 0; i < 40; i++) {
+            int base = 0xFE00 + i * 4;
+            boolean visible = i < count;
+            memory.writeByte(base, visible ? 16 + (i / 10) * 16 : 0);
+            memory.writeByte(base + 1, visible ? 8 + (i % 10) * 15 : 0);
+            memory.writeByte(base + 2, i * 2);
+            memory.writeByte(base + 3, i * 0x11 & 0xF7);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package gbc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gbc.model.timer.Timer;
+
+/**
+ * {@code Timer.stepCycles} for every TAC setting: stopped, and running at
+ * each of the four input clocks, with TMA at 0 so TIMA keeps overflowing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimerBenchmark {
+
+    @Param({ "0x00", "0x04", "0x05", "0x06", "0x07" })
+    public String tac;
+
+    @Param({ "4", "456" })
+    public int cycles;
+
+    private Timer timer;
+
+    @Setup
+    public void setUp() {
+        timer = SyntheticMachine.idle(false).getMemory().getTimer();
+        timer.writeTMA(0);
+        timer.writeTAC(Integer.decode(tac));
+    }
+
+    @Benchmark
+    public int stepCycles() {
+        timer.stepCycles(cycles);
+        return timer.getTima();
+    }
+}
@@ -0,0 +1,236 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.memory.Memory;
+import gbc.model.sound.Apu;
+
+/**
+ * Measures how many bytes the emulation thread allocates per emulated
+ * frame once a ROM has settled, and which subsystem allocated them. The
+ * core is meant to allocate nothing in steady state, so that gameplay
+ * never triggers a collection; this is the tool that shows where it does.
+ *
+ * <p>
+ * Counts come from the HotSpot per-thread allocation counter. Peripheral
+ * phases are bracketed through {@link Memory.PeripheralProbe}; whatever
+ * the frame allocated outside them is charged to the CPU, which includes
+ * instruction dispatch and the memory accesses it makes.
+ *
+ * <pre>
+ * java -cp gbjava.jar gbc.batch.AllocationBudget [options] &lt;rom | workload:NAME&gt;
+ *   --frames N       measured frames (default 600)
+ *   --warmup N       frames run first and not counted (default 600)
+ *   --hardware MODE  auto, dmg, cgb, ... (default auto)
+ *   --audio          keep audio output on instead of silencing it
+ *   --budget BYTES   allowed bytes per frame before failing (default 0)
+ * </pre>
+ */
+public final class AllocationBudget {
+
+    /** Where allocated bytes are charged. */
+    public enum Phase {
+        CPU, APU, CARTRIDGE, TIMER, PPU, DMA_SERIAL
+    }
+
+    public record Options(Path rom, int frames, int warmup, String hardware, boolean audio, long budget) {
+    }
+
+    /**
+     * Allocation over the measured frames. {@code firstAllocatingFrame} is
+     * -1 when no frame allocated.
+     */
+    public record Report(int frames, long totalBytes, long maxFrameBytes, int allocatingFrames,
+            int firstAllocatingFrame, Map<Phase, Long> bytesByPhase, long gcCount) {
+
+        public boolean withinBudget(long bytesPerFrame) {
+            return maxFrameBytes <= bytesPerFrame;
+        }
+    }
+
+    private AllocationBudget() {
+    }
+
+    /** Whether this JVM can count allocations per thread. */
+    public static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported();
+    }
+
+    /** Loads the ROM into a fresh deterministic machine and measures it. */
+    public static Report measure(Options options) throws IOException {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS.withHardware(options.hardware()));
+        gbc.setDeterministic(0);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, !options.audio());
+        gbc.insertCartridge(Headless.loadCartridge(options.rom()));
+        return measure(gbc, options.warmup(), options.frames());
+    }
+
+    /**
+     * Runs {@code warmup} frames, then measures {@code frames} more on the
+     * calling thread. The machine keeps running from wherever it is.
+     */
+    public static Report measure(GameBoyColor gbc, int warmup, int frames) {
+        if (!isSupported()) {
+            throw new IllegalStateException("This JVM cannot count allocations per thread");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Memory memory = gbc.getMemory();
+        PhaseProbe probe = new PhaseProbe(threads);
+        long total = 0;
+        long max = 0;
+        int allocating = 0;
+        int first = -1;
+        long gcCount;
+        // Warmed up with the probe in place, so its own first use and the
+        // code paths it adds are not what gets measured
+        memory.setPeripheralProbe(probe);
+        try {
+            for (int i = 0; i < Math.max(1, warmup); i++) {
+                gbc.runToVBlank();
+            }
+            probe.reset();
+            gcCount = Headless.gcCount();
+            for (int frame = 0; frame < frames; frame++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                gbc.runToVBlank();
+                long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+                total += bytes;
+                if (bytes > 0) {
+                    max = Math.max(max, bytes);
+                    allocating++;
+                    if (first < 0) {
+                        first = frame;
+                    }
+                }
+            }
+            gcCount = Headless.gcCount() - gcCount;
+        } finally {
+            memory.setPeripheralProbe(null);
+        }
+
+        Map<Phase, Long> byPhase = new EnumMap<>(Phase.class);
+        long peripherals = 0;
+        for (Memory.PeripheralProbe.Peripheral peripheral : Memory.PeripheralProbe.Peripheral.values()) {
+            long bytes = probe.bytes[peripheral.ordinal()];
+            byPhase.put(Phase.valueOf(peripheral.name()), bytes);
+            peripherals += bytes;
+        }
+        byPhase.put(Phase.CPU, Math.max(0, total - peripherals));
+        return new Report(frames, total, max, allocating, first, byPhase, gcCount);
+    }
+
+    /** Accumulates the thread's allocation between each enter/exit pair. */
+    private static final class PhaseProbe implements Memory.PeripheralProbe {
+        private final com.sun.management.ThreadMXBean threads;
+        private final long[] bytes = new long[Peripheral.values().length];
+        private long start;
+
+        PhaseProbe(com.sun.management.ThreadMXBean threads) {
+            this.threads = threads;
+        }
+
+        void reset() {
+            Arrays.fill(bytes, 0);
+        }
+
+        @Override
+        public void enter() {
+            start = threads.getCurrentThreadAllocatedBytes();
+        }
+
+        @Override
+        public void exit(Peripheral peripheral) {
+            bytes[peripheral.ordinal()] += threads.getCurrentThreadAllocatedBytes() - start;
+        }
+    }
+
+    static String describe(Report report) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "%d frames: %d bytes allocated, %d frames allocated (max %d bytes/frame), %d GCs",
+                report.frames(), report.totalBytes(), report.allocatingFrames(), report.maxFrameBytes(),
+                report.gcCount()));
+        if (report.firstAllocatingFrame() >= 0) {
+            sb.append(", first at frame ").append(report.firstAllocatingFrame());
+        }
+        sb.append("\n ");
+        report.bytesByPhase().forEach((phase, bytes) -> sb.append(' ').append(phase).append(' ').append(bytes));
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = parse(List.of(args));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: AllocationBudget [--frames N] [--warmup N] [--hardware MODE] [--audio]"
+                    + " [--budget BYTES] <rom>");
+            return 2;
+        }
+        Headless.quietEmulatorLogging();
+        try {
+            Report report = measure(options);
+            out.println(options.rom() + ": " + describe(report));
+            if (!report.withinBudget(options.budget())) {
+                err.println("Over budget: " + report.maxFrameBytes() + " bytes in one frame, budget "
+                        + options.budget());
+                return 1;
+            }
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            err.println("Allocation measurement failed: " + e);
+            return 1;
+        }
+    }
+
+    static Options parse(List<String> args) {
+        Path rom = null;
+        int frames = 600;
+        int warmup = 600;
+        String hardware = "auto";
+        boolean audio = false;
+        long budget = 0;
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            switch (arg) {
+                case "--frames" -> frames = Integer.parseInt(Headless.value(args, ++i, arg));
+                case "--warmup" -> warmup = Integer.parseInt(Headless.value(args, ++i, arg));
+                case "--hardware" -> hardware = Headless.value(args, ++i, arg);
+                case "--audio" -> audio = true;
+                case "--budget" -> budget = Long.parseLong(Headless.value(args, ++i, arg));
+                default -> {
+                    if (arg.startsWith("--") || rom != null) {
+                        throw new IllegalArgumentException("Unexpected argument: " + arg);
+                    }
+                    rom = Path.of(arg);
+                }
+            }
+        }
+        if (rom == null) {
+            throw new IllegalArgumentException("No ROM given");
+        }
+        if (frames <= 0) {
+            throw new IllegalArgumentException("--frames must be positive");
+        }
+        Headless.checkRom(rom);
+        return new Options(rom, frames, Math.max(0, warmup), hardware, audio, Math.max(0, budget));
+    }
+}
@@ -0,0 +1,142 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes batch results as JSON, for scripts and dashboards, or as a JUnit
+ * XML suite, which CI servers pick up like any other test report.
+ */
+public final class BatchReport {
+
+    private BatchReport() {
+    }
+
+    public static String toJson(List<RomResult> results, long totalMillis) {
+        long passed = results.stream().filter(RomResult::passed).count();
+        StringBuilder sb = new StringBuilder(256 + results.size() * 256);
+        sb.append("{\n");
+        sb.append("  \"total\": ").append(results.size()).append(",\n");
+        sb.append("  \"passed\": ").append(passed).append(",\n");
+        sb.append("  \"wallMillis\": ").append(totalMillis).append(",\n");
+        sb.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            RomResult r = results.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"rom\": ").append(jsonString(r.rom().toString()))
+                    .append(", \"status\": ").append(jsonString(r.status().name()))
+                    .append(", \"detector\": ").append(jsonString(r.detector()))
+                    .append(", \"frames\": ").append(r.frames())
+                    .append(", \"cycles\": ").append(r.cycles())
+                    .append(", \"wallMillis\": ").append(r.wallMillis())
+                    .append(", \"frameHash\": ").append(jsonString(r.frameHash()))
+                    .append(", \"detail\": ").append(jsonString(r.detail()))
+                    .append('}');
+        }
+        sb.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public static String toJUnitXml(String suiteName, List<RomResult> results, long totalMillis) {
+        long failures = results.stream()
+                .filter(r -> r.status() == RomResult.Status.FAILED || r.status() == RomResult.Status.TIMEOUT)
+                .count();
+        long errors = results.stream().filter(r -> r.status() == RomResult.Status.ERROR).count();
+        StringBuilder sb = new StringBuilder(256 + results.size() * 256);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<testsuite name=\"").append(xml(suiteName))
+                .append("\" tests=\"").append(results.size())
+                .append("\" failures=\"").append(failures)
+                .append("\" errors=\"").append(errors)
+                .append("\" time=\"").append(seconds(totalMillis)).append("\">\n");
+        for (RomResult r : results) {
+            Path parent = r.rom().getParent();
+            sb.append("  <testcase classname=\"").append(xml(parent == null ? suiteName : parent.toString()))
+                    .append("\" name=\"").append(xml(r.rom().getFileName().toString()))
+                    .append("\" time=\"").append(seconds(r.wallMillis())).append('"');
+            String message = r.status() + " after " + r.frames() + " frames, " + r.cycles() + " cycles";
+            switch (r.status()) {
+                case PASSED -> sb.append("/>\n");
+                case FAILED, TIMEOUT -> sb.append(">\n    <failure message=\"").append(xml(message)).append("\">")
+                        .append(xml(r.detail())).append("</failure>\n  </testcase>\n");
+                case ERROR -> sb.append(">\n    <error message=\"").append(xml(message)).append("\">")
+                        .append(xml(r.detail())).append("</error>\n  </testcase>\n");
+            }
+        }
+        sb.append("</testsuite>\n");
+        return sb.toString();
+    }
+
+    public static void writeJson(List<RomResult> results, long totalMillis, Path path) throws IOException {
+        write(path, toJson(results, totalMillis));
+    }
+
+    public static void writeJUnitXml(String suiteName, List<RomResult> results, long totalMillis, Path path)
+            throws IOException {
+        write(path, toJUnitXml(suiteName, results, totalMillis));
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String xml(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\n' || c == '\t') {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
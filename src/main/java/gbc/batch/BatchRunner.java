@@ -0,0 +1,320 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import gbc.controller.io.RomLoader;
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+
+/**
+ * Headless runner for test ROMs and game smoke tests. Each ROM gets its own
+ * {@link GameBoyColor} on a worker thread, runs frame by frame until one of
+ * the {@link Detectors} decides or a budget runs out, and ends up as a
+ * {@link RomResult}. Runs are deterministic: fixed power-on state, frozen
+ * cartridge clock and no SRAM loaded from disk.
+ *
+ * <p>
+ * Command line:
+ *
+ * <pre>
+ * java -cp gbjava.jar gbc.batch.BatchRunner [options] &lt;rom|dir|glob&gt;...
+ *   --detect LIST   serial, fibonacci, ldbb, hash=&lt;sha256&gt; (default serial,fibonacci);
+ *                   ldbb with hashes checks the image once acid2 signals it is done
+ *   --hardware MODE auto, dmg, cgb, ... (default auto)
+ *   --frames N      frame budget per ROM (default 36000)
+ *   --cycles N      cycle budget per ROM, 0 for none (default 0)
+ *   --timeout-ms N  wall-time budget per ROM, 0 for none (default 60000)
+ *   --seed N        power-on seed (default 0)
+ *   --threads N     worker threads (default: all cores)
+ *   --json FILE     write a JSON report
+ *   --junit FILE    write a JUnit XML report
+ *   --suite NAME    test suite name in the JUnit report (default gbc-batch)
+ *   --verbose       keep the emulator's INFO logging
+ * </pre>
+ *
+ * Exits with 0 when every ROM passed, 1 otherwise and 2 on bad arguments.
+ */
+public final class BatchRunner {
+    private static final Logger LOGGER = Logger.getLogger(BatchRunner.class.getName());
+
+    /** Per-ROM limits; zero or less means unlimited. */
+    public record Budget(long frames, long cycles, long wallMillis) {
+        public static final Budget DEFAULT = new Budget(36_000, 0, 60_000);
+    }
+
+    private final CoreConfig config;
+    private final List<String> detectors;
+    private final Budget budget;
+    private final long seed;
+    private final int threads;
+    private final RomLoader romLoader = new RomLoader();
+
+    public BatchRunner(CoreConfig config, List<String> detectors, Budget budget, long seed, int threads) {
+        if (detectors.isEmpty()) {
+            throw new IllegalArgumentException("At least one detector is required");
+        }
+        Detectors.createAll(detectors); // fail fast on unknown names
+        this.config = config;
+        this.detectors = List.copyOf(detectors);
+        this.budget = budget;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+    }
+
+    /** Runs every ROM and returns the results in the order given. */
+    public List<RomResult> run(List<Path> roms) {
+        return run(roms, result -> {
+        });
+    }
+
+    /**
+     * Runs every ROM, calling {@code onResult} from the worker threads as
+     * each one finishes, and returns the results in the order given.
+     */
+    public List<RomResult> run(List<Path> roms, Consumer<RomResult> onResult) {
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, roms.size())), r -> {
+            Thread t = new Thread(r, "gbc-batch-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<CompletableFuture<RomResult>> futures = new ArrayList<>(roms.size());
+            for (Path rom : roms) {
+                futures.add(CompletableFuture.supplyAsync(() -> runRom(rom), pool)
+                        .whenComplete((result, error) -> {
+                            if (result != null) {
+                                onResult.accept(result);
+                            }
+                        }));
+            }
+            List<RomResult> results = new ArrayList<>(roms.size());
+            for (CompletableFuture<RomResult> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Runs a single ROM on the calling thread. */
+    public RomResult runRom(Path rom) {
+        long start = System.nanoTime();
+        GameBoyColor gbc = null;
+        long frames = 0;
+        long cycles = 0;
+        try {
+            gbc = new GameBoyColor(config);
+            gbc.setDeterministic(seed);
+            gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+            gbc.insertCartridge(romLoader.load(rom));
+
+            List<Detector> active = Detectors.createAll(detectors);
+            for (Detector detector : active) {
+                detector.attach(gbc);
+            }
+
+            while (true) {
+                cycles += gbc.runToVBlank();
+                frames++;
+                for (Detector detector : active) {
+                    Detector.Verdict verdict = detector.check(gbc);
+                    if (verdict != null) {
+                        return result(rom, verdict.passed() ? RomResult.Status.PASSED : RomResult.Status.FAILED,
+                                detector.name(), verdict.detail(), frames, cycles, start, gbc);
+                    }
+                }
+                String exhausted = exhaustedBudget(frames, cycles, start);
+                if (exhausted != null) {
+                    return result(rom, RomResult.Status.TIMEOUT, null, exhausted + " budget exhausted", frames,
+                            cycles, start, gbc);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, e, () -> "Batch run failed for " + rom);
+            return result(rom, RomResult.Status.ERROR, null, String.valueOf(e), frames, cycles, start, null);
+        } finally {
+            if (gbc != null) {
+                gbc.closeTrace();
+            }
+        }
+    }
+
+    private String exhaustedBudget(long frames, long cycles, long start) {
+        if (budget.frames() > 0 && frames >= budget.frames()) {
+            return "frame";
+        }
+        if (budget.cycles() > 0 && cycles >= budget.cycles()) {
+            return "cycle";
+        }
+        if (budget.wallMillis() > 0 && System.nanoTime() - start >= budget.wallMillis() * 1_000_000L) {
+            return "wall-time";
+        }
+        return null;
+    }
+
+    private static RomResult result(Path rom, RomResult.Status status, String detector, String detail, long frames,
+            long cycles, long start, GameBoyColor gbc) {
+        String hash = gbc == null ? null : Detectors.frameHash(gbc.getFrameBuffer());
+        return new RomResult(rom, status, detector, detail, frames, cycles, (System.nanoTime() - start) / 1_000_000,
+                hash);
+    }
+
+    /**
+     * Expands ROM arguments: plain files are kept, directories contribute
+     * their {@code .gb}/{@code .gbc} files recursively and glob patterns are
+     * matched below their first literal directory.
+     */
+    public static List<Path> expand(List<String> patterns) throws IOException {
+        Set<Path> roms = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            int glob = firstGlobChar(pattern);
+            if (glob < 0) {
+                Path path = Path.of(pattern);
+                if (Files.isDirectory(path)) {
+                    roms.addAll(walk(path, BatchRunner::isRom));
+                } else {
+                    roms.add(path);
+                }
+                continue;
+            }
+            int slash = Math.max(pattern.lastIndexOf('/', glob), pattern.lastIndexOf('\\', glob));
+            Path root = slash < 0 ? Path.of("") : Path.of(pattern.substring(0, slash + 1));
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            if (Files.isDirectory(slash < 0 ? Path.of(".") : root)) {
+                roms.addAll(walk(root, matcher));
+            }
+        }
+        return new ArrayList<>(roms);
+    }
+
+    private static List<Path> walk(Path root, PathMatcher matcher) throws IOException {
+        Path start = root.toString().isEmpty() ? Path.of(".") : root;
+        try (Stream<Path> files = Files.walk(start)) {
+            return files.filter(Files::isRegularFile)
+                    .map(p -> root.toString().isEmpty() ? start.relativize(p) : p)
+                    .filter(matcher::matches)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .toList();
+        }
+    }
+
+    private static boolean isRom(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".gb") || name.endsWith(".gbc");
+    }
+
+    private static int firstGlobChar(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("*?[{".indexOf(pattern.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /** Command-line entry without the exit, returning the exit status. */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        List<String> detectors = List.of("serial", "fibonacci");
+        String hardware = "auto";
+        long frames = Budget.DEFAULT.frames();
+        long cycles = Budget.DEFAULT.cycles();
+        long timeoutMs = Budget.DEFAULT.wallMillis();
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path json = null;
+        Path junit = null;
+        String suite = "gbc-batch";
+        boolean verbose = false;
+        List<String> patterns = new ArrayList<>();
+        List<String> argList = List.of(args);
+        try {
+            for (int i = 0; i < argList.size(); i++) {
+                String arg = argList.get(i);
+                switch (arg) {
+                    case "--detect" -> detectors = List.of(Headless.value(argList, ++i, arg).split(","));
+                    case "--hardware" -> hardware = Headless.value(argList, ++i, arg);
+                    case "--frames" -> frames = Long.parseLong(Headless.value(argList, ++i, arg));
+                    case "--cycles" -> cycles = Long.parseLong(Headless.value(argList, ++i, arg));
+                    case "--timeout-ms" -> timeoutMs = Long.parseLong(Headless.value(argList, ++i, arg));
+                    case "--seed" -> seed = Long.parseLong(Headless.value(argList, ++i, arg));
+                    case "--threads" -> threads = Integer.parseInt(Headless.value(argList, ++i, arg));
+                    case "--json" -> json = Path.of(Headless.value(argList, ++i, arg));
+                    case "--junit" -> junit = Path.of(Headless.value(argList, ++i, arg));
+                    case "--suite" -> suite = Headless.value(argList, ++i, arg);
+                    case "--verbose" -> verbose = true;
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        patterns.add(arg);
+                    }
+                }
+            }
+            if (patterns.isEmpty()) {
+                throw new IllegalArgumentException("No ROMs given");
+            }
+            if (!verbose) {
+                Headless.quietEmulatorLogging();
+            }
+
+            List<Path> roms = expand(patterns);
+            BatchRunner runner = new BatchRunner(CoreConfig.fromSystemProperties().withHardware(hardware), detectors,
+                    new Budget(frames, cycles, timeoutMs), seed, threads);
+
+            long start = System.nanoTime();
+            List<RomResult> results = runner.run(roms, result -> {
+                synchronized (out) {
+                    out.printf(Locale.ROOT, "%-7s %8.2fs %6d frames  %s%n", result.status(),
+                            result.wallMillis() / 1000.0, result.frames(), result.rom());
+                }
+            });
+            long totalMillis = (System.nanoTime() - start) / 1_000_000;
+
+            long passed = results.stream().filter(RomResult::passed).count();
+            out.printf(Locale.ROOT, "%d/%d passed in %.2fs on %d threads%n", passed, results.size(),
+                    totalMillis / 1000.0, threads);
+            if (json != null) {
+                BatchReport.writeJson(results, totalMillis, json);
+            }
+            if (junit != null) {
+                BatchReport.writeJUnitXml(suite, results, totalMillis, junit);
+            }
+            return passed == results.size() ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: BatchRunner [--detect serial,fibonacci,ldbb,hash=<sha256>] [--hardware MODE]"
+                    + " [--frames N] [--cycles N] [--timeout-ms N] [--seed N] [--threads N]"
+                    + " [--json FILE] [--junit FILE] [--suite NAME] [--verbose] <rom|dir|glob>...");
+            return 2;
+        } catch (IOException e) {
+            err.println("I/O error: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package gbc.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import gbc.controller.io.MovieFile;
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+import gbc.model.state.Movie;
+import gbc.model.state.MoviePlayer;
+
+/**
+ * Measures raw core speed: runs a ROM, or a movie recorded on it, for a
+ * fixed number of frames with no throttle, audio backend or UI, and
+ * reports emulated frames per second, instructions and cycles per second,
+ * allocation and GC activity, and optionally where the host time goes.
+ *
+ * <p>
+ * Every iteration replays the same frames from the same deterministic
+ * starting state. Warmup iterations are run and discarded first; with
+ * {@code --forks} each fork is a fresh JVM, so JIT decisions are sampled
+ * several times as well.
+ *
+ * <pre>
+ * java -cp gbjava.jar gbc.batch.Benchmark [options] &lt;rom | workload:NAME&gt;
+ *   --movie FILE     replay this movie instead of running from power-on
+ *   --frames N       frames per iteration (default 3600)
+ *   --warmup N       warmup iterations per fork (default 2)
+ *   --iterations N   measured iterations per fork (default 5)
+ *   --forks N        separate JVMs to run in, 0 for this one (default 1)
+ *   --hardware MODE  auto, dmg, cgb, ... (default auto)
+ *   --profile        sample host time by subsystem (CPU, PPU, APU, ...)
+ * </pre>
+ */
+public final class Benchmark {
+    private static final double DMG_FPS = 4_194_304.0 / 70224;
+    private static final String CHILD_FLAG = "--fork-child";
+    private static final String ITERATION_LINE = "#iteration";
+    private static final String PROFILE_LINE = "#profile";
+
+    /** Host-side subsystems time is attributed to when profiling. */
+    public enum Subsystem {
+        CPU, PPU, APU, TIMER, MEMORY, CARTRIDGE, OTHER
+    }
+
+    public record Options(Path rom, Path movie, int frames, int warmup, int iterations, int forks, String hardware,
+            boolean profile) {
+    }
+
+    /** One measured iteration. Allocation is -1 when the JVM cannot report it. */
+    public record Iteration(long frames, long steps, long cycles, long nanos, long allocatedBytes, long gcCount,
+            long gcMillis) {
+
+        public double framesPerSecond() {
+            return frames * 1e9 / nanos;
+        }
+
+        public double mips() {
+            return steps * 1e3 / nanos;
+        }
+
+        public double cyclesPerSecond() {
+            return cycles * 1e9 / nanos;
+        }
+
+        public double allocatedBytesPerSecond() {
+            return allocatedBytes < 0 ? -1 : allocatedBytes * 1e9 / nanos;
+        }
+    }
+
+    /** Iterations from every fork plus the subsystem samples, if profiled. */
+    public record Report(List<Iteration> iterations, Map<Subsystem, Long> samples) {
+
+        public double meanFramesPerSecond() {
+            return iterations.stream().mapToDouble(Iteration::framesPerSecond).average().orElse(0);
+        }
+
+        public double stddevFramesPerSecond() {
+            double mean = meanFramesPerSecond();
+            return Math.sqrt(iterations.stream()
+                    .mapToDouble(i -> (i.framesPerSecond() - mean) * (i.framesPerSecond() - mean))
+                    .average().orElse(0));
+        }
+    }
+
+    private Benchmark() {
+    }
+
+    /** Runs the warmup and measured iterations in this JVM. */
+    public static Report measure(Options options) throws IOException {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS.withHardware(options.hardware()));
+        gbc.setDeterministic(0);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        gbc.insertCartridge(Headless.loadCartridge(options.rom()));
+        Movie movie = options.movie() == null ? null : MovieFile.read(options.movie());
+        byte[] start = gbc.snapshot();
+
+        for (int i = 0; i < options.warmup(); i++) {
+            runIteration(gbc, start, movie, options.frames());
+        }
+
+        SubsystemSampler sampler = options.profile() ? new SubsystemSampler(Thread.currentThread()) : null;
+        if (sampler != null) {
+            sampler.start();
+        }
+        List<Iteration> iterations = new ArrayList<>(options.iterations());
+        try {
+            for (int i = 0; i < options.iterations(); i++) {
+                iterations.add(runIteration(gbc, start, movie, options.frames()));
+            }
+        } finally {
+            if (sampler != null) {
+                sampler.interrupt();
+                try {
+                    sampler.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return new Report(iterations, sampler == null ? Map.of() : sampler.counts());
+    }
+
+    private static Iteration runIteration(GameBoyColor gbc, byte[] start, Movie movie, int frames) {
+        MoviePlayer player = null;
+        if (movie != null) {
+            player = new MoviePlayer(movie, gbc);
+        } else {
+            gbc.restore(start);
+        }
+        long steps = gbc.getStepCount();
+        long cycles = gbc.getCycleCount();
+        long allocated = allocatedBytes();
+        long gcCount = Headless.gcCount();
+        long gcMillis = Headless.gcMillis();
+        long begin = System.nanoTime();
+
+        int frame = 0;
+        for (; frame < frames; frame++) {
+            if (player != null) {
+                if (!player.run(70224)) {
+                    break;
+                }
+            } else {
+                gbc.runToVBlank();
+            }
+        }
+
+        long nanos = System.nanoTime() - begin;
+        long allocatedAfter = allocatedBytes();
+        return new Iteration(frame, gbc.getStepCount() - steps, gbc.getCycleCount() - cycles, Math.max(1, nanos),
+                allocated < 0 ? -1 : allocatedAfter - allocated, Headless.gcCount() - gcCount,
+                Headless.gcMillis() - gcMillis);
+    }
+
+    /** Runs {@code options.forks()} child JVMs and collects their iterations. */
+    static Report measureInForks(Options options, PrintStream log) throws IOException {
+        List<Iteration> iterations = new ArrayList<>();
+        Map<Subsystem, Long> samples = new EnumMap<>(Subsystem.class);
+        String java = ProcessHandle.current().info().command().orElse("java");
+        for (int fork = 1; fork <= options.forks(); fork++) {
+            List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                    Benchmark.class.getName(), CHILD_FLAG));
+            command.addAll(toArgs(options));
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(ITERATION_LINE)) {
+                        Iteration iteration = parseIteration(line);
+                        iterations.add(iteration);
+                        log.println(String.format(Locale.ROOT, "fork %d: %s", fork, describe(iteration)));
+                    } else if (line.startsWith(PROFILE_LINE)) {
+                        parseProfile(line).forEach((k, v) -> samples.merge(k, v, Long::sum));
+                    }
+                }
+            }
+            try {
+                int exit = process.waitFor();
+                if (exit != 0) {
+                    throw new IOException("Benchmark fork " + fork + " exited with " + exit);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+                throw new IOException("Interrupted waiting for benchmark fork", e);
+            }
+        }
+        return new Report(iterations, samples);
+    }
+
+    static String formatIteration(Iteration i) {
+        return String.join(" ", ITERATION_LINE, Long.toString(i.frames()), Long.toString(i.steps()),
+                Long.toString(i.cycles()), Long.toString(i.nanos()), Long.toString(i.allocatedBytes()),
+                Long.toString(i.gcCount()), Long.toString(i.gcMillis()));
+    }
+
+    static Iteration parseIteration(String line) {
+        String[] parts = line.trim().split(" ");
+        if (parts.length != 8 || !ITERATION_LINE.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed iteration line: " + line);
+        }
+        return new Iteration(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                Long.parseLong(parts[4]), Long.parseLong(parts[5]), Long.parseLong(parts[6]),
+                Long.parseLong(parts[7]));
+    }
+
+    static String formatProfile(Map<Subsystem, Long> samples) {
+        StringBuilder sb = new StringBuilder(PROFILE_LINE);
+        samples.forEach((k, v) -> sb.append(' ').append(k.name()).append('=').append(v));
+        return sb.toString();
+    }
+
+    static Map<Subsystem, Long> parseProfile(String line) {
+        Map<Subsystem, Long> samples = new EnumMap<>(Subsystem.class);
+        String[] parts = line.trim().split(" ");
+        for (int i = 1; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            samples.put(Subsystem.valueOf(parts[i].substring(0, eq)), Long.parseLong(parts[i].substring(eq + 1)));
+        }
+        return samples;
+    }
+
+    static String describe(Iteration i) {
+        String alloc = i.allocatedBytes() < 0 ? "n/a"
+                : String.format(Locale.ROOT, "%.1f MB/s", i.allocatedBytesPerSecond() / (1024 * 1024));
+        return String.format(Locale.ROOT,
+                "%.1f fps (%.2fx), %.2f MIPS, %.2f Mcycles/s, alloc %s, %d GCs (%d ms)",
+                i.framesPerSecond(), i.framesPerSecond() / DMG_FPS, i.mips(), i.cyclesPerSecond() / 1e6, alloc,
+                i.gcCount(), i.gcMillis());
+    }
+
+    static void printSummary(Options options, Report report, PrintStream out) {
+        List<Iteration> iterations = report.iterations();
+        if (iterations.isEmpty()) {
+            out.println("No iterations measured");
+            return;
+        }
+        double mean = report.meanFramesPerSecond();
+        double stddev = report.stddevFramesPerSecond();
+        double mips = iterations.stream().mapToDouble(Iteration::mips).average().orElse(0);
+        double cps = iterations.stream().mapToDouble(Iteration::cyclesPerSecond).average().orElse(0);
+        double alloc = iterations.stream().mapToDouble(Iteration::allocatedBytesPerSecond).average().orElse(-1);
+        long gcs = iterations.stream().mapToLong(Iteration::gcCount).sum();
+        out.printf(Locale.ROOT, "%s: %d iterations of %d frames%n", options.rom().getFileName(), iterations.size(),
+                iterations.get(0).frames());
+        out.printf(Locale.ROOT, "  %.1f fps +- %.1f (%.1f%%), %.2fx real time%n", mean, stddev,
+                mean == 0 ? 0 : stddev * 100 / mean, mean / DMG_FPS);
+        out.printf(Locale.ROOT, "  %.2f MIPS, %.2f Mcycles/s%n", mips, cps / 1e6);
+        out.printf(Locale.ROOT, "  allocation %s, %d GCs while measuring%n",
+                alloc < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f MB/s", alloc / (1024 * 1024)), gcs);
+        long total = report.samples().values().stream().mapToLong(Long::longValue).sum();
+        if (total > 0) {
+            StringBuilder sb = new StringBuilder("  host time:");
+            report.samples().entrySet().stream()
+                    .sorted(Map.Entry.<Subsystem, Long>comparingByValue().reversed())
+                    .forEach(e -> sb.append(String.format(Locale.ROOT, " %s %.1f%%", e.getKey(),
+                            e.getValue() * 100.0 / total)));
+            out.println(sb.append(" (").append(total).append(" samples)"));
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        boolean child = args.length > 0 && CHILD_FLAG.equals(args[0]);
+        Options options;
+        try {
+            options = parse(child ? List.of(args).subList(1, args.length) : List.of(args));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: Benchmark [--movie FILE] [--frames N] [--warmup N] [--iterations N] [--forks N]"
+                    + " [--hardware MODE] [--profile] <rom>");
+            return 2;
+        }
+        Headless.quietEmulatorLogging();
+        try {
+            if (child) {
+                Report report = measure(options);
+                report.iterations().forEach(i -> out.println(formatIteration(i)));
+                out.println(formatProfile(report.samples()));
+                return 0;
+            }
+            Report report;
+            if (options.forks() > 0) {
+                report = measureInForks(options, out);
+            } else {
+                report = measure(options);
+                report.iterations().forEach(i -> out.println(describe(i)));
+            }
+            printSummary(options, report, out);
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            err.println("Benchmark failed: " + e);
+            return 1;
+        }
+    }
+
+    static Options parse(List<String> args) {
+        Path rom = null;
+        Path movie = null;
+        int frames = 3600;
+        int warmup = 2;
+        int iterations = 5;
+        int forks = 1;
+        String hardware = "auto";
+        boolean profile = false;
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            switch (arg) {
+                case "--movie" -> movie = Path.of(Headless.value(args, ++i, arg));
+                case "--frames" -> frames = positive(Headless.value(args, ++i, arg), arg);
+                case "--warmup" -> warmup = Integer.parseInt(Headless.value(args, ++i, arg));
+                case "--iterations" -> iterations = positive(Headless.value(args, ++i, arg), arg);
+                case "--forks" -> forks = Integer.parseInt(Headless.value(args, ++i, arg));
+                case "--hardware" -> hardware = Headless.value(args, ++i, arg);
+                case "--profile" -> profile = true;
+                default -> {
+                    if (arg.startsWith("--") || rom != null) {
+                        throw new IllegalArgumentException("Unexpected argument: " + arg);
+                    }
+                    rom = Path.of(arg);
+                }
+            }
+        }
+        if (rom == null) {
+            throw new IllegalArgumentException("No ROM given");
+        }
+        Headless.checkRom(rom);
+        return new Options(rom, movie, frames, Math.max(0, warmup), iterations, Math.max(0, forks), hardware,
+                profile);
+    }
+
+    private static List<String> toArgs(Options options) {
+        List<String> args = new ArrayList<>();
+        if (options.movie() != null) {
+            args.addAll(List.of("--movie", options.movie().toString()));
+        }
+        args.addAll(List.of("--frames", Integer.toString(options.frames()),
+                "--warmup", Integer.toString(options.warmup()),
+                "--iterations", Integer.toString(options.iterations()),
+                "--hardware", options.hardware()));
+        if (options.profile()) {
+            args.add("--profile");
+        }
+        args.add(options.rom().toString());
+        return args;
+    }
+
+    private static int positive(String value, String option) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        return parsed;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Samples the benchmark thread's stack once a millisecond and attributes
+     * each sample to the subsystem of the innermost emulator frame. Sampling
+     * keeps the hot paths free of timing calls; the price is safepoint bias
+     * and a small overhead, which is why it is opt-in.
+     */
+    private static final class SubsystemSampler extends Thread {
+        private final Thread target;
+        private final long[] counts = new long[Subsystem.values().length];
+
+        SubsystemSampler(Thread target) {
+            super("gbc-benchmark-sampler");
+            setDaemon(true);
+            this.target = target;
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                counts[classify(target.getStackTrace()).ordinal()]++;
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        Map<Subsystem, Long> counts() {
+            Map<Subsystem, Long> result = new EnumMap<>(Subsystem.class);
+            for (Subsystem subsystem : Subsystem.values()) {
+                if (counts[subsystem.ordinal()] > 0) {
+                    result.put(subsystem, counts[subsystem.ordinal()]);
+                }
+            }
+            return result;
+        }
+
+        private static Subsystem classify(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                String name = frame.getClassName();
+                if (!name.startsWith("gbc.model.")) {
+                    continue;
+                }
+                if (name.startsWith("gbc.model.cpu.")) {
+                    return Subsystem.CPU;
+                }
+                if (name.startsWith("gbc.model.graphics.")) {
+                    return Subsystem.PPU;
+                }
+                if (name.startsWith("gbc.model.sound.")) {
+                    return Subsystem.APU;
+                }
+                if (name.startsWith("gbc.model.timer.")) {
+                    return Subsystem.TIMER;
+                }
+                if (name.startsWith("gbc.model.memory.")) {
+                    return Subsystem.MEMORY;
+                }
+                if (name.startsWith("gbc.model.cartridge.")) {
+                    return Subsystem.CARTRIDGE;
+                }
+                return Subsystem.OTHER;
+            }
+            return Subsystem.OTHER;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package gbc.batch;
+
+import gbc.model.GameBoyColor;
+
+/**
+ * Decides when a ROM has finished and whether it passed. The batch runner
+ * calls {@link #attach} once the cartridge is inserted and {@link #check}
+ * after every frame, so detectors stay off the per-instruction path; the
+ * ones that must see a single instruction hook into the machine instead.
+ * Instances hold per-run state and are never shared between ROMs.
+ */
+public interface Detector {
+
+    /** Outcome reported by a detector. */
+    record Verdict(boolean passed, String detail) {
+    }
+
+    /** Name used on the command line and in reports. */
+    String name();
+
+    default void attach(GameBoyColor gbc) {
+    }
+
+    /** Returns null while the ROM has not finished. */
+    Verdict check(GameBoyColor gbc);
+}
@@ -0,0 +1,224 @@
+package gbc.batch;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import gbc.model.GameBoyColor;
+import gbc.model.cpu.Registers;
+import gbc.model.graphics.FrameBuffer;
+
+/**
+ * The completion detectors the batch runner understands:
+ * <ul>
+ * <li>{@code serial}: Blargg's "Passed"/"Failed" on the serial port</li>
+ * <li>{@code fibonacci}: Mooneye's B,C,D,E,H,L = 3,5,8,13,21,34 signature,
+ * or 0x42 in all six on failure</li>
+ * <li>{@code ldbb}: the {@code LD B,B} breakpoint acid2 executes when its
+ * image is complete, passing one frame later</li>
+ * <li>{@code hash=<sha256>}: the frame buffer matching a known image</li>
+ * </ul>
+ * Given together, {@code ldbb} decides when the image is complete and the
+ * hashes whether it is right: the run fails if the frame then matches none
+ * of them.
+ */
+public final class Detectors {
+
+    private Detectors() {
+    }
+
+    /** Creates a detector from its command-line spelling. */
+    public static Detector create(String spec) {
+        String trimmed = spec.trim();
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("hash=")) {
+            return frameHash(trimmed.substring("hash=".length()));
+        }
+        return switch (lower) {
+            case "serial" -> serial();
+            case "fibonacci", "mooneye" -> fibonacci();
+            case "ldbb", "acid2" -> debugBreak();
+            default -> throw new IllegalArgumentException("Unknown detector: " + spec);
+        };
+    }
+
+    /**
+     * Creates the detectors for a list of specs, folding any {@code hash=}
+     * detectors into an {@code ldbb} one when both are given.
+     */
+    public static List<Detector> createAll(List<String> specs) {
+        List<Detector> detectors = new ArrayList<>(specs.size());
+        Set<String> hashes = new LinkedHashSet<>();
+        boolean debugBreak = false;
+        for (String spec : specs) {
+            Detector detector = create(spec);
+            if (detector instanceof FrameHashDetector hash) {
+                hashes.add(hash.expected);
+            } else if (detector instanceof DebugBreakDetector) {
+                debugBreak = true;
+            }
+            detectors.add(detector);
+        }
+        if (debugBreak && !hashes.isEmpty()) {
+            detectors.removeIf(d -> d instanceof FrameHashDetector || d instanceof DebugBreakDetector);
+            detectors.add(new DebugBreakDetector(hashes));
+        }
+        return detectors;
+    }
+
+    public static Detector serial() {
+        return new SerialDetector();
+    }
+
+    public static Detector fibonacci() {
+        return new FibonacciDetector();
+    }
+
+    public static Detector debugBreak() {
+        return new DebugBreakDetector(Set.of());
+    }
+
+    public static Detector frameHash(String expectedSha256) {
+        return new FrameHashDetector(expectedSha256.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /** SHA-256 of the frame buffer's ARGB pixels, big-endian, in hex. */
+    public static String frameHash(FrameBuffer frameBuffer) {
+        int[] pixels = frameBuffer.getPixels();
+        byte[] bytes = new byte[pixels.length * 4];
+        for (int i = 0, j = 0; i < pixels.length; i++, j += 4) {
+            int pixel = pixels[i];
+            bytes[j] = (byte) (pixel >>> 24);
+            bytes[j + 1] = (byte) (pixel >>> 16);
+            bytes[j + 2] = (byte) (pixel >>> 8);
+            bytes[j + 3] = (byte) pixel;
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class SerialDetector implements Detector {
+        private final StringBuilder output = new StringBuilder();
+        private int scanned;
+
+        @Override
+        public String name() {
+            return "serial";
+        }
+
+        @Override
+        public void attach(GameBoyColor gbc) {
+            gbc.getMemory().setSerialOutputCallback(value -> {
+                if (value >= 0x20 && value < 0x7F || value == '\n' || value == '\r') {
+                    output.append((char) value);
+                }
+            });
+        }
+
+        @Override
+        public Verdict check(GameBoyColor gbc) {
+            // Only look at what arrived since the last frame, plus room for a split word
+            int from = Math.max(0, scanned - "Passed".length());
+            scanned = output.length();
+            if (output.indexOf("Passed", from) >= 0) {
+                return new Verdict(true, output.toString().trim());
+            }
+            if (output.indexOf("Failed", from) >= 0) {
+                return new Verdict(false, output.toString().trim());
+            }
+            return null;
+        }
+    }
+
+    private static final class FibonacciDetector implements Detector {
+        @Override
+        public String name() {
+            return "fibonacci";
+        }
+
+        @Override
+        public Verdict check(GameBoyColor gbc) {
+            Registers registers = gbc.getCpu().getRegisters();
+            int bc = registers.getBC();
+            int de = registers.getDE();
+            int hl = registers.getHL();
+            if (bc == 0x0305 && de == 0x080D && hl == 0x1522) {
+                return new Verdict(true, "Fibonacci registers");
+            }
+            if (bc == 0x4242 && de == 0x4242 && hl == 0x4242) {
+                return new Verdict(false, "failure registers (0x42)");
+            }
+            return null;
+        }
+    }
+
+    private static final class DebugBreakDetector implements Detector {
+        /** Images the final frame must match; empty to pass on the break alone. */
+        private final Set<String> expected;
+        private long breakFrame = -1;
+
+        DebugBreakDetector(Set<String> expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public String name() {
+            return "ldbb";
+        }
+
+        @Override
+        public void attach(GameBoyColor gbc) {
+            FrameBuffer frameBuffer = gbc.getFrameBuffer();
+            gbc.getCpu().setDebugBreakListener(() -> {
+                // acid2 only draws from the second frame on
+                if (breakFrame < 0 && frameBuffer.getFrameId() >= 2) {
+                    breakFrame = frameBuffer.getFrameId();
+                }
+            });
+        }
+
+        @Override
+        public Verdict check(GameBoyColor gbc) {
+            // One more frame so the final image is on screen
+            if (breakFrame < 0 || gbc.getFrameBuffer().getFrameId() <= breakFrame + 1) {
+                return null;
+            }
+            if (expected.isEmpty()) {
+                return new Verdict(true, "LD B,B at frame " + breakFrame);
+            }
+            String hash = frameHash(gbc.getFrameBuffer());
+            return expected.contains(hash)
+                    ? new Verdict(true, "LD B,B at frame " + breakFrame + ", frame buffer matches " + hash)
+                    : new Verdict(false, "LD B,B at frame " + breakFrame + ", unexpected frame buffer " + hash);
+        }
+    }
+
+    private static final class FrameHashDetector implements Detector {
+        private final String expected;
+
+        FrameHashDetector(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public String name() {
+            return "hash";
+        }
+
+        @Override
+        public Verdict check(GameBoyColor gbc) {
+            if (expected.equals(frameHash(gbc.getFrameBuffer()))) {
+                return new Verdict(true, "frame buffer matches " + expected);
+            }
+            return null;
+        }
+    }
+}
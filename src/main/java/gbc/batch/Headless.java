@@ -0,0 +1,74 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import gbc.controller.io.RomLoader;
+import gbc.model.cartridge.Cartridge;
+import gbc.model.cartridge.CartridgeFactory;
+
+/**
+ * Plumbing shared by the command-line tools in this package: emulator
+ * logging, option values, ROM arguments that may name a
+ * {@link WorkloadRom} workload, and collector counters.
+ */
+final class Headless {
+    /** Held so the level set on it is not lost to garbage collection. */
+    private static final Logger EMULATOR_LOGGER = Logger.getLogger("gbc");
+
+    private Headless() {
+    }
+
+    /** Keeps the emulator's INFO logging out of a tool's output. */
+    static void quietEmulatorLogging() {
+        EMULATOR_LOGGER.setLevel(Level.WARNING);
+    }
+
+    /** The value following {@code option}, which sits just before {@code index}. */
+    static String value(List<String> args, int index, String option) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args.get(index);
+    }
+
+    /** Throws unless {@code rom} names a known workload or an existing file. */
+    static void checkRom(Path rom) {
+        if (WorkloadRom.isWorkload(rom.toString())) {
+            WorkloadRom.parse(rom.toString());
+        } else if (!Files.isRegularFile(rom)) {
+            throw new IllegalArgumentException("ROM not found: " + rom);
+        }
+    }
+
+    /** Builds the cartridge for a ROM file or a {@code workload:NAME} argument. */
+    static Cartridge loadCartridge(Path rom) throws IOException {
+        String name = rom.toString();
+        return WorkloadRom.isWorkload(name) ? CartridgeFactory.create(WorkloadRom.build(name))
+                : new RomLoader().load(rom);
+    }
+
+    /** Collections run so far, summed over all collectors. */
+    static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    /** Milliseconds spent collecting so far, summed over all collectors. */
+    static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,202 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import gbc.controller.io.RomLoader;
+import gbc.controller.io.RomStore;
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.HardwareType;
+import gbc.model.sound.Apu;
+
+/**
+ * Reusable machines for test fixtures and batch tools that run many short
+ * scenarios. Building a {@link GameBoyColor} sets up logging and the CPU's
+ * operation tables; a pooled machine skips that and returns to the state
+ * right after the ROM was loaded by restoring a snapshot taken at that
+ * point, or by loading a different ROM into the existing machine. Loaded
+ * ROMs are recognised by content, so copies of one ROM share a snapshot and
+ * a file rewritten in place is loaded again.
+ *
+ * <pre>
+ * long frames = pool.withMachine(rom, HardwareType.DMG, gbc -&gt; runUntilDone(gbc));
+ * </pre>
+ *
+ * <p>
+ * A machine is handed to one caller at a time, so the pool can be shared by
+ * tests running in parallel. Host-side counters that a restore does not
+ * rewind (cycle and step counts, the VBlank count, the frame id) keep
+ * counting across uses; callers measure from their starting values.
+ * Serial output callbacks, frame sinks, peripheral probes and debug break
+ * listeners are removed, and the speed multiplier and audio silencing are
+ * put back, when a machine goes back to the pool. Machines whose settings
+ * the action changed ({@code setConfig}, {@code setDeterministic}, a power-on
+ * seed or hardware type other than the one it was handed out with) are
+ * dropped instead, as are machines with instruction tracing configured,
+ * since the trace follows the first ROM loaded.
+ */
+public final class MachinePool {
+    private static final MachinePool SHARED = new MachinePool(CoreConfig.fromSystemProperties(),
+            2 * Runtime.getRuntime().availableProcessors());
+    private static final String CONFIGURED = "";
+
+    private final CoreConfig config;
+    private final int maxIdle;
+    /** Idle machines by hardware override; {@link #CONFIGURED} for none. */
+    private final Map<String, ConcurrentLinkedDeque<Machine>> idle = new ConcurrentHashMap<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * A machine, its state as built, before any ROM, and the snapshot taken
+     * right after its current ROM, identified by its SHA-256, was loaded.
+     */
+    private static final class Machine {
+        final GameBoyColor gbc;
+        final byte[] empty;
+        final long powerOnSeed;
+        String romHash;
+        byte[] loaded;
+
+        Machine(GameBoyColor gbc) {
+            this.gbc = gbc;
+            this.empty = gbc.snapshot();
+            this.powerOnSeed = gbc.getMemory().getPowerOnSeed();
+        }
+    }
+
+    /**
+     * @param config  configuration every machine is built with
+     * @param maxIdle machines kept for reuse; more may be in use at once
+     */
+    public MachinePool(CoreConfig config, int maxIdle) {
+        this.config = config;
+        this.maxIdle = Math.max(0, maxIdle);
+    }
+
+    /** A pool configured from the system properties, like {@code new GameBoyColor()}. */
+    public static MachinePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs {@code action} on a machine with {@code rom} freshly loaded and
+     * reset, as if by a new {@link GameBoyColor} with {@code hardware} set on
+     * its memory, and returns its result. A null {@code hardware} leaves the
+     * choice to the configuration. The machine must not be used once the
+     * action returns.
+     */
+    public <T> T withMachine(Path rom, HardwareType hardware, Function<GameBoyColor, T> action) throws IOException {
+        String key = hardware == null ? CONFIGURED : hardware.name();
+        String romHash = RomStore.shared().contentHash(rom);
+        Machine machine = acquire(key, romHash);
+        if (machine == null) {
+            GameBoyColor gbc = new GameBoyColor(config);
+            if (hardware != null) {
+                gbc.getMemory().setHardwareType(hardware);
+            }
+            machine = new Machine(gbc);
+            created.incrementAndGet();
+        }
+        load(machine, rom, romHash);
+        try {
+            return action.apply(machine.gbc);
+        } finally {
+            release(key, hardware, machine);
+        }
+    }
+
+    /** Machines built so far; the rest of the uses were served from the pool. */
+    public int created() {
+        return created.get();
+    }
+
+    /** Machines currently waiting for reuse. */
+    public int idle() {
+        return idleCount.get();
+    }
+
+    /** Takes an idle machine, preferring one that already has the ROM loaded. */
+    private Machine acquire(String key, String romHash) {
+        ConcurrentLinkedDeque<Machine> machines = idle.get(key);
+        if (machines == null) {
+            return null;
+        }
+        for (Machine machine : machines) {
+            if (romHash.equals(machine.romHash) && machines.removeFirstOccurrence(machine)) {
+                idleCount.decrementAndGet();
+                return machine;
+            }
+        }
+        Machine machine = machines.pollFirst();
+        if (machine != null) {
+            idleCount.decrementAndGet();
+        }
+        return machine;
+    }
+
+    private static void load(Machine machine, Path rom, String romHash) throws IOException {
+        GameBoyColor gbc = machine.gbc;
+        // The front buffer is not machine state; don't show the last user's frame
+        gbc.getFrameBuffer().clear();
+        if (romHash.equals(machine.romHash)) {
+            gbc.restore(machine.loaded);
+            return;
+        }
+        machine.romHash = null;
+        // Loading a ROM doesn't reset everything the previous one touched
+        if (machine.loaded != null) {
+            gbc.restore(machine.empty);
+        }
+        gbc.insertCartridge(new RomLoader().load(rom));
+        gbc.reset();
+        machine.loaded = gbc.snapshot();
+        machine.romHash = romHash;
+    }
+
+    private void release(String key, HardwareType hardware, Machine machine) {
+        GameBoyColor gbc = machine.gbc;
+        gbc.getMemory().setSerialOutputCallback(null);
+        gbc.getMemory().setPeripheralProbe(null);
+        gbc.getCpu().setDebugBreakListener(null);
+        gbc.setFrameSink(null);
+        gbc.setFrameOutputEnabled(true);
+        gbc.setSpeedMultiplier(1.0f);
+        for (Apu.SilenceReason reason : Apu.SilenceReason.values()) {
+            gbc.setAudioSilenced(reason, false);
+        }
+        if (config.trace()) {
+            gbc.closeTrace();
+            return;
+        }
+        if (!isAsHandedOut(gbc, hardware, machine)) {
+            return;
+        }
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).addFirst(machine);
+    }
+
+    /**
+     * Whether the settings a restore leaves alone are still the ones the
+     * machine was built with, so it can be filed under the same key.
+     */
+    private boolean isAsHandedOut(GameBoyColor gbc, HardwareType hardware, Machine machine) {
+        if (!gbc.getConfig().equals(config) || gbc.isDeterministic()
+                || gbc.getMemory().getPowerOnSeed() != machine.powerOnSeed) {
+            return false;
+        }
+        if (hardware == null) {
+            return !gbc.getMemory().isHardwareOverride();
+        }
+        return gbc.getMemory().isHardwareOverride() && gbc.getMemory().getHardwareType() == hardware;
+    }
+}
@@ -0,0 +1,26 @@
+package gbc.batch;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of one ROM in a batch run.
+ *
+ * @param detector  the detector that decided, or null on timeout or error
+ * @param frameHash SHA-256 of the last frame, see {@link Detectors#frameHash}
+ */
+public record RomResult(Path rom, Status status, String detector, String detail, long frames, long cycles,
+        long wallMillis, String frameHash) {
+
+    public enum Status {
+        PASSED,
+        FAILED,
+        /** A budget ran out before any detector decided. */
+        TIMEOUT,
+        /** The ROM could not be loaded or the emulator threw. */
+        ERROR
+    }
+
+    public boolean passed() {
+        return status == Status.PASSED;
+    }
+}
@@ -0,0 +1,440 @@
+package gbc.batch;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.graphics.FrameBuffer;
+import gbc.model.memory.Memory;
+import gbc.model.sound.Apu;
+
+/**
+ * A vector of headless machines running the same ROM, stepped in lockstep
+ * for automated play and reinforcement learning, in the style of a Gym
+ * vector environment: {@link #reset()}, then repeatedly {@link #step} with
+ * one button mask per machine and read the observations.
+ *
+ * <p>
+ * All observations land in one direct {@link ByteBuffer}, one slot of
+ * {@link #observationSize()} bytes per machine: the screen (grayscale or
+ * RGB, optionally downsampled) followed by the selected memory ranges,
+ * which carry whatever the caller computes rewards from. Machines are
+ * stepped on a fixed set of worker threads that park between steps, and a
+ * step allocates nothing, so long runs never trigger a collection.
+ *
+ * <p>
+ * Machines run deterministically and silent. Only the last frame of a
+ * step is drawn; the frames before it skip colour resolution. Not thread
+ * safe: drive it from one thread.
+ */
+public final class VectorEnvironment implements AutoCloseable {
+    /** How the screen appears in an observation. */
+    public enum Screen {
+        /** Not included; frames are not drawn at all. */
+        NONE(0),
+        /** One byte of luma per pixel. */
+        GRAYSCALE(1),
+        /** Three bytes per pixel, red first. */
+        RGB(3);
+
+        private final int bytesPerPixel;
+
+        Screen(int bytesPerPixel) {
+            this.bytesPerPixel = bytesPerPixel;
+        }
+    }
+
+    /** {@code length} bytes from {@code address}, read as the CPU would without side effects. */
+    public record Range(int address, int length) {
+
+        public Range {
+            if (address < 0 || length <= 0 || address + length > 0x10000) {
+                throw new IllegalArgumentException(
+                        String.format("Bad memory range 0x%04X+%d", address, length));
+            }
+        }
+    }
+
+    /**
+     * A machine captured by {@link #snapshot}, with its observation slot,
+     * since the frame on screen is host-side and not part of machine state.
+     */
+    public record State(byte[] machine, byte[] observation) {
+    }
+
+    /** Decides when an episode is over; called after every step, on a worker thread. */
+    @FunctionalInterface
+    public interface Termination {
+        boolean isDone(GameBoyColor machine, long episodeFrames);
+    }
+
+    /**
+     * Shape of the observations and episodes.
+     *
+     * @param screen           screen encoding
+     * @param downsample       side of the square of pixels averaged into one;
+     *                         must divide 160 and 144
+     * @param ram              memory ranges appended after the screen
+     * @param termination      episode end condition, checked after each step
+     * @param maxEpisodeFrames frames after which an episode is done anyway, 0
+     *                         for no limit
+     * @param threads          worker threads, 0 for one per processor
+     */
+    public record Options(Screen screen, int downsample, List<Range> ram, Termination termination,
+            long maxEpisodeFrames, int threads) {
+
+        public static final Options DEFAULTS = new Options(Screen.GRAYSCALE, 1, List.of(), (m, f) -> false, 0, 0);
+
+        public Options {
+            screen = screen == null ? Screen.GRAYSCALE : screen;
+            if (downsample <= 0 || FrameBuffer.WIDTH % downsample != 0 || FrameBuffer.HEIGHT % downsample != 0) {
+                throw new IllegalArgumentException("Downsample factor must divide 160 and 144: " + downsample);
+            }
+            ram = ram == null ? List.of() : List.copyOf(ram);
+            termination = termination == null ? DEFAULTS.termination : termination;
+            maxEpisodeFrames = Math.max(0, maxEpisodeFrames);
+            threads = Math.max(0, threads);
+        }
+
+        public Options withScreen(Screen screen, int downsample) {
+            return new Options(screen, downsample, ram, termination, maxEpisodeFrames, threads);
+        }
+
+        public Options withRam(Range... ranges) {
+            return new Options(screen, downsample, List.of(ranges), termination, maxEpisodeFrames, threads);
+        }
+
+        public Options withTermination(Termination termination, long maxEpisodeFrames) {
+            return new Options(screen, downsample, ram, termination, maxEpisodeFrames, threads);
+        }
+
+        public Options withThreads(int threads) {
+            return new Options(screen, downsample, ram, termination, maxEpisodeFrames, threads);
+        }
+    }
+
+    private final Options options;
+    private final GameBoyColor[] machines;
+    private final State[] resetStates;
+    private final long[] episodeFrames;
+    private final boolean[] done;
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int screenBytes;
+    private final int observationSize;
+    private final ByteBuffer observations;
+
+    // Work handed to the workers for the current step
+    private final int[] actions;
+    private int frames;
+    private final Worker[] workers;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int generation;
+    private volatile Thread stepper;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    /**
+     * Creates {@code count} machines with the ROM inserted, each with its own
+     * cartridge, and captures the state {@link #reset()} returns to.
+     */
+    public VectorEnvironment(byte[] rom, int count, CoreConfig config, Options options) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Need at least one machine: " + count);
+        }
+        this.options = options;
+        this.machines = new GameBoyColor[count];
+        this.resetStates = new State[count];
+        this.episodeFrames = new long[count];
+        this.done = new boolean[count];
+        this.actions = new int[count];
+        this.screenWidth = FrameBuffer.WIDTH / options.downsample();
+        this.screenHeight = FrameBuffer.HEIGHT / options.downsample();
+        this.screenBytes = screenWidth * screenHeight * options.screen().bytesPerPixel;
+        int ramBytes = 0;
+        for (Range range : options.ram()) {
+            ramBytes += range.length();
+        }
+        this.observationSize = screenBytes + ramBytes;
+        this.observations = ByteBuffer.allocateDirect(Math.max(1, observationSize * count));
+
+        for (int i = 0; i < count; i++) {
+            GameBoyColor gbc = new GameBoyColor(config);
+            gbc.setDeterministic(0);
+            gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+            gbc.insertCartridge(CartridgeFactory.create(rom));
+            gbc.setFrameOutputEnabled(options.screen() != Screen.NONE);
+            // One frame in, so there is a picture to observe
+            gbc.runToVBlank();
+            machines[i] = gbc;
+            observe(i);
+            resetStates[i] = snapshot(i);
+        }
+
+        int threads = Math.min(count, options.threads() > 0 ? options.threads()
+                : Runtime.getRuntime().availableProcessors());
+        this.workers = new Worker[threads > 1 ? threads : 0];
+        for (int w = 0; w < workers.length; w++) {
+            workers[w] = new Worker(w, threads);
+            workers[w].start();
+        }
+    }
+
+    public int size() {
+        return machines.length;
+    }
+
+    /** Bytes per machine in {@link #observations()}. */
+    public int observationSize() {
+        return observationSize;
+    }
+
+    /** Offset of the memory ranges within a machine's observation slot. */
+    public int ramOffset() {
+        return screenBytes;
+    }
+
+    public int screenWidth() {
+        return screenWidth;
+    }
+
+    public int screenHeight() {
+        return screenHeight;
+    }
+
+    /**
+     * The observation buffer: machine {@code i} occupies
+     * {@code [i * observationSize(), (i + 1) * observationSize())}. The same
+     * buffer is rewritten by every step and reset.
+     */
+    public ByteBuffer observations() {
+        return observations;
+    }
+
+    /** Whether machine {@code i}'s episode ended at the last step. */
+    public boolean isDone(int i) {
+        return done[i];
+    }
+
+    public long episodeFrames(int i) {
+        return episodeFrames[i];
+    }
+
+    /** The machine itself, for inspection between steps. */
+    public GameBoyColor machine(int i) {
+        return machines[i];
+    }
+
+    /** Returns every machine to its start state and writes fresh observations. */
+    public ByteBuffer reset() {
+        for (int i = 0; i < machines.length; i++) {
+            reset(i);
+        }
+        return observations;
+    }
+
+    /** Returns machine {@code i} to its start state, e.g. once its episode is done. */
+    public void reset(int i) {
+        restore(i, resetStates[i]);
+    }
+
+    /** Captures machine {@code i}, to branch from later with {@link #restore}. */
+    public State snapshot(int i) {
+        byte[] observation = new byte[observationSize];
+        observations.get(i * observationSize, observation);
+        return new State(machines[i].snapshot(), observation);
+    }
+
+    /**
+     * Restores machine {@code i}, possibly from another machine's snapshot,
+     * and starts a new episode from there with the buttons released.
+     */
+    public void restore(int i, State state) {
+        GameBoyColor gbc = machines[i];
+        gbc.restore(state.machine());
+        gbc.getController().setButtonMask(0);
+        episodeFrames[i] = 0;
+        done[i] = false;
+        observations.put(i * observationSize, state.observation());
+    }
+
+    /**
+     * Holds machine {@code i}'s buttons at {@code actions[i]} (a
+     * {@link gbc.model.input.Controller#getButtonMask()} value) for
+     * {@code frames} frames on every machine, then writes the observations
+     * and done flags.
+     */
+    public ByteBuffer step(int[] actions, int frames) {
+        if (closed) {
+            throw new IllegalStateException("Environment is closed");
+        }
+        if (actions.length != machines.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + machines.length + " actions, got " + actions.length);
+        }
+        if (frames <= 0) {
+            throw new IllegalArgumentException("Frames must be positive: " + frames);
+        }
+        System.arraycopy(actions, 0, this.actions, 0, actions.length);
+        this.frames = frames;
+        if (workers.length == 0) {
+            for (int i = 0; i < machines.length; i++) {
+                stepMachine(i);
+            }
+            return observations;
+        }
+
+        stepper = Thread.currentThread();
+        pending.set(workers.length);
+        generation++;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        while (pending.get() != 0) {
+            LockSupport.park(this);
+        }
+        Throwable error = failure;
+        if (error != null) {
+            failure = null;
+            throw new IllegalStateException("Machine failed during step", error);
+        }
+        return observations;
+    }
+
+    private void stepMachine(int i) {
+        GameBoyColor gbc = machines[i];
+        boolean draw = options.screen() != Screen.NONE;
+        gbc.getController().setButtonMask(actions[i]);
+        for (int f = 0; f < frames; f++) {
+            if (draw) {
+                gbc.setFrameOutputEnabled(f == frames - 1);
+            }
+            gbc.runToVBlank();
+        }
+        episodeFrames[i] += frames;
+        done[i] = options.termination().isDone(gbc, episodeFrames[i])
+                || (options.maxEpisodeFrames() > 0 && episodeFrames[i] >= options.maxEpisodeFrames());
+        observe(i);
+    }
+
+    /** Writes machine {@code i}'s observation slot with absolute puts, so workers never share a position. */
+    private void observe(int i) {
+        GameBoyColor gbc = machines[i];
+        int offset = i * observationSize;
+        if (options.screen() != Screen.NONE) {
+            writeScreen(gbc.getFrameBuffer().getPixels(), offset);
+        }
+        Memory memory = gbc.getMemory();
+        int at = offset + screenBytes;
+        for (int r = 0; r < options.ram().size(); r++) {
+            Range range = options.ram().get(r);
+            for (int a = 0; a < range.length(); a++) {
+                observations.put(at++, (byte) memory.peekByte(range.address() + a));
+            }
+        }
+    }
+
+    private void writeScreen(int[] pixels, int offset) {
+        int factor = options.downsample();
+        int area = factor * factor;
+        boolean rgb = options.screen() == Screen.RGB;
+        int at = offset;
+        for (int y = 0; y < screenHeight; y++) {
+            for (int x = 0; x < screenWidth; x++) {
+                int red = 0;
+                int green = 0;
+                int blue = 0;
+                for (int dy = 0; dy < factor; dy++) {
+                    int row = (y * factor + dy) * FrameBuffer.WIDTH + x * factor;
+                    for (int dx = 0; dx < factor; dx++) {
+                        int argb = pixels[row + dx];
+                        red += (argb >> 16) & 0xFF;
+                        green += (argb >> 8) & 0xFF;
+                        blue += argb & 0xFF;
+                    }
+                }
+                red /= area;
+                green /= area;
+                blue /= area;
+                if (rgb) {
+                    observations.put(at++, (byte) red);
+                    observations.put(at++, (byte) green);
+                    observations.put(at++, (byte) blue);
+                } else {
+                    // BT.601 luma in 8.8 fixed point
+                    observations.put(at++, (byte) ((red * 77 + green * 150 + blue * 29) >> 8));
+                }
+            }
+        }
+    }
+
+    /** Ids of the worker threads, none when stepping on the caller's thread. */
+    long[] workerThreadIds() {
+        long[] ids = new long[workers.length];
+        for (int w = 0; w < workers.length; w++) {
+            ids[w] = workers[w].threadId();
+        }
+        return ids;
+    }
+
+    /** Stops the worker threads. The machines stay usable for inspection. */
+    @Override
+    public void close() {
+        closed = true;
+        for (Worker worker : workers) {
+            worker.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Steps every {@code stride}-th machine from {@code first}. Parks between
+     * steps rather than taking tasks from an executor, whose task objects
+     * would make every step allocate.
+     */
+    private final class Worker extends Thread {
+        private final int first;
+        private final int stride;
+        private int seenGeneration;
+
+        Worker(int first, int stride) {
+            super("gbc-env-" + first);
+            setDaemon(true);
+            this.first = first;
+            this.stride = stride;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                int current = generation;
+                if (current == seenGeneration) {
+                    LockSupport.park(this);
+                    continue;
+                }
+                seenGeneration = current;
+                try {
+                    for (int i = first; i < machines.length; i += stride) {
+                        stepMachine(i);
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure = e;
+                }
+                if (pending.decrementAndGet() == 0) {
+                    LockSupport.unpark(stepper);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package gbc.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import gbc.model.cartridge.Cartridge;
+import gbc.model.cpu.Assembler;
+
+/**
+ * Generates small ROMs that each stress one part of the core, so
+ * performance runs have reproducible, redistributable inputs that isolate
+ * a subsystem instead of depending on commercial games.
+ *
+ * <p>
+ * Every workload loops forever with the LCD on, so it can be run for any
+ * number of frames. Tools accept {@code workload:<name>} wherever they take
+ * a ROM path; {@link #main} writes them all out as files.
+ *
+ * <pre>
+ * java -cp gbjava.jar gbc.batch.WorkloadRom &lt;directory&gt;
+ * </pre>
+ */
+public final class WorkloadRom {
+    /** Prefix that names a generated workload instead of a ROM file. */
+    public static final String PREFIX = "workload:";
+
+    private static final int BANK_SIZE = 0x4000;
+
+    public enum Workload {
+        /** Tight loop of ALU, rotate and bit instructions; CPU dispatch only. */
+        ALU(0x80, 0x00, 2, 0x00),
+        /** LD A,(HL+) copy loops from ROM to WRAM and within WRAM; memory bus. */
+        MEMCPY(0x80, 0x00, 2, 0x00),
+        /** Halts until every VBlank; the idle path most games spend frames in. */
+        HALT(0x80, 0x00, 2, 0x00),
+        /** 8x16 sprites in bands of ten per line, window on, scrolling; PPU. */
+        SPRITES(0x80, 0x00, 2, 0x00),
+        /** A 2 KB general DMA and a 2 KB HBlank DMA into VRAM every frame; CGB DMA. */
+        HDMA(0xC0, 0x00, 2, 0x00),
+        /** All four channels retriggered every frame; APU. */
+        AUDIO(0x80, 0x00, 2, 0x00),
+        /** MBC5 ROM and RAM bank switch on every few instructions; cartridge mapping. */
+        MBC(0x80, 0x1A, 32, 0x03);
+
+        private final int cgbFlag;
+        private final int cartridgeType;
+        private final int romBanks;
+        private final int ramSizeCode;
+
+        Workload(int cgbFlag, int cartridgeType, int romBanks, int ramSizeCode) {
+            this.cgbFlag = cgbFlag;
+            this.cartridgeType = cartridgeType;
+            this.romBanks = romBanks;
+            this.ramSizeCode = ramSizeCode;
+        }
+
+        public String id() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private WorkloadRom() {
+    }
+
+    /** True if {@code rom} names a workload rather than a file. */
+    public static boolean isWorkload(String rom) {
+        return rom.startsWith(PREFIX);
+    }
+
+    /** Parses {@code alu} or {@code workload:alu}. */
+    public static Workload parse(String name) {
+        String id = isWorkload(name) ? name.substring(PREFIX.length()) : name;
+        for (Workload workload : Workload.values()) {
+            if (workload.id().equals(id)) {
+                return workload;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload: " + name);
+    }
+
+    public static byte[] build(String name) {
+        return build(parse(name));
+    }
+
+    /** Builds the complete ROM image, header checksums included. */
+    public static byte[] build(Workload workload) {
+        byte[] rom = new byte[workload.romBanks * BANK_SIZE];
+        for (int bank = 1; bank < workload.romBanks; bank++) {
+            int base = bank * BANK_SIZE;
+            for (int i = 0; i < BANK_SIZE; i++) {
+                rom[base + i] = (byte) ((i * 37 >>> 3) ^ bank);
+            }
+            rom[base] = (byte) bank;
+        }
+
+        byte[] code = program(workload).assemble();
+        if (code.length > BANK_SIZE) {
+            throw new IllegalStateException("Workload code does not fit in bank 0: " + workload);
+        }
+        System.arraycopy(code, 0, rom, 0, code.length);
+        writeHeader(rom, workload);
+        return rom;
+    }
+
+    private static Assembler program(Workload workload) {
+        Assembler asm = new Assembler(0x0000);
+        asm.org(0x0040).op("JP vblank");
+        for (int vector = 0x0048; vector <= 0x0060; vector += 8) {
+            asm.org(vector).op("RETI");
+        }
+        asm.org(0x0100).asm("NOP | JP main");
+        asm.org(0x0150, 0x00);
+        asm.asm("""
+                main:   DI
+                        LD SP,$FFFE
+                """);
+        switch (workload) {
+            case ALU -> asm.asm("""
+                        CALL lcd_on
+                loop:   ADD A,B | SUB C | AND D | OR E | XOR H | INC L | DEC B | CP A
+                        ADC A,C | SBC A,D | ADD A,$11 | AND $F0 | ADD HL,BC | DAA | INC DE | RLCA
+                        CPL | SWAP A | SRL E | BIT 3,H | RR L | SET 1,D | RES 6,C
+                        JR loop
+                vblank: RETI
+                """);
+            case MEMCPY -> asm.asm("""
+                        CALL lcd_on
+                loop:   LD HL,$4000 | LD DE,$C000 | LD BC,$1000 | CALL copy
+                        LD HL,$C000 | LD DE,$D000 | LD BC,$0800 | CALL copy
+                        LD HL,$DFFF | LD C,0 | LD A,$5A
+                back:   LD (HL-),A | DEC C | JR NZ,back
+                        JR loop
+                vblank: RETI
+                """);
+            case HALT -> asm.asm("""
+                        CALL lcd_on
+                        CALL enable_vblank
+                loop:   HALT | NOP
+                        LD HL,$C000 | INC (HL)
+                        JR loop
+                vblank: RETI
+                """);
+            case SPRITES -> sprites(asm);
+            case HDMA -> asm.asm("""
+                        CALL lcd_on
+                        CALL enable_vblank
+                loop:   HALT | NOP
+                        LDH A,($4F) | XOR 1 | LDH ($4F),A  ; alternate VRAM banks
+                        ; general DMA: 2 KB from ROM $4000 to $8000 at once
+                        LD A,$40 | LDH ($51),A | XOR A | LDH ($52),A
+                        LD A,$80 | LDH ($53),A | XOR A | LDH ($54),A
+                        LD A,$7F | LDH ($55),A
+                        ; HBlank DMA: 2 KB from ROM $5000 to $8800, 16 bytes per line
+                        LD A,$50 | LDH ($51),A | XOR A | LDH ($52),A
+                        LD A,$88 | LDH ($53),A | XOR A | LDH ($54),A
+                        LD A,$FF | LDH ($55),A
+                        JR loop
+                vblank: RETI
+                """);
+            case AUDIO -> audio(asm);
+            case MBC -> asm.asm("""
+                        CALL lcd_on
+                        LD A,$0A | LD ($0000),A  ; enable RAM
+                        XOR A | LD ($3000),A | LD E,A
+                outer:  LD B,1
+                bank:   LD A,B | LD ($2000),A    ; ROM bank B
+                        AND 3 | LD ($4000),A     ; RAM bank B mod 4
+                        LD HL,$4000 | LD A,(HL+) | ADD A,E | LD E,A | LD A,(HL+) | XOR E | LD E,A
+                        LD HL,$7FFF | LD A,(HL) | ADD A,E | LD E,A
+                        LD ($A000),A | LD HL,$BFFF | LD (HL),E
+                        INC B | LD A,B | CP 32 | JR NZ,bank
+                        JR outer
+                vblank: RETI
+                """);
+        }
+        subroutines(asm);
+        return asm;
+    }
+
+    /**
+     * Forty 8x16 sprites in four bands of ten, moved down a line every frame
+     * through OAM DMA, over a scrolling background with the window covering
+     * the lower right quarter.
+     */
+    private static void sprites(Assembler asm) {
+        asm.asm("""
+                        CALL lcd_off
+                        LD HL,$8000 | LD BC,$1800 | CALL fill   ; tile data
+                        LD HL,$9800 | LD BC,$0800 | CALL fill   ; both tile maps
+                        LD A,1 | LDH ($4F),A                    ; CGB attributes
+                        LD HL,$9800 | LD BC,$0800 | CALL fill
+                        XOR A | LDH ($4F),A
+                        LD A,$80 | LDH ($68),A | LDH ($6A),A    ; palettes, auto-increment
+                        LD B,64
+                pal:    LD A,B | RLCA | RLCA | XOR B | LDH ($69),A | CPL | LDH ($6B),A
+                        DEC B | JR NZ,pal
+                        LD A,$E4 | LDH ($47),A | LDH ($48),A | LD A,$D2 | LDH ($49),A
+                        LD HL,$C100 | LD C,16 | LD D,4
+                band:   LD E,10 | LD B,8
+                sprite: LD A,C | LD (HL+),A                     ; Y
+                        LD A,B | LD (HL+),A                     ; X
+                        ADD A,15 | LD B,A
+                        LD A,L | LD (HL+),A                     ; tile
+                        LD A,E | AND 7 | LD (HL+),A             ; attributes
+                        DEC E | JR NZ,sprite
+                        LD A,C | ADD A,36 | LD C,A
+                        DEC D | JR NZ,band
+                        LD HL,dma | LD DE,$FF80 | LD BC,dma_end-dma | CALL copy
+                        LD A,72 | LDH ($4A),A | LD A,87 | LDH ($4B),A
+                        LD A,$F7 | LDH ($40),A                  ; window at $9C00, 8x16 sprites
+                        CALL enable_vblank
+                loop:   HALT | NOP
+                        JR loop
+                vblank: PUSH AF | PUSH BC | PUSH HL
+                        CALL $FF80
+                        LD HL,$C100 | LD B,40
+                move:   INC (HL) | LD A,L | ADD A,4 | LD L,A
+                        DEC B | JR NZ,move
+                        LDH A,($43) | INC A | LDH ($43),A
+                        POP HL | POP BC | POP AF
+                        RETI
+                ; copied to HRAM: OAM DMA from $C100
+                dma:    LD A,$C1 | LDH ($46),A | LD A,40
+                wait:   DEC A | JR NZ,wait
+                        RET
+                dma_end:
+                """);
+    }
+
+    /** Retriggers all four channels every frame with changing pitch and noise. */
+    private static void audio(Assembler asm) {
+        asm.asm("""
+                        CALL lcd_on
+                        LD A,$80 | LDH ($26),A | LD A,$77 | LDH ($24),A | LD A,$FF | LDH ($25),A
+                        XOR A | LDH ($1A),A                     ; wave DAC off to load wave RAM
+                        LD HL,wave | LD DE,$FF30 | LD BC,16 | CALL copy
+                        CALL enable_vblank
+                        LD C,0
+                loop:   HALT | NOP
+                        INC C
+                        LD A,$15 | LDH ($10),A | LD A,$80 | LDH ($11),A | LD A,$F3 | LDH ($12),A
+                        LD A,C | LDH ($13),A | LD A,$87 | LDH ($14),A
+                        LD A,$40 | LDH ($16),A | LD A,$F2 | LDH ($17),A
+                        LD A,C | CPL | LDH ($18),A | LD A,$86 | LDH ($19),A
+                        LD A,$80 | LDH ($1A),A | XOR A | LDH ($1B),A | LD A,$20 | LDH ($1C),A
+                        LD A,C | RLCA | LDH ($1D),A | LD A,$87 | LDH ($1E),A
+                        XOR A | LDH ($20),A | LD A,$F1 | LDH ($21),A
+                        LD A,C | AND $F7 | LDH ($22),A | LD A,$80 | LDH ($23),A
+                        JR loop
+                vblank: RETI
+                wave:
+                """);
+        asm.db(0x01, 0x23, 0x45, 0x67, 0x89, 0xAB, 0xCD, 0xEF, 0xFE, 0xDC, 0xBA, 0x98, 0x76, 0x54, 0x32, 0x10);
+    }
+
+    private static void subroutines(Assembler asm) {
+        asm.asm("""
+                ; HL = source, DE = destination, BC = length
+                copy:   LD A,(HL+) | LD (DE),A | INC DE
+                        DEC BC | LD A,B | OR C | JR NZ,copy
+                        RET
+                ; HL = destination, BC = length; fills with a pattern of the address
+                fill:   LD A,L | XOR H | RLCA | LD (HL+),A
+                        DEC BC | LD A,B | OR C | JR NZ,fill
+                        RET
+                lcd_on: LD A,$91 | LDH ($40),A
+                        RET
+                ; waits for VBlank if the LCD is on, then turns it off
+                lcd_off:
+                        LDH A,($40) | BIT 7,A | RET Z
+                lcd_wait:
+                        LDH A,($44) | CP 144 | JR C,lcd_wait
+                        XOR A | LDH ($40),A
+                        RET
+                enable_vblank:
+                        LD A,$01 | LDH ($FF),A | XOR A | LDH ($0F),A
+                        EI
+                        RET
+                """);
+    }
+
+    private static void writeHeader(byte[] rom, Workload workload) {
+        byte[] logo = Cartridge.nintendoLogo();
+        System.arraycopy(logo, 0, rom, 0x0104, logo.length);
+        byte[] title = ("GBJ " + workload.name()).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(title, 0, rom, 0x0134, Math.min(title.length, 15));
+        rom[0x0143] = (byte) workload.cgbFlag;
+        rom[0x0147] = (byte) workload.cartridgeType;
+        rom[0x0148] = (byte) (Integer.numberOfTrailingZeros(workload.romBanks) - 1);
+        rom[0x0149] = (byte) workload.ramSizeCode;
+
+        int header = 0;
+        for (int i = 0x0134; i <= 0x014C; i++) {
+            header = header - (rom[i] & 0xFF) - 1;
+        }
+        rom[0x014D] = (byte) header;
+
+        int global = 0;
+        for (int i = 0; i < rom.length; i++) {
+            if (i != 0x014E && i != 0x014F) {
+                global += rom[i] & 0xFF;
+            }
+        }
+        rom[0x014E] = (byte) (global >>> 8);
+        rom[0x014F] = (byte) global;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        if (args.length != 1) {
+            err.println("Usage: WorkloadRom <directory>");
+            return 2;
+        }
+        try {
+            Path dir = Files.createDirectories(Path.of(args[0]));
+            for (Workload workload : Workload.values()) {
+                Path path = dir.resolve(workload.id() + ".gbc");
+                Files.write(path, build(workload));
+                out.println(path);
+            }
+            return 0;
+        } catch (IOException e) {
+            err.println("Cannot write workloads: " + e);
+            return 1;
+        }
+    }
+}
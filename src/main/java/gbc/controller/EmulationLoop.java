@@ -9,6 +9,7 @@ import java.util.logging.Logger;
 
 import gbc.controller.audio.AudioEngine;
 import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
 
 /**
  * Runs the emulation loop on a dedicated thread, executing frames at the
@@ -16,6 +17,9 @@ import gbc.model.GameBoyColor;
  */
 public class EmulationLoop {
     private static final Logger LOGGER = Logger.getLogger(EmulationLoop.class.getName());
+    /** Frames the loop may fall behind before the frame clock is reset. */
+    private static final int MAX_FRAME_LAG = 3;
+    private static final long SPIN_THRESHOLD_NS = TimeUnit.MILLISECONDS.toNanos(1);
 
     private final GameBoyColor gbc;
     private final ReentrantLock emulationLock;
@@ -26,6 +30,9 @@ public class EmulationLoop {
     private final AudioEngine audioEngine;
     private final Runnable uiUpdateCallback;
     private final Runnable inputProcessCallback;
+    private final Rewinder rewinder;
+    private final MovieSession movies;
+    private final RunAhead runAhead;
     private Thread emulationThread;
 
     public EmulationLoop(GameBoyColor gbc,
@@ -36,7 +43,9 @@ public class EmulationLoop {
             EmulationSettings settings,
             AudioEngine audioEngine,
             Runnable uiUpdateCallback,
-            Runnable inputProcessCallback) {
+            Runnable inputProcessCallback,
+            Rewinder rewinder,
+            MovieSession movies) {
         this.gbc = gbc;
         this.emulationLock = emulationLock;
         this.running = running;
@@ -46,6 +55,9 @@ public class EmulationLoop {
         this.audioEngine = audioEngine;
         this.uiUpdateCallback = uiUpdateCallback;
         this.inputProcessCallback = inputProcessCallback;
+        this.rewinder = rewinder;
+        this.movies = movies;
+        this.runAhead = new RunAhead(settings);
     }
 
     public void start() {
@@ -68,68 +80,53 @@ public class EmulationLoop {
     private void runEmulationLoop() {
         LOGGER.info("Emulation loop started");
 
-        long lastTime = System.nanoTime();
+        long nextFrameTime = System.nanoTime();
         int framesSinceUiUpdate = 0;
 
         while (running.get()) {
             try {
                 if (paused.get()) {
                     Thread.sleep(2);
-                    lastTime = System.nanoTime();
+                    nextFrameTime = System.nanoTime();
                     continue;
                 }
 
                 long currentTime = System.nanoTime();
-                long deltaTime = currentTime - lastTime;
                 long frameTimeNs = settings.frameTimeNs();
-                boolean throttle = settings.throttleEnabled();
-                int renderInterval = settings.renderInterval();
-
-                if (!throttle || deltaTime >= frameTimeNs) {
-                    emulationLock.lock();
-                    try {
-                        executeFrame();
-                    } finally {
-                        emulationLock.unlock();
-                    }
+                boolean uncapped = movies.isUncapped();
+                boolean throttle = settings.throttleEnabled() && !uncapped;
+                // An uncapped movie runs hundreds of frames a second; the
+                // view only needs to show progress
+                int renderInterval = uncapped ? settings.targetFps() : settings.renderInterval();
+
+                // Video pacing runs off a fixed frame clock; audio drift is
+                // absorbed by the APU's dynamic rate control, so this loop
+                // never waits on the audio backend.
+                long remainingNs = nextFrameTime - currentTime;
+                if (throttle && remainingNs > 0) {
+                    waitForFrame(remainingNs);
+                    continue;
+                }
 
-                    frameCounter.incrementAndGet();
-                    framesSinceUiUpdate++;
+                emulationLock.lock();
+                try {
+                    executeFrame();
+                } finally {
+                    emulationLock.unlock();
+                }
 
-                    if (framesSinceUiUpdate >= renderInterval) {
-                        framesSinceUiUpdate = 0;
-                        uiUpdateCallback.run();
-                    }
+                frameCounter.incrementAndGet();
+                framesSinceUiUpdate++;
 
-                    lastTime = currentTime;
-                } else {
-                    long sleepNs = frameTimeNs - deltaTime;
-                    if (sleepNs > 0) {
-                        TimeUnit.NANOSECONDS.sleep(Math.min(
-                                sleepNs,
-                                TimeUnit.MILLISECONDS.toNanos(2)));
-                    } else {
-                        Thread.yield();
-                    }
+                if (framesSinceUiUpdate >= renderInterval) {
+                    framesSinceUiUpdate = 0;
+                    uiUpdateCallback.run();
                 }
 
-                // Secondary audio sync: the primary synchronisation is APU ring-buffer
-                // back-pressure (Apu.enqueueFilledBuffer blocks when full). This block
-                // adds a gentle throttle based on audio pipeline headroom.
-                if (settings.audioSyncEnabled()) {
-                    long lastWrite = audioEngine.getLastWriteNs();
-                    int buffered = audioEngine.getBufferedBytes();
-                    int capacity = audioEngine.getBufferCapacityBytes();
-                    if (lastWrite > 0) {
-                        if (System.nanoTime() - lastWrite > settings.audioSyncIdleNs()) {
-                            TimeUnit.NANOSECONDS.sleep(settings.audioSyncSleepNs());
-                        } else if (capacity > 0) {
-                            int threshold = capacity / settings.audioSyncThresholdDivisor();
-                            if (buffered >= threshold) {
-                                TimeUnit.NANOSECONDS.sleep(settings.audioSyncSleepNs());
-                            }
-                        }
-                    }
+                nextFrameTime += frameTimeNs;
+                // Resynchronise instead of bursting to catch up after a stall
+                if (!throttle || currentTime - nextFrameTime > MAX_FRAME_LAG * frameTimeNs) {
+                    nextFrameTime = currentTime + frameTimeNs;
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -142,10 +139,60 @@ public class EmulationLoop {
         LOGGER.info("Emulation loop ended");
     }
 
+    /**
+     * Sleeps for most of the remaining frame time and yields for the last
+     * stretch, since OS sleep granularity is too coarse for steady pacing.
+     */
+    private void waitForFrame(long remainingNs) throws InterruptedException {
+        if (remainingNs > SPIN_THRESHOLD_NS) {
+            TimeUnit.NANOSECONDS.sleep(remainingNs - SPIN_THRESHOLD_NS);
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Plays one frame's worth of cycles from the current movie. Input comes
+     * from the movie at its recorded cycles, so frames need not line up with
+     * the ones recorded.
+     */
+    private void playMovieFrame() {
+        boolean uncapped = movies.isUncapped();
+        gbc.setFrameOutputEnabled(!uncapped);
+        gbc.setAudioSilenced(Apu.SilenceReason.FAST_FORWARD,
+                uncapped || gbc.getSpeedMultiplier() > 1.0f || !settings.throttleEnabled());
+        movies.playFrame((int) (70224 * gbc.getEffectiveSpeedMultiplier()));
+        if (!movies.isPlaying()) {
+            gbc.setFrameOutputEnabled(true);
+        }
+    }
+
     private void executeFrame() {
         if (gbc.getMemory().isCartridgeLoaded()) {
             inputProcessCallback.run();
+            if (movies.isPlaying()) {
+                playMovieFrame();
+                return;
+            }
+            // Stepping back would leave the recorded timeline
+            if (rewinder.isRewinding() && !movies.isRecording()) {
+                gbc.setFrameOutputEnabled(true);
+                rewinder.stepBack(gbc);
+                return;
+            }
+            // Faster than real time the backend would drop the output anyway
+            boolean fastForward = gbc.getSpeedMultiplier() > 1.0f || !settings.throttleEnabled();
+            gbc.setAudioSilenced(Apu.SilenceReason.FAST_FORWARD, fastForward);
             final int cyclesPerFrame = (int) (70224 * gbc.getEffectiveSpeedMultiplier());
+            // Latency does not matter while fast-forwarding, so run-ahead
+            // would only cost speed
+            if (!fastForward && runAhead.isEnabled()) {
+                runAhead.runFrame(gbc, cyclesPerFrame + cyclesPerFrame / 8);
+                rewinder.afterFrame(gbc);
+                movies.frameCompleted();
+                return;
+            }
+            gbc.setFrameOutputEnabled(true);
             int executedCycles = 0;
             int cycleCount = 0;
 
@@ -174,6 +221,8 @@ public class EmulationLoop {
                     break;
                 }
             }
+            rewinder.afterFrame(gbc);
+            movies.frameCompleted();
         } else {
             try {
                 gbc.getPpu().updateGraphics();
@@ -1,7 +1,5 @@
 package gbc.controller;
 
-import java.util.concurrent.TimeUnit;
-
 import gbc.controller.config.AppConfig;
 import gbc.controller.config.EmulatorConfig;
 
@@ -24,9 +22,14 @@ final class EmulationSettings {
         return mode == null ? "hybrid" : mode.toLowerCase();
     }
 
+    /**
+     * Only {@code none} disables the frame clock. {@code audio} and
+     * {@code hybrid} used to sleep on the audio backend's fill level; the APU
+     * now steers its output rate to the latency target instead, so every
+     * paced mode runs off the frame clock.
+     */
     boolean throttleEnabled() {
-        String mode = syncMode();
-        if ("none".equals(mode) || "audio".equals(mode)) {
+        if ("none".equals(syncMode())) {
             return false;
         }
         return cfg().isThrottle();
@@ -40,33 +43,46 @@ final class EmulationSettings {
         return Math.max(1, frameSkip() + 1);
     }
 
-    boolean audioSyncEnabled() {
-        String mode = syncMode();
-        return "audio".equals(mode) || "hybrid".equals(mode);
+    /** Seconds between autosaves; 0 disables them. */
+    int autosaveSeconds() {
+        return Math.max(0, cfg().getAutosaveSeconds());
     }
 
-    long audioSyncIdleNs() {
-        int latencyMs = cfg().getLatencyMs();
-        if (latencyMs < 1) {
-            latencyMs = 150;
-        }
-        return TimeUnit.MILLISECONDS.toNanos(latencyMs);
+    /** Seconds between flushes of changed battery RAM; 0 disables them. */
+    int sramFlushSeconds() {
+        return Math.max(0, cfg().getSramFlushSeconds());
     }
 
-    long audioSyncSleepNs() {
-        String mode = syncMode();
-        if ("hybrid".equals(mode)) {
-            return TimeUnit.MICROSECONDS.toNanos(500);
-        }
-        return TimeUnit.MILLISECONDS.toNanos(1);
+    /** Whether each battery RAM flush is forced to the storage device. */
+    boolean sramSync() {
+        return cfg().isSramSync();
     }
 
-    int audioSyncThresholdDivisor() {
-        String mode = syncMode();
-        if ("hybrid".equals(mode)) {
-            return 3;
-        }
-        return 2;
+    boolean rewindEnabled() {
+        return cfg().isRewindEnabled();
+    }
+
+    long rewindBufferBytes() {
+        return Math.max(1, cfg().getRewindBufferMb()) * 1024L * 1024L;
+    }
+
+    /** Frames between rewind snapshots. */
+    int rewindInterval() {
+        return Math.max(1, cfg().getRewindInterval());
+    }
+
+    /** Snapshots stepped back per frame while rewinding. */
+    int rewindSpeed() {
+        return Math.max(1, cfg().getRewindSpeed());
+    }
+
+    /** Frames to run ahead of the displayed one; 0 disables run-ahead. */
+    int runAheadFrames() {
+        return Math.max(0, Math.min(RunAhead.MAX_FRAMES, cfg().getRunAheadFrames()));
+    }
+
+    boolean runAheadSecondInstance() {
+        return cfg().isRunAheadSecondInstance();
     }
 
     int audioBufferSize() {
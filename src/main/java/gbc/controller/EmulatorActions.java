@@ -30,6 +30,22 @@ public interface EmulatorActions {
 
     CompletableFuture<Boolean> loadStateFromAsync(Path path);
 
+    /** Starts recording an input movie from the current state. */
+    boolean startMovieRecording();
+
+    /** Ends the recording and writes it to {@code path}. */
+    CompletableFuture<Boolean> stopMovieRecordingAsync(Path path);
+
+    /**
+     * Plays the movie at {@code path}, uncapped with video and audio off if
+     * requested. Completes when playback ends, with whether the machine ended
+     * on the recorded state.
+     */
+    CompletableFuture<Boolean> playMovieAsync(Path path, boolean uncapped);
+
+    /** Stops movie playback or discards a recording in progress. */
+    void stopMovie();
+
     EmulatorStatus getStatus();
 
     DiagnosticsService diagnostics();
@@ -29,9 +29,13 @@ import gbc.controller.config.AppConfig;
 import gbc.controller.config.ConfigSerializer;
 import gbc.controller.config.EmulatorConfig;
 import gbc.controller.input.JoystickManager;
+import gbc.controller.io.MovieFile;
 import gbc.controller.io.RomLoader;
+import gbc.model.CoreConfig;
 import gbc.model.GameBoyColor;
 import gbc.model.cartridge.Cartridge;
+import gbc.model.input.Controller;
+import gbc.model.state.Movie;
 import gbc.view.EmulatorUi;
 import gbc.view.EmulatorWindow;
 import gbc.view.ThemeManager;
@@ -43,6 +47,7 @@ import gbc.view.ThemeManager;
  */
 public class EmulatorController implements EmulatorActions {
     private static final Logger LOGGER = Logger.getLogger(EmulatorController.class.getName());
+    private static final long SAVE_FLUSH_TIMEOUT_MS = 5000;
 
     private final GameBoyColor gbc;
     private final EmulatorUi view;
@@ -71,9 +76,15 @@ public class EmulatorController implements EmulatorActions {
     private final SimpleEmulatorStatusPublisher statusPublisher;
     private final RomLoader romLoader = new RomLoader();
     private final SaveStateManager saveStateManager;
+    private final SramFlusher sramFlusher;
     private final InputCoordinator inputCoordinator;
+    private final Rewinder rewinder;
+    private final MovieSession movies = new MovieSession();
     private EmulationLoop emulationLoop;
     private ScheduledFuture<?> fpsTask;
+    private ScheduledFuture<?> autosaveTask;
+    private ScheduledFuture<?> sramFlushTask;
+    private long lastAutosaveFrame = -1;
     private final Set<Integer> pressedKeys = ConcurrentHashMap.newKeySet();
     private KeyEventDispatcher keyDispatcher;
 
@@ -83,9 +94,11 @@ public class EmulatorController implements EmulatorActions {
         this.diagnostics = new EmulatorDiagnostics(this.gbc, emulationLock);
         this.statusPublisher = new SimpleEmulatorStatusPublisher();
         this.settings = new EmulationSettings();
+        this.rewinder = new Rewinder(settings);
         this.inputCoordinator = new InputCoordinator(this::applyGameAction, this::handleUiAction);
         this.saveStateManager = new SaveStateManager(gbc, emulationLock, ioExecutor,
                 this::setPausedAndReturnPrevious, this::isCartridgeLoaded);
+        this.sramFlusher = new SramFlusher(gbc, emulationLock, ioExecutor);
         this.view.setController(this);
         setupKeyListener();
     }
@@ -158,11 +171,18 @@ public class EmulatorController implements EmulatorActions {
                         LOGGER.log(Level.WARNING, "UI update error", e);
                     }
                 }),
-                () -> inputCoordinator.process(System.nanoTime()));
+                () -> {
+                    inputCoordinator.process(System.nanoTime());
+                    applyJoystickInput(movies, joystickManager, gbc.getController());
+                },
+                rewinder,
+                movies);
         emulationLoop.start();
 
         startMetricsTask();
-        joystickManager.start(gbc.getController());
+        scheduleAutosave();
+        scheduleSramFlush();
+        joystickManager.start();
         audioEngine.start(gbc);
         audioEngine.setPaused(false);
         publishStatus();
@@ -177,13 +197,72 @@ public class EmulatorController implements EmulatorActions {
                 long rendered = Math.max(0, totalFrames - previous);
 
                 SwingUtilities.invokeLater(() -> view.updateFPS(paused.get() ? 0d : (double) rendered));
+                if (LOGGER.isLoggable(Level.FINE) && rewinder.getStoredBytes() > 0) {
+                    LOGGER.fine(String.format("Rewind: capture %.0f us, ratio %.1fx, %d KB held",
+                            rewinder.getCaptureMicros(), rewinder.getCompressionRatio(),
+                            rewinder.getStoredBytes() / 1024));
+                }
             } catch (Exception e) {
                 LOGGER.log(Level.WARNING, "Failed to update FPS", e);
             }
         }, 1, 1, TimeUnit.SECONDS);
     }
 
+    private synchronized void scheduleAutosave() {
+        if (autosaveTask != null) {
+            autosaveTask.cancel(false);
+            autosaveTask = null;
+        }
+        int seconds = settings.autosaveSeconds();
+        if (seconds <= 0 || !running.get()) {
+            return;
+        }
+        autosaveTask = metricsExecutor.scheduleAtFixedRate(() -> {
+            try {
+                long frames = frameCounter.get();
+                if (frames == lastAutosaveFrame) {
+                    return; // nothing ran since the last autosave
+                }
+                lastAutosaveFrame = frames;
+                saveStateManager.autosave();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Autosave failed", e);
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    private synchronized void scheduleSramFlush() {
+        if (sramFlushTask != null) {
+            sramFlushTask.cancel(false);
+            sramFlushTask = null;
+        }
+        int seconds = settings.sramFlushSeconds();
+        if (seconds <= 0 || !running.get()) {
+            return;
+        }
+        sramFlushTask = metricsExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                sramFlusher.flush(settings.sramSync());
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "SRAM flush failed", e);
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Emulation thread: hands polled pad input to the machine. While a movie
+     * plays it owns the joypad, so the pad state stays pending until it ends.
+     */
+    static void applyJoystickInput(MovieSession movies, JoystickManager joystick, Controller pad) {
+        if (!movies.isPlaying()) {
+            joystick.applyPendingInput(pad);
+        }
+    }
+
     private void applyGameAction(String action, boolean pressed) {
+        if (movies.isPlaying() && !"rewind".equals(action)) {
+            return; // the movie owns the joypad
+        }
         switch (action) {
             case "up" -> gbc.getController().setUp(pressed);
             case "down" -> gbc.getController().setDown(pressed);
@@ -193,6 +272,7 @@ public class EmulatorController implements EmulatorActions {
             case "b" -> gbc.getController().setB(pressed);
             case "start" -> gbc.getController().setStart(pressed);
             case "select" -> gbc.getController().setSelect(pressed);
+            case "rewind" -> rewinder.setRewinding(pressed);
             default -> {
             }
         }
@@ -225,8 +305,11 @@ public class EmulatorController implements EmulatorActions {
             emulationLock.lock();
             try {
                 Cartridge cartridge = romLoader.load(java.nio.file.Path.of(path));
+                sramFlusher.flushNow(settings.sramSync()); // the outgoing game's save
+                movies.cancel();
                 gbc.insertCartridge(cartridge);
                 gbc.reset();
+                rewinder.clear();
             } catch (java.io.IOException e) {
                 String message = e.getMessage();
                 if (message == null || message.isBlank()) {
@@ -288,6 +371,7 @@ public class EmulatorController implements EmulatorActions {
         boolean wasPaused = setPaused(true);
         emulationLock.lock();
         try {
+            movies.cancel();
             gbc.reset();
             frameCounter.set(0);
             lastFrameSample.set(0);
@@ -357,21 +441,24 @@ public class EmulatorController implements EmulatorActions {
     }
 
     public void saveState(int slot) {
-        boolean success = saveStateManager.saveState(slot);
-        final String message;
         if (!isCartridgeLoaded()) {
-            message = "No ROM loaded";
-        } else if (gbc.getCurrentRomPath() == null) {
-            message = "Cannot save: ROM path unknown";
-        } else {
-            message = success
+            SwingUtilities.invokeLater(() -> view.setStatusText("No ROM loaded"));
+            return;
+        }
+        if (gbc.getCurrentRomPath() == null) {
+            SwingUtilities.invokeLater(() -> view.setStatusText("Cannot save: ROM path unknown"));
+            return;
+        }
+        saveStateManager.saveState(slot).whenComplete((success, throwable) -> {
+            String message = (throwable == null && Boolean.TRUE.equals(success))
                     ? String.format("State saved to slot %d", slot)
                     : String.format("Failed to save state to slot %d", slot);
-        }
-        SwingUtilities.invokeLater(() -> view.setStatusText(message));
+            SwingUtilities.invokeLater(() -> view.setStatusText(message));
+        });
     }
 
     public void loadState(int slot) {
+        movies.cancel();
         boolean success = saveStateManager.loadState(slot);
         final String message;
         if (!isCartridgeLoaded()) {
@@ -402,6 +489,12 @@ public class EmulatorController implements EmulatorActions {
         if (fpsTask != null) {
             fpsTask.cancel(true);
         }
+        if (autosaveTask != null) {
+            autosaveTask.cancel(false);
+        }
+        if (sramFlushTask != null) {
+            sramFlushTask.cancel(false);
+        }
 
         joystickManager.stop();
         audioEngine.stop();
@@ -410,7 +503,18 @@ public class EmulatorController implements EmulatorActions {
             emulationLoop.stop();
         }
 
-        ioExecutor.shutdownNow();
+        saveStateManager.flush(SAVE_FLUSH_TIMEOUT_MS);
+        // An SRAM flush still running would race the final save below
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(SAVE_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warning("Timed out waiting for background I/O to finish");
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
         metricsExecutor.shutdownNow();
 
         if (keyDispatcher != null) {
@@ -464,12 +568,18 @@ public class EmulatorController implements EmulatorActions {
         EmulatorConfig old = AppConfig.get().getConfig();
         AppConfig.get().setConfig(config);
         ConfigSerializer.forceApplyToSystemProperties(config);
+        emulationLock.lock();
+        try {
+            // Hardware applies from the next ROM load or reset, audio and the save directory right away
+            gbc.setConfig(CoreConfig.fromSystemProperties());
+        } finally {
+            emulationLock.unlock();
+        }
 
         // Selectively restart only the subsystems whose settings changed
         if (audioChanged(old, config)) {
             emulationLock.lock();
             try {
-                gbc.getMemory().reloadApuAudioSettings();
                 audioEngine.restart(gbc);
             } finally {
                 emulationLock.unlock();
@@ -479,9 +589,15 @@ public class EmulatorController implements EmulatorActions {
         if (inputChanged(old, config)) {
             inputCoordinator.reconfigure();
             joystickManager.stop();
-            joystickManager.start(gbc.getController());
+            joystickManager.start();
             LOGGER.info("Input reconfigured (settings changed)");
         }
+        if (old.getAutosaveSeconds() != config.getAutosaveSeconds()) {
+            scheduleAutosave();
+        }
+        if (old.getSramFlushSeconds() != config.getSramFlushSeconds()) {
+            scheduleSramFlush();
+        }
         if (videoChanged(old, config)) {
             SwingUtilities.invokeLater(() -> view.applyDisplayConfig(config));
         }
@@ -512,7 +628,8 @@ public class EmulatorController implements EmulatorActions {
                 || a.isAudioEnabled() != b.isAudioEnabled()
                 || a.isNullOutput() != b.isNullOutput()
                 || !a.getMixer().equals(b.getMixer())
-                || !a.getAudioBackend().equals(b.getAudioBackend());
+                || !a.getAudioBackend().equals(b.getAudioBackend())
+                || a.isThreadedSynthesis() != b.isThreadedSynthesis();
     }
 
     private static boolean inputChanged(EmulatorConfig a, EmulatorConfig b) {
@@ -562,6 +679,7 @@ public class EmulatorController implements EmulatorActions {
             SwingUtilities.invokeLater(() -> view.setStatusText("Save state not found"));
             return CompletableFuture.completedFuture(false);
         }
+        movies.cancel();
         return saveStateManager.loadStateFromAsync(path).whenComplete((success, throwable) -> {
             SwingUtilities.invokeLater(() -> {
                 if (throwable == null && Boolean.TRUE.equals(success)) {
@@ -574,6 +692,99 @@ public class EmulatorController implements EmulatorActions {
         });
     }
 
+    @Override
+    public boolean startMovieRecording() {
+        if (!isCartridgeLoaded()) {
+            SwingUtilities.invokeLater(() -> view.setStatusText("No ROM loaded"));
+            return false;
+        }
+        emulationLock.lock();
+        try {
+            movies.startRecording(gbc);
+        } finally {
+            emulationLock.unlock();
+        }
+        SwingUtilities.invokeLater(() -> view.setStatusText("Recording movie"));
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> stopMovieRecordingAsync(java.nio.file.Path path) {
+        Objects.requireNonNull(path, "path");
+        Movie movie;
+        emulationLock.lock();
+        try {
+            movie = movies.stopRecording();
+        } finally {
+            emulationLock.unlock();
+        }
+        if (movie == null) {
+            SwingUtilities.invokeLater(() -> view.setStatusText("No movie is recording"));
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                MovieFile.write(movie, path);
+                return true;
+            } catch (java.io.IOException e) {
+                LOGGER.log(Level.SEVERE, "Failed to save movie to " + path, e);
+                return false;
+            }
+        }, ioExecutor).whenComplete((success, throwable) -> {
+            String message = (throwable == null && Boolean.TRUE.equals(success))
+                    ? "Movie saved: " + path.getFileName()
+                    : "Failed to save movie";
+            SwingUtilities.invokeLater(() -> view.setStatusText(message));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> playMovieAsync(java.nio.file.Path path, boolean uncapped) {
+        Objects.requireNonNull(path, "path");
+        if (!isCartridgeLoaded()) {
+            SwingUtilities.invokeLater(() -> view.setStatusText("No ROM loaded"));
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return MovieFile.read(path);
+            } catch (java.io.IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ioExecutor).thenCompose(movie -> {
+            emulationLock.lock();
+            try {
+                return movies.startPlayback(gbc, movie, uncapped);
+            } finally {
+                emulationLock.unlock();
+            }
+        }).whenComplete((matched, throwable) -> {
+            final String message;
+            if (throwable != null) {
+                LOGGER.log(Level.SEVERE, "Failed to play movie " + path, throwable);
+                message = "Failed to play movie";
+            } else {
+                message = Boolean.TRUE.equals(matched)
+                        ? "Movie finished: end state matches"
+                        : "Movie stopped: end state differs or playback was interrupted";
+            }
+            SwingUtilities.invokeLater(() -> {
+                view.setStatusText(message);
+                view.update();
+            });
+        });
+    }
+
+    @Override
+    public void stopMovie() {
+        emulationLock.lock();
+        try {
+            movies.cancel();
+        } finally {
+            emulationLock.unlock();
+        }
+    }
+
     private String readRomTitle() {
         try {
             int romByte = gbc.getMemory().readByte(0x0134);
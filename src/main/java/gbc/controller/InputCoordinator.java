@@ -66,6 +66,10 @@ final class InputCoordinator {
         if (isRepeatable(mapped)) {
             repeater.handle(mapped, evt.pressed);
         }
+        if (isHoldAction(mapped)) {
+            gameActionHandler.accept(mapped, evt.pressed);
+            return;
+        }
         if (filter.isGameAction(mapped)) {
             filter.handle(mapped, evt.pressed, evt.timeNs, gameActionHandler);
             return;
@@ -79,6 +83,11 @@ final class InputCoordinator {
         gameActionHandler.accept(action, true);
     }
 
+    /** UI actions that stay active while their key is held. */
+    private boolean isHoldAction(String action) {
+        return "rewind".equals(action);
+    }
+
     private boolean isRepeatable(String action) {
         return switch (action) {
             case "up", "down", "left", "right", "a", "b" -> true;
@@ -119,6 +128,7 @@ final class InputCoordinator {
             case KeyEvent.VK_F8 -> "load0";
             case KeyEvent.VK_F9 -> "load1";
             case KeyEvent.VK_F10 -> "load2";
+            case KeyEvent.VK_BACK_SPACE -> "rewind";
             default -> null;
         };
     }
@@ -0,0 +1,113 @@
+package gbc.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import gbc.model.GameBoyColor;
+import gbc.model.state.Movie;
+import gbc.model.state.MoviePlayer;
+import gbc.model.state.MovieRecorder;
+
+/**
+ * The movie being recorded or played back, if any. While playing, the
+ * emulation loop hands each frame to {@link #playFrame} instead of running
+ * the machine itself; an uncapped playback also drops the frame clock,
+ * video and audio. Callers on the emulation thread hold
+ * {@code emulationLock}; everything else goes through the monitor.
+ */
+final class MovieSession {
+    private static final Logger LOGGER = Logger.getLogger(MovieSession.class.getName());
+
+    private MovieRecorder recorder;
+    private MoviePlayer player;
+    private CompletableFuture<Boolean> playbackResult;
+    private volatile boolean uncapped;
+
+    synchronized boolean isRecording() {
+        return recorder != null;
+    }
+
+    synchronized boolean isPlaying() {
+        return player != null;
+    }
+
+    /** Lock-free, for the frame pacing check. */
+    boolean isUncapped() {
+        return uncapped;
+    }
+
+    synchronized void startRecording(GameBoyColor gbc) {
+        cancel();
+        recorder = new MovieRecorder(gbc);
+        LOGGER.info("Movie recording started");
+    }
+
+    /** Ends the recording and returns it, or null when nothing was recording. */
+    synchronized Movie stopRecording() {
+        if (recorder == null) {
+            return null;
+        }
+        Movie movie = recorder.finish();
+        recorder = null;
+        LOGGER.info(() -> String.format("Movie recording stopped: %d frames, %d input changes",
+                movie.getFrameCount(), movie.getEventCount()));
+        return movie;
+    }
+
+    /**
+     * Restores the movie's initial state and starts playing it. The returned
+     * future completes with whether the playback ended on the recorded state,
+     * or false if it was cancelled. Throws {@link IllegalStateException} when
+     * the movie does not fit the loaded ROM.
+     */
+    synchronized CompletableFuture<Boolean> startPlayback(GameBoyColor gbc, Movie movie, boolean uncapped) {
+        cancel();
+        player = new MoviePlayer(movie, gbc);
+        this.uncapped = uncapped;
+        playbackResult = new CompletableFuture<>();
+        LOGGER.info(() -> String.format("Movie playback started: %d frames%s",
+                movie.getFrameCount(), uncapped ? ", uncapped" : ""));
+        return playbackResult;
+    }
+
+    /** Emulation thread: plays up to {@code cycles} cycles of the movie. */
+    synchronized void playFrame(int cycles) {
+        if (player == null || player.run(cycles)) {
+            return;
+        }
+        boolean matches = player.matchesRecording();
+        Movie movie = player.getMovie();
+        LOGGER.log(matches ? Level.INFO : Level.WARNING, () -> String.format(
+                "Movie playback %s: expected end state %s", matches ? "matched" : "DIVERGED",
+                Movie.toHex(movie.getEndStateHash())));
+        finishPlayback(matches);
+    }
+
+    /** Emulation thread: called after each host frame. */
+    synchronized void frameCompleted() {
+        if (recorder != null) {
+            recorder.frameCompleted();
+        }
+    }
+
+    /** Drops any recording in progress and stops playback. */
+    synchronized void cancel() {
+        if (recorder != null) {
+            recorder.cancel();
+            recorder = null;
+            LOGGER.info("Movie recording discarded");
+        }
+        if (player != null) {
+            finishPlayback(false);
+        }
+    }
+
+    private void finishPlayback(boolean matches) {
+        player = null;
+        uncapped = false;
+        CompletableFuture<Boolean> result = playbackResult;
+        playbackResult = null;
+        result.complete(matches);
+    }
+}
@@ -0,0 +1,147 @@
+package gbc.controller;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+import gbc.model.state.RewindBuffer;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+/**
+ * Records machine snapshots into a {@link RewindBuffer} while the game runs
+ * and steps back through them while the rewind key is held. Called from the
+ * emulation thread with {@code emulationLock} held.
+ */
+final class Rewinder {
+    private static final Logger LOGGER = Logger.getLogger(Rewinder.class.getName());
+    private static final int KEYFRAME_INTERVAL = 30;
+    /** Upper bound when running to the next VBlank; LCD-off code never reaches one. */
+    private static final int MAX_CATCH_UP_CYCLES = 70224 * 2;
+    private static final double EWMA_WEIGHT = 0.05;
+
+    private final EmulationSettings settings;
+    private final AtomicBoolean rewinding = new AtomicBoolean();
+    private final StateWriter writer = new StateWriter();
+    private RewindBuffer buffer;
+    private long configuredCapacity;
+    private int framesSinceCapture;
+    private boolean audioSilenced;
+    private volatile double captureNanos;
+    private volatile double compressionRatio;
+    private volatile long storedBytes;
+
+    Rewinder(EmulationSettings settings) {
+        this.settings = settings;
+    }
+
+    void setRewinding(boolean active) {
+        rewinding.set(active);
+    }
+
+    boolean isRewinding() {
+        return rewinding.get() && settings.rewindEnabled();
+    }
+
+    /** Drops the history, e.g. after loading a ROM or a save state. */
+    synchronized void clear() {
+        if (buffer != null) {
+            buffer.clear();
+        }
+        framesSinceCapture = 0;
+        storedBytes = 0;
+    }
+
+    /**
+     * Captures a snapshot every {@code rewind.interval} frames and lifts the
+     * rewind audio mute once the game runs forward again.
+     */
+    synchronized void afterFrame(GameBoyColor gbc) {
+        if (audioSilenced) {
+            gbc.setAudioSilenced(Apu.SilenceReason.REWIND, false);
+            audioSilenced = false;
+        }
+        if (!settings.rewindEnabled()) {
+            if (buffer != null) {
+                buffer = null;
+                storedBytes = 0;
+            }
+            return;
+        }
+        if (++framesSinceCapture < settings.rewindInterval()) {
+            return;
+        }
+        framesSinceCapture = 0;
+        long start = System.nanoTime();
+        writer.reset();
+        // Rewind shows the frame the catch-up in stepBack draws, so the
+        // frame buffer is not worth its share of the budget
+        gbc.snapshot(writer, false);
+        ensureBuffer().push(writer.buffer(), writer.size());
+        long elapsed = System.nanoTime() - start;
+        captureNanos = captureNanos == 0 ? elapsed : captureNanos + (elapsed - captureNanos) * EWMA_WEIGHT;
+        compressionRatio = buffer.getCompressionRatio();
+        storedBytes = buffer.getStoredBytes();
+    }
+
+    /**
+     * Restores up to {@code rewind.speed} entries back and then runs to the
+     * next VBlank, silently, so the screen shows a complete frame of that
+     * moment. Returns false once the history is exhausted.
+     */
+    synchronized boolean stepBack(GameBoyColor gbc) {
+        if (buffer == null) {
+            return false;
+        }
+        StateReader state = null;
+        for (int i = 0; i < settings.rewindSpeed(); i++) {
+            StateReader next = buffer.pop();
+            if (next == null) {
+                break;
+            }
+            state = next;
+        }
+        storedBytes = buffer.getStoredBytes();
+        if (state == null) {
+            return false;
+        }
+        if (!audioSilenced) {
+            gbc.setAudioSilenced(Apu.SilenceReason.REWIND, true);
+            audioSilenced = true;
+        }
+        try {
+            gbc.restore(state);
+            gbc.runToVBlank(MAX_CATCH_UP_CYCLES);
+        } catch (IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Discarding rewind history that no longer matches the machine", e);
+            buffer.clear();
+            return false;
+        }
+        framesSinceCapture = 0;
+        return true;
+    }
+
+    /** Average time spent capturing one snapshot, in microseconds. */
+    double getCaptureMicros() {
+        return captureNanos / 1000.0;
+    }
+
+    double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    long getStoredBytes() {
+        return storedBytes;
+    }
+
+    private RewindBuffer ensureBuffer() {
+        long capacity = settings.rewindBufferBytes();
+        if (buffer == null || capacity != configuredCapacity) {
+            buffer = new RewindBuffer(capacity, KEYFRAME_INTERVAL);
+            configuredCapacity = capacity;
+        }
+        return buffer;
+    }
+}
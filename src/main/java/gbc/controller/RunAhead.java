@@ -0,0 +1,108 @@
+package gbc.controller;
+
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.Cartridge;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.sound.Apu;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+/**
+ * Hides the game's own input lag by showing the frame the machine would
+ * draw {@code runAhead.frames} frames from now under the current input.
+ *
+ * <p>
+ * Frames run from VBlank to VBlank. The real frame runs with video output
+ * off and produces the audio; the look-ahead frames run APU-silent and only
+ * the last of them draws. With a single instance the machine is snapshotted,
+ * run ahead and restored every frame. With {@code runAhead.secondInstance}
+ * the look-ahead runs on a separate {@link GameBoyColor} loaded from a
+ * snapshot of the main one, so the main instance never rolls back.
+ *
+ * <p>
+ * Called from the emulation thread with {@code emulationLock} held.
+ */
+final class RunAhead {
+    static final int MAX_FRAMES = 4;
+
+    private final EmulationSettings settings;
+    private final StateWriter writer = new StateWriter();
+    private GameBoyColor lookAhead;
+    private Cartridge lookAheadSource;
+
+    RunAhead(EmulationSettings settings) {
+        this.settings = settings;
+    }
+
+    boolean isEnabled() {
+        return settings.runAheadFrames() > 0;
+    }
+
+    /**
+     * Advances the machine by one real frame and presents the frame
+     * {@code runAhead.frames} ahead of it. {@code maxCycles} bounds each
+     * frame when the LCD is off and no VBlank arrives.
+     */
+    void runFrame(GameBoyColor gbc, int maxCycles) {
+        gbc.setFrameOutputEnabled(false);
+        gbc.runToVBlank(maxCycles);
+
+        int frames = settings.runAheadFrames();
+        writer.reset();
+        gbc.snapshot(writer, false);
+        if (settings.runAheadSecondInstance()) {
+            runOnSecondInstance(gbc, frames, maxCycles);
+        } else {
+            lookAhead = null;
+            lookAheadSource = null;
+            runInPlace(gbc, frames, maxCycles);
+        }
+    }
+
+    private void runInPlace(GameBoyColor gbc, int frames, int maxCycles) {
+        gbc.beginSpeculation();
+        try {
+            runFrames(gbc, frames, maxCycles);
+        } finally {
+            gbc.setFrameOutputEnabled(false);
+            gbc.restore(new StateReader(writer.buffer(), 0, writer.size()));
+            gbc.endSpeculation();
+        }
+    }
+
+    private void runOnSecondInstance(GameBoyColor gbc, int frames, int maxCycles) {
+        GameBoyColor shadow = lookAheadFor(gbc);
+        shadow.restore(new StateReader(writer.buffer(), 0, writer.size()));
+        long frameId = shadow.getFrameBuffer().getFrameId();
+        runFrames(shadow, frames, maxCycles);
+        if (shadow.getFrameBuffer().getFrameId() != frameId) {
+            gbc.presentFrame(shadow.getFrameBuffer().getPixels());
+        }
+    }
+
+    private static void runFrames(GameBoyColor gbc, int frames, int maxCycles) {
+        for (int i = 0; i < frames; i++) {
+            gbc.setFrameOutputEnabled(i == frames - 1);
+            gbc.runToVBlank(maxCycles);
+        }
+    }
+
+    /**
+     * Returns the look-ahead machine for the main instance's cartridge,
+     * building a fresh one after a ROM change. It gets its own copy of the
+     * cartridge so its SRAM writes never reach the main one or the disk.
+     */
+    private GameBoyColor lookAheadFor(GameBoyColor gbc) {
+        Cartridge cartridge = gbc.getMemory().getCartridge();
+        if (lookAhead == null || lookAheadSource != cartridge) {
+            GameBoyColor shadow = new GameBoyColor(gbc.getConfig());
+            shadow.getMemory().setHardwareType(gbc.getMemory().getHardwareType());
+            shadow.insertCartridge(CartridgeFactory.create(cartridge.getData()));
+            shadow.getMemory().getApu().setThreadedSynthesis(false);
+            shadow.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+            lookAhead = shadow;
+            lookAheadSource = cartridge;
+        }
+        return lookAhead;
+    }
+}
@@ -2,8 +2,13 @@ package gbc.controller;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
@@ -15,9 +20,18 @@ import gbc.model.GameBoyColor;
 
 /**
  * Manages save/load state operations, decoupled from UI concerns.
+ *
+ * <p>
+ * Saving holds {@code emulationLock} only for the in-memory machine snapshot.
+ * Compression, checksumming and the atomic file replace run on
+ * {@code ioExecutor}. At most {@link #MAX_PENDING_WRITES} files can be queued;
+ * a save to a path whose previous write has not started yet replaces that
+ * write's snapshot instead of queuing another one.
  */
 public class SaveStateManager {
     private static final Logger LOGGER = Logger.getLogger(SaveStateManager.class.getName());
+    static final int MAX_PENDING_WRITES = 4;
+    private static final long LOAD_WAIT_MS = 2000;
 
     private final GameBoyColor gbc;
     private final ReentrantLock emulationLock;
@@ -25,6 +39,18 @@ public class SaveStateManager {
     private final Function<Boolean, Boolean> setPaused;
     private final BooleanSupplier isCartridgeLoaded;
 
+    /** Queued writes by target path, guarded by {@code this}. */
+    private final Map<Path, PendingWrite> pendingWrites = new LinkedHashMap<>();
+
+    private static final class PendingWrite {
+        byte[] state;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        PendingWrite(byte[] state) {
+            this.state = state;
+        }
+    }
+
     public SaveStateManager(GameBoyColor gbc,
             ReentrantLock emulationLock,
             ExecutorService ioExecutor,
@@ -37,32 +63,31 @@ public class SaveStateManager {
         this.isCartridgeLoaded = isCartridgeLoaded;
     }
 
-    public boolean saveState(int slot) {
+    public CompletableFuture<Boolean> saveState(int slot) {
         if (!isCartridgeLoaded.getAsBoolean()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         String romPath = gbc.getCurrentRomPath();
         if (romPath == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
+        return saveStateToAsync(SaveState.getSaveStatePath(romPath, gbc.getConfig().saveDirectory(), slot));
+    }
 
-        boolean wasPaused = setPaused.apply(true);
-        emulationLock.lock();
-        try {
-            Path savePath = SaveState.getSaveStatePath(romPath, slot);
-            try {
-                Files.createDirectories(savePath.getParent());
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Failed to create save directory", e);
-            }
-            return SaveState.save(gbc, savePath);
-        } finally {
-            emulationLock.unlock();
-            if (!wasPaused) {
-                setPaused.apply(false);
-            }
+    /**
+     * Writes a crash-safe autosave for the current ROM. Called periodically;
+     * does nothing when no ROM is loaded.
+     */
+    public CompletableFuture<Boolean> autosave() {
+        if (!isCartridgeLoaded.getAsBoolean()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Path path = SaveState.getAutosavePath(gbc.getCurrentRomPath(), gbc.getConfig().saveDirectory());
+        if (path == null) {
+            return CompletableFuture.completedFuture(false);
         }
+        return saveStateToAsync(path);
     }
 
     public boolean loadState(int slot) {
@@ -75,10 +100,11 @@ public class SaveStateManager {
             return false;
         }
 
-        Path savePath = SaveState.getSaveStatePath(romPath, slot);
+        Path savePath = SaveState.getSaveStatePath(romPath, gbc.getConfig().saveDirectory(), slot);
         if (savePath == null || !Files.exists(savePath)) {
             return false;
         }
+        flush(LOAD_WAIT_MS);
 
         boolean wasPaused = setPaused.apply(true);
         emulationLock.lock();
@@ -96,30 +122,14 @@ public class SaveStateManager {
         if (!isCartridgeLoaded.getAsBoolean()) {
             return CompletableFuture.completedFuture(false);
         }
-        boolean wasPaused = setPaused.apply(true);
-        return CompletableFuture.supplyAsync(() -> {
-            emulationLock.lock();
-            try {
-                Path parent = path.getParent();
-                if (parent != null) {
-                    try {
-                        Files.createDirectories(parent);
-                    } catch (Exception e) {
-                        LOGGER.log(Level.WARNING, "Failed to create save directory", e);
-                    }
-                }
-                return SaveState.save(gbc, path);
-            } finally {
-                emulationLock.unlock();
-            }
-        }, ioExecutor).whenComplete((success, throwable) -> {
-            if (!wasPaused) {
-                setPaused.apply(false);
-            }
-            if (throwable != null) {
-                LOGGER.log(Level.SEVERE, "Failed to save state", throwable);
-            }
-        });
+        byte[] state;
+        emulationLock.lock();
+        try {
+            state = gbc.snapshot();
+        } finally {
+            emulationLock.unlock();
+        }
+        return enqueueWrite(path, state);
     }
 
     public CompletableFuture<Boolean> loadStateFromAsync(Path path) {
@@ -130,6 +140,8 @@ public class SaveStateManager {
             return CompletableFuture.completedFuture(false);
         }
         boolean wasPaused = setPaused.apply(true);
+        // Queued writes run first on the single-threaded executor, so a load
+        // submitted after a save of the same file sees the new contents
         return CompletableFuture.supplyAsync(() -> {
             emulationLock.lock();
             try {
@@ -146,4 +158,76 @@ public class SaveStateManager {
             }
         });
     }
+
+    /**
+     * Waits up to {@code timeoutMs} for queued and running writes to reach
+     * disk. Used before loading a slot and on shutdown, before the IO executor
+     * is stopped. Relies on {@code ioExecutor} running tasks in order.
+     */
+    public void flush(long timeoutMs) {
+        try {
+            CompletableFuture.runAsync(() -> {
+            }, ioExecutor).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Executor already stopped; nothing left to wait for
+        } catch (TimeoutException e) {
+            LOGGER.warning("Timed out waiting for save states to be written");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Save state write failed during flush", e);
+        }
+    }
+
+    synchronized int pendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    private CompletableFuture<Boolean> enqueueWrite(Path path, byte[] state) {
+        PendingWrite write;
+        synchronized (this) {
+            PendingWrite queued = pendingWrites.get(path);
+            if (queued != null) {
+                // Not started yet: the newer snapshot supersedes it
+                queued.state = state;
+                return queued.result;
+            }
+            if (pendingWrites.size() >= MAX_PENDING_WRITES) {
+                LOGGER.warning(() -> "Save state queue full, dropping save to " + path);
+                return CompletableFuture.completedFuture(false);
+            }
+            write = new PendingWrite(state);
+            pendingWrites.put(path, write);
+        }
+        try {
+            ioExecutor.execute(() -> runWrite(path));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                pendingWrites.remove(path);
+            }
+            LOGGER.log(Level.WARNING, "Save state writer is shut down", e);
+            write.result.complete(false);
+        }
+        return write.result;
+    }
+
+    private void runWrite(Path path) {
+        PendingWrite write;
+        synchronized (this) {
+            write = pendingWrites.remove(path);
+        }
+        if (write == null) {
+            return;
+        }
+        try {
+            Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            write.result.complete(SaveState.write(write.state, path));
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to save state to " + path, e);
+            write.result.complete(false);
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package gbc.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.Cartridge;
+
+/**
+ * Periodically writes the battery RAM pages the game changed, so a crash
+ * loses at most one flush interval of progress. Only the page copy holds
+ * {@code emulationLock}; the file write and optional fsync run on
+ * {@code ioExecutor}, in order with save state writes.
+ */
+final class SramFlusher {
+    private static final Logger LOGGER = Logger.getLogger(SramFlusher.class.getName());
+
+    private final GameBoyColor gbc;
+    private final ReentrantLock emulationLock;
+    private final ExecutorService ioExecutor;
+
+    SramFlusher(GameBoyColor gbc, ReentrantLock emulationLock, ExecutorService ioExecutor) {
+        this.gbc = gbc;
+        this.emulationLock = emulationLock;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Queues a write of the pages changed since the last flush. Completes
+     * with false when the write failed or the executor is gone, true
+     * otherwise, including when nothing had changed.
+     */
+    CompletableFuture<Boolean> flush(boolean sync) {
+        Cartridge cartridge;
+        Cartridge.RamFlush pages;
+        emulationLock.lock();
+        try {
+            cartridge = gbc.getMemory().getCartridge();
+            pages = cartridge != null ? cartridge.captureDirtyRam() : null;
+        } finally {
+            emulationLock.unlock();
+        }
+        if (pages == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> write(cartridge, pages, sync), ioExecutor);
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.WARNING, "SRAM writer is shut down", e);
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Writes the changed pages on the calling thread, e.g. before the
+     * cartridge is swapped out. The caller holds {@code emulationLock}.
+     */
+    boolean flushNow(boolean sync) {
+        Cartridge cartridge = gbc.getMemory().getCartridge();
+        Cartridge.RamFlush pages = cartridge != null ? cartridge.captureDirtyRam() : null;
+        return pages == null || write(cartridge, pages, sync);
+    }
+
+    private static boolean write(Cartridge cartridge, Cartridge.RamFlush pages, boolean sync) {
+        boolean written = cartridge.writeDirtyRam(pages, sync);
+        if (written) {
+            LOGGER.fine(() -> String.format("Flushed %d SRAM pages", pages.getPageCount()));
+        }
+        return written;
+    }
+}
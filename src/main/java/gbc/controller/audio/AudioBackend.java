@@ -1,12 +1,20 @@
 package gbc.controller.audio;
 
 import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
 
 /**
  * Common interface for audio output backends (OpenAL, javax.sound, etc.).
  */
 public interface AudioBackend extends AutoCloseable {
-    void start(GameBoyColor gbc);
+    /**
+     * Starts output for {@code gbc} and returns whether it is running, or
+     * being brought up on the audio thread. The backend clears
+     * {@link Apu.SilenceReason#NO_BACKEND} once samples are being consumed and
+     * sets it again if output fails or dies later; a false return leaves the
+     * reason to the caller.
+     */
+    boolean start(GameBoyColor gbc);
 
     void stop();
 
@@ -22,4 +30,10 @@ public interface AudioBackend extends AutoCloseable {
     int getBufferedBytes();
 
     int getBufferCapacityBytes();
+
+    /** Reads that found fewer APU frames than the device needed. */
+    long getUnderrunCount();
+
+    /** APU frames dropped because the output ring was full. */
+    long getOverrunCount();
 }
@@ -4,6 +4,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
 
 /**
  * Audio engine facade that delegates to a configurable backend
@@ -12,6 +13,7 @@ import gbc.model.GameBoyColor;
 public final class AudioEngine implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(AudioEngine.class.getName());
     private AudioBackend backend;
+    private GameBoyColor gbc;
 
     @Override
     public synchronized void close() {
@@ -21,14 +23,20 @@ public final class AudioEngine implements AutoCloseable {
     public synchronized void start(GameBoyColor gbc) {
         if (backend != null)
             return;
+        this.gbc = gbc;
+        boolean started = false;
         try {
             backend = new OpenAlAudioEngine();
             LOGGER.info("Using OpenAL audio backend");
-            backend.start(gbc);
+            started = backend.start(gbc);
         } catch (Throwable e) {
             LOGGER.log(Level.WARNING, "OpenAL unavailable, audio disabled", e);
             backend = null;
         }
+        if (!started) {
+            // Without a consumer the APU only needs to keep its register state
+            gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        }
     }
 
     public void setPaused(boolean value) {
@@ -42,6 +50,9 @@ public final class AudioEngine implements AutoCloseable {
             backend.stop();
             backend = null;
         }
+        if (gbc != null) {
+            gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        }
     }
 
     public synchronized void restart(GameBoyColor gbc) {
@@ -63,4 +74,14 @@ public final class AudioEngine implements AutoCloseable {
         AudioBackend b = backend;
         return b != null ? b.getBufferCapacityBytes() : 0;
     }
+
+    public long getUnderrunCount() {
+        AudioBackend b = backend;
+        return b != null ? b.getUnderrunCount() : 0;
+    }
+
+    public long getOverrunCount() {
+        AudioBackend b = backend;
+        return b != null ? b.getOverrunCount() : 0;
+    }
 }
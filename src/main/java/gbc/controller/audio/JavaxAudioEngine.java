@@ -17,10 +17,13 @@ import javax.sound.sampled.SourceDataLine;
 import gbc.controller.config.AppConfig;
 import gbc.controller.config.EmulatorConfig;
 import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+import gbc.model.sound.AudioRingBuffer;
 
 /**
- * Streams APU samples to the host audio device via javax.sound.sampled.
- * Falls back to a no-op mode when audio output is disabled or unavailable.
+ * Streams APU samples to the host audio device via javax.sound.sampled,
+ * reading signed 16-bit frames from the APU's {@link AudioRingBuffer}. Falls
+ * back to a no-op mode when audio output is disabled or unavailable.
  */
 public final class JavaxAudioEngine implements AudioBackend {
     private static final Logger LOGGER = Logger.getLogger(JavaxAudioEngine.class.getName());
@@ -44,6 +47,10 @@ public final class JavaxAudioEngine implements AudioBackend {
     private long lastBufferLogNs;
     private double testPhase;
     private static final double TEST_FREQ = 440.0;
+    /** Frames pulled from the APU ring per line write. */
+    private static final int CHUNK_FRAMES = 512;
+    private final short[] pcmScratch = new short[CHUNK_FRAMES * 2];
+    private volatile AudioRingBuffer ring;
     private int sampleRate;
     private int bufferSize;
     private volatile int lastBufferedBytes;
@@ -100,12 +107,12 @@ public final class JavaxAudioEngine implements AudioBackend {
     }
 
     @Override
-    public synchronized void start(GameBoyColor gbc) {
+    public synchronized boolean start(GameBoyColor gbc) {
         if (isDisabled()) {
-            return;
+            return false;
         }
         if (running.get()) {
-            return;
+            return true;
         }
         readSettings();
 
@@ -126,11 +133,13 @@ public final class JavaxAudioEngine implements AudioBackend {
             logDebug("JavaxAudioEngine disabled", ex);
             shutdownExecutor();
             line = null;
-            return;
+            return false;
         }
 
         running.set(true);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, false);
         worker = executor.submit(() -> pumpAudio(gbc));
+        return true;
     }
 
     @Override
@@ -172,6 +181,7 @@ public final class JavaxAudioEngine implements AudioBackend {
         try {
             while (running.get() && !Thread.currentThread().isInterrupted()) {
                 if (paused.get()) {
+                    gbc.getAudioOutputRing().discard();
                     TimeUnit.MILLISECONDS.sleep(5);
                     continue;
                 }
@@ -181,33 +191,47 @@ public final class JavaxAudioEngine implements AudioBackend {
                     continue;
                 }
 
-                if (gbc.isAudioBufferFull()) {
-                    byte[] samples = gbc.fetchAudioSamples();
-                    if (audioTestTone) {
-                        writeTestTone();
-                        continue;
-                    }
-                    if (samples != null && samples.length > 0) {
-                        int written = writeConvertedSamples(samples);
-                        if (written > 0) {
-                            lastWriteNs = System.nanoTime();
-                        }
-                        updateBufferedBytes();
-                        buffersWritten++;
-                        long now = System.nanoTime();
-                        if (audioDebug && now - lastBufferLogNs > TimeUnit.SECONDS.toNanos(2)) {
-                            lastBufferLogNs = now;
-                            logDebug("JavaxAudioEngine buffers written: " + buffersWritten, null);
-                        }
-                    }
-                } else {
+                gbc.renderPendingAudio();
+                // The APU replaces its ring when audio settings are reloaded
+                AudioRingBuffer source = gbc.getAudioOutputRing();
+                ring = source;
+                if (audioTestTone) {
+                    source.discard();
+                    writeTestTone();
+                    continue;
+                }
+
+                updateBufferedBytes();
+                // Wait for a full chunk unless the line is about to starve
+                if (source.available() < CHUNK_FRAMES && lastBufferedBytes > 0) {
+                    TimeUnit.MILLISECONDS.sleep(1);
+                    continue;
+                }
+                int frames = source.read(pcmScratch, 0, CHUNK_FRAMES);
+                if (frames == 0) {
                     TimeUnit.MILLISECONDS.sleep(1);
+                    continue;
+                }
+                int written = writeConvertedSamples(pcmScratch, frames);
+                if (written > 0) {
+                    lastWriteNs = System.nanoTime();
+                }
+                updateBufferedBytes();
+                buffersWritten++;
+                long now = System.nanoTime();
+                if (audioDebug && now - lastBufferLogNs > TimeUnit.SECONDS.toNanos(2)) {
+                    lastBufferLogNs = now;
+                    logDebug("JavaxAudioEngine buffers written: " + buffersWritten, null);
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "JavaxAudioEngine error", e);
+            // Nothing consumes samples any more
+            if (running.getAndSet(false)) {
+                gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+            }
         }
     }
 
@@ -226,13 +250,28 @@ public final class JavaxAudioEngine implements AudioBackend {
         return bufferCapacityBytes;
     }
 
+    @Override
+    public long getUnderrunCount() {
+        AudioRingBuffer r = ring;
+        return r != null ? r.getUnderrunCount() : 0;
+    }
+
+    @Override
+    public long getOverrunCount() {
+        AudioRingBuffer r = ring;
+        return r != null ? r.getOverrunCount() : 0;
+    }
+
     private void writeTestTone() {
-        int frames = 512;
+        int frames = CHUNK_FRAMES;
         int needed = frames * outputChannels * Math.max(1, outputSampleSizeBits / 8);
-        byte[] buf = new byte[needed];
+        if (scratch16 == null || scratch16.length < needed) {
+            scratch16 = new byte[needed];
+        }
+        byte[] buf = scratch16;
         double phaseInc = (2.0 * Math.PI * TEST_FREQ) / sampleRate;
         for (int i = 0; i < frames; i++) {
-            float value = (float) Math.sin(testPhase) * 0.6f;
+            int value = (int) Math.round(Math.sin(testPhase) * 0.6 * 32767.0);
             writeSampleFrame(buf, i, value, value);
             testPhase += phaseInc;
             if (testPhase > 2.0 * Math.PI) {
@@ -396,11 +435,10 @@ public final class JavaxAudioEngine implements AudioBackend {
         this.outputChannels = Math.max(1, format.getChannels());
     }
 
-    private int writeConvertedSamples(byte[] samples) {
+    private int writeConvertedSamples(short[] samples, int inputFrames) {
         if (line == null || outputFormat == null) {
             return 0;
         }
-        int inputFrames = samples.length / 2;
         int bytesPerSample = Math.max(1, outputSampleSizeBits / 8);
         int frameSize = bytesPerSample * outputChannels;
         int needed = inputFrames * frameSize;
@@ -408,11 +446,7 @@ public final class JavaxAudioEngine implements AudioBackend {
             scratch16 = new byte[needed];
         }
         for (int i = 0; i < inputFrames; i++) {
-            int left = (samples[i * 2] & 0xFF) - 128;
-            int right = (samples[i * 2 + 1] & 0xFF) - 128;
-            float lf = left / 128f;
-            float rf = right / 128f;
-            writeSampleFrame(scratch16, i, lf, rf);
+            writeSampleFrame(scratch16, i, samples[i * 2], samples[i * 2 + 1]);
         }
         line.write(scratch16, 0, needed);
         return needed;
@@ -430,19 +464,21 @@ public final class JavaxAudioEngine implements AudioBackend {
             silenceBuffer = new byte[needed];
         }
         for (int i = 0; i < frames; i++) {
-            writeSampleFrame(silenceBuffer, i, 0f, 0f);
+            writeSampleFrame(silenceBuffer, i, 0, 0);
         }
         line.write(silenceBuffer, 0, needed);
     }
 
-    private void writeSampleFrame(byte[] out, int frameIndex, float left, float right) {
-        float mono = (left + right) * 0.5f;
+    /**
+     * Encodes one frame of signed 16-bit samples in the negotiated line format.
+     */
+    private void writeSampleFrame(byte[] out, int frameIndex, int left, int right) {
+        int mono = (left + right) >> 1;
         int base = frameIndex * outputChannels * Math.max(1, outputSampleSizeBits / 8);
         for (int ch = 0; ch < outputChannels; ch++) {
-            float sample = outputChannels == 1 ? mono : (ch == 0 ? left : right);
+            int sample = outputChannels == 1 ? mono : (ch == 0 ? left : right);
             if (outputSampleSizeBits == 16) {
-                int value = Math.round(sample * 32767f);
-                value = Math.max(-32768, Math.min(32767, value));
+                int value = sample;
                 if (!outputSigned) {
                     value += 32768;
                 }
@@ -457,8 +493,7 @@ public final class JavaxAudioEngine implements AudioBackend {
                     out[idx + 1] = hi;
                 }
             } else {
-                int value = Math.round(sample * 127f);
-                value = Math.max(-128, Math.min(127, value));
+                int value = sample >> 8;
                 if (!outputSigned) {
                     value += 128;
                 }
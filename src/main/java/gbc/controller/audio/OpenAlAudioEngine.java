@@ -22,25 +22,22 @@ import org.lwjgl.system.MemoryUtil;
 import gbc.controller.config.AppConfig;
 import gbc.controller.config.EmulatorConfig;
 import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+import gbc.model.sound.AudioRingBuffer;
 
 /**
  * Streams APU samples to the host audio device via LWJGL OpenAL.
  * Uses a streaming buffer queue for low-latency audio output.
  * <p>
- * The APU produces large buffers (e.g. 2048 stereo frames) but this engine
- * uses smaller OpenAL buffers (512 frames) for lower latency. A residual
- * byte array bridges the size mismatch.
+ * Each processed OpenAL buffer (512 frames) is refilled straight from the
+ * APU's 16-bit {@link AudioRingBuffer}, so the pump loop neither locks nor
+ * allocates.
  */
 public final class OpenAlAudioEngine implements AudioBackend {
     private static final Logger LOGGER = Logger.getLogger(OpenAlAudioEngine.class.getName());
     private static final int NUM_BUFFERS = 6;
     /** OpenAL buffer size in stereo frames – kept small for low latency. */
     private static final int AL_BUFFER_FRAMES = 512;
-    /**
-     * Noise gate threshold (signed 8-bit). Samples within ±GATE of silence
-     * are zeroed to suppress DC-filter quantisation artifacts.
-     */
-    private static final int NOISE_GATE = 1;
 
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicBoolean paused = new AtomicBoolean(false);
@@ -54,23 +51,18 @@ public final class OpenAlAudioEngine implements AudioBackend {
     private Future<?> worker;
 
     private int sampleRate;
-    private int bufferFrames;
-
-    // Residual buffer: holds unconsumed APU data between pump iterations
-    private byte[] residual;
-    private int residualPos;
-    private int residualLen;
+    private volatile AudioRingBuffer ring;
 
     private volatile long lastWriteNs;
     private volatile int lastBufferedBytes;
     private volatile int bufferCapacityBytes;
 
     @Override
-    public synchronized void start(GameBoyColor gbc) {
+    public synchronized boolean start(GameBoyColor gbc) {
         if (isDisabled())
-            return;
+            return false;
         if (running.get())
-            return;
+            return true;
 
         readSettings();
 
@@ -84,6 +76,7 @@ public final class OpenAlAudioEngine implements AudioBackend {
 
         running.set(true);
         worker = executor.submit(() -> runAudioThread(gbc));
+        return true;
     }
 
     @Override
@@ -134,41 +127,50 @@ public final class OpenAlAudioEngine implements AudioBackend {
         return bufferCapacityBytes;
     }
 
+    @Override
+    public long getUnderrunCount() {
+        AudioRingBuffer r = ring;
+        return r != null ? r.getUnderrunCount() : 0;
+    }
+
+    @Override
+    public long getOverrunCount() {
+        AudioRingBuffer r = ring;
+        return r != null ? r.getOverrunCount() : 0;
+    }
+
     private void readSettings() {
         EmulatorConfig cfg = AppConfig.get().getConfig();
         this.sampleRate = Math.max(8000, cfg.getSampleRate());
-        // bufferFrames is used only for the residual buffer sizing;
-        // OpenAL buffers always use AL_BUFFER_FRAMES for low latency.
-        int configuredBuffer = cfg.getAudioBufferSize();
-        if (configuredBuffer > 0) {
-            this.bufferFrames = Math.max(AL_BUFFER_FRAMES, configuredBuffer / 2);
-        } else {
-            this.bufferFrames = 2048;
-        }
+        // OpenAL buffers always use AL_BUFFER_FRAMES for low latency; the APU
+        // ring absorbs the difference to the configured buffer size.
         this.bufferCapacityBytes = NUM_BUFFERS * AL_BUFFER_FRAMES * 4;
     }
 
     /**
      * Runs entirely on the audio thread so all OpenAL calls happen in a single
      * thread context. Initialisation, the pump loop, and cleanup are all here.
+     * The APU synthesises only while the device is open; if initialisation
+     * fails or the loop dies on its own, it goes back to register-only mode.
      */
     private void runAudioThread(GameBoyColor gbc) {
         ShortBuffer pcmBuffer = null;
         try {
             initOpenAL();
             pcmBuffer = MemoryUtil.memAllocShort(AL_BUFFER_FRAMES * 2);
-            // Size residual to hold one full APU buffer
-            residual = new byte[bufferFrames * 2];
-            residualPos = 0;
-            residualLen = 0;
+            gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, false);
             pumpAudio(gbc, pcmBuffer);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             LOGGER.log(Level.WARNING, "OpenAL audio error", e);
         } finally {
             if (pcmBuffer != null) {
                 MemoryUtil.memFree(pcmBuffer);
             }
             cleanupOpenAL();
+            // A stop() already cleared running and leaves silencing to its caller
+            if (running.getAndSet(false)) {
+                gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+            }
         }
     }
 
@@ -245,9 +247,8 @@ public final class OpenAlAudioEngine implements AudioBackend {
                 if (state == AL10.AL_PLAYING) {
                     AL10.alSourcePause(alSource);
                 }
-                // Discard residual so stale audio doesn't play on resume
-                residualLen = 0;
-                residualPos = 0;
+                // Discard queued samples so stale audio doesn't play on resume
+                gbc.getAudioOutputRing().discard();
                 TimeUnit.MILLISECONDS.sleep(5);
                 continue;
             }
@@ -265,47 +266,15 @@ public final class OpenAlAudioEngine implements AudioBackend {
                 continue;
             }
 
+            gbc.renderPendingAudio();
+            // The APU replaces its ring when audio settings are reloaded
+            AudioRingBuffer source = gbc.getAudioOutputRing();
+            ring = source;
             for (int i = 0; i < processed; i++) {
                 int buf = AL10.alSourceUnqueueBuffers(alSource);
 
-                // Fill pcmBuffer with AL_BUFFER_FRAMES frames from the residual
                 pcmBuffer.clear();
-                int framesWritten = 0;
-
-                while (framesWritten < AL_BUFFER_FRAMES) {
-                    // Refill residual from APU when exhausted
-                    if (residualPos >= residualLen) {
-                        byte[] samples = gbc.isAudioBufferFull()
-                                ? gbc.fetchAudioSamples()
-                                : null;
-                        if (samples != null && samples.length > 0) {
-                            if (samples.length > residual.length) {
-                                residual = new byte[samples.length];
-                            }
-                            System.arraycopy(samples, 0, residual, 0, samples.length);
-                            residualPos = 0;
-                            residualLen = samples.length;
-                        } else {
-                            break; // no more APU data available
-                        }
-                    }
-
-                    // Consume from residual into pcmBuffer
-                    int residualFramesAvail = (residualLen - residualPos) / 2;
-                    int framesToCopy = Math.min(residualFramesAvail,
-                            AL_BUFFER_FRAMES - framesWritten);
-                    for (int f = 0; f < framesToCopy; f++) {
-                        int left = (residual[residualPos] & 0xFF) - 128;
-                        int right = (residual[residualPos + 1] & 0xFF) - 128;
-                        residualPos += 2;
-                        // Noise gate: squelch DC-filter quantisation artifacts
-                        short l = (Math.abs(left) <= NOISE_GATE) ? 0 : (short) (left << 8);
-                        short r = (Math.abs(right) <= NOISE_GATE) ? 0 : (short) (right << 8);
-                        pcmBuffer.put(l);
-                        pcmBuffer.put(r);
-                    }
-                    framesWritten += framesToCopy;
-                }
+                int framesWritten = source.read(pcmBuffer, AL_BUFFER_FRAMES);
 
                 // Pad remainder with silence if APU didn't have enough data
                 for (int f = framesWritten; f < AL_BUFFER_FRAMES; f++) {
@@ -52,6 +52,19 @@ public final class ConfigSerializer {
         c.setSyncMode(str(props, "emulator.syncMode", "hybrid"));
         c.setHardware(str(props, "emulator.hardware", "auto"));
         c.setBootRom(str(props, "emulator.bootRom", ""));
+        c.setAutosaveSeconds(intVal(props, "emulator.autosaveSeconds", 60));
+        c.setSramFlushSeconds(intVal(props, "emulator.sramFlushSeconds", 5));
+        c.setSramSync(bool(props, "emulator.sramSync", true));
+
+        // Rewind
+        c.setRewindEnabled(bool(props, "rewind.enabled", true));
+        c.setRewindBufferMb(intVal(props, "rewind.bufferMb", 32));
+        c.setRewindInterval(intVal(props, "rewind.interval", 2));
+        c.setRewindSpeed(intVal(props, "rewind.speed", 1));
+
+        // Run-ahead
+        c.setRunAheadFrames(intVal(props, "runAhead.frames", 0));
+        c.setRunAheadSecondInstance(bool(props, "runAhead.secondInstance", false));
 
         // Video
         c.setScale(intVal(props, "video.scale", 1));
@@ -74,6 +87,7 @@ public final class ConfigSerializer {
         c.setAudioDebug(bool(props, "gbc.audio.debug", false));
         c.setTestTone(bool(props, "gbc.audio.testTone", false));
         c.setAudioBackend(str(props, "audio.backend", "openal"));
+        c.setThreadedSynthesis(bool(props, "audio.threadedSynthesis", false));
 
         // Input
         c.setRepeatDelayMs(intVal(props, "input.repeatDelayMs", 0));
@@ -160,7 +174,22 @@ public final class ConfigSerializer {
                 kv("emulator.throttle", config.isThrottle()),
                 kv("emulator.syncMode", config.getSyncMode()),
                 kv("emulator.hardware", config.getHardware()),
-                kv("emulator.bootRom", config.getBootRom())));
+                kv("emulator.bootRom", config.getBootRom()),
+                kv("emulator.autosaveSeconds", config.getAutosaveSeconds()),
+                kv("emulator.sramFlushSeconds", config.getSramFlushSeconds()),
+                kv("emulator.sramSync", config.isSramSync())));
+
+        // Rewind
+        appendSection(out, "Rewind", List.of(
+                kv("rewind.enabled", config.isRewindEnabled()),
+                kv("rewind.bufferMb", config.getRewindBufferMb()),
+                kv("rewind.interval", config.getRewindInterval()),
+                kv("rewind.speed", config.getRewindSpeed())));
+
+        // Run-ahead
+        appendSection(out, "Run-ahead", List.of(
+                kv("runAhead.frames", config.getRunAheadFrames()),
+                kv("runAhead.secondInstance", config.isRunAheadSecondInstance())));
 
         // Video
         appendSection(out, "Video", List.of(
@@ -183,7 +212,8 @@ public final class ConfigSerializer {
                 kv("gbc.audio.mixer", config.getMixer()),
                 kv("gbc.audio.debug", config.isAudioDebug()),
                 kv("gbc.audio.testTone", config.isTestTone()),
-                kv("audio.backend", config.getAudioBackend())));
+                kv("audio.backend", config.getAudioBackend()),
+                kv("audio.threadedSynthesis", config.isThreadedSynthesis())));
 
         // Input
         appendSection(out, "Input", List.of(
@@ -21,6 +21,19 @@ public final class EmulatorConfig {
     private String syncMode = "hybrid";
     private String hardware = "auto";
     private String bootRom = "";
+    private int autosaveSeconds = 60;
+    private int sramFlushSeconds = 5;
+    private boolean sramSync = true;
+
+    // --- Rewind ---
+    private boolean rewindEnabled = true;
+    private int rewindBufferMb = 32;
+    private int rewindInterval = 2;
+    private int rewindSpeed = 1;
+
+    // --- Run-ahead ---
+    private int runAheadFrames = 0;
+    private boolean runAheadSecondInstance = false;
 
     // --- Video ---
     private int scale = 1;
@@ -42,6 +55,7 @@ public final class EmulatorConfig {
     private boolean audioDebug = false;
     private boolean testTone = false;
     private String audioBackend = "openal";
+    private boolean threadedSynthesis = false;
 
     // --- Input ---
     private int repeatDelayMs = 0;
@@ -104,6 +118,7 @@ public final class EmulatorConfig {
         keyBindings.put("F10", "load2");
         keyBindings.put("F11", "fullscreen");
         keyBindings.put("F12", "debug");
+        keyBindings.put("BACK_SPACE", "rewind");
 
         // Default joystick button mappings
         joystickButtons.put("input.joystick.button.a", "A");
@@ -122,6 +137,17 @@ public final class EmulatorConfig {
         this.syncMode = other.syncMode;
         this.hardware = other.hardware;
         this.bootRom = other.bootRom;
+        this.autosaveSeconds = other.autosaveSeconds;
+        this.sramFlushSeconds = other.sramFlushSeconds;
+        this.sramSync = other.sramSync;
+
+        this.rewindEnabled = other.rewindEnabled;
+        this.rewindBufferMb = other.rewindBufferMb;
+        this.rewindInterval = other.rewindInterval;
+        this.rewindSpeed = other.rewindSpeed;
+
+        this.runAheadFrames = other.runAheadFrames;
+        this.runAheadSecondInstance = other.runAheadSecondInstance;
 
         this.scale = other.scale;
         this.maintainAspectRatio = other.maintainAspectRatio;
@@ -141,6 +167,7 @@ public final class EmulatorConfig {
         this.audioDebug = other.audioDebug;
         this.testTone = other.testTone;
         this.audioBackend = other.audioBackend;
+        this.threadedSynthesis = other.threadedSynthesis;
 
         this.repeatDelayMs = other.repeatDelayMs;
         this.repeatRateMs = other.repeatRateMs;
@@ -192,6 +219,19 @@ public final class EmulatorConfig {
         p.setProperty("emulator.syncMode", syncMode);
         p.setProperty("emulator.hardware", hardware);
         p.setProperty("emulator.bootRom", bootRom);
+        p.setProperty("emulator.autosaveSeconds", String.valueOf(autosaveSeconds));
+        p.setProperty("emulator.sramFlushSeconds", String.valueOf(sramFlushSeconds));
+        p.setProperty("emulator.sramSync", String.valueOf(sramSync));
+
+        // Rewind
+        p.setProperty("rewind.enabled", String.valueOf(rewindEnabled));
+        p.setProperty("rewind.bufferMb", String.valueOf(rewindBufferMb));
+        p.setProperty("rewind.interval", String.valueOf(rewindInterval));
+        p.setProperty("rewind.speed", String.valueOf(rewindSpeed));
+
+        // Run-ahead
+        p.setProperty("runAhead.frames", String.valueOf(runAheadFrames));
+        p.setProperty("runAhead.secondInstance", String.valueOf(runAheadSecondInstance));
 
         // Video
         p.setProperty("video.scale", String.valueOf(scale));
@@ -213,6 +253,7 @@ public final class EmulatorConfig {
         p.setProperty("gbc.audio.debug", String.valueOf(audioDebug));
         p.setProperty("gbc.audio.testTone", String.valueOf(testTone));
         p.setProperty("audio.backend", audioBackend);
+        p.setProperty("audio.threadedSynthesis", String.valueOf(threadedSynthesis));
 
         // Input
         p.setProperty("input.repeatDelayMs", String.valueOf(repeatDelayMs));
@@ -278,6 +319,33 @@ public final class EmulatorConfig {
     public boolean isThrottle() { return throttle; }
     public void setThrottle(boolean throttle) { this.throttle = throttle; }
 
+    public int getAutosaveSeconds() { return autosaveSeconds; }
+    public void setAutosaveSeconds(int autosaveSeconds) { this.autosaveSeconds = autosaveSeconds; }
+
+    public int getSramFlushSeconds() { return sramFlushSeconds; }
+    public void setSramFlushSeconds(int sramFlushSeconds) { this.sramFlushSeconds = sramFlushSeconds; }
+
+    public boolean isSramSync() { return sramSync; }
+    public void setSramSync(boolean sramSync) { this.sramSync = sramSync; }
+
+    public boolean isRewindEnabled() { return rewindEnabled; }
+    public void setRewindEnabled(boolean rewindEnabled) { this.rewindEnabled = rewindEnabled; }
+
+    public int getRewindBufferMb() { return rewindBufferMb; }
+    public void setRewindBufferMb(int rewindBufferMb) { this.rewindBufferMb = rewindBufferMb; }
+
+    public int getRewindInterval() { return rewindInterval; }
+    public void setRewindInterval(int rewindInterval) { this.rewindInterval = rewindInterval; }
+
+    public int getRewindSpeed() { return rewindSpeed; }
+    public void setRewindSpeed(int rewindSpeed) { this.rewindSpeed = rewindSpeed; }
+
+    public int getRunAheadFrames() { return runAheadFrames; }
+    public void setRunAheadFrames(int runAheadFrames) { this.runAheadFrames = runAheadFrames; }
+
+    public boolean isRunAheadSecondInstance() { return runAheadSecondInstance; }
+    public void setRunAheadSecondInstance(boolean runAheadSecondInstance) { this.runAheadSecondInstance = runAheadSecondInstance; }
+
     public String getSyncMode() { return syncMode; }
     public void setSyncMode(String syncMode) { this.syncMode = safe(syncMode); }
 
@@ -338,6 +406,9 @@ public final class EmulatorConfig {
     public String getAudioBackend() { return audioBackend; }
     public void setAudioBackend(String audioBackend) { this.audioBackend = safe(audioBackend); }
 
+    public boolean isThreadedSynthesis() { return threadedSynthesis; }
+    public void setThreadedSynthesis(boolean threadedSynthesis) { this.threadedSynthesis = threadedSynthesis; }
+
     public int getRepeatDelayMs() { return repeatDelayMs; }
     public void setRepeatDelayMs(int repeatDelayMs) { this.repeatDelayMs = repeatDelayMs; }
 
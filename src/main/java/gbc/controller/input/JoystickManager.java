@@ -10,18 +10,22 @@ import gbc.model.input.Controller;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class JoystickManager {
     private static final Logger LOGGER = Logger.getLogger(JoystickManager.class.getName());
     private final AtomicBoolean running = new AtomicBoolean(false);
+    /** Latest polled button mask not yet applied, or -1. */
+    private final AtomicInteger pendingMask = new AtomicInteger(-1);
+    private int lastPolledMask;
     private Thread pollThread;
     private net.java.games.input.Controller device;
     private String deviceName;
     private long lastRescanNs;
 
-    public void start(Controller controller) {
+    public void start() {
         EmulatorConfig cfg = AppConfig.get().getConfig();
         if (!cfg.isJoystickEnabled()) {
             return;
@@ -31,7 +35,7 @@ public class JoystickManager {
         if (running.getAndSet(true)) {
             return;
         }
-        pollThread = new Thread(() -> pollLoop(controller), "Joystick-Poll");
+        pollThread = new Thread(this::pollLoop, "Joystick-Poll");
         pollThread.setDaemon(true);
         pollThread.start();
     }
@@ -45,7 +49,30 @@ public class JoystickManager {
         device = null;
     }
 
-    private void pollLoop(Controller controller) {
+    /**
+     * Applies the pad state polled since the last call. Called on the
+     * emulation thread at a frame boundary, so pad input reaches the machine
+     * at a well-defined cycle like keyboard input does.
+     */
+    public void applyPendingInput(Controller controller) {
+        int mask = pendingMask.getAndSet(-1);
+        if (mask >= 0) {
+            controller.setButtonMask(mask);
+        }
+    }
+
+    /**
+     * Queues a polled pad state for the next {@link #applyPendingInput}. Only
+     * changes are published, so a resting pad does not override the keyboard.
+     */
+    public void publishPolledMask(int mask) {
+        if (mask != lastPolledMask) {
+            lastPolledMask = mask;
+            pendingMask.set(mask);
+        }
+    }
+
+    private void pollLoop() {
         while (running.get() && !Thread.currentThread().isInterrupted()) {
             try {
                 EmulatorConfig cfg = AppConfig.get().getConfig();
@@ -112,14 +139,9 @@ public class JoystickManager {
                 start = isButtonPressed(device, buttons.getOrDefault("input.joystick.button.start", "7"));
                 select = isButtonPressed(device, buttons.getOrDefault("input.joystick.button.select", "6"));
 
-                controller.setUp(up);
-                controller.setDown(down);
-                controller.setLeft(left);
-                controller.setRight(right);
-                controller.setA(a);
-                controller.setB(b);
-                controller.setStart(start);
-                controller.setSelect(select);
+                int mask = (right ? 0x01 : 0) | (left ? 0x02 : 0) | (up ? 0x04 : 0) | (down ? 0x08 : 0)
+                        | (a ? 0x10 : 0) | (b ? 0x20 : 0) | (select ? 0x40 : 0) | (start ? 0x80 : 0);
+                publishPolledMask(mask);
 
                 Thread.sleep(pollDelayMs);
             } catch (InterruptedException e) {
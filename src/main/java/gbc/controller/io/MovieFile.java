@@ -0,0 +1,50 @@
+package gbc.controller.io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import gbc.model.state.Movie;
+
+/**
+ * Reads and writes input movies ({@code .gbm}): the encoded {@link Movie},
+ * GZIP-compressed. Writes go through a temporary sibling like save states.
+ */
+public final class MovieFile {
+    public static final String EXTENSION = ".gbm";
+
+    private MovieFile() {
+    }
+
+    public static void write(Movie movie, Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(temp.toFile());
+                    GZIPOutputStream gzos = new GZIPOutputStream(fos, 8192)) {
+                gzos.write(movie.encode());
+                gzos.finish();
+                fos.getFD().sync();
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Throws {@link IllegalStateException} when the file is not a valid movie. */
+    public static Movie read(Path path) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            return Movie.decode(in.readAllBytes());
+        }
+    }
+}
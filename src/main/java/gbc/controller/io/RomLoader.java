@@ -13,11 +13,23 @@ import gbc.model.cartridge.Cartridge;
 import gbc.model.cartridge.CartridgeFactory;
 
 /**
- * Loads ROM files into cartridge instances.
+ * Loads ROM files into cartridge instances. Images come from a
+ * {@link RomStore}, so loading a ROM that is already in use by another
+ * cartridge shares its array instead of reading another copy.
  */
 public final class RomLoader {
     private static final int MIN_ROM_HEADER_SIZE = 0x150;
 
+    private final RomStore store;
+
+    public RomLoader() {
+        this(RomStore.shared());
+    }
+
+    public RomLoader(RomStore store) {
+        this.store = store;
+    }
+
     public Cartridge load(Path path) throws IOException {
         if (path == null) {
             throw new IllegalArgumentException("path");
@@ -31,7 +43,7 @@ public final class RomLoader {
             data = zipRom.data;
             romPath = zipRom.romPath;
         } else {
-            data = Files.readAllBytes(path);
+            data = store.load(path, "", () -> Files.readAllBytes(path));
         }
 
         if (data.length < MIN_ROM_HEADER_SIZE) {
@@ -48,7 +60,7 @@ public final class RomLoader {
         return name.endsWith(".zip");
     }
 
-    private static ZipRom readZipRom(Path path) throws IOException {
+    private ZipRom readZipRom(Path path) throws IOException {
         try (ZipFile zip = new ZipFile(path.toFile())) {
             ZipEntry candidate = null;
             boolean candidateIsGbc = false;
@@ -75,10 +87,12 @@ public final class RomLoader {
                 throw new IOException("No .gb/.gbc entry found in " + path.getFileName());
             }
 
-            byte[] data;
-            try (InputStream in = zip.getInputStream(candidate)) {
-                data = in.readAllBytes();
-            }
+            ZipEntry selected = candidate;
+            byte[] data = store.load(path, selected.getName(), () -> {
+                try (InputStream in = zip.getInputStream(selected)) {
+                    return in.readAllBytes();
+                }
+            });
 
             Path romPath = buildVirtualRomPath(path, candidate.getName());
             return new ZipRom(data, romPath);
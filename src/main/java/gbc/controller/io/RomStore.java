@@ -0,0 +1,151 @@
+package gbc.controller.io;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide store of ROM images, so every emulator instance running the
+ * same game shares one array. Images are keyed by the SHA-256 of their
+ * contents; a second index by file path, size and modification time skips
+ * reading and hashing a file that is already loaded. Cartridges never
+ * write to their ROM, which makes the shared array safe to hand out.
+ *
+ * <p>
+ * Entries are weakly held: an image is dropped once no cartridge uses it.
+ */
+public final class RomStore {
+    private static final RomStore SHARED = new RomStore();
+
+    private final Map<String, WeakReference<byte[]>> byHash = new ConcurrentHashMap<>();
+    private final Map<FileKey, String> hashByFile = new ConcurrentHashMap<>();
+
+    private record FileKey(Path path, String entry, long size, long modified) {
+    }
+
+    /** Reads a file. */
+    @FunctionalInterface
+    interface Reader {
+        byte[] read() throws IOException;
+    }
+
+    public static RomStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the image stored for {@code path}, reading it with
+     * {@code reader} when the file is new or changed. {@code entry} names
+     * the member of an archive, or is empty for a plain ROM file.
+     */
+    byte[] load(Path path, String entry, Reader reader) throws IOException {
+        FileKey key = fileKey(path, entry);
+        String hash = hashByFile.get(key);
+        if (hash != null) {
+            byte[] cached = get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] data = reader.read();
+        String contentHash = hash(data);
+        hashByFile.put(key, contentHash);
+        return intern(contentHash, data);
+    }
+
+    /**
+     * Returns the SHA-256 of the file at {@code path}, storing its contents
+     * like {@link #load} does, so an unchanged file that is already stored is
+     * neither read nor hashed again. Archives are hashed as they are, not by
+     * the ROM inside.
+     */
+    public String contentHash(Path path) throws IOException {
+        FileKey key = fileKey(path, "");
+        String hash = hashByFile.get(key);
+        if (hash != null && get(hash) != null) {
+            return hash;
+        }
+        return hash(load(path, "", () -> Files.readAllBytes(path)));
+    }
+
+    private static FileKey fileKey(Path path, String entry) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new FileKey(path.toAbsolutePath().normalize(), entry, attributes.size(),
+                attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Returns the stored image with the same contents as {@code data}, or
+     * stores and returns {@code data} itself. The caller must not modify it
+     * afterwards.
+     */
+    public byte[] intern(byte[] data) {
+        return intern(hash(data), data);
+    }
+
+    /** Number of distinct images currently held. */
+    public int getImageCount() {
+        int count = 0;
+        for (WeakReference<byte[]> ref : byHash.values()) {
+            if (ref.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Total size of the images currently held, each counted once. */
+    public long getStoredBytes() {
+        long bytes = 0;
+        for (WeakReference<byte[]> ref : byHash.values()) {
+            byte[] data = ref.get();
+            if (data != null) {
+                bytes += data.length;
+            }
+        }
+        return bytes;
+    }
+
+    private byte[] get(String hash) {
+        WeakReference<byte[]> ref = byHash.get(hash);
+        return ref != null ? ref.get() : null;
+    }
+
+    private byte[] intern(String hash, byte[] data) {
+        byte[][] result = new byte[1][];
+        byHash.compute(hash, (k, ref) -> {
+            byte[] existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                result[0] = existing;
+                return ref;
+            }
+            result[0] = data;
+            return new WeakReference<>(data);
+        });
+        if (result[0] == data) {
+            purge();
+        }
+        return result[0];
+    }
+
+    /** Drops entries whose image is gone; new images are rare, so this runs then. */
+    private void purge() {
+        byHash.values().removeIf(ref -> ref.get() == null);
+        hashByFile.values().removeIf(hash -> !byHash.containsKey(hash));
+    }
+
+    static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,32 +2,39 @@ package gbc.controller.io;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import gbc.model.GameBoyColor;
-import gbc.model.cpu.CPU;
-import gbc.model.cpu.Registers;
-import gbc.model.memory.Memory;
 
 /**
  * Save state manager for the Game Boy Color emulator.
  * Supports saving and loading complete emulator state to/from files.
  * Uses GZIP compression for smaller file sizes.
+ *
+ * <p>The payload is a machine snapshot from
+ * {@link GameBoyColor#snapshot(gbc.model.state.StateWriter)} followed by its
+ * CRC-32. Files are written to a temporary sibling and renamed into place, so
+ * a crash mid-write never leaves a truncated state behind. Version 1 files,
+ * which were produced by walking the memory bus, are not supported.
  */
 public class SaveState {
     private static final Logger LOGGER = Logger.getLogger(SaveState.class.getName());
     
     // Magic number to identify save state files
     private static final int MAGIC = 0x47425353; // "GBSS" - Game Boy Save State
-    private static final int VERSION = 1;
+    private static final int VERSION = 3;
+    private static final int FIRST_SUPPORTED_VERSION = 2;
     
     private SaveState() {
         // Utility class
@@ -45,31 +52,65 @@ public class SaveState {
             LOGGER.warning("Cannot save: null parameters");
             return false;
         }
+        return write(gbc.snapshot(), path);
+    }
+    
+    /**
+     * Compresses an already captured machine snapshot and writes it to a
+     * file. Does not touch the emulator, so it can run on any thread.
+     * 
+     * @param state Snapshot bytes from {@link GameBoyColor#snapshot()}
+     * @param path The path to save to
+     * @return true if save was successful, false otherwise
+     */
+    public static boolean write(byte[] state, Path path) {
+        if (state == null || path == null) {
+            LOGGER.warning("Cannot save: null parameters");
+            return false;
+        }
         
-        try (OutputStream fos = Files.newOutputStream(path);
-             GZIPOutputStream gzos = new GZIPOutputStream(fos);
-             DataOutputStream dos = new DataOutputStream(gzos)) {
-            
-            // Write header
-            dos.writeInt(MAGIC);
-            dos.writeInt(VERSION);
-            
-            // Write CPU state
-            saveCPU(dos, gbc.getCpu());
-            
-            // Write Memory state
-            saveMemory(dos, gbc.getMemory());
-            
-            dos.flush();
+        CRC32 crc = new CRC32();
+        crc.update(state);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream fos = new FileOutputStream(temp.toFile());
+                 GZIPOutputStream gzos = new GZIPOutputStream(fos, 8192);
+                 DataOutputStream dos = new DataOutputStream(gzos)) {
+                
+                // Write header
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                
+                dos.writeInt(state.length);
+                dos.writeInt((int) crc.getValue());
+                dos.write(state);
+                
+                gzos.finish();
+                fos.getFD().sync();
+            }
+            moveIntoPlace(temp, path);
             LOGGER.log(Level.INFO, () -> String.format("Saved state to %s", path));
             return true;
             
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to save state to " + path, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Best effort
+            }
             return false;
         }
     }
     
+    private static void moveIntoPlace(Path temp, Path path) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
     /**
      * Loads emulator state from a file.
      * 
@@ -104,17 +145,40 @@ public class SaveState {
                 LOGGER.warning("Save state version too new: " + version);
                 return false;
             }
+            if (version < FIRST_SUPPORTED_VERSION) {
+                LOGGER.warning("Save state version " + version + " is no longer supported");
+                return false;
+            }
             
-            // Load CPU state
-            loadCPU(dis, gbc.getCpu());
-            
-            // Load Memory state
-            loadMemory(dis, gbc.getMemory());
+            int length = dis.readInt();
+            if (length <= 0) {
+                LOGGER.warning("Invalid save state file (bad length)");
+                return false;
+            }
+            int expectedCrc = version >= 3 ? dis.readInt() : 0;
+            byte[] state = new byte[length];
+            dis.readFully(state);
+            if (version >= 3) {
+                CRC32 crc = new CRC32();
+                crc.update(state);
+                if ((int) crc.getValue() != expectedCrc) {
+                    LOGGER.warning("Invalid save state file (checksum mismatch)");
+                    return false;
+                }
+            }
+            byte[] previous = gbc.snapshot();
+            try {
+                gbc.restore(state);
+            } catch (IllegalStateException e) {
+                // Do not leave the machine half-restored
+                gbc.restore(previous);
+                throw e;
+            }
             
             LOGGER.log(Level.INFO, () -> String.format("Loaded state from %s", path));
             return true;
             
-        } catch (IOException e) {
+        } catch (IOException | IllegalStateException e) {
             LOGGER.log(Level.SEVERE, "Failed to load state from " + path, e);
             return false;
         }
@@ -122,135 +186,28 @@ public class SaveState {
     
     /**
      * Gets the default save state path for a ROM.
-     * Save states are stored alongside the ROM with .ss# extension.
+     * Save states are stored in {@code saveDir}, or alongside the ROM when it
+     * is null, with .ss# extension.
      */
-    public static Path getSaveStatePath(String romPath, int slot) {
+    public static Path getSaveStatePath(String romPath, Path saveDir, int slot) {
         if (romPath == null) {
             return null;
         }
         String romName = Path.of(romPath).getFileName().toString();
         String baseName = romName.replaceFirst("\\.[^.]+$", "");
-        String saveDir = System.getProperty("emulator.saveDir");
-        Path dir = (saveDir == null || saveDir.isBlank())
-                ? Path.of(romPath).getParent()
-                : Path.of(saveDir);
+        Path dir = saveDir == null ? Path.of(romPath).getParent() : saveDir;
         return dir.resolve(baseName + ".ss" + slot);
     }
     
-    // ============ CPU Serialization ============
-    
-    private static void saveCPU(DataOutputStream dos, CPU cpu) throws IOException {
-        Registers regs = cpu.getRegisters();
-        
-        // Registers (A, F, B, C, D, E, H, L)
-        dos.writeByte(regs.getRegister("A"));
-        dos.writeByte(regs.getRegister("F"));
-        dos.writeByte(regs.getRegister("B"));
-        dos.writeByte(regs.getRegister("C"));
-        dos.writeByte(regs.getRegister("D"));
-        dos.writeByte(regs.getRegister("E"));
-        dos.writeByte(regs.getRegister("H"));
-        dos.writeByte(regs.getRegister("L"));
-        
-        // 16-bit registers
-        dos.writeShort(regs.getPC());
-        dos.writeShort(regs.getSP());
-        
-        // CPU state flags
-        dos.writeBoolean(cpu.isIme());
-        dos.writeBoolean(cpu.isImePending());
-        dos.writeBoolean(cpu.isHalted());
-        dos.writeBoolean(cpu.isDoubleSpeedMode());
-        dos.writeBoolean(cpu.isPrepareSpeedSwitch());
-        
-        // Cycle counter
-        dos.writeInt(cpu.getCycles());
-    }
-    
-    private static void loadCPU(DataInputStream dis, CPU cpu) throws IOException {
-        Registers regs = cpu.getRegisters();
-        
-        // Registers
-        regs.setRegister("A", dis.readByte());
-        regs.setRegister("F", dis.readByte());
-        regs.setRegister("B", dis.readByte());
-        regs.setRegister("C", dis.readByte());
-        regs.setRegister("D", dis.readByte());
-        regs.setRegister("E", dis.readByte());
-        regs.setRegister("H", dis.readByte());
-        regs.setRegister("L", dis.readByte());
-        
-        // 16-bit registers
-        regs.setPC(dis.readShort() & 0xFFFF);
-        regs.setSP(dis.readShort() & 0xFFFF);
-        
-        // CPU state flags
-        cpu.setIme(dis.readBoolean());
-        cpu.setImePending(dis.readBoolean());
-        cpu.setHalted(dis.readBoolean());
-        cpu.setDoubleSpeedMode(dis.readBoolean());
-        cpu.setPrepareSpeedSwitch(dis.readBoolean());
-        
-        // Cycle counter
-        cpu.setCycles(dis.readInt());
-    }
-    
-    // ============ Memory Serialization ============
-    
-    private static void saveMemory(DataOutputStream dos, Memory memory) throws IOException {
-        // Save VRAM (16KB for CGB - 2 banks)
-        saveByteArray(dos, memory, 0x8000, 0x2000); // Bank 0
-        // Note: Bank 1 would require VRAM bank switching to read
-        
-        // Save WRAM (32KB for CGB - 8 banks of 4KB each)
-        // Bank 0 is at 0xC000-0xCFFF
-        // Banks 1-7 are switchable at 0xD000-0xDFFF
-        saveByteArray(dos, memory, 0xC000, 0x2000); // Banks 0+1
-        
-        // Save OAM (160 bytes)
-        saveByteArray(dos, memory, 0xFE00, 0xA0);
-        
-        // Save HRAM (127 bytes)
-        saveByteArray(dos, memory, 0xFF80, 0x7F);
-        
-        // Save I/O registers (0xFF00-0xFF7F)
-        saveByteArray(dos, memory, 0xFF00, 0x80);
-        
-        // Save IE register
-        dos.writeByte(memory.readByte(0xFFFF));
-    }
-    
-    private static void loadMemory(DataInputStream dis, Memory memory) throws IOException {
-        // Load VRAM
-        loadByteArray(dis, memory, 0x8000, 0x2000);
-        
-        // Load WRAM
-        loadByteArray(dis, memory, 0xC000, 0x2000);
-        
-        // Load OAM
-        loadByteArray(dis, memory, 0xFE00, 0xA0);
-        
-        // Load HRAM
-        loadByteArray(dis, memory, 0xFF80, 0x7F);
-        
-        // Load I/O registers
-        loadByteArray(dis, memory, 0xFF00, 0x80);
-        
-        // Load IE register
-        memory.writeByte(0xFFFF, dis.readByte() & 0xFF);
-    }
-    
-    private static void saveByteArray(DataOutputStream dos, Memory memory, int startAddr, int length) 
-            throws IOException {
-        for (int i = 0; i < length; i++) {
-            dos.writeByte(memory.readByte(startAddr + i));
-        }
-    }
-    
-    private static void loadByteArray(DataInputStream dis, Memory memory, int startAddr, int length) 
-            throws IOException {
-        for (int i = 0; i < length; i++) {
-            memory.writeByte(startAddr + i, dis.readByte() & 0xFF);
+    /**
+     * Gets the autosave path for a ROM, next to its numbered slots.
+     */
+    public static Path getAutosavePath(String romPath, Path saveDir) {
+        Path slotPath = getSaveStatePath(romPath, saveDir, 0);
+        if (slotPath == null) {
+            return null;
         }
+        String name = slotPath.getFileName().toString();
+        return slotPath.resolveSibling(name.substring(0, name.length() - 1) + "a");
     }
 }
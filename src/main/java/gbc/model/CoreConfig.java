@@ -0,0 +1,144 @@
+package gbc.model;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Settings of one emulated machine, fixed for its lifetime or until replaced
+ * through {@link GameBoyColor#setConfig}. Components read what they need
+ * once, so machines with different hardware, save directories or audio
+ * settings can share a JVM.
+ *
+ * <p>
+ * {@link #fromSystemProperties()} bridges the {@code emulator.*},
+ * {@code audio.*} and {@code gbc.*} properties the desktop front-end sets.
+ * Diagnostic trace switches stay JVM-wide static flags.
+ *
+ * @param hardware           {@code auto}, {@code dmg}, {@code cgb}, ...
+ * @param saveDir            directory for battery saves and save states;
+ *                           blank keeps them next to the ROM
+ * @param allowRomWrites     let plain ROM carts write into their ROM area,
+ *                           for test ROMs that expect it
+ * @param lcdEnableDelay     dots between setting LCDC bit 7 and the LCD
+ *                           starting
+ * @param dmgCgbPaletteTable external palette table for DMG games on CGB
+ *                           hardware; blank uses the built-in one
+ * @param trace              write an instruction trace per loaded ROM
+ */
+public record CoreConfig(String hardware, String saveDir, boolean allowRomWrites, int lcdEnableDelay,
+        String dmgCgbPaletteTable, boolean trace, Audio audio) {
+
+    public static final int DEFAULT_LCD_ENABLE_DELAY = 244;
+    public static final CoreConfig DEFAULTS = new CoreConfig("auto", "", false, DEFAULT_LCD_ENABLE_DELAY, "",
+            false, Audio.DEFAULTS);
+
+    /** Output format and mixing of the APU. */
+    public record Audio(int sampleRate, int bufferSize, int bufferCount, int latencyMs,
+            boolean threadedSynthesis, boolean dcFilter, float dcFilterCoeff, float dmgMixGain, float cgbMixGain) {
+
+        public static final Audio DEFAULTS = new Audio(44_100, 4096, 8, 10, false, true, 0.995f, 1.0f, 1.0f);
+
+        public Audio {
+            bufferCount = Math.max(2, bufferCount);
+            latencyMs = Math.max(1, latencyMs);
+            dcFilterCoeff = clamp(dcFilterCoeff, 0.90f, 0.9999f);
+            dmgMixGain = clamp(dmgMixGain, 0.1f, 2.0f);
+            cgbMixGain = clamp(cgbMixGain, 0.1f, 2.0f);
+        }
+
+        public static Audio fromProperties(Properties props) {
+            return new Audio(
+                    intVal(props, "audio.sampleRate", DEFAULTS.sampleRate),
+                    intVal(props, "audio.bufferSize", DEFAULTS.bufferSize),
+                    intVal(props, "audio.bufferCount", DEFAULTS.bufferCount),
+                    intVal(props, "audio.latencyMs", DEFAULTS.latencyMs),
+                    boolVal(props, "audio.threadedSynthesis", DEFAULTS.threadedSynthesis),
+                    boolVal(props, "audio.dcFilter", DEFAULTS.dcFilter),
+                    floatVal(props, "audio.dcFilterCoeff", DEFAULTS.dcFilterCoeff),
+                    floatVal(props, "audio.dmgMixGain", DEFAULTS.dmgMixGain),
+                    floatVal(props, "audio.cgbMixGain", DEFAULTS.cgbMixGain));
+        }
+
+        public Audio withThreadedSynthesis(boolean threaded) {
+            return new Audio(sampleRate, bufferSize, bufferCount, latencyMs, threaded, dcFilter, dcFilterCoeff,
+                    dmgMixGain, cgbMixGain);
+        }
+    }
+
+    public CoreConfig {
+        hardware = hardware == null || hardware.isBlank() ? "auto" : hardware.trim().toLowerCase(Locale.ROOT);
+        saveDir = saveDir == null ? "" : saveDir.trim();
+        dmgCgbPaletteTable = dmgCgbPaletteTable == null ? "" : dmgCgbPaletteTable.trim();
+        audio = audio == null ? Audio.DEFAULTS : audio;
+    }
+
+    public static CoreConfig fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    public static CoreConfig fromProperties(Properties props) {
+        return new CoreConfig(
+                props.getProperty("emulator.hardware", DEFAULTS.hardware),
+                props.getProperty("emulator.saveDir", DEFAULTS.saveDir),
+                boolVal(props, "gbc.rom.allowWrites", DEFAULTS.allowRomWrites),
+                intVal(props, "gbc.lcd.enableDelay", DEFAULTS.lcdEnableDelay),
+                props.getProperty("emulator.dmgCgbPaletteTable", DEFAULTS.dmgCgbPaletteTable),
+                props.getProperty("gbc.trace") != null,
+                Audio.fromProperties(props));
+    }
+
+    /** The save directory, or null to save next to the ROM. */
+    public Path saveDirectory() {
+        return saveDir.isEmpty() ? null : Path.of(saveDir);
+    }
+
+    public CoreConfig withHardware(String hardware) {
+        return new CoreConfig(hardware, saveDir, allowRomWrites, lcdEnableDelay, dmgCgbPaletteTable, trace, audio);
+    }
+
+    public CoreConfig withSaveDir(String saveDir) {
+        return new CoreConfig(hardware, saveDir, allowRomWrites, lcdEnableDelay, dmgCgbPaletteTable, trace, audio);
+    }
+
+    public CoreConfig withAllowRomWrites(boolean allowRomWrites) {
+        return new CoreConfig(hardware, saveDir, allowRomWrites, lcdEnableDelay, dmgCgbPaletteTable, trace, audio);
+    }
+
+    public CoreConfig withAudio(Audio audio) {
+        return new CoreConfig(hardware, saveDir, allowRomWrites, lcdEnableDelay, dmgCgbPaletteTable, trace, audio);
+    }
+
+    private static int intVal(Properties props, String key, int fallback) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static float floatVal(Properties props, String key, float fallback) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Float.parseFloat(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static boolean boolVal(Properties props, String key, boolean fallback) {
+        String value = props.getProperty(key);
+        return value == null ? fallback : Boolean.parseBoolean(value.trim());
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
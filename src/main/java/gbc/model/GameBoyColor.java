@@ -4,14 +4,20 @@ import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import gbc.controller.logging.LoggingConfig;
 import gbc.model.cartridge.Cartridge;
 import gbc.model.cpu.CPU;
 import gbc.model.graphics.FrameBuffer;
 import gbc.model.graphics.PPU;
-import gbc.model.graphics.Screen;
+import gbc.model.graphics.FrameSink;
 import gbc.model.input.Controller;
 import gbc.model.memory.Memory;
+import gbc.model.sound.Apu;
+import gbc.model.sound.AudioRingBuffer;
+import gbc.model.state.BootStateCache;
+import gbc.model.state.MachineState;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 import gbc.model.trace.TraceGenerator;
 
 /**
@@ -24,32 +30,50 @@ import gbc.model.trace.TraceGenerator;
  * {@link gbc.model.graphics.PixelFifo} implementations selected at PPU reset.
  *
  * <p>Hardware profile is determined at cartridge load time based on the ROM's
- * CGB flag and the {@code emulator.hardware} system property. The profile
- * controls initial register state, LCD timing, and APU behavior.
+ * CGB flag and the hardware mode of the machine's {@link CoreConfig}. The
+ * profile controls initial register state, LCD timing, and APU behavior.
  */
 public class GameBoyColor {
+	/** Bound on a frame when the LCD is off and no VBlank arrives: two frames' worth. */
+	public static final int MAX_FRAME_CYCLES = 70224 * 2;
 	private static final Logger LOGGER = Logger.getLogger(GameBoyColor.class.getName());
+	/** Fixed RTC time in deterministic mode: 2000-01-01T00:00:00Z. */
+	private static final long DETERMINISTIC_CLOCK_MS = 946_684_800_000L;
 	private final CPU cpu;
 	private final Memory memory;
 	private PPU ppu;
 	private TraceGenerator trace;
 
 	private final FrameBuffer frameBuffer;
-	private Screen screen;
 
 	private Controller input;
 
 	private boolean paused = false;
 	private float speedMultiplier = 1.0f;
 	private String currentRomPath;
-
+	private long cycleCount;
+	private long stepCount;
+	private long speculationStart;
+	private CoreConfig config;
+	private boolean deterministic;
+	/** Boot state cache key to fill when the boot ROM unmaps, if any. */
+	private String pendingBootKey;
+	private boolean bootRomUnmapped;
+	/** Cycle and step counts when the boot ROM started, to cache how long it ran. */
+	private long bootStartCycles;
+	private long bootStartSteps;
+
+	/** A machine configured from the system properties, as the desktop front-end sets them. */
 	public GameBoyColor() {
-		LoggingConfig.initialize();
-		this.memory = new Memory();
+		this(CoreConfig.fromSystemProperties());
+	}
+
+	public GameBoyColor(CoreConfig config) {
+		this.config = config;
+		this.memory = new Memory(config);
 		this.cpu = new CPU(this.memory);
 		this.frameBuffer = new FrameBuffer();
-		this.screen = new Screen();
-		this.ppu = new PPU(this.memory, this.frameBuffer, this.screen);
+		this.ppu = new PPU(this.memory, this.frameBuffer);
 		this.memory.setPPU(this.ppu);
 
 		this.input = new Controller();
@@ -57,6 +81,7 @@ public class GameBoyColor {
 		// Set up controller in memory and interruptions
 		this.memory.setController(this.input);
 		this.input.setInterruptions(this.cpu.getInterruptions());
+		this.memory.setBootRomUnmapListener(() -> bootRomUnmapped = true);
 		applyHardwareSetting(null);
 	}
 
@@ -66,14 +91,39 @@ public class GameBoyColor {
 		}
 
 		int cycles = cpu.executeCycle();
+		cycleCount += cycles;
+		stepCount++;
+		if (bootRomUnmapped) {
+			// Captured once the unmapping instruction has completed
+			bootRomUnmapped = false;
+			cacheBootState();
+		}
 		return cycles;
 	}
 
+	/**
+	 * Cycles executed since construction, not counting speculative ones.
+	 * Host-side bookkeeping; a restore does not rewind it.
+	 */
+	public long getCycleCount() {
+		return cycleCount;
+	}
+
+	/**
+	 * Calls to {@link #executeCycle()} since construction: instructions, plus
+	 * interrupt dispatches and halted steps. Like the cycle count, host-side
+	 * bookkeeping that a restore does not rewind.
+	 */
+	public long getStepCount() {
+		return stepCount;
+	}
+
 	public void insertCartridge(Cartridge cartridge) {
 		if (cartridge == null) {
 			LOGGER.warning("Cannot insert cartridge: null");
 			return;
 		}
+		cartridge.applyConfig(config);
 		memory.loadCartridge(cartridge);
 		Path romPath = cartridge.getRomPath();
 		currentRomPath = romPath != null ? romPath.toString() : null;
@@ -81,10 +131,15 @@ public class GameBoyColor {
 		LOGGER.log(Level.INFO, () -> String.format("Hardware=%s CGBMode=%s CGBFlag=0x%02X",
 				memory.getHardwareType(), memory.isCgbMode(), cartridge.getCgbFlag() & 0xFF));
 
-		// Try to load existing SRAM save
-		cartridge.loadSRAM();
+		if (deterministic) {
+			// Nothing from the host may leak in: no save file, no wall clock
+			cartridge.setClock(() -> DETERMINISTIC_CLOCK_MS);
+		} else {
+			// Try to load existing SRAM save
+			cartridge.loadSRAM();
+		}
 
-		if (System.getProperty("gbc.trace") != null) {
+		if (config.trace()) {
 			String romName = romPath != null ? romPath.getFileName().toString() : cartridge.getTitle();
 			if (romName == null || romName.isBlank()) {
 				romName = "rom";
@@ -103,10 +158,58 @@ public class GameBoyColor {
 		applyHardwareSetting(currentRomPath);
 	}
 
+	public CoreConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Replaces the machine's settings. Audio output settings and the save
+	 * directory apply immediately; the hardware mode applies from the next
+	 * cartridge insertion or reset on.
+	 */
+	public void setConfig(CoreConfig config) {
+		CoreConfig old = this.config;
+		this.config = config;
+		if (!old.audio().equals(config.audio())) {
+			memory.applyAudioConfig(config.audio());
+		}
+		Cartridge cartridge = memory.getCartridge();
+		if (cartridge != null) {
+			cartridge.applyConfig(config);
+		}
+	}
+
+	/**
+	 * Sets the hardware mode ({@code auto}, {@code dmg}, {@code cgb}, ...)
+	 * used from the next cartridge insertion or reset on.
+	 */
+	public void setHardwareMode(String mode) {
+		setConfig(config.withHardware(mode));
+	}
+
+	/**
+	 * Makes runs bit-identical from power-on: WRAM and HRAM start from a
+	 * pattern derived from {@code seed}, the cartridge clock is frozen instead
+	 * of following the host's, and no SRAM file is loaded. Takes effect at
+	 * the next cartridge insertion or reset.
+	 */
+	public void setDeterministic(long seed) {
+		this.deterministic = true;
+		memory.setPowerOnSeed(seed);
+		Cartridge cartridge = memory.getCartridge();
+		if (cartridge != null) {
+			cartridge.setClock(() -> DETERMINISTIC_CLOCK_MS);
+		}
+	}
+
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
 	private void applyHardwareSetting(String romPath) {
 		// If hardware type was explicitly set via setHardwareType(), don't override it
 		if (!memory.isHardwareOverride()) {
-			String mode = System.getProperty("emulator.hardware", "auto").toLowerCase();
+			String mode = config.hardware();
 			HardwareType type;
 			switch (mode) {
 				case "dmg":
@@ -145,7 +248,48 @@ public class GameBoyColor {
 		}
 		cpu.reset();
 		ppu.reset();
-		screen.reset();
+		applyBootStateCache();
+	}
+
+	/**
+	 * With a boot ROM mapped, resumes from the state an earlier run of the
+	 * same boot ROM and header reached when the boot ROM unmapped, or marks
+	 * this run's state to be cached at that point. Cartridge RAM and mapper
+	 * state are not part of the cached state. The cycle and step counts
+	 * advance by what the boot took, as if it had run.
+	 */
+	private void applyBootStateCache() {
+		pendingBootKey = null;
+		bootRomUnmapped = false;
+		byte[] bootRom = memory.getBootRom();
+		Cartridge cartridge = memory.getCartridge();
+		if (bootRom == null || !memory.isBootRomMapped() || cartridge == null || cartridge.getData() == null) {
+			return;
+		}
+		String key = BootStateCache.key(bootRom, memory.getHardwareType(), memory.getPowerOnSeed(),
+				cartridge.getData());
+		BootStateCache.Entry cached = BootStateCache.shared().get(key);
+		if (cached == null) {
+			pendingBootKey = key;
+			bootStartCycles = cycleCount;
+			bootStartSteps = stepCount;
+			return;
+		}
+		restore(cached.state());
+		cycleCount += cached.cycles();
+		stepCount += cached.steps();
+		LOGGER.fine("Skipped the boot ROM using a cached post-boot state");
+	}
+
+	private void cacheBootState() {
+		if (pendingBootKey == null) {
+			return;
+		}
+		StateWriter out = new StateWriter();
+		snapshot(out, true, false);
+		BootStateCache.shared().put(pendingBootKey, new BootStateCache.Entry(out.toByteArray(),
+				cycleCount - bootStartCycles, stepCount - bootStartSteps));
+		pendingBootKey = null;
 	}
 
 	/**
@@ -186,12 +330,222 @@ public class GameBoyColor {
 		return this.frameBuffer;
 	}
 
-	public boolean isAudioBufferFull() {
-		return memory.isAudioBufferFull();
+	public AudioRingBuffer getAudioOutputRing() {
+		return memory.getAudioOutputRing();
+	}
+
+	/**
+	 * Called from the audio thread before reading the output ring; performs
+	 * deferred synthesis when threaded APU synthesis is enabled.
+	 */
+	public void renderPendingAudio() {
+		memory.renderPendingAudio();
+	}
+
+	/**
+	 * Switches the APU into (or out of) silent mode for the given reason. Safe
+	 * to call from any thread.
+	 */
+	public void setAudioSilenced(Apu.SilenceReason reason, boolean silenced) {
+		memory.setAudioSilenced(reason, silenced);
+	}
+
+	/**
+	 * Runs one frame for headless callers: to the next VBlank, or for
+	 * {@link #MAX_FRAME_CYCLES} when the LCD is off. Returns the cycles
+	 * executed.
+	 */
+	public int runToVBlank() {
+		return runToVBlank(MAX_FRAME_CYCLES);
 	}
 
-	public byte[] fetchAudioSamples() {
-		return memory.fetchAudioSamples();
+	/**
+	 * Executes instructions until the PPU enters VBlank, or until
+	 * {@code maxCycles} have run when the LCD is off. Returns the cycles
+	 * executed.
+	 */
+	public int runToVBlank(int maxCycles) {
+		long vblank = ppu.getVblankCount();
+		int cycles = 0;
+		while (ppu.getVblankCount() == vblank && cycles < maxCycles) {
+			cycles += executeCycle();
+		}
+		return cycles;
+	}
+
+	/**
+	 * Enables or disables drawing into the frame buffer. Frames run with
+	 * output disabled are never shown, e.g. while running ahead.
+	 */
+	public void setFrameOutputEnabled(boolean enabled) {
+		frameBuffer.setOutputEnabled(enabled);
+	}
+
+	/** Shows a frame produced by another instance in place of this one's. */
+	public void presentFrame(int[] pixels) {
+		frameBuffer.present(pixels);
+		FrameSink sink = ppu.getFrameSink();
+		if (sink != null) {
+			sink.frameReady(frameBuffer);
+		}
+	}
+
+	/**
+	 * Subscribes {@code sink} to completed frames, replacing any previous
+	 * one; null unsubscribes. Without a sink frames only land in the
+	 * {@link FrameBuffer}.
+	 */
+	public void setFrameSink(FrameSink sink) {
+		ppu.setFrameSink(sink);
+	}
+
+	/**
+	 * Marks the start of execution that will be undone with
+	 * {@link #restore(StateReader)}; the APU keeps such cycles out of the
+	 * audio output. End it with {@link #endSpeculation()} after restoring.
+	 */
+	public void beginSpeculation() {
+		speculationStart = cycleCount;
+		memory.getApu().beginSpeculation();
+	}
+
+	public void endSpeculation() {
+		memory.getApu().endSpeculation();
+		cycleCount = speculationStart;
+	}
+
+	/**
+	 * Captures the complete machine state into {@code out}. Components are
+	 * copied field by field, so capturing has no side effects on the emulation.
+	 * The host-side front buffer, audio ring and trace output are not included.
+	 */
+	public void snapshot(StateWriter out) {
+		snapshot(out, true);
+	}
+
+	/**
+	 * Variant for frequent in-memory captures such as rewind. Without the
+	 * frame buffer the snapshot is much smaller and compresses far better,
+	 * but after restoring it the lines already drawn in the current frame
+	 * keep whatever the back buffer held; they are correct again from the
+	 * next frame on.
+	 */
+	public void snapshot(StateWriter out, boolean includeFrameBuffer) {
+		snapshot(out, includeFrameBuffer, true);
+	}
+
+	private void snapshot(StateWriter out, boolean includeFrameBuffer, boolean includeCartridge) {
+		out.writeInt(MachineState.MAGIC);
+		out.writeInt(MachineState.VERSION);
+		writeSection(out, MachineState.MEMORY, memory);
+		writeSection(out, MachineState.CPU, cpu);
+		writeSection(out, MachineState.TIMER, memory.getTimer());
+		writeSection(out, MachineState.LCD, memory.getLcdController());
+		writeSection(out, MachineState.DMA, memory.getDmaController());
+		writeSection(out, MachineState.PPU, ppu);
+		if (includeFrameBuffer) {
+			writeSection(out, MachineState.FRAME, frameBuffer);
+		}
+		writeSection(out, MachineState.APU, memory.getApu());
+		if (includeCartridge) {
+			writeSection(out, MachineState.CARTRIDGE, memory.getCartridge());
+		}
+		writeSection(out, MachineState.JOYPAD, input);
+	}
+
+	public byte[] snapshot() {
+		StateWriter out = new StateWriter();
+		snapshot(out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Restores a state produced by {@link #snapshot(StateWriter)}. The snapshot
+	 * must come from the same hardware profile and ROM; otherwise an
+	 * {@link IllegalStateException} is thrown before any state is changed.
+	 */
+	public void restore(StateReader in) {
+		if (in.readInt() != MachineState.MAGIC) {
+			throw new IllegalStateException("Not a machine snapshot");
+		}
+		int version = in.readInt();
+		if (version > MachineState.VERSION) {
+			throw new IllegalStateException("Machine snapshot version too new: " + version);
+		}
+		checkCompatible(in.copy());
+		while (in.hasRemaining()) {
+			int tag = in.nextSection();
+			Snapshotable component = componentFor(tag);
+			if (component == null) {
+				LOGGER.fine(() -> "Skipping unknown snapshot section " + MachineState.tagName(tag));
+				in.skipSection();
+				continue;
+			}
+			component.restore(in);
+			in.endSection();
+		}
+	}
+
+	public void restore(byte[] state) {
+		restore(new StateReader(state));
+	}
+
+	/**
+	 * Walks the sections of a snapshot and checks its hardware and ROM, so a
+	 * snapshot that does not fit is refused before the first section is applied.
+	 */
+	private void checkCompatible(StateReader in) {
+		while (in.hasRemaining()) {
+			int tag = in.nextSection();
+			if (tag == MachineState.MEMORY) {
+				memory.checkSnapshotHardware(in);
+			} else if (tag == MachineState.CARTRIDGE) {
+				Cartridge cartridge = memory.getCartridge();
+				if (cartridge == null) {
+					throw new IllegalStateException("Snapshot contains cartridge state but no cartridge is inserted");
+				}
+				cartridge.checkSnapshotRom(in);
+			}
+			in.skipSection();
+		}
+	}
+
+	private static void writeSection(StateWriter out, int tag, Snapshotable component) {
+		if (component == null) {
+			return;
+		}
+		out.beginSection(tag);
+		component.snapshot(out);
+		out.endSection();
+	}
+
+	private Snapshotable componentFor(int tag) {
+		if (tag == MachineState.MEMORY) {
+			return memory;
+		} else if (tag == MachineState.CPU) {
+			return cpu;
+		} else if (tag == MachineState.TIMER) {
+			return memory.getTimer();
+		} else if (tag == MachineState.LCD) {
+			return memory.getLcdController();
+		} else if (tag == MachineState.DMA) {
+			return memory.getDmaController();
+		} else if (tag == MachineState.PPU) {
+			return ppu;
+		} else if (tag == MachineState.FRAME) {
+			return frameBuffer;
+		} else if (tag == MachineState.APU) {
+			return memory.getApu();
+		} else if (tag == MachineState.CARTRIDGE) {
+			Cartridge cartridge = memory.getCartridge();
+			if (cartridge == null) {
+				throw new IllegalStateException("Snapshot contains cartridge state but no cartridge is inserted");
+			}
+			return cartridge;
+		} else if (tag == MachineState.JOYPAD) {
+			return input;
+		}
+		return null;
 	}
 
 	public void pause() {
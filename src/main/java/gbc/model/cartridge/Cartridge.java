@@ -1,13 +1,24 @@
 package gbc.model.cartridge;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public abstract class Cartridge {
+import gbc.model.CoreConfig;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+public abstract class Cartridge implements Snapshotable {
     private static final Logger LOGGER = Logger.getLogger(Cartridge.class.getName());
 
     private static final byte[] NINTENDO_LOGO = new byte[] {
@@ -22,12 +33,70 @@ public abstract class Cartridge {
     protected byte[] data;
     protected byte[] ram;
     protected Path romPath;
+    /** Where battery saves go; null keeps them next to the ROM. */
+    protected Path saveDir;
     protected boolean hasBattery = false;
 
+    /** Granularity of incremental battery RAM flushes. */
+    public static final int RAM_PAGE_SIZE = 256;
+    private static final int RAM_PAGE_SHIFT = 8;
+    /** Pages of {@link #ram} changed since the last flush, one bit each. */
+    private long[] dirtyPages;
+    /** Whether the save file holds a full RAM image, so pages can be patched in. */
+    private volatile boolean saveFileComplete;
+    /** Set when a flush failed, so the next capture writes everything again. */
+    private volatile boolean flushFailed;
+    private byte[] restoreScratch;
+    /**
+     * Wall-clock source in milliseconds for cartridges with a real-time
+     * clock, consulted when their battery-backed state is loaded or saved.
+     */
+    protected LongSupplier clock = System::currentTimeMillis;
+
     public Cartridge(byte[] data) {
         this.data = data;
     }
 
+    /**
+     * Replaces the wall clock the cartridge's real-time clock catches up to, e.g.
+     * with a fixed one for reproducible runs.
+     */
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Advances on-cartridge hardware by {@code cycles} single-speed cycles.
+     * Nothing to do for most mappers.
+     */
+    public void tick(int cycles) {
+    }
+
+    /**
+     * Applies the machine's settings; called when the cartridge is inserted.
+     */
+    public void applyConfig(CoreConfig config) {
+        this.saveDir = config.saveDirectory();
+    }
+
+    /**
+     * Stores a byte of cartridge RAM from the mapper's write path and marks
+     * its page for the next flush when the value actually changes.
+     */
+    protected final void writeRam(int index, byte value) {
+        if (ram[index] != value) {
+            ram[index] = value;
+            markRamDirty(index >>> RAM_PAGE_SHIFT);
+        }
+    }
+
+    private void markRamDirty(int page) {
+        if (dirtyPages == null) {
+            dirtyPages = new long[(ram.length + (RAM_PAGE_SIZE << 6) - 1) / (RAM_PAGE_SIZE << 6)];
+        }
+        dirtyPages[page >>> 6] |= 1L << page;
+    }
+
     // Use 'int' for address to accommodate the full range of Game Boy addresses
     public abstract byte read(int address);
 
@@ -93,6 +162,11 @@ public abstract class Cartridge {
         return getComputedHeaderChecksum() == getHeaderChecksum();
     }
 
+    /** The logo bytes expected at 0x0104, for tools that build cartridge headers. */
+    public static byte[] nintendoLogo() {
+        return NINTENDO_LOGO.clone();
+    }
+
     public boolean isNintendoLogoValid() {
         if (data == null || data.length < 0x0134 + NINTENDO_LOGO.length) {
             return false;
@@ -113,6 +187,71 @@ public abstract class Cartridge {
         return ram;
     }
 
+    /**
+     * Writes the ROM identity, cartridge RAM and mapper registers. ROM contents
+     * are not stored; {@link #restore} refuses a snapshot taken from a
+     * different image.
+     */
+    @Override
+    public final void snapshot(StateWriter out) {
+        out.writeInt(data == null ? 0 : data.length);
+        out.writeInt(getHeaderChecksum());
+        out.writeInt(getGlobalChecksum());
+        out.writeBytes(ram);
+        snapshotMapper(out);
+    }
+
+    /**
+     * Reads the ROM identity that opens this component's snapshot and throws
+     * an {@link IllegalStateException} unless it matches this cartridge.
+     */
+    public final void checkSnapshotRom(StateReader in) {
+        int length = in.readInt();
+        int headerChecksum = in.readInt();
+        int globalChecksum = in.readInt();
+        if (length != (data == null ? 0 : data.length) || headerChecksum != getHeaderChecksum()
+                || globalChecksum != getGlobalChecksum()) {
+            throw new IllegalStateException("Snapshot was taken with a different ROM than " + getTitle());
+        }
+    }
+
+    @Override
+    public final void restore(StateReader in) {
+        checkSnapshotRom(in);
+        if (ram == null) {
+            in.readBytes(null);
+        } else {
+            // Only pages that differ count as written, so restoring states
+            // every frame (rewind, run-ahead) does not dirty the whole save
+            if (restoreScratch == null || restoreScratch.length != ram.length) {
+                restoreScratch = new byte[ram.length];
+            }
+            in.readBytes(restoreScratch);
+            for (int from = 0, page = 0; from < ram.length; from += RAM_PAGE_SIZE, page++) {
+                int to = Math.min(from + RAM_PAGE_SIZE, ram.length);
+                if (Arrays.mismatch(ram, from, to, restoreScratch, from, to) >= 0) {
+                    System.arraycopy(restoreScratch, from, ram, from, to - from);
+                    markRamDirty(page);
+                }
+            }
+        }
+        restoreMapper(in);
+    }
+
+    /** Mapper-specific register state; plain ROM carts have none. */
+    protected void snapshotMapper(StateWriter out) {
+    }
+
+    protected void restoreMapper(StateReader in) {
+    }
+
+    private int getGlobalChecksum() {
+        if (data == null || data.length <= 0x14F) {
+            return 0x00;
+        }
+        return ((data[0x14E] & 0xFF) << 8) | (data[0x14F] & 0xFF);
+    }
+
     /**
      * Returns the CGB flag from ROM header (0x0143).
      * 0x80 = CGB compatible, 0xC0 = CGB only, 0x00 = DMG only.
@@ -153,7 +292,8 @@ public abstract class Cartridge {
 
     /**
      * Gets the save file path for battery-backed RAM.
-     * The save file is stored alongside the ROM with a .sav extension.
+     * The save file is stored alongside the ROM with a .sav extension,
+     * or in the configured save directory.
      */
     public Path getSaveFilePath() {
         if (romPath == null) {
@@ -161,9 +301,8 @@ public abstract class Cartridge {
         }
         String romName = romPath.getFileName().toString();
         String saveName = romName.replaceFirst("\\.[^.]+$", ".sav");
-        String saveDir = System.getProperty("emulator.saveDir");
-        if (saveDir != null && !saveDir.isBlank()) {
-            return Path.of(saveDir).resolve(saveName);
+        if (saveDir != null) {
+            return saveDir.resolve(saveName);
         }
         return romPath.getParent().resolve(saveName);
     }
@@ -177,9 +316,8 @@ public abstract class Cartridge {
         String baseName = romName.contains(".")
                 ? romName.replaceFirst("\\.[^.]+$", safeExtension)
                 : romName + safeExtension;
-        String saveDir = System.getProperty("emulator.saveDir");
-        if (saveDir != null && !saveDir.isBlank()) {
-            return Path.of(saveDir).resolve(baseName);
+        if (saveDir != null) {
+            return saveDir.resolve(baseName);
         }
         return romPath.getParent().resolve(baseName);
     }
@@ -199,9 +337,13 @@ public abstract class Cartridge {
             return;
         }
 
+        if (dirtyPages != null) {
+            Arrays.fill(dirtyPages, 0L);
+        }
         try {
             Files.createDirectories(savePath.getParent());
             Files.write(savePath, ram);
+            saveFileComplete = true;
             LOGGER.log(Level.INFO, () -> String.format("Saved SRAM to %s (%d bytes)", savePath, ram.length));
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to save SRAM to " + savePath, e);
@@ -227,9 +369,158 @@ public abstract class Cartridge {
             byte[] savedData = Files.readAllBytes(savePath);
             int copyLength = Math.min(savedData.length, ram.length);
             System.arraycopy(savedData, 0, ram, 0, copyLength);
+            if (dirtyPages != null) {
+                Arrays.fill(dirtyPages, 0L);
+            }
+            saveFileComplete = savedData.length == ram.length;
             LOGGER.log(Level.INFO, () -> String.format("Loaded SRAM from %s (%d bytes)", savePath, copyLength));
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Failed to load SRAM from " + savePath, e);
         }
     }
+
+    /**
+     * Battery RAM pages copied out by {@link #captureDirtyRam} for
+     * {@link #writeDirtyRam}, which can run on another thread.
+     */
+    public static final class RamFlush {
+        private final Path path;
+        private final int[] pages;
+        private final byte[] data;
+        private final byte[] rtcState;
+
+        private RamFlush(Path path, int[] pages, byte[] data, byte[] rtcState) {
+            this.path = path;
+            this.pages = pages;
+            this.data = data;
+            this.rtcState = rtcState;
+        }
+
+        public int getPageCount() {
+            return pages.length;
+        }
+    }
+
+    /**
+     * Copies the RAM pages changed since the last flush and clears their dirty
+     * bits. Cheap enough to call with the emulation paused between
+     * instructions; the IO happens in {@link #writeDirtyRam}. Returns null
+     * when there is nothing to write.
+     */
+    public RamFlush captureDirtyRam() {
+        if (!hasBattery || ram == null || ram.length == 0) {
+            return null;
+        }
+        Path savePath = getSaveFilePath();
+        if (savePath == null) {
+            return null;
+        }
+        int dirty = 0;
+        if (dirtyPages != null) {
+            for (long word : dirtyPages) {
+                dirty += Long.bitCount(word);
+            }
+        }
+        // The pages of a failed flush already had their dirty bits cleared
+        boolean retry = flushFailed;
+        flushFailed = false;
+        byte[] rtcState = captureRtcState(retry);
+        if (dirty == 0 && rtcState == null && !retry) {
+            return null;
+        }
+        int pageCount = (ram.length + RAM_PAGE_SIZE - 1) / RAM_PAGE_SIZE;
+        // A missing or short save file cannot be patched; write it whole
+        boolean full = !saveFileComplete || retry;
+        if (full) {
+            dirty = pageCount;
+        }
+        int[] pages = new int[dirty];
+        byte[] data = new byte[dirty * RAM_PAGE_SIZE];
+        for (int page = 0, n = 0; page < pageCount && n < dirty; page++) {
+            if (full || (dirtyPages[page >>> 6] & 1L << page) != 0) {
+                int from = page * RAM_PAGE_SIZE;
+                System.arraycopy(ram, from, data, n * RAM_PAGE_SIZE, Math.min(RAM_PAGE_SIZE, ram.length - from));
+                pages[n++] = page;
+            }
+        }
+        if (dirtyPages != null) {
+            Arrays.fill(dirtyPages, 0L);
+        }
+        if (full) {
+            // Trimmed to the RAM size so the file matches what saveSRAM writes
+            data = Arrays.copyOf(data, ram.length);
+        }
+        return new RamFlush(savePath, pages, data, rtcState);
+    }
+
+    /**
+     * Writes the pages of {@code flush} in place into the save file and, with
+     * {@code sync}, forces them to the storage device. A failed write makes
+     * the next capture a full one, even if the RAM does not change again.
+     */
+    public boolean writeDirtyRam(RamFlush flush, boolean sync) {
+        try {
+            Path parent = flush.path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (flush.pages.length > 0) {
+                try (FileChannel channel = FileChannel.open(flush.path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE)) {
+                    for (int n = 0; n < flush.pages.length; n++) {
+                        int offset = n * RAM_PAGE_SIZE;
+                        ByteBuffer page = ByteBuffer.wrap(flush.data, offset,
+                                Math.min(RAM_PAGE_SIZE, flush.data.length - offset));
+                        long position = (long) flush.pages[n] * RAM_PAGE_SIZE;
+                        while (page.hasRemaining()) {
+                            position += channel.write(page, position);
+                        }
+                    }
+                    if (sync) {
+                        channel.force(false);
+                    }
+                }
+                if (flush.data.length == (ram == null ? 0 : ram.length)) {
+                    saveFileComplete = true;
+                }
+            }
+            if (flush.rtcState != null) {
+                writeRtcFile(flush.rtcState, sync);
+            }
+            return true;
+        } catch (IOException e) {
+            saveFileComplete = false;
+            flushFailed = true;
+            LOGGER.log(Level.WARNING, "Failed to flush SRAM to " + flush.path, e);
+            return false;
+        }
+    }
+
+    /**
+     * The encoded real-time clock footer when it changed since the last
+     * capture or {@code force} is set, or null. Only cartridges with a clock
+     * have one.
+     */
+    protected byte[] captureRtcState(boolean force) {
+        return null;
+    }
+
+    private void writeRtcFile(byte[] state, boolean sync) throws IOException {
+        Path rtcPath = getSaveFilePathWithExtension(".rtc");
+        if (rtcPath == null) {
+            return;
+        }
+        Path temp = rtcPath.resolveSibling(rtcPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(state);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        }
+        Files.move(temp, rtcPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 }
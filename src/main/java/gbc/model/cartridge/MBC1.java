@@ -2,6 +2,9 @@ package gbc.model.cartridge;
 
 import java.util.logging.Logger;
 
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 public class MBC1 extends Cartridge {
     private static final Logger LOGGER = Logger.getLogger(MBC1.class.getName());
     private static final int ROM_BANK_SIZE = 0x4000;
@@ -31,6 +34,22 @@ public class MBC1 extends Cartridge {
         this.ramBankCount = ram == null ? 0 : Math.max(1, ram.length / RAM_BANK_SIZE);
     }
 
+    @Override
+    protected void snapshotMapper(StateWriter out) {
+        out.writeInt(romBankLow);
+        out.writeInt(bankUpper);
+        out.writeBoolean(ramEnabled);
+        out.writeBoolean(bankingMode);
+    }
+
+    @Override
+    protected void restoreMapper(StateReader in) {
+        romBankLow = in.readInt();
+        bankUpper = in.readInt();
+        ramEnabled = in.readBoolean();
+        bankingMode = in.readBoolean();
+    }
+
     private static boolean detectMulticart(byte[] data) {
         // MBC1M multicart: 1MB ROM with valid Nintendo logos at 256KB boundaries
         if (data.length < 0x100000)
@@ -141,7 +160,7 @@ public class MBC1 extends Cartridge {
             int index = bank * RAM_BANK_SIZE + (address - 0xA000);
             if (index >= ram.length)
                 return;
-            ram[index] = value;
+            writeRam(index, value);
         }
     }
 }
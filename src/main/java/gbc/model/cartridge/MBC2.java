@@ -1,5 +1,8 @@
 package gbc.model.cartridge;
 
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 public class MBC2 extends Cartridge {
     private static final int ROM_BANK_SIZE = 0x4000;
 
@@ -15,6 +18,18 @@ public class MBC2 extends Cartridge {
         this.romBankCount = Math.max(1, data.length / ROM_BANK_SIZE);
     }
 
+    @Override
+    protected void snapshotMapper(StateWriter out) {
+        out.writeInt(romBankNumber);
+        out.writeBoolean(ramEnabled);
+    }
+
+    @Override
+    protected void restoreMapper(StateReader in) {
+        romBankNumber = in.readInt();
+        ramEnabled = in.readBoolean();
+    }
+
     @Override
     public byte read(int address) {
         if (address >= 0x0000 && address < 0x4000) {
@@ -57,7 +72,7 @@ public class MBC2 extends Cartridge {
             if (!ramEnabled)
                 return;
             int index = (address - 0xA000) & 0x01FF;
-            ram[index] = (byte) (value & 0x0F);
+            writeRam(index, (byte) (value & 0x0F));
         }
     }
 }
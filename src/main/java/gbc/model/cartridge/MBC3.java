@@ -1,5 +1,6 @@
 package gbc.model.cartridge;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -8,17 +9,25 @@ import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 public class MBC3 extends Cartridge {
 	private static final Logger LOGGER = Logger.getLogger(MBC3.class.getName());
 	private static final byte[] RTC_MAGIC = new byte[] { 'R', 'T', 'C', '1' };
 	private static final int RTC_VERSION = 1;
+	/** The RTC counts real time; stepped cycles are always single-speed. */
+	private static final int CYCLES_PER_SECOND = 4_194_304;
 
 	private int romBankNumber = 1; // Default ROM bank
 	private int ramBankNumber = 0; // Default RAM bank
 	private boolean ramEnabled = false;
 	private boolean rtcLatched = false;
-	private long lastRtcUpdateMs = 0;
+	/** Cycles into the current RTC second. */
+	private int rtcCycles;
 	private int lastLatchValue = 0;
+	/** The game set the clock since the footer was last captured. */
+	private boolean rtcDirty;
 
 	private final byte[] rtcRegisters = new byte[5]; // 0-4: S, M, H, DL, DH
 	private final byte[] latchedRtcRegisters = new byte[5];
@@ -32,6 +41,30 @@ public class MBC3 extends Cartridge {
 		}
 	}
 
+	@Override
+	protected void snapshotMapper(StateWriter out) {
+		out.writeInt(romBankNumber);
+		out.writeInt(ramBankNumber);
+		out.writeBoolean(ramEnabled);
+		out.writeBoolean(rtcLatched);
+		out.writeInt(rtcCycles);
+		out.writeInt(lastLatchValue);
+		out.writeBytes(rtcRegisters);
+		out.writeBytes(latchedRtcRegisters);
+	}
+
+	@Override
+	protected void restoreMapper(StateReader in) {
+		romBankNumber = in.readInt();
+		ramBankNumber = in.readInt();
+		ramEnabled = in.readBoolean();
+		rtcLatched = in.readBoolean();
+		rtcCycles = in.readInt();
+		lastLatchValue = in.readInt();
+		in.readBytes(rtcRegisters);
+		in.readBytes(latchedRtcRegisters);
+	}
+
 	private int getRamSize(byte ramSizeType) {
 		switch (ramSizeType) {
 			case 0x01:
@@ -49,24 +82,26 @@ public class MBC3 extends Cartridge {
 		}
 	}
 
-	private void updateRtc() {
-		long now = System.currentTimeMillis();
-		if (lastRtcUpdateMs == 0) {
-			lastRtcUpdateMs = now;
-			return;
-		}
+	/**
+	 * Advances the RTC by emulated time, so it keeps pace with the game at
+	 * any emulation speed and replays identically.
+	 */
+	@Override
+	public void tick(int cycles) {
 		if ((rtcRegisters[4] & 0x40) != 0) { // halted
-			lastRtcUpdateMs = now;
 			return;
 		}
+		rtcCycles += cycles;
+		if (rtcCycles >= CYCLES_PER_SECOND) {
+			advanceRtc(rtcCycles / CYCLES_PER_SECOND);
+			rtcCycles %= CYCLES_PER_SECOND;
+		}
+	}
 
-		long diff = now - lastRtcUpdateMs;
-		long seconds = diff / 1000;
+	private void advanceRtc(long seconds) {
 		if (seconds <= 0) {
 			return;
 		}
-		lastRtcUpdateMs = now;
-
 		long totalSeconds = seconds + (rtcRegisters[0] & 0xFF);
 		rtcRegisters[0] = (byte) (totalSeconds % 60);
 		long minutesCarry = totalSeconds / 60;
@@ -107,7 +142,6 @@ public class MBC3 extends Cartridge {
 			return (byte) 0xFF;
 		} else if (address >= 0xA000 && address < 0xC000 && ramEnabled) {
 			if (ramBankNumber >= 0x08 && ramBankNumber <= 0x0C) {
-				updateRtc();
 				return rtcLatched ? latchedRtcRegisters[ramBankNumber - 0x08] : rtcRegisters[ramBankNumber - 0x08];
 			} else {
 				if (ram == null) {
@@ -146,7 +180,6 @@ public class MBC3 extends Cartridge {
 				return;
 			}
 			if (value == 0x01 && lastLatchValue == 0) {
-				updateRtc();
 				System.arraycopy(rtcRegisters, 0, latchedRtcRegisters, 0, rtcRegisters.length);
 				rtcLatched = true;
 			}
@@ -154,14 +187,11 @@ public class MBC3 extends Cartridge {
 		} else if (address >= 0xA000 && address < 0xC000 && ramEnabled) {
 			if (ramBankNumber >= 0x08 && ramBankNumber <= 0x0C) {
 				int registerIndex = ramBankNumber - 0x08;
-				if (registerIndex == 4) {
-					boolean wasHalted = (rtcRegisters[4] & 0x40) != 0;
-					boolean nowHalted = (value & 0x40) != 0;
-					if (wasHalted != nowHalted) {
-						lastRtcUpdateMs = System.currentTimeMillis();
-					}
+				if (registerIndex == 0) {
+					rtcCycles = 0; // writing seconds resets the sub-second divider
 				}
 				rtcRegisters[registerIndex] = value;
+				rtcDirty = true;
 			} else {
 				if (ram == null)
 					return;
@@ -169,7 +199,7 @@ public class MBC3 extends Cartridge {
 				int bankOffset = ramBankNumber * 0x2000;
 				int index = bankOffset + (address - 0xA000);
 				if (index >= 0 && index < ram.length) {
-					ram[index] = value;
+					writeRam(index, value);
 				}
 			}
 		}
@@ -197,20 +227,43 @@ public class MBC3 extends Cartridge {
 		}
 		try {
 			Files.createDirectories(rtcPath.getParent());
-			try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(rtcPath))) {
-				out.write(RTC_MAGIC);
-				out.writeInt(RTC_VERSION);
-				out.writeLong(lastRtcUpdateMs);
-				out.writeBoolean(rtcLatched);
-				out.writeByte(lastLatchValue);
-				out.write(rtcRegisters);
-				out.write(latchedRtcRegisters);
-			}
+			Files.write(rtcPath, encodeRtcState());
+			rtcDirty = false;
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Failed to save RTC state to " + rtcPath, e);
 		}
 	}
 
+	/**
+	 * The clock only needs persisting when the game sets it: between writes
+	 * the saved wall time lets a reload catch up on its own.
+	 */
+	@Override
+	protected byte[] captureRtcState(boolean force) {
+		if (!rtcDirty && !force) {
+			return null;
+		}
+		rtcDirty = false;
+		return encodeRtcState();
+	}
+
+	private byte[] encodeRtcState() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.write(RTC_MAGIC);
+			out.writeInt(RTC_VERSION);
+			// Wall time of the save, so the clock can catch up on load
+			out.writeLong(clock.getAsLong());
+			out.writeBoolean(rtcLatched);
+			out.writeByte(lastLatchValue);
+			out.write(rtcRegisters);
+			out.write(latchedRtcRegisters);
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to encode RTC state", e);
+		}
+		return bytes.toByteArray();
+	}
+
 	private void loadRtcState() {
 		if (!hasBattery) {
 			return;
@@ -233,12 +286,16 @@ public class MBC3 extends Cartridge {
 			if (version != RTC_VERSION) {
 				return;
 			}
-			lastRtcUpdateMs = in.readLong();
+			long savedAtMs = in.readLong();
 			rtcLatched = in.readBoolean();
 			lastLatchValue = in.readByte() & 0x01;
 			in.readFully(rtcRegisters);
 			in.readFully(latchedRtcRegisters);
-			updateRtc();
+			rtcDirty = false;
+			// Account for the time the game was not running
+			if ((rtcRegisters[4] & 0x40) == 0 && savedAtMs > 0) {
+				advanceRtc((clock.getAsLong() - savedAtMs) / 1000);
+			}
 		} catch (IOException e) {
 			LOGGER.log(Level.WARNING, "Failed to load RTC state from " + rtcPath, e);
 		}
@@ -1,5 +1,8 @@
 package gbc.model.cartridge;
 
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 public class MBC5 extends Cartridge {
 	private static final int ROM_BANK_SIZE = 0x4000; // Size of a ROM bank
 	private static final int RAM_BANK_SIZE = 0x2000; // Size of a RAM bank
@@ -31,6 +34,22 @@ public class MBC5 extends Cartridge {
 		this.ramBankCount = ram == null ? 0 : Math.max(1, ram.length / RAM_BANK_SIZE);
 	}
 
+	@Override
+	protected void snapshotMapper(StateWriter out) {
+		out.writeInt(romBankNumber);
+		out.writeInt(ramBankNumber);
+		out.writeBoolean(ramEnabled);
+		out.writeBoolean(rumbleEnabled);
+	}
+
+	@Override
+	protected void restoreMapper(StateReader in) {
+		romBankNumber = in.readInt();
+		ramBankNumber = in.readInt();
+		ramEnabled = in.readBoolean();
+		rumbleEnabled = in.readBoolean();
+	}
+
 	private int getRamSize(byte ramSizeType) {
 		switch (ramSizeType) {
 			case 0x01:
@@ -102,7 +121,7 @@ public class MBC5 extends Cartridge {
 			if (index < 0 || index >= ram.length) {
 				return;
 			}
-			ram[index] = value;
+			writeRam(index, value);
 		}
 	}
 
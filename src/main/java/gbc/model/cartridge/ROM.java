@@ -1,9 +1,11 @@
 package gbc.model.cartridge;
 
+import gbc.model.CoreConfig;
+
 public class ROM extends Cartridge {
 	// Keep optional ROM write emulation only for dedicated tests that explicitly
 	// need it.
-	private final boolean allowRomWrites;
+	private boolean allowRomWrites;
 	private byte[] writeBuffer; // For testing purposes
 	private boolean[] written; // Track which addresses have been written
 
@@ -14,11 +16,6 @@ public class ROM extends Cartridge {
 	public ROM(byte[] data, boolean hasBattery) {
 		super(data);
 		this.hasBattery = hasBattery;
-		this.allowRomWrites = Boolean.getBoolean("gbc.rom.allowWrites");
-		if (allowRomWrites) {
-			this.writeBuffer = new byte[data.length];
-			this.written = new boolean[data.length];
-		}
 		// Allocate RAM if header indicates RAM
 		int ramSize = getRamSize(data[0x0149]);
 		if (ramSize > 0) {
@@ -26,6 +23,16 @@ public class ROM extends Cartridge {
 		}
 	}
 
+	@Override
+	public void applyConfig(CoreConfig config) {
+		super.applyConfig(config);
+		allowRomWrites = config.allowRomWrites();
+		if (allowRomWrites && writeBuffer == null) {
+			this.writeBuffer = new byte[data.length];
+			this.written = new boolean[data.length];
+		}
+	}
+
 	private int getRamSize(byte ramSizeType) {
 		switch (ramSizeType) {
 			case 0x01:
@@ -68,7 +75,7 @@ public class ROM extends Cartridge {
 		if (address >= 0xA000 && address < 0xC000) {
 			// Cartridge RAM
 			if (ram != null) {
-				ram[address - 0xA000] = value;
+				writeRam(address - 0xA000, value);
 			}
 			return;
 		}
@@ -0,0 +1,405 @@
+package gbc.model.cpu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Two-pass SM83 assembler built from the same {@link OperationDefinitions}
+ * tables as the CPU and the {@link Disassembler}, so anything it emits
+ * decodes to what was written. Meant for generating test and workload code,
+ * not as a general-purpose toolchain.
+ *
+ * <p>
+ * Syntax follows the tables: {@code LD A,(HL+)}, {@code LDH (C),A},
+ * {@code LDH (0x44),A}, {@code JR NZ,loop}, {@code BIT 7,(HL)},
+ * {@code RST 38H}, {@code LD HL,SP+4}. Numbers may be written as
+ * {@code 0x1F}, {@code $1F}, {@code 1FH}, {@code %0101} or decimal, and
+ * expressions are sums and differences of numbers and labels. SUB, SBC,
+ * AND, XOR, OR and CP accept an optional leading {@code A,}.
+ */
+public final class Assembler {
+    private static final Map<String, List<Template>> TEMPLATES = buildTemplates();
+    private static final Set<String> RESERVED = Set.of("A", "B", "C", "D", "E", "H", "L", "AF", "BC", "DE", "HL",
+            "SP", "NZ", "Z", "NC", "HL+", "HL-");
+    private static final Set<String> MEMORY_REGISTERS = Set.of("HL", "BC", "DE", "HL+", "HL-", "C");
+    private static final Set<String> IMPLIED_A = Set.of("SUB", "SBC", "AND", "XOR", "OR", "CP");
+
+    private record Template(int opcode, boolean cbPrefixed, int bytes, List<Map<String, Object>> operands) {
+    }
+
+    private enum FixupKind {
+        /** 8-bit value; 0xFF00-0xFFFF is accepted as its low byte for LDH. */
+        U8,
+        U16,
+        /** Signed 8-bit value, for {@code LD HL,SP+r8} and {@code ADD SP,r8}. */
+        S8,
+        /** Signed offset from the end of the instruction. */
+        REL8
+    }
+
+    private record Fixup(int position, FixupKind kind, String expression, int instructionEnd, String line) {
+    }
+
+    private final int origin;
+    private byte[] code = new byte[256];
+    private int size;
+    private final Map<String, Integer> labels = new HashMap<>();
+    private final List<Fixup> fixups = new ArrayList<>();
+
+    /** Assembles code to be placed at {@code origin}. */
+    public Assembler(int origin) {
+        this.origin = origin;
+    }
+
+    /** Address the next byte will be placed at. */
+    public int here() {
+        return origin + size;
+    }
+
+    /** Defines {@code name} at the current address. */
+    public Assembler label(String name) {
+        if (RESERVED.contains(name.toUpperCase(Locale.ROOT)) || labels.putIfAbsent(name, here()) != null) {
+            throw new IllegalArgumentException("Duplicate or reserved label: " + name);
+        }
+        return this;
+    }
+
+    /** Defines {@code name} as a constant usable in expressions. */
+    public Assembler equ(String name, int value) {
+        if (RESERVED.contains(name.toUpperCase(Locale.ROOT)) || labels.putIfAbsent(name, value) != null) {
+            throw new IllegalArgumentException("Duplicate or reserved label: " + name);
+        }
+        return this;
+    }
+
+    /**
+     * Assembles source text: one instruction per line or per
+     * {@code |}-separated segment, {@code name:} labels, and {@code ;}
+     * comments.
+     */
+    public Assembler asm(String source) {
+        for (String line : source.split("\n")) {
+            int comment = line.indexOf(';');
+            String code = comment >= 0 ? line.substring(0, comment) : line;
+            for (String statement : code.split("\\|")) {
+                String text = statement.trim();
+                int colon = text.indexOf(':');
+                if (colon > 0 && !text.substring(0, colon).contains(" ")) {
+                    label(text.substring(0, colon).trim());
+                    text = text.substring(colon + 1).trim();
+                }
+                if (!text.isEmpty()) {
+                    op(text);
+                }
+            }
+        }
+        return this;
+    }
+
+    /** Assembles a single instruction. */
+    public Assembler op(String instruction) {
+        String text = instruction.trim();
+        int space = text.indexOf(' ');
+        String mnemonic = (space < 0 ? text : text.substring(0, space)).toUpperCase(Locale.ROOT);
+        List<String> operands = new ArrayList<>();
+        if (space >= 0) {
+            for (String operand : text.substring(space + 1).split(",")) {
+                operands.add(operand.trim());
+            }
+        }
+        if (IMPLIED_A.contains(mnemonic) && operands.size() == 2 && operands.get(0).equalsIgnoreCase("A")) {
+            operands.remove(0);
+        }
+        List<Template> candidates = TEMPLATES.get(mnemonic);
+        if (candidates != null) {
+            for (Template template : candidates) {
+                if (template.operands().size() == operands.size() && matches(template, operands)) {
+                    emit(mnemonic, template, operands, instruction);
+                    return this;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Cannot assemble: " + instruction);
+    }
+
+    /** Emits raw bytes. */
+    public Assembler db(int... bytes) {
+        for (int b : bytes) {
+            put(b);
+        }
+        return this;
+    }
+
+    /** Emits little-endian words, which may be label expressions. */
+    public Assembler dw(String... expressions) {
+        for (String expression : expressions) {
+            fixups.add(new Fixup(size, FixupKind.U16, expression, here() + 2, "dw " + expression));
+            put(0);
+            put(0);
+        }
+        return this;
+    }
+
+    /** Pads with {@code fill} up to {@code address}. */
+    public Assembler org(int address, int fill) {
+        if (address < here()) {
+            throw new IllegalArgumentException(String.format("org $%04X is behind $%04X", address, here()));
+        }
+        while (here() < address) {
+            put(fill);
+        }
+        return this;
+    }
+
+    public Assembler org(int address) {
+        return org(address, 0x00);
+    }
+
+    /** Address of a label defined so far. */
+    public int address(String label) {
+        Integer value = labels.get(label);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown label: " + label);
+        }
+        return value;
+    }
+
+    /** Resolves every label reference and returns the code. */
+    public byte[] assemble() {
+        for (Fixup fixup : fixups) {
+            int value = evaluate(fixup.expression(), fixup.line());
+            switch (fixup.kind()) {
+                case U8 -> {
+                    if (value >= 0xFF00 && value <= 0xFFFF) {
+                        value &= 0xFF;
+                    }
+                    check(value >= -128 && value <= 0xFF, fixup, value);
+                    code[fixup.position()] = (byte) value;
+                }
+                case U16 -> {
+                    check(value >= -32768 && value <= 0xFFFF, fixup, value);
+                    code[fixup.position()] = (byte) value;
+                    code[fixup.position() + 1] = (byte) (value >>> 8);
+                }
+                case S8 -> {
+                    check(value >= -128 && value <= 127, fixup, value);
+                    code[fixup.position()] = (byte) value;
+                }
+                case REL8 -> {
+                    int offset = value - fixup.instructionEnd();
+                    check(offset >= -128 && offset <= 127, fixup, offset);
+                    code[fixup.position()] = (byte) offset;
+                }
+            }
+        }
+        return Arrays.copyOf(code, size);
+    }
+
+    private static void check(boolean inRange, Fixup fixup, int value) {
+        if (!inRange) {
+            throw new IllegalArgumentException("Value " + value + " out of range in: " + fixup.line());
+        }
+    }
+
+    private boolean matches(Template template, List<String> operands) {
+        for (int i = 0; i < operands.size(); i++) {
+            if (!matchesOperand(template.operands().get(i), operands.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesOperand(Map<String, Object> spec, String operand) {
+        String name = (String) spec.get("name");
+        boolean immediate = Boolean.TRUE.equals(spec.get("immediate"));
+        boolean memory = Boolean.TRUE.equals(spec.get("memory"));
+        String upper = operand.toUpperCase(Locale.ROOT);
+        String inner = indirect(upper);
+
+        if (memory) {
+            if (inner == null) {
+                return false;
+            }
+            if (MEMORY_REGISTERS.contains(name)) {
+                return normalizeIndirect(inner).equals(name);
+            }
+            return !RESERVED.contains(normalizeIndirect(inner)); // a8 or a16
+        }
+        if (!immediate) {
+            return upper.equals(name);
+        }
+        if (inner != null) {
+            return false;
+        }
+        return switch (name) {
+            case "NZ", "Z", "NC", "C" -> upper.equals(name);
+            case "d8", "d16", "a16", "r8" -> !RESERVED.contains(upper) && !isStackOffset(upper);
+            case "SP+r8" -> isStackOffset(upper);
+            default -> {
+                // RST vectors ("38H") and bit numbers
+                int expected = name.endsWith("H") ? Integer.parseInt(name.substring(0, name.length() - 1), 16)
+                        : Integer.parseInt(name);
+                Integer value = literal(operand);
+                yield value != null && value == expected;
+            }
+        };
+    }
+
+    private static boolean isStackOffset(String upper) {
+        return upper.startsWith("SP+") || upper.startsWith("SP-");
+    }
+
+    private void emit(String mnemonic, Template template, List<String> operands, String line) {
+        int start = here();
+        if (template.cbPrefixed()) {
+            put(0xCB);
+        }
+        put(template.opcode());
+        int immediateBytes = 0;
+        for (Map<String, Object> spec : template.operands()) {
+            String name = (String) spec.get("name");
+            if (name.equals("d16") || name.equals("a16")) {
+                immediateBytes += 2;
+            } else if (name.equals("d8") || name.equals("a8") || name.equals("r8") || name.equals("SP+r8")) {
+                immediateBytes += 1;
+            }
+        }
+        int end = start + (template.cbPrefixed() ? 2 : 1) + immediateBytes;
+        for (int i = 0; i < operands.size(); i++) {
+            String name = (String) template.operands().get(i).get("name");
+            String operand = operands.get(i);
+            String inner = indirect(operand);
+            switch (name) {
+                case "d8" -> immediate(FixupKind.U8, operand, end, line);
+                case "a8" -> immediate(FixupKind.U8, inner, end, line);
+                case "d16" -> immediate(FixupKind.U16, operand, end, line);
+                case "a16" -> immediate(FixupKind.U16, inner != null ? inner : operand, end, line);
+                case "r8" -> immediate(mnemonic.equals("JR") ? FixupKind.REL8 : FixupKind.S8, operand, end, line);
+                case "SP+r8" -> immediate(FixupKind.S8, operand.trim().substring(2), end, line);
+                default -> {
+                }
+            }
+        }
+        if (template.bytes() > here() - start) {
+            put(0x00); // STOP's second byte
+        }
+    }
+
+    private void immediate(FixupKind kind, String expression, int instructionEnd, String line) {
+        fixups.add(new Fixup(size, kind, expression.trim(), instructionEnd, line));
+        put(0);
+        if (kind == FixupKind.U16) {
+            put(0);
+        }
+    }
+
+    private int evaluate(String expression, String line) {
+        String text = expression.replace(" ", "");
+        int total = 0;
+        int sign = 1;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean operator = i < text.length() && i > start && (text.charAt(i) == '+' || text.charAt(i) == '-');
+            if (i == text.length() || operator) {
+                String term = text.substring(start, i);
+                Integer value = literal(term);
+                if (value == null) {
+                    value = labels.get(term);
+                }
+                if (value == null) {
+                    throw new IllegalArgumentException("Unknown symbol '" + term + "' in: " + line);
+                }
+                total += sign * value;
+                if (i < text.length()) {
+                    sign = text.charAt(i) == '-' ? -1 : 1;
+                }
+                start = i + 1;
+            }
+        }
+        return total;
+    }
+
+    /** A numeric literal's value, or null if {@code text} is not one. */
+    private static Integer literal(String text) {
+        String t = text.trim();
+        boolean negative = t.startsWith("-");
+        if (negative) {
+            t = t.substring(1);
+        }
+        try {
+            int value;
+            if (t.startsWith("$")) {
+                value = Integer.parseInt(t.substring(1), 16);
+            } else if (t.startsWith("0x") || t.startsWith("0X")) {
+                value = Integer.parseInt(t.substring(2), 16);
+            } else if (t.startsWith("%")) {
+                value = Integer.parseInt(t.substring(1), 2);
+            } else if (t.length() == 3 && t.charAt(0) == '\'' && t.charAt(2) == '\'') {
+                value = t.charAt(1);
+            } else if (t.length() > 1 && Character.isDigit(t.charAt(0))
+                    && (t.endsWith("H") || t.endsWith("h"))) {
+                value = Integer.parseInt(t.substring(0, t.length() - 1), 16);
+            } else {
+                value = Integer.parseInt(t);
+            }
+            return negative ? -value : value;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** The text inside parentheses or brackets, or null. */
+    private static String indirect(String operand) {
+        String t = operand.trim();
+        if (t.length() >= 2 && (t.startsWith("(") && t.endsWith(")") || t.startsWith("[") && t.endsWith("]"))) {
+            return t.substring(1, t.length() - 1).trim();
+        }
+        return null;
+    }
+
+    private static String normalizeIndirect(String inner) {
+        String upper = inner.toUpperCase(Locale.ROOT).replace(" ", "");
+        return switch (upper) {
+            case "HLI" -> "HL+";
+            case "HLD" -> "HL-";
+            case "$FF00+C", "0XFF00+C" -> "C";
+            default -> upper;
+        };
+    }
+
+    private void put(int value) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size * 2);
+        }
+        code[size++] = (byte) value;
+    }
+
+    private static Map<String, List<Template>> buildTemplates() {
+        Map<String, List<Template>> templates = new HashMap<>();
+        addTemplates(templates, OperationDefinitions.buildUnprefixedTable(), false);
+        addTemplates(templates, OperationDefinitions.buildCbPrefixedTable(), true);
+        return templates;
+    }
+
+    private static void addTemplates(Map<String, List<Template>> templates,
+            EnumMap<OperationType, Map<Integer, Operation>> table, boolean cbPrefixed) {
+        for (Map<Integer, Operation> group : table.values()) {
+            for (Map.Entry<Integer, Operation> entry : group.entrySet()) {
+                Operation operation = entry.getValue();
+                if (operation.getMnemonic().equals("INVALID")) {
+                    continue;
+                }
+                templates.computeIfAbsent(operation.getMnemonic(), k -> new ArrayList<>())
+                        .add(new Template(entry.getKey(), cbPrefixed, operation.getBytes(),
+                                operation.getOperands()));
+            }
+        }
+    }
+}
@@ -4,9 +4,12 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 import gbc.model.trace.TraceGenerator;
 
-public class CPU {
+public class CPU implements Snapshotable {
     private static final Logger LOGGER = Logger.getLogger(CPU.class.getName());
     private static final boolean DEBUG_LOG = Boolean.getBoolean("gbc.cpu.debug");
 
@@ -19,6 +22,7 @@ public class CPU {
     private static final int TRACE_START = Integer.getInteger("gbc.cpu.trace.start", 0);
     private static final int TRACE_END = Integer.getInteger("gbc.cpu.trace.end", 0xFFFF);
     private static final long TRACE_LIMIT = Long.getLong("gbc.cpu.trace.limit", Long.MAX_VALUE);
+    private static final boolean TRACE_RING_DUMP = Boolean.getBoolean("gbc.trace.ringbuffer");
     private long traceCount = 0;
 
     private int cycles;
@@ -47,10 +51,14 @@ public class CPU {
     private int currentInstructionCycles; // total cycles executed for the current instruction
     private TraceGenerator trace;
     private boolean invalidTraceDumped;
+    private Runnable debugBreakListener;
 
     // Cached operation cycles to avoid re-lookup in updateCycles
     private Operation cachedOperation;
 
+    // Shared by every instruction rather than allocated per perform()
+    private final OperationExecutor.ExecutionContext executionContext;
+
     // Reusable M-cycle callback to avoid lambda allocation per instruction
     private final Runnable mcycleCallback = () -> {
         stepPeripheralsForCpuCycles(4);
@@ -62,6 +70,7 @@ public class CPU {
     public CPU(Memory memory) {
         this.memory = memory;
         this.registers = new Registers();
+        this.executionContext = new OperationExecutor.ExecutionContext(registers, memory, this);
         this.interruptions = new Interruptions(memory);
         this.opcodeLog = new StringBuilder();
         this.operationsLoader = new OperationsLoader(interruptions, this);
@@ -119,6 +128,9 @@ public class CPU {
         boolean dmgOnCgb = memory.isDmgOnCgb() && memory.isCartridgeLoaded();
         registers.reset(hwType, dmgOnCgb);
         memory.reset();
+        if (memory.isBootRomMapped()) {
+            registers.resetForBootRom();
+        }
         interruptions.reset();
         cycles = 0;
         peripheralCycleRemainder = 0;
@@ -211,7 +223,7 @@ public class CPU {
             cachedOperation = operation;
 
             if (operation != null) {
-                operation.perform(registers, memory, this);
+                operation.perform(executionContext);
             } else {
                 final int finalCbOpcode = cbOpcode;
                 LOGGER.log(Level.SEVERE, () -> String.format("No %s operation found for opcode 0x%02X at PC=0x%04X",
@@ -221,6 +233,10 @@ public class CPU {
             // Disable M-cycle callback
             memory.setMcycleCallback(null);
 
+            if (opcode == 0x40 && debugBreakListener != null) {
+                debugBreakListener.run();
+            }
+
             // Determine total cycles (accounting for conditional branches)
             int totalCycles = cbPrefixed ? updateCyclesCB(cbOpcode) : updateCycles(opcode);
 
@@ -501,8 +517,16 @@ public class CPU {
         this.invalidTraceDumped = false;
     }
 
+    /**
+     * Sets a listener run after every {@code LD B,B}, the software breakpoint
+     * test ROMs execute when they finish. Null removes it.
+     */
+    public void setDebugBreakListener(Runnable listener) {
+        this.debugBreakListener = listener;
+    }
+
     public void onInvalidOpcode(int pc, int opcode) {
-        if (trace != null && !invalidTraceDumped && Boolean.getBoolean("gbc.trace.ringbuffer")) {
+        if (trace != null && !invalidTraceDumped && TRACE_RING_DUMP) {
             trace.dumpRingBuffer();
             invalidTraceDumped = true;
             LOGGER.log(Level.WARNING, () -> String.format(
@@ -589,6 +613,47 @@ public class CPU {
         }
     }
 
+    /**
+     * Captures registers and the execution state that persists between
+     * {@link #executeCycle()} calls, including a partially dispatched
+     * interrupt.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        registers.snapshot(out);
+        out.writeInt(cycles);
+        out.writeInt(peripheralCycleRemainder);
+        out.writeBoolean(doubleSpeedMode);
+        out.writeBoolean(prepareSpeedSwitch);
+        out.writeBoolean(ime);
+        out.writeInt(imeEnableDelay);
+        out.writeInt(interruptDispatchState);
+        out.writeInt(latchedInterruptVector != null ? latchedInterruptVector : -1);
+        out.writeBoolean(lastConditionTaken);
+        out.writeBoolean(halted);
+        out.writeBoolean(haltBugTriggered);
+        out.writeBoolean(stopped);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        registers.restore(in);
+        cycles = in.readInt();
+        peripheralCycleRemainder = in.readInt();
+        doubleSpeedMode = in.readBoolean();
+        prepareSpeedSwitch = in.readBoolean();
+        ime = in.readBoolean();
+        imeEnableDelay = in.readInt();
+        interruptDispatchState = in.readInt();
+        int vector = in.readInt();
+        latchedInterruptVector = vector >= 0 ? vector : null;
+        lastConditionTaken = in.readBoolean();
+        halted = in.readBoolean();
+        haltBugTriggered = in.readBoolean();
+        stopped = in.readBoolean();
+        cachedOperation = null;
+    }
+
     private boolean shouldExitStop() {
         int iflags = memory.peekByte(0xFF0F) & 0x1F;
         return iflags != 0;
@@ -35,10 +35,14 @@ public class Operation {
     }
 
     public void perform(Registers registers, Memory memory, CPU cpu) {
+        perform(new OperationExecutor.ExecutionContext(registers, memory, cpu));
+    }
+
+    /** Executes with a context the caller keeps, allocating nothing. */
+    public void perform(OperationExecutor.ExecutionContext context) {
         if (executor == null) {
             throw new IllegalStateException("Operation executor missing for " + mnemonic);
         }
-        OperationExecutor.ExecutionContext context = new OperationExecutor.ExecutionContext(registers, memory, cpu);
         executor.execute(context, operands);
     }
 
@@ -1,6 +1,10 @@
 package gbc.model.cpu;
 
-public class Registers {
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+public class Registers implements Snapshotable {
 	private byte A, B, C, D, E, F, H, L;
 	private int PC, SP;
 
@@ -102,6 +106,13 @@ public class Registers {
 		reset(hardwareType, false);
 	}
 
+	/** Power-on state for running a boot ROM: everything zero, PC at 0x0000. */
+	public void resetForBootRom() {
+		A = F = B = C = D = E = H = L = 0;
+		SP = 0;
+		PC = 0;
+	}
+
 	public void reset(gbc.model.HardwareType hardwareType, boolean dmgOnCgb) {
 		gbc.model.HardwareType hw = hardwareType == null ? gbc.model.HardwareType.DMG : hardwareType;
 		if (dmgOnCgb && hw.isCgb()) {
@@ -187,6 +198,34 @@ public class Registers {
 				"SP: " + SP + "\n";
 	}
 
+	@Override
+	public void snapshot(StateWriter out) {
+		out.writeByte(A);
+		out.writeByte(F);
+		out.writeByte(B);
+		out.writeByte(C);
+		out.writeByte(D);
+		out.writeByte(E);
+		out.writeByte(H);
+		out.writeByte(L);
+		out.writeInt(PC);
+		out.writeInt(SP);
+	}
+
+	@Override
+	public void restore(StateReader in) {
+		A = (byte) in.readByte();
+		F = (byte) (in.readByte() & 0xF0);
+		B = (byte) in.readByte();
+		C = (byte) in.readByte();
+		D = (byte) in.readByte();
+		E = (byte) in.readByte();
+		H = (byte) in.readByte();
+		L = (byte) in.readByte();
+		PC = in.readInt() & 0xFFFF;
+		SP = in.readInt() & 0xFFFF;
+	}
+
 	public Registers copy() {
 		Registers copy = new Registers();
 		copy.A = this.A;
@@ -1,6 +1,8 @@
 package gbc.model.graphics;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Pixel FIFO implementation for Game Boy Color (CGB).
@@ -36,6 +38,30 @@ public class CgbPixelFifo implements PixelFifo {
         this.x = 0;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        bgPixels.snapshot(out);
+        bgPalettes.snapshot(out);
+        bgPriority.snapshot(out);
+        objPixels.snapshot(out);
+        objPalettes.snapshot(out);
+        objBehindBg.snapshot(out);
+        objPriority.snapshot(out);
+        out.writeInt(x);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        bgPixels.restore(in);
+        bgPalettes.restore(in);
+        bgPriority.restore(in);
+        objPixels.restore(in);
+        objPalettes.restore(in);
+        objBehindBg.restore(in);
+        objPriority.restore(in);
+        x = in.readInt();
+    }
+
     @Override
     public int getLength() {
         return bgPixels.size();
@@ -52,7 +78,7 @@ public class CgbPixelFifo implements PixelFifo {
         objPriority.dequeue();
 
         int y = memory.getLy();
-        if (x < 160 && y < 144) {
+        if (x < 160 && y < 144 && frameBuffer.isOutputEnabled()) {
             int color = resolveColor(bgPixel, bgPalette, bgPrio, objPixel, objPalette, objBehind);
             frameBuffer.setPixel(x, y, color);
         }
@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,18 +39,29 @@ public final class DmgCgbPaletteTable {
 
     private static final Logger LOGGER = Logger.getLogger(DmgCgbPaletteTable.class.getName());
     private static final String DEFAULT_RESOURCE = "/dmg_cgb_palettes.properties";
-    private static final DmgCgbPaletteTable INSTANCE = new DmgCgbPaletteTable();
+    /** Tables by external file path, "" for the built-in one. */
+    private static final Map<String, DmgCgbPaletteTable> TABLES = new ConcurrentHashMap<>();
 
     private final Map<String, DmgCgbPalette> palettesByName = new HashMap<>();
     private final Map<String, String> titleMap = new HashMap<>();
     private final Map<Integer, String> checksumMap = new HashMap<>();
 
-    private DmgCgbPaletteTable() {
-        loadFromProperties();
+    private DmgCgbPaletteTable(String externalPath) {
+        loadFromProperties(externalPath);
     }
 
+    /** The built-in table. */
     public static DmgCgbPaletteTable getInstance() {
-        return INSTANCE;
+        return forPath("");
+    }
+
+    /**
+     * The table loaded from {@code externalPath}, falling back to the
+     * built-in one when it is blank or unreadable. Loaded once per path.
+     */
+    public static DmgCgbPaletteTable forPath(String externalPath) {
+        String key = externalPath == null ? "" : externalPath.trim();
+        return TABLES.computeIfAbsent(key, DmgCgbPaletteTable::new);
     }
 
     public DmgCgbPalette selectFor(Cartridge cartridge) {
@@ -74,10 +86,9 @@ public final class DmgCgbPaletteTable {
         return palette;
     }
 
-    private void loadFromProperties() {
+    private void loadFromProperties(String externalPath) {
         Properties props = new Properties();
-        String externalPath = System.getProperty("emulator.dmgCgbPaletteTable");
-        if (externalPath != null && !externalPath.isBlank()) {
+        if (!externalPath.isBlank()) {
             try (InputStream in = Files.newInputStream(Path.of(externalPath))) {
                 props.load(in);
             } catch (IOException e) {
@@ -1,6 +1,8 @@
 package gbc.model.graphics;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Pixel FIFO implementation for original Game Boy (DMG).
@@ -32,6 +34,30 @@ public class DmgPixelFifo implements PixelFifo {
         this.x = 0;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        bgPixels.snapshot(out);
+        bgPalettes.snapshot(out);
+        objPixels.snapshot(out);
+        objPalettes.snapshot(out);
+        objPaletteIndices.snapshot(out);
+        objBehindBg.snapshot(out);
+        objPriority.snapshot(out);
+        out.writeInt(x);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        bgPixels.restore(in);
+        bgPalettes.restore(in);
+        objPixels.restore(in);
+        objPalettes.restore(in);
+        objPaletteIndices.restore(in);
+        objBehindBg.restore(in);
+        objPriority.restore(in);
+        x = in.readInt();
+    }
+
     @Override
     public int getLength() {
         return bgPixels.size();
@@ -49,7 +75,7 @@ public class DmgPixelFifo implements PixelFifo {
 
         int y = memory.getLy(); // LY
 
-        if (x < 160 && y < 144) {
+        if (x < 160 && y < 144 && frameBuffer.isOutputEnabled()) {
             int color = resolveColor(bgPixel, bgPalette, objPixel, objPalette, objPaletteIndex, objBehind);
             frameBuffer.setPixel(x, y, color);
         }
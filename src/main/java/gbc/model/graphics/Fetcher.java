@@ -1,12 +1,15 @@
 package gbc.model.graphics;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Fetcher for Game Boy PPU pixel pipeline.
  * Manages fetching tile data and pushing pixels to the FIFO.
  */
-public class Fetcher {
+public class Fetcher implements Snapshotable {
     public enum State {
         READ_TILE_ID,
         READ_TILE_DATA_1,
@@ -55,6 +58,10 @@ public class Fetcher {
     private int spriteOffset;
     private int spriteOamIndex;
 
+    // Holds the in-flight sprite after a restore, since the original
+    // SpritePosition belongs to OAM search
+    private final SpritePosition restoredSprite = new SpritePosition();
+
     private final int[] pixelLine = new int[8];
     private int tickCounter;
     // Sprite fetch timing: the state machine (5 steps × 2 T-cycles = 10 dots)
@@ -147,10 +154,10 @@ public class Fetcher {
                 if (memory.isCgbMode()) {
                     tileId = memory.getVramByteBanked(mapAddr, 0) & 0xFF;
                     int attr = memory.getVramByteBanked(mapAddr, 1) & 0xFF;
-                    tileAttributes = new TileAttributes(attr);
+                    tileAttributes = TileAttributes.of(attr);
                 } else {
                     tileId = memory.getVramByte(mapAddr) & 0xFF;
-                    tileAttributes = new TileAttributes(0); // Default for DMG
+                    tileAttributes = TileAttributes.of(0); // Default for DMG
                 }
                 state = State.READ_TILE_DATA_1;
             }
@@ -210,7 +217,7 @@ public class Fetcher {
                 if (!memory.isCgbMode()) {
                     attr &= ~0x08; // DMG: bit 3 is unused, not VRAM bank
                 }
-                spriteAttributes = new TileAttributes(attr);
+                spriteAttributes = TileAttributes.of(attr);
                 if (spriteAttributes.isYflip()) {
                     spriteTileLine = (spriteHeight - 1) - spriteTileLine;
                 }
@@ -337,6 +344,99 @@ public class Fetcher {
         return spriteOamIndex;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(state.ordinal());
+        out.writeBoolean(fetchingDisabled);
+        out.writeInt(mapAddress);
+        out.writeInt(xOffset);
+        out.writeInt(tileDataAddress);
+        out.writeBoolean(tileIdSigned);
+        out.writeInt(tileLine);
+        out.writeInt(tileId);
+        out.writeInt(attributesValue(tileAttributes));
+        out.writeBoolean(useScx);
+        out.writeBoolean(useScy);
+        out.writeInt(scxLatch);
+        out.writeBoolean(scxLatched);
+        out.writeInt(tileData1);
+        out.writeInt(tileData2);
+        out.writeInt(savedBgState != null ? savedBgState.ordinal() : -1);
+        out.writeInt(savedTileId);
+        out.writeInt(attributesValue(savedTileAttributes));
+        out.writeInt(savedTileData1);
+        out.writeInt(savedTileData2);
+        out.writeBoolean(hasSavedBgState);
+        out.writeInt(spriteTileLine);
+        out.writeInt(spriteHeight);
+        out.writeBoolean(sprite != null);
+        if (sprite != null) {
+            sprite.snapshot(out);
+        }
+        out.writeInt(attributesValue(spriteAttributes));
+        out.writeInt(spriteOffset);
+        out.writeInt(spriteOamIndex);
+        out.writeInts(pixelLine);
+        out.writeInt(tickCounter);
+        out.writeInt(spriteFetchPenalty);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        state = stateOf(in.readInt());
+        fetchingDisabled = in.readBoolean();
+        mapAddress = in.readInt();
+        xOffset = in.readInt();
+        tileDataAddress = in.readInt();
+        tileIdSigned = in.readBoolean();
+        tileLine = in.readInt();
+        tileId = in.readInt();
+        tileAttributes = attributesOf(in.readInt());
+        useScx = in.readBoolean();
+        useScy = in.readBoolean();
+        scxLatch = in.readInt();
+        scxLatched = in.readBoolean();
+        tileData1 = in.readInt();
+        tileData2 = in.readInt();
+        int saved = in.readInt();
+        savedBgState = saved >= 0 ? stateOf(saved) : null;
+        savedTileId = in.readInt();
+        savedTileAttributes = attributesOf(in.readInt());
+        savedTileData1 = in.readInt();
+        savedTileData2 = in.readInt();
+        hasSavedBgState = in.readBoolean();
+        spriteTileLine = in.readInt();
+        spriteHeight = in.readInt();
+        if (in.readBoolean()) {
+            restoredSprite.restore(in);
+            sprite = restoredSprite;
+        } else {
+            sprite = null;
+        }
+        spriteAttributes = attributesOf(in.readInt());
+        spriteOffset = in.readInt();
+        spriteOamIndex = in.readInt();
+        in.readInts(pixelLine);
+        tickCounter = in.readInt();
+        spriteFetchPenalty = in.readInt();
+    }
+
+    private static int attributesValue(TileAttributes attributes) {
+        return attributes != null ? attributes.getRawValue() : -1;
+    }
+
+    private static TileAttributes attributesOf(int value) {
+        return value >= 0 ? TileAttributes.of(value) : null;
+    }
+
+    private static State stateOf(int ordinal) {
+        State[] states = State.values();
+        if (ordinal < 0 || ordinal >= states.length) {
+            throw new IllegalStateException("Invalid fetcher state in snapshot: " + ordinal);
+        }
+        return states[ordinal];
+    }
+
     /**
      * Convert two bytes of tile data into 8 pixels.
      * 
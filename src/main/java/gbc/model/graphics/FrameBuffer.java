@@ -2,13 +2,17 @@ package gbc.model.graphics;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Double-buffered pixel storage for the Game Boy screen.
  * Thread-safe: the emulation thread writes to the back buffer,
  * and the EDT reads from the front buffer via {@link #getPixels()}.
  * Uses {@link AtomicReference} for lock-free buffer swaps.
  */
-public class FrameBuffer {
+public class FrameBuffer implements Snapshotable {
     public static final int WIDTH = 160;
     public static final int HEIGHT = 144;
     private static final int SIZE = WIDTH * HEIGHT;
@@ -16,6 +20,8 @@ public class FrameBuffer {
     private int[] backBuffer = new int[SIZE];
     private final AtomicReference<int[]> frontBufferRef = new AtomicReference<>(new int[SIZE]);
     private volatile long frameId;
+    /** Emulation thread only; see {@link #setOutputEnabled}. */
+    private boolean outputEnabled = true;
 
     /**
      * Set pixel at coordinates. Uses unchecked access for performance.
@@ -51,6 +57,28 @@ public class FrameBuffer {
         frameId++;
     }
 
+    /**
+     * Publishes a frame rendered elsewhere, e.g. by a look-ahead machine,
+     * as if it had been drawn into the back buffer and swapped.
+     */
+    public void present(int[] pixels) {
+        System.arraycopy(pixels, 0, backBuffer, 0, SIZE);
+        swapBuffers();
+    }
+
+    /**
+     * When disabled the PPU neither writes pixels nor swaps at VBlank, so
+     * frames that will never be shown cost no colour resolution. The back
+     * buffer then keeps whatever was drawn last.
+     */
+    public void setOutputEnabled(boolean enabled) {
+        this.outputEnabled = enabled;
+    }
+
+    public boolean isOutputEnabled() {
+        return outputEnabled;
+    }
+
     /**
      * Returns the front buffer pixels for display.
      * Safe to call from the EDT while the emulation thread writes to the back
@@ -64,6 +92,20 @@ public class FrameBuffer {
         return frameId;
     }
 
+    /**
+     * Captures the frame being drawn. The front buffer and frame id belong to
+     * the display side and are left alone.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInts(backBuffer);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        in.readInts(backBuffer);
+    }
+
     public void clear() {
         java.util.Arrays.fill(backBuffer, 0);
         int[] front = frontBufferRef.get();
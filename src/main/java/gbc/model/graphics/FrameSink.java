@@ -0,0 +1,13 @@
+package gbc.model.graphics;
+
+/**
+ * Receives each completed frame. Called on the emulation thread right after
+ * the {@link FrameBuffer} swap, so {@link FrameBuffer#getPixels()} holds the
+ * new frame; an implementation that needs the pixels later must copy them or
+ * hand off to its own thread. The core itself never converts pixels to
+ * images, so a machine without a sink does no display work at all.
+ */
+@FunctionalInterface
+public interface FrameSink {
+    void frameReady(FrameBuffer frameBuffer);
+}
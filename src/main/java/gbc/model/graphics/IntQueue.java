@@ -1,10 +1,14 @@
 package gbc.model.graphics;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Simple integer queue implementation for pixel FIFO.
  * Provides both throwing and non-throwing dequeue variants.
  */
-public class IntQueue {
+public class IntQueue implements Snapshotable {
     private final int[] data;
     private int head;
     private int tail;
@@ -57,6 +61,28 @@ public class IntQueue {
         size = 0;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(data[(head + i) % data.length]);
+        }
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        int count = in.readInt();
+        if (count < 0 || count > data.length) {
+            throw new IllegalStateException("Queue snapshot size " + count + " exceeds capacity " + data.length);
+        }
+        for (int i = 0; i < count; i++) {
+            data[i] = in.readInt();
+        }
+        head = 0;
+        size = count;
+        tail = count % data.length;
+    }
+
     public int get(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
@@ -1,17 +1,20 @@
 package gbc.model.graphics;
 
+import gbc.model.CoreConfig;
 import gbc.model.HardwareType;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * LCD timing controller extracted from Memory.
  * Manages LCD mode transitions, LY counter, LYC compare, and STAT interrupts.
  */
-public class LcdController {
+public class LcdController implements Snapshotable {
 
     private static final int LCD_TOTAL_LINES = 154;
     private static final int LCD_VBLANK_START_LINE = 144;
     private static final int LCD_CYCLES_PER_LINE = 456;
-    private static final int LCD_ENABLE_DELAY = 244;
     static final int LCD_MODE_HBLANK = 0;
     static final int LCD_MODE_VBLANK = 1;
     static final int LCD_MODE_OAM = 2;
@@ -60,7 +63,7 @@ public class LcdController {
     private int cachedMode3MinEnd = 80 + 172;
     // LCD enable delay counter (in dots). When >0, LCD is effectively off but bit 7
     // is set.
-    private final int lcdEnableDelayCycles = Integer.getInteger("gbc.lcd.enableDelay", LCD_ENABLE_DELAY);
+    private final int lcdEnableDelayCycles;
     private int lcdEnableDelay = 0;
     private boolean statWriteQuirkEnabled = false;
 
@@ -105,6 +108,12 @@ public class LcdController {
     }
 
     public LcdController() {
+        this(CoreConfig.DEFAULT_LCD_ENABLE_DELAY);
+    }
+
+    /** @param enableDelayCycles dots between LCDC bit 7 going high and the LCD starting */
+    public LcdController(int enableDelayCycles) {
+        this.lcdEnableDelayCycles = enableDelayCycles;
     }
 
     public void setModeChangeListener(ModeChangeListener listener) {
@@ -183,7 +192,9 @@ public class LcdController {
                 requestVBlankInterrupt();
             }
             if (previousLy != ly) {
-                trace(String.format("LY %03d->%03d", previousLy, ly));
+                if (traceEnabled) {
+                    trace(String.format("LY %03d->%03d", previousLy, ly));
+                }
                 updateLycFlag();
             }
             if (ly < LCD_VBLANK_START_LINE) {
@@ -232,7 +243,9 @@ public class LcdController {
         lcdMode = newMode;
         stat = (stat & ~0x03) | (newMode & 0x03) | 0x80;
 
-        trace(String.format("MODE %d->%d STAT=%02X", oldMode, newMode, stat));
+        if (traceEnabled) {
+            trace(String.format("MODE %d->%d STAT=%02X", oldMode, newMode, stat));
+        }
         if (modeChangeListener != null) {
             modeChangeListener.onModeChange(oldMode, newMode, ly);
         }
@@ -257,7 +270,7 @@ public class LcdController {
         } else {
             stat &= ~0x04;
         }
-        if (match != lycMatch) {
+        if (match != lycMatch && traceEnabled) {
             trace(String.format("LYC %s (LY=%03d LYC=%03d STAT=%02X)", match ? "ON" : "OFF", ly, lyc, stat));
         }
         lycMatch = match;
@@ -310,7 +323,9 @@ public class LcdController {
         boolean wasEnabled = (lcdc & 0x80) != 0;
         boolean isEnabled = (newLcdc & 0x80) != 0;
         lcdc = newLcdc;
-        trace(String.format("LCDC=%02X (was %s)", lcdc, wasEnabled ? "on" : "off"));
+        if (traceEnabled) {
+            trace(String.format("LCDC=%02X (was %s)", lcdc, wasEnabled ? "on" : "off"));
+        }
 
         if (!isEnabled) {
             lcdCycleCounter = 0;
@@ -342,11 +357,15 @@ public class LcdController {
             }
             stat = newStat;
             statInterruptLine = line;
-            trace(String.format("STAT write=%02X -> STAT=%02X", value & 0xFF, stat));
+            if (traceEnabled) {
+                trace(String.format("STAT write=%02X -> STAT=%02X", value & 0xFF, stat));
+            }
             return;
         }
         stat = newStat;
-        trace(String.format("STAT write=%02X -> STAT=%02X", value & 0xFF, stat));
+        if (traceEnabled) {
+            trace(String.format("STAT write=%02X -> STAT=%02X", value & 0xFF, stat));
+        }
         // Re-evaluate STAT line with new enable bits — rising edge will fire if needed
         evaluateStatInterruptLine();
     }
@@ -367,7 +386,9 @@ public class LcdController {
 
     public void writeLyc(int value) {
         lyc = value & 0xFF;
-        trace(String.format("LYC write=%02X", lyc));
+        if (traceEnabled) {
+            trace(String.format("LYC write=%02X", lyc));
+        }
         if ((lcdc & 0x80) != 0 || lcdEnableDelay > 0) {
             updateLycFlag();
         }
@@ -564,6 +585,78 @@ public class LcdController {
         palette[index + 1] = (byte) ((color >>> 8) & 0xFF);
     }
 
+    // --- Snapshot ---
+
+    /**
+     * Captures registers, palettes and timing state. Restoring sets the
+     * fields directly, so no mode-change, STAT or HDMA callbacks fire.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(lcdc);
+        out.writeInt(stat);
+        out.writeInt(scy);
+        out.writeInt(scx);
+        out.writeInt(ly);
+        out.writeInt(lyc);
+        out.writeInt(wy);
+        out.writeInt(wx);
+        out.writeInt(bgp);
+        out.writeInt(obp0);
+        out.writeInt(obp1);
+        out.writeBytes(cgbBgPalette);
+        out.writeBytes(cgbObjPalette);
+        for (int[] palette : dmgCgbPalette) {
+            out.writeInts(palette);
+        }
+        out.writeInt(bgpi);
+        out.writeBoolean(bgpiAutoInc);
+        out.writeInt(obpi);
+        out.writeBoolean(obpiAutoInc);
+        out.writeInt(lcdCycleCounter);
+        out.writeInt(lcdMode);
+        out.writeBoolean(lycMatch);
+        out.writeInt(cachedMode3MinEnd);
+        out.writeInt(lcdEnableDelay);
+        out.writeBoolean(statWriteQuirkEnabled);
+        out.writeBoolean(statInterruptLine);
+        out.writeInt(statIrqDelayCycles);
+        out.writeInt(statIrqDelay);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        lcdc = in.readInt();
+        stat = in.readInt();
+        scy = in.readInt();
+        scx = in.readInt();
+        ly = in.readInt();
+        lyc = in.readInt();
+        wy = in.readInt();
+        wx = in.readInt();
+        bgp = in.readInt();
+        obp0 = in.readInt();
+        obp1 = in.readInt();
+        in.readBytes(cgbBgPalette);
+        in.readBytes(cgbObjPalette);
+        for (int[] palette : dmgCgbPalette) {
+            in.readInts(palette);
+        }
+        bgpi = in.readInt();
+        bgpiAutoInc = in.readBoolean();
+        obpi = in.readInt();
+        obpiAutoInc = in.readBoolean();
+        lcdCycleCounter = in.readInt();
+        lcdMode = in.readInt();
+        lycMatch = in.readBoolean();
+        cachedMode3MinEnd = in.readInt();
+        lcdEnableDelay = in.readInt();
+        statWriteQuirkEnabled = in.readBoolean();
+        statInterruptLine = in.readBoolean();
+        statIrqDelayCycles = in.readInt();
+        statIrqDelay = in.readInt();
+    }
+
     // --- Reset ---
 
     public void reset(boolean bootRomEnabled, HardwareType hardwareType) {
@@ -672,6 +765,11 @@ public class LcdController {
         return sb.toString();
     }
 
+    /**
+     * Records a trace line. Callers building the message with
+     * {@code String.format} check {@link #traceEnabled} first, so the
+     * untraced hot path allocates nothing.
+     */
     private void trace(String message) {
         if (!traceEnabled || traceBuffer == null) {
             return;
@@ -1,6 +1,11 @@
 package gbc.model.graphics;
 
+import java.util.Arrays;
+
 import gbc.model.memory.Memory;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * OAM search phase - finds sprites that should be rendered on the current
@@ -13,12 +18,16 @@ import gbc.model.memory.Memory;
  * sprites are collected; additional sprites on the same line are ignored
  * (sprite overflow behavior).
  */
-public class OamSearch {
+public class OamSearch implements Snapshotable {
     private final Memory memory;
     private final SpritePosition[] sprites;
     private int activeSpriteCount;
     private final int[] penaltySpriteX;
     private final int[] penaltySpriteOam;
+    // Scratch for calculateSpritePenalty, reused every line
+    private final int[] penaltyOrder = new int[10];
+    private final boolean[] seenBgTiles = new boolean[32];
+    private final boolean[] seenWinTiles = new boolean[32];
     private int penaltySpriteCount;
     private int totalSpriteCount;
     private int mode3Duration;
@@ -94,6 +103,36 @@ public class OamSearch {
         mode3Duration = 172;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        for (SpritePosition sprite : sprites) {
+            sprite.snapshot(out);
+        }
+        out.writeInt(activeSpriteCount);
+        out.writeInts(penaltySpriteX);
+        out.writeInts(penaltySpriteOam);
+        out.writeInt(penaltySpriteCount);
+        out.writeInt(totalSpriteCount);
+        out.writeInt(mode3Duration);
+        out.writeInt(latchedScx);
+        out.writeBoolean(scxLatched);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        for (SpritePosition sprite : sprites) {
+            sprite.restore(in);
+        }
+        activeSpriteCount = in.readInt();
+        in.readInts(penaltySpriteX);
+        in.readInts(penaltySpriteOam);
+        penaltySpriteCount = in.readInt();
+        totalSpriteCount = in.readInt();
+        mode3Duration = in.readInt();
+        latchedScx = in.readInt();
+        scxLatched = in.readBoolean();
+    }
+
     public SpritePosition[] getSprites() {
         return sprites;
     }
@@ -194,7 +233,7 @@ public class OamSearch {
 
         // Sort sprites by X position (left to right), ties by OAM index.
         int count = penaltySpriteCount;
-        int[] order = new int[count];
+        int[] order = penaltyOrder;
         for (int i = 0; i < count; i++) {
             order[i] = i;
         }
@@ -216,8 +255,8 @@ public class OamSearch {
         }
 
         // Track which background/window tiles have already been considered.
-        boolean[] seenBgTiles = new boolean[32];
-        boolean[] seenWinTiles = new boolean[32];
+        Arrays.fill(seenBgTiles, false);
+        Arrays.fill(seenWinTiles, false);
 
         int penalty = 0;
         for (int i = 0; i < count; i++) {
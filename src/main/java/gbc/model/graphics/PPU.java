@@ -4,6 +4,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Pixel Processing Unit for Game Boy / Game Boy Color.
@@ -17,12 +20,12 @@ import gbc.model.memory.Memory;
  * The {@link Fetcher} handles sprite fetch timing constraints including
  * a 6-dot minimum penalty per sprite and proper BG fetch state save/restore.
  */
-public class PPU {
+public class PPU implements Snapshotable {
     private static final Logger LOGGER = Logger.getLogger(PPU.class.getName());
     private static final boolean PPU_TRACE = Boolean.getBoolean("gbc.ppu.trace");
     private Memory memory;
     private FrameBuffer frameBuffer;
-    private Screen screen;
+    private FrameSink frameSink;
 
     private int mode; // Current mode of the PPU
     private int modeClock; // Clock for timing mode changes
@@ -35,11 +38,11 @@ public class PPU {
 
     // Cached state for faster mode checking
     private boolean inMode3;
+    private long vblankCount;
 
-    public PPU(Memory memory, FrameBuffer frameBuffer, Screen screen) {
+    public PPU(Memory memory, FrameBuffer frameBuffer) {
         this.memory = memory;
         this.frameBuffer = frameBuffer;
-        this.screen = screen;
         this.mode = 2; // Start in OAM mode
         this.modeClock = 0;
 
@@ -92,8 +95,13 @@ public class PPU {
             case 0: // HBlank
                 break;
             case 1: // VBlank
-                frameBuffer.swapBuffers();
-                screen.render();
+                vblankCount++;
+                if (frameBuffer.isOutputEnabled()) {
+                    frameBuffer.swapBuffers();
+                    if (frameSink != null) {
+                        frameSink.frameReady(frameBuffer);
+                    }
+                }
                 break;
             case 2: // OAM Search
                 int currentLine = memory.getLy();
@@ -109,6 +117,38 @@ public class PPU {
         }
     }
 
+    /**
+     * Captures the mode state and the whole pixel pipeline (OAM search
+     * results, fetcher, FIFO and transfer position), so a snapshot taken in
+     * the middle of mode 3 resumes on the same dot.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(mode);
+        out.writeInt(modeClock);
+        out.writeBoolean(inMode3);
+        out.writeBoolean(pixelFifo instanceof CgbPixelFifo);
+        oamSearch.snapshot(out);
+        pixelFifo.snapshot(out);
+        fetcher.snapshot(out);
+        pixelTransfer.snapshot(out);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        mode = in.readInt();
+        modeClock = in.readInt();
+        inMode3 = in.readBoolean();
+        boolean cgbPipeline = in.readBoolean();
+        if (cgbPipeline != (pixelFifo instanceof CgbPixelFifo)) {
+            rebuildPipeline();
+        }
+        oamSearch.restore(in);
+        pixelFifo.restore(in);
+        fetcher.restore(in);
+        pixelTransfer.restore(in);
+    }
+
     private void rebuildPipeline() {
         if (memory.isCgbMode()) {
             this.pixelFifo = new CgbPixelFifo(frameBuffer, memory);
@@ -123,12 +163,13 @@ public class PPU {
         return memory.isCartridgeLoaded();
     }
 
-    public Screen getScreen() {
-        return this.screen;
+    public FrameSink getFrameSink() {
+        return this.frameSink;
     }
 
-    public void setScreen(Screen screen) {
-        this.screen = screen;
+    /** Receiver of completed frames, or null for none. */
+    public void setFrameSink(FrameSink frameSink) {
+        this.frameSink = frameSink;
     }
 
     public FrameBuffer getFrameBuffer() {
@@ -143,6 +184,14 @@ public class PPU {
         this.mode = mode;
     }
 
+    /**
+     * Number of VBlanks entered since construction. Monotonic and not part of
+     * the snapshot; only useful for detecting that a frame has completed.
+     */
+    public long getVblankCount() {
+        return vblankCount;
+    }
+
     public int getModeClock() {
         return this.modeClock;
     }
@@ -155,8 +204,11 @@ public class PPU {
         return this.memory;
     }
 
+    /** Hands the last completed frame to the sink again, e.g. while paused. */
     public void updateGraphics() {
-        screen.render();
+        if (frameSink != null) {
+            frameSink.frameReady(frameBuffer);
+        }
     }
 
     /**
@@ -1,5 +1,7 @@
 package gbc.model.graphics;
 
+import gbc.model.state.Snapshotable;
+
 /**
  * Pixel FIFO interface for Game Boy PPU pixel rendering.
  *
@@ -15,8 +17,9 @@ package gbc.model.graphics;
  *
  * <p>Both implementations share this interface. The overlay/priority logic
  * is handled in {@link #setOverlay} and {@link #putPixelToScreen}.
+ * Snapshots capture the queued pixels and the screen X counter.
  */
-public interface PixelFifo {
+public interface PixelFifo extends Snapshotable {
 
     /**
      * Get the current length of the FIFO queue.
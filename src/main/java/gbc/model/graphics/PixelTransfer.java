@@ -1,12 +1,18 @@
 package gbc.model.graphics;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Pixel Transfer phase for Game Boy PPU.
  * Manages the fetcher and FIFO during mode 3 (pixel transfer).
  */
-public class PixelTransfer {
+public class PixelTransfer implements Snapshotable {
+    /** Color 0 for a tile's worth of pixels; the FIFOs copy from it. */
+    private static final int[] EMPTY_LINE = new int[8];
+
     private final PixelFifo fifo;
     private final Fetcher fetcher;
     private final Memory memory;
@@ -168,9 +174,7 @@ public class PixelTransfer {
             }
         } else if (fetcher.isFetchingDisabled() && fifo.getLength() == 0 && x < 160) {
             // Background disabled - enqueue a line of background color pixels
-            int[] emptyLine = new int[8];
-            TileAttributes defaultAttrs = new TileAttributes(0);
-            fifo.enqueue8Pixels(emptyLine, defaultAttrs);
+            fifo.enqueue8Pixels(EMPTY_LINE, TileAttributes.of(0));
             // Now we have pixels, so the next iteration will handle them
         }
 
@@ -255,6 +259,35 @@ public class PixelTransfer {
         fifo.clear();
     }
 
+    /** Captures the scanline position and window state; the FIFO and fetcher snapshot themselves. */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(x);
+        out.writeInt(droppedPixels);
+        out.writeInt(windowPixelsToDrop);
+        out.writeInt(windowDroppedPixels);
+        out.writeInt(scxLatch);
+        out.writeBoolean(scxLatched);
+        out.writeInt(windowLine);
+        out.writeInt(lastLy);
+        out.writeBoolean(windowActive);
+        out.writeBoolean(windowUsedLastLine);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        x = in.readInt();
+        droppedPixels = in.readInt();
+        windowPixelsToDrop = in.readInt();
+        windowDroppedPixels = in.readInt();
+        scxLatch = in.readInt();
+        scxLatched = in.readBoolean();
+        windowLine = in.readInt();
+        lastLy = in.readInt();
+        windowActive = in.readBoolean();
+        windowUsedLastLine = in.readBoolean();
+    }
+
     public void setScxLatch(int scx) {
         this.scxLatch = scx & 0xFF;
         this.scxLatched = true;
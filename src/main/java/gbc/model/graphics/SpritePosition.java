@@ -1,9 +1,13 @@
 package gbc.model.graphics;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Represents a sprite position and attributes from OAM.
  */
-public class SpritePosition {
+public class SpritePosition implements Snapshotable {
     private int x;
     private int y;
     private int address;
@@ -30,6 +34,28 @@ public class SpritePosition {
         this.enabled = false;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(address);
+        out.writeInt(oamIndex);
+        out.writeInt(tileId);
+        out.writeInt(attributes);
+        out.writeBoolean(enabled);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        x = in.readInt();
+        y = in.readInt();
+        address = in.readInt();
+        oamIndex = in.readInt();
+        tileId = in.readInt();
+        attributes = in.readInt();
+        enabled = in.readBoolean();
+    }
+
     public int getX() {
         return x;
     }
@@ -23,6 +23,14 @@ package gbc.model.graphics;
  * </ol>
  */
 public class TileAttributes {
+    private static final TileAttributes[] CACHE = new TileAttributes[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new TileAttributes(i);
+        }
+    }
+
     private final int rawValue;
     private final int palette; // CGB palette number (0-7)
     private final int vramBank; // VRAM bank (0-1) for CGB tiles
@@ -39,6 +47,11 @@ public class TileAttributes {
         this.priority = (value & 0x80) != 0;
     }
 
+    /** Shared instance for an attribute byte; instances are immutable. */
+    public static TileAttributes of(int value) {
+        return CACHE[value & 0xFF];
+    }
+
     public int getPalette() {
         return palette;
     }
@@ -59,6 +72,11 @@ public class TileAttributes {
         return priority;
     }
 
+    /** The attribute byte this instance was decoded from. */
+    public int getRawValue() {
+        return rawValue;
+    }
+
     /**
      * DMG OBJ palette select (OAM attribute bit 4).
      * 0 -> OBP0, 1 -> OBP1.
@@ -1,6 +1,9 @@
 package gbc.model.input;
 
 import gbc.model.cpu.Interruptions;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Game Boy joypad controller.
@@ -20,8 +23,14 @@ import gbc.model.cpu.Interruptions;
  *   <li>The select lines are changed to reveal a pressed button</li>
  * </ul>
  */
-public class Controller {
+public class Controller implements Snapshotable {
+	/** Notified with the new {@link #getButtonMask()} whenever a button changes. */
+	public interface ButtonListener {
+		void buttonsChanged(int mask);
+	}
+
 	private Interruptions interruptions; // For interrupt handling
+	private ButtonListener buttonListener;
 
 	// Game Boy button states
 	private boolean up, down, left, right;
@@ -40,6 +49,10 @@ public class Controller {
 		this.interruptions = interruptions;
 	}
 
+	public void setButtonListener(ButtonListener listener) {
+		this.buttonListener = listener;
+	}
+
 	public void reset() {
 		up = down = left = right = false;
 		a = b = start = select = false;
@@ -47,6 +60,34 @@ public class Controller {
 		selectAction = true; // Default: not selected
 	}
 
+	@Override
+	public void snapshot(StateWriter out) {
+		out.writeBoolean(up);
+		out.writeBoolean(down);
+		out.writeBoolean(left);
+		out.writeBoolean(right);
+		out.writeBoolean(a);
+		out.writeBoolean(b);
+		out.writeBoolean(start);
+		out.writeBoolean(select);
+		out.writeBoolean(selectDirection);
+		out.writeBoolean(selectAction);
+	}
+
+	@Override
+	public void restore(StateReader in) {
+		up = in.readBoolean();
+		down = in.readBoolean();
+		left = in.readBoolean();
+		right = in.readBoolean();
+		a = in.readBoolean();
+		b = in.readBoolean();
+		start = in.readBoolean();
+		select = in.readBoolean();
+		selectDirection = in.readBoolean();
+		selectAction = in.readBoolean();
+	}
+
 	// Get the current joypad register value
 	public int getJoypadState() {
 		int value = 0xFF; // Default: bits 7-0 = 1 (all buttons released, no group selected)
@@ -99,51 +140,133 @@ public class Controller {
 
 	// Convenience methods for setting button states
 	public void setUp(boolean pressed) {
+		if (up == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		up = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setDown(boolean pressed) {
+		if (down == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		down = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setLeft(boolean pressed) {
+		if (left == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		left = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setRight(boolean pressed) {
+		if (right == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		right = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setA(boolean pressed) {
+		if (a == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		a = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setB(boolean pressed) {
+		if (b == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		b = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setStart(boolean pressed) {
+		if (start == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		start = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
 	}
 
 	public void setSelect(boolean pressed) {
+		if (select == pressed) {
+			return;
+		}
 		int oldState = getJoypadState();
 		select = pressed;
 		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
+	}
+
+	/**
+	 * Returns all eight buttons as a mask: bit 0-3 right, left, up, down and
+	 * bit 4-7 A, B, select, start.
+	 */
+	public int getButtonMask() {
+		int mask = 0;
+		if (right)
+			mask |= 0x01;
+		if (left)
+			mask |= 0x02;
+		if (up)
+			mask |= 0x04;
+		if (down)
+			mask |= 0x08;
+		if (a)
+			mask |= 0x10;
+		if (b)
+			mask |= 0x20;
+		if (select)
+			mask |= 0x40;
+		if (start)
+			mask |= 0x80;
+		return mask;
+	}
+
+	/** Sets all eight buttons from a {@link #getButtonMask()} value at once. */
+	public void setButtonMask(int mask) {
+		if (getButtonMask() == (mask & 0xFF)) {
+			return;
+		}
+		int oldState = getJoypadState();
+		right = (mask & 0x01) != 0;
+		left = (mask & 0x02) != 0;
+		up = (mask & 0x04) != 0;
+		down = (mask & 0x08) != 0;
+		a = (mask & 0x10) != 0;
+		b = (mask & 0x20) != 0;
+		select = (mask & 0x40) != 0;
+		start = (mask & 0x80) != 0;
+		requestJoypadInterruptIfNeeded(oldState, getJoypadState());
+		notifyButtonsChanged();
+	}
+
+	private void notifyButtonsChanged() {
+		ButtonListener listener = buttonListener;
+		if (listener != null) {
+			listener.buttonsChanged(getButtonMask());
+		}
 	}
 
 	private void requestJoypadInterruptIfNeeded(int oldState, int newState) {
@@ -1,5 +1,9 @@
 package gbc.model.memory;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * OAM DMA and CGB HDMA controller.
  *
@@ -18,7 +22,7 @@ package gbc.model.memory;
  * one 16-byte block per HBlank period. Writing bit 7=0 to FF55 while HBlank
  * DMA is active cancels the transfer. LCD disable also cancels HBlank DMA.
  */
-public class DmaController {
+public class DmaController implements Snapshotable {
 
     private static final int DMA_TRANSFER_LENGTH = 160;
 
@@ -79,6 +83,46 @@ public class DmaController {
         this.vramWriter = writer;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeBoolean(dmaActive);
+        out.writeInt(dmaSourceBase);
+        out.writeInt(dmaBytesTransferred);
+        out.writeInt(dmaStartupDelay);
+        out.writeInt(dmaCycleCounter);
+        out.writeBoolean(dmaWasRestarted);
+        out.writeInt(hdmaSrcHigh);
+        out.writeInt(hdmaSrcLow);
+        out.writeInt(hdmaDstHigh);
+        out.writeInt(hdmaDstLow);
+        out.writeInt(hdmaCurrentSource);
+        out.writeInt(hdmaCurrentDest);
+        out.writeBoolean(hdmaActive);
+        out.writeBoolean(hdmaHblank);
+        out.writeInt(hdmaBlocksRemaining);
+        out.writeBoolean(hdmaStopped);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        dmaActive = in.readBoolean();
+        dmaSourceBase = in.readInt();
+        dmaBytesTransferred = in.readInt();
+        dmaStartupDelay = in.readInt();
+        dmaCycleCounter = in.readInt();
+        dmaWasRestarted = in.readBoolean();
+        hdmaSrcHigh = in.readInt();
+        hdmaSrcLow = in.readInt();
+        hdmaDstHigh = in.readInt();
+        hdmaDstLow = in.readInt();
+        hdmaCurrentSource = in.readInt();
+        hdmaCurrentDest = in.readInt();
+        hdmaActive = in.readBoolean();
+        hdmaHblank = in.readBoolean();
+        hdmaBlocksRemaining = in.readInt();
+        hdmaStopped = in.readBoolean();
+    }
+
     // --- OAM DMA ---
 
     public boolean isDmaActive() {
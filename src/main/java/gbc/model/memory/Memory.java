@@ -1,5 +1,6 @@
 package gbc.model.memory;
 
+import gbc.model.CoreConfig;
 import gbc.model.cartridge.Cartridge;
 import gbc.model.cpu.CPU;
 import gbc.model.cpu.Registers;
@@ -8,9 +9,13 @@ import gbc.model.event.EventBus;
 import gbc.model.graphics.LcdController;
 import gbc.model.input.Controller;
 import gbc.model.sound.Apu;
+import gbc.model.sound.AudioRingBuffer;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 import gbc.model.timer.Timer;
 
-public class Memory implements MemoryBus {
+public class Memory implements MemoryBus, Snapshotable {
     // DMG/CGB IO register differences are handled via cgbMode checks in
     // readIORegister/writeIORegister. Per-dot OAM/VRAM access conflicts
     // are enforced by LcdController.isOamBlocked()/isVramBlocked() which
@@ -37,6 +42,8 @@ public class Memory implements MemoryBus {
 
     // Serial output callback for test harnesses
     private SerialOutputCallback serialOutputCallback;
+    // Phase probe for allocation/timing attribution tools; null in normal runs
+    private PeripheralProbe peripheralProbe;
 
     // Subcomponents
     private final Timer timer;
@@ -55,9 +62,12 @@ public class Memory implements MemoryBus {
     private int wramBank = 1;
     private gbc.model.HardwareType hardwareType = gbc.model.HardwareType.DMG;
     private boolean hardwareOverride;
+    private long powerOnSeed;
     private boolean cgbMode;
     private byte[] bootRom;
     private boolean bootRomEnabled;
+    private final String dmgCgbPaletteTable;
+    private Runnable bootRomUnmapListener;
 
     private int apuCycleCounter;
 
@@ -67,11 +77,16 @@ public class Memory implements MemoryBus {
     private Runnable mcycleCallback;
 
     public Memory() {
+        this(CoreConfig.DEFAULTS);
+    }
+
+    public Memory(CoreConfig config) {
+        this.dmgCgbPaletteTable = config.dmgCgbPaletteTable();
         this.eventBus = new EventBus();
         this.timer = new Timer(eventBus);
-        this.lcd = new LcdController();
+        this.lcd = new LcdController(config.lcdEnableDelay());
         this.dma = new DmaController();
-        this.apu = new Apu();
+        this.apu = new Apu(config.audio());
 
         // Wire DMA
         this.dma.setOam(oam);
@@ -95,7 +110,8 @@ public class Memory implements MemoryBus {
 
     private void loadBootRomFromProperty() {
         // Boot ROM usage disabled by policy: always start from post-boot state
-        // with exact DIV preset values (no boot ROM execution).
+        // with exact DIV preset values (no boot ROM execution) unless a caller
+        // supplies an image through setBootRom.
         bootRom = null;
         bootRomEnabled = false;
     }
@@ -138,6 +154,10 @@ public class Memory implements MemoryBus {
         return dma;
     }
 
+    public Apu getApu() {
+        return apu;
+    }
+
     public void setController(Controller controller) {
         this.controller = controller;
     }
@@ -151,6 +171,28 @@ public class Memory implements MemoryBus {
         this.serialOutputCallback = callback;
     }
 
+    /**
+     * Brackets each peripheral's share of {@link #stepPeripherals(int)}, so
+     * instrumentation can attribute work to it. {@code enter} is called
+     * before a peripheral steps and {@code exit} after, with the peripheral
+     * that ran. Implementations must not allocate.
+     */
+    public interface PeripheralProbe {
+        enum Peripheral {
+            APU, CARTRIDGE, TIMER, PPU,
+            /** Per-cycle path taken while OAM DMA or serial is active. */
+            DMA_SERIAL
+        }
+
+        void enter();
+
+        void exit(Peripheral peripheral);
+    }
+
+    public void setPeripheralProbe(PeripheralProbe probe) {
+        this.peripheralProbe = probe;
+    }
+
     public void setMcycleCallback(Runnable callback) {
         this.mcycleCallback = callback;
     }
@@ -171,6 +213,45 @@ public class Memory implements MemoryBus {
         hardwareOverride = false;
     }
 
+    /**
+     * Seeds the WRAM and HRAM contents written at the next {@link #reset()}.
+     * Real hardware powers up with noise there; 0 keeps the zero fill.
+     */
+    public void setPowerOnSeed(long seed) {
+        this.powerOnSeed = seed;
+    }
+
+    public long getPowerOnSeed() {
+        return powerOnSeed;
+    }
+
+    /**
+     * Maps {@code image} at power-on from the next reset on, so the machine
+     * runs it before the cartridge, or starts post-boot again when null. The
+     * desktop front-end never loads one; this is for callers that supply
+     * their own image. Accepts 256-byte DMG and 2304-byte CGB boot ROMs.
+     */
+    public void setBootRom(byte[] image) {
+        if (image != null && image.length != 0x100 && image.length != 0x900) {
+            throw new IllegalArgumentException("Boot ROM must be 256 or 2304 bytes, got " + image.length);
+        }
+        bootRom = image != null ? image.clone() : null;
+    }
+
+    /** The boot ROM image, or null when the machine starts post-boot. */
+    public byte[] getBootRom() {
+        return bootRom;
+    }
+
+    public boolean isBootRomMapped() {
+        return bootRomEnabled;
+    }
+
+    /** Called when the running code unmaps the boot ROM through FF50. */
+    public void setBootRomUnmapListener(Runnable listener) {
+        this.bootRomUnmapListener = listener;
+    }
+
     public boolean isHardwareOverride() {
         return hardwareOverride;
     }
@@ -300,15 +381,32 @@ public class Memory implements MemoryBus {
     public void stepPeripherals(int cycles) {
         if (cycles <= 0)
             return;
+        final PeripheralProbe probe = peripheralProbe;
 
         // Batch process APU (runs at 1/4 CPU speed)
         apuCycleCounter += cycles;
         if (apuCycleCounter >= 4 && apu != null) {
             int apuCycles = (apuCycleCounter / 4) * 4;
+            if (probe != null) {
+                probe.enter();
+            }
             apu.step(apuCycles);
+            if (probe != null) {
+                probe.exit(PeripheralProbe.Peripheral.APU);
+            }
             apuCycleCounter %= 4;
         }
 
+        if (cartridge != null) {
+            if (probe != null) {
+                probe.enter();
+            }
+            cartridge.tick(cycles);
+            if (probe != null) {
+                probe.exit(PeripheralProbe.Peripheral.CARTRIDGE);
+            }
+        }
+
         // Check if we can use batch Timer processing
         final boolean dmaActive = dma.isDmaActive();
         final boolean ppuActive = ppu != null;
@@ -317,7 +415,14 @@ public class Memory implements MemoryBus {
         // Fast path: if no serial and no DMA, we can batch some operations
         if (serialIdle && !dmaActive) {
             // Use batch timer step
+            if (probe != null) {
+                probe.enter();
+            }
             timer.stepCycles(cycles);
+            if (probe != null) {
+                probe.exit(PeripheralProbe.Peripheral.TIMER);
+                probe.enter();
+            }
 
             // LCD and PPU - unrolled for 4 iterations to reduce loop overhead
             if (ppuActive) {
@@ -343,8 +448,14 @@ public class Memory implements MemoryBus {
                     lcd.step();
                 }
             }
+            if (probe != null) {
+                probe.exit(PeripheralProbe.Peripheral.PPU);
+            }
         } else {
             // Standard per-cycle processing when serial or DMA active
+            if (probe != null) {
+                probe.enter();
+            }
             for (int i = 0; i < cycles; i++) {
                 int oldDivider = timer.getDividerRaw();
                 timer.step();
@@ -358,6 +469,9 @@ public class Memory implements MemoryBus {
                 }
                 stepSerial(oldDivider, newDivider);
             }
+            if (probe != null) {
+                probe.exit(PeripheralProbe.Peripheral.DMA_SERIAL);
+            }
         }
     }
 
@@ -392,18 +506,22 @@ public class Memory implements MemoryBus {
         apu.step(cycles);
     }
 
-    public void reloadApuAudioSettings() {
+    public void applyAudioConfig(CoreConfig.Audio audio) {
         if (apu != null) {
-            apu.reloadAudioSettings();
+            apu.applyAudioConfig(audio);
         }
     }
 
-    public boolean isAudioBufferFull() {
-        return apu.isBufferFull();
+    public AudioRingBuffer getAudioOutputRing() {
+        return apu.getOutputRing();
     }
 
-    public byte[] fetchAudioSamples() {
-        return apu.fetchSamples();
+    public void renderPendingAudio() {
+        apu.renderPending();
+    }
+
+    public void setAudioSilenced(Apu.SilenceReason reason, boolean silenced) {
+        apu.setSilenced(reason, silenced);
     }
 
     // --- Memory read/write (MemoryBus implementation) ---
@@ -758,8 +876,12 @@ public class Memory implements MemoryBus {
                 }
                 return;
             case 0xFF50:
-                if ((value & 0x01) != 0)
+                if ((value & 0x01) != 0 && bootRomEnabled) {
                     bootRomEnabled = false;
+                    if (bootRomUnmapListener != null) {
+                        bootRomUnmapListener.run();
+                    }
+                }
                 return;
             case 0xFF41:
                 lcd.writeStatFromWrite(value & 0xFF);
@@ -1041,7 +1163,7 @@ public class Memory implements MemoryBus {
     private void applyDmgCgbPalettesIfNeeded() {
         if (!isDmgOnCgb() || bootRomEnabled || cartridge == null)
             return;
-        gbc.model.graphics.DmgCgbPaletteTable table = gbc.model.graphics.DmgCgbPaletteTable.getInstance();
+        gbc.model.graphics.DmgCgbPaletteTable table = gbc.model.graphics.DmgCgbPaletteTable.forPath(dmgCgbPaletteTable);
         gbc.model.graphics.DmgCgbPaletteTable.DmgCgbPalette palette = table.selectFor(cartridge);
         lcd.setDmgCgbPalette(new int[][] { palette.bg().clone(), palette.obj0().clone(), palette.obj1().clone() });
         writeDmgCgbPaletteToRam();
@@ -1104,20 +1226,36 @@ public class Memory implements MemoryBus {
 
     // --- Reset ---
 
+    private static void fillRandom(byte[] target, java.util.SplittableRandom random) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = (byte) random.nextInt(256);
+        }
+    }
+
     public void reset() {
         // Reset memory arrays
         java.util.Arrays.fill(videoRam0, (byte) 0);
         java.util.Arrays.fill(videoRam1, (byte) 0);
-        for (int i = 0; i < 8; i++) {
-            java.util.Arrays.fill(workRam[i], (byte) 0);
+        if (powerOnSeed == 0) {
+            for (int i = 0; i < 8; i++) {
+                java.util.Arrays.fill(workRam[i], (byte) 0);
+            }
+            java.util.Arrays.fill(highRam, (byte) 0);
+        } else {
+            java.util.SplittableRandom random = new java.util.SplittableRandom(powerOnSeed);
+            for (int i = 0; i < 8; i++) {
+                fillRandom(workRam[i], random);
+            }
+            fillRandom(highRam, random);
         }
-        java.util.Arrays.fill(highRam, (byte) 0);
         java.util.Arrays.fill(oam, (byte) 0);
 
         interruptEnable = 0x00;
         vramBank = 0;
         wramBank = 1;
 
+        bootRomEnabled = bootRom != null;
+
         // Reset subcomponents
         timer.reset(hardwareType.getInitialDivCounter());
         lcd.reset(bootRomEnabled, hardwareType);
@@ -1138,7 +1276,6 @@ public class Memory implements MemoryBus {
             controller.reset();
             controller.writeJoypadSelect(joypadRegister);
         }
-        bootRomEnabled = bootRom != null;
         apuCycleCounter = 0;
 
         if (bootRomEnabled) {
@@ -1163,6 +1300,74 @@ public class Memory implements MemoryBus {
         }
     }
 
+    /**
+     * Captures RAM, OAM and the registers Memory owns directly. Timer, LCD,
+     * DMA, APU and cartridge state are captured by their own components.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(hardwareType.ordinal());
+        out.writeBoolean(cgbMode);
+        out.writeBytes(videoRam0);
+        out.writeBytes(videoRam1);
+        for (byte[] bank : workRam) {
+            out.writeBytes(bank);
+        }
+        out.writeBytes(highRam);
+        out.writeBytes(oam);
+        out.writeByte(interruptEnable);
+        out.writeByte(interruptFlag);
+        out.writeByte(serialData);
+        out.writeByte(serialControl);
+        out.writeBoolean(serialTransferActive);
+        out.writeBoolean(serialInternalClock);
+        out.writeInt(serialBitsRemaining);
+        out.writeInt(serialClockBit);
+        out.writeInt(joypadRegister);
+        out.writeInt(vramBank);
+        out.writeInt(wramBank);
+        out.writeBoolean(bootRomEnabled);
+        out.writeInt(apuCycleCounter);
+    }
+
+    /**
+     * Reads the hardware fields that open this component's snapshot and
+     * throws an {@link IllegalStateException} unless they match this machine.
+     */
+    public void checkSnapshotHardware(StateReader in) {
+        int hardware = in.readInt();
+        boolean snapshotCgbMode = in.readBoolean();
+        if (hardware != hardwareType.ordinal() || snapshotCgbMode != cgbMode) {
+            throw new IllegalStateException("Snapshot was taken on different hardware than " + hardwareType
+                    + (cgbMode ? " (CGB mode)" : ""));
+        }
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        checkSnapshotHardware(in);
+        in.readBytes(videoRam0);
+        in.readBytes(videoRam1);
+        for (byte[] bank : workRam) {
+            in.readBytes(bank);
+        }
+        in.readBytes(highRam);
+        in.readBytes(oam);
+        interruptEnable = (byte) in.readByte();
+        interruptFlag = (byte) in.readByte();
+        serialData = (byte) in.readByte();
+        serialControl = (byte) in.readByte();
+        serialTransferActive = in.readBoolean();
+        serialInternalClock = in.readBoolean();
+        serialBitsRemaining = in.readInt();
+        serialClockBit = in.readInt();
+        joypadRegister = in.readInt();
+        vramBank = in.readInt();
+        wramBank = in.readInt();
+        bootRomEnabled = in.readBoolean() && bootRom != null;
+        apuCycleCounter = in.readInt();
+    }
+
     private void stepSerial(int oldDivider, int newDivider) {
         if (!serialTransferActive || !serialInternalClock) {
             return;
@@ -1,10 +1,17 @@
 package gbc.model.sound;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import gbc.model.CoreConfig;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Audio Processing Unit (APU) for Game Boy Color
  * Handles all audio generation and mixing for the four sound channels
  */
-public class Apu {
+public class Apu implements Snapshotable {
     // Wave duty patterns for square channels
     static final float[][] WAVE_DUTY = {
             { 0f, 0f, 0f, 0f, 0f, 0f, 0f, 1f }, // 12.5%
@@ -27,23 +34,46 @@ public class Apu {
     // Precalculated volume factors (updated when NR50 changes)
     private float leftVolumeFactor, rightVolumeFactor;
 
-    private byte[][] buffers;
-    private byte[] stagingBuffer;
-    private int bufferSize;
-    private int bufferPosition;
-    private int writeBufferIndex;
-    private int readBufferIndex;
-    private volatile int queuedBuffers;
+    // Output ring shared with the audio backend (replaced on settings reload)
+    private volatile AudioRingBuffer outputRing;
     private int cycleCounter;
+
+    // Dynamic rate control: the sample period is nudged by at most
+    // MAX_RATE_DELTA so the ring fill level converges on the latency target.
+    // Backends pull 512-frame chunks, so the target never drops below that.
+    private static final float MAX_RATE_DELTA = 0.005f;
+    private static final int MIN_RATE_TARGET_FRAMES = 512;
+    private static final int RATE_UPDATE_INTERVAL = 64;
+    private static final float RATE_FILL_SMOOTHING = 0.05f;
+    private double baseCyclesPerSample;
+    private double samplePhase;
+    private int nextSampleCycles;
+    private int rateTargetFrames;
+    private float averageFill;
+    private int samplesSinceRateUpdate;
+    private volatile float rateRatio = 1f;
+
+    // Threaded synthesis: when set, this instance only tracks CPU-visible
+    // state and forwards stamped register writes to the audio thread.
+    private final boolean renderTarget;
+    private volatile AudioSynthesizer synthesizer;
+    private long cycleStamp;
+    private final int[] registerShadow = new int[0x30];
+
+    // Silent mode: any active reason skips synthesis entirely. Requests may
+    // come from other threads; step() applies the transition.
+    private final AtomicInteger silenceReasons = new AtomicInteger();
+    private boolean silent;
+    private boolean speculating;
     private int frameSequencer;
     private int frameSequencerCycleCounter;
     private boolean enabled;
-    private volatile int cyclesPerSample;
     private boolean cgbMode;
     private float leftHpfPrevInput;
     private float rightHpfPrevInput;
     private float leftHpfPrevOutput;
     private float rightHpfPrevOutput;
+    private CoreConfig.Audio audio;
     private final boolean useDcFilter;
     private final float hpfCoeff;
     private final float dmgMixGain;
@@ -75,52 +105,236 @@ public class Apu {
     }
 
     public Apu() {
+        this(CoreConfig.Audio.DEFAULTS);
+    }
+
+    public Apu(CoreConfig.Audio audio) {
+        this(audio, false);
+    }
+
+    /**
+     * @param renderTarget true for the instance owned by an
+     *                     {@link AudioSynthesizer}, which never delegates
+     *                     further
+     */
+    private Apu(CoreConfig.Audio audio, boolean renderTarget) {
+        this.renderTarget = renderTarget;
+        this.audio = audio;
         this.channel1 = new SquareChannel(0xFF11, 0xFF12, true, 0xFF13, 0xFF14);
         this.channel2 = new SquareChannel(0xFF16, 0xFF17, false, 0xFF18, 0xFF19);
         this.channel3 = new WaveChannel();
         this.channel4 = new NoiseChannel();
         reloadAudioSettings();
-        this.useDcFilter = Boolean.parseBoolean(System.getProperty("audio.dcFilter", "true"));
-        this.hpfCoeff = clamp(Float.parseFloat(System.getProperty("audio.dcFilterCoeff", "0.995")), 0.90f, 0.9999f);
-        this.dmgMixGain = clamp(Float.parseFloat(System.getProperty("audio.dmgMixGain", "1.0")), 0.1f, 2.0f);
-        this.cgbMixGain = clamp(Float.parseFloat(System.getProperty("audio.cgbMixGain", "1.0")), 0.1f, 2.0f);
+        this.useDcFilter = audio.dcFilter();
+        this.hpfCoeff = audio.dcFilterCoeff();
+        this.dmgMixGain = audio.dmgMixGain();
+        this.cgbMixGain = audio.cgbMixGain();
         updatePanningCache();
         updateVolumeCache();
         setCgbMode(false);
     }
 
+    /**
+     * Switches to new output settings: sample rate, buffering and threaded
+     * synthesis. The DC filter and mix gains stay as constructed.
+     */
+    public void applyAudioConfig(CoreConfig.Audio audio) {
+        this.audio = audio;
+        reloadAudioSettings();
+    }
+
     public void reloadAudioSettings() {
-        int sampleRate = Integer.getInteger("audio.sampleRate", 44_100);
-        int configuredSize = Integer.getInteger("audio.bufferSize", 4096);
-        int bufferCount = Math.max(2, Integer.getInteger("audio.bufferCount", 8));
-        configureAudio(sampleRate, configuredSize, bufferCount);
+        configureAudio(audio.sampleRate(), audio.bufferSize(), audio.bufferCount(), audio.latencyMs());
+        if (!renderTarget) {
+            // Rebuild the synthesizer so it picks up the new output settings
+            synthesizer = null;
+            setThreadedSynthesis(audio.threadedSynthesis());
+        }
+    }
+
+    /**
+     * Switches between synthesising on the emulation thread (the default) and
+     * handing a timestamped register-write log to the audio thread, which then
+     * has to call {@link #renderPending()} before reading the output ring.
+     *
+     * <p>
+     * In threaded mode this instance still runs the frame sequencer (length
+     * counters, sweep overflow, envelopes) and the wave channel position, so
+     * NR52 and wave RAM reads stay correct, but skips the square and noise
+     * frequency timers, mixing and buffering. A freshly enabled synthesizer is
+     * seeded with this instance's register and channel state, so channels
+     * already playing carry on.
+     */
+    public void setThreadedSynthesis(boolean threaded) {
+        if (renderTarget || threaded == (synthesizer != null)) {
+            return;
+        }
+        if (!threaded) {
+            synthesizer = null;
+            return;
+        }
+        Apu target = new Apu(audio, true);
+        target.setCgbMode(cgbMode);
+        StateWriter state = new StateWriter(1024);
+        snapshot(state);
+        target.restore(new StateReader(state.buffer(), 0, state.size()));
+        synthesizer = new AudioSynthesizer(target, cycleStamp);
+    }
+
+    /** Why audio output is not needed; see {@link #setSilenced}. */
+    public enum SilenceReason {
+        /** Running faster than real time, where output would be dropped anyway. */
+        FAST_FORWARD,
+        /** No audio backend is consuming the output ring. */
+        NO_BACKEND,
+        /** Stepping backwards through the rewind buffer. */
+        REWIND
+    }
+
+    /**
+     * Adds or clears a reason to run silently. While any reason is active the
+     * APU keeps everything the CPU can observe (NR52 status, length counters,
+     * sweep overflow, envelopes and the wave position used by wave RAM
+     * accesses) but skips the square and noise timers, mixing and buffering.
+     * Safe to call from any thread; takes effect at the next {@link #step}.
+     */
+    public void setSilenced(SilenceReason reason, boolean value) {
+        int bit = 1 << reason.ordinal();
+        silenceReasons.getAndUpdate(mask -> value ? mask | bit : mask & ~bit);
     }
 
-    private void configureAudio(int sampleRate, int configuredSize, int bufferCount) {
+    public boolean isSilent() {
+        return silenceReasons.get() != 0;
+    }
+
+    private void applySilence(boolean value) {
+        silent = value;
+        if (value) {
+            return;
+        }
+        // Resume from a clean output state; a threaded synthesizer missed the
+        // writes made while silent, so reseed it from the current state.
+        cycleCounter = 0;
+        resetDcFilter();
+        wasSilent = true;
+        invalidateSampleCache();
+        AudioSynthesizer s = synthesizer;
+        if (s != null) {
+            s.requestReseed(this, cycleStamp, true);
+        }
+    }
+
+    /**
+     * Starts a stretch of execution that will be rolled back with
+     * {@link #restore} before {@link #endSpeculation()}. Speculative cycles
+     * advance only CPU-visible state and never reach the output, the cycle
+     * stamp or the synthesizer, so the audible stream continues from where
+     * it left off once the snapshot is restored.
+     */
+    public void beginSpeculation() {
+        speculating = true;
+    }
+
+    public void endSpeculation() {
+        speculating = false;
+    }
+
+    public boolean isThreadedSynthesis() {
+        return synthesizer != null;
+    }
+
+    /**
+     * Audio thread only: synthesises everything the emulation thread has
+     * published so far into the output ring. No-op unless threaded synthesis
+     * is enabled.
+     */
+    public void renderPending() {
+        AudioSynthesizer s = synthesizer;
+        if (s != null) {
+            s.render();
+        }
+    }
+
+    /**
+     * Register writes lost because the audio thread fell too far behind. The
+     * synthesizer is reseeded from the emulation-side register and channel
+     * state after a loss, so the output converges again from there.
+     */
+    public long getDroppedWriteCount() {
+        AudioSynthesizer s = synthesizer;
+        return s != null ? s.getDroppedWriteCount() : 0;
+    }
+
+    private void configureAudio(int sampleRate, int configuredSize, int bufferCount, int latencyMs) {
         int safeSize = Math.max(512, configuredSize);
         if ((safeSize & 1) != 0) {
             safeSize++;
         }
-        cyclesPerSample = Math.max(1, (int) Math.round(4_194_304.0 / sampleRate));
-        synchronized (this) {
-            bufferSize = safeSize;
-            buffers = new byte[bufferCount][bufferSize];
-            stagingBuffer = new byte[bufferSize];
-            bufferPosition = 0;
-            queuedBuffers = 0;
-            writeBufferIndex = 0;
-            readBufferIndex = 0;
-            notifyAll();
-        }
+        baseCyclesPerSample = Math.max(1.0, 4_194_304.0 / sampleRate);
+        rateTargetFrames = Math.max(MIN_RATE_TARGET_FRAMES, (int) ((long) sampleRate * latencyMs / 1000));
+        averageFill = rateTargetFrames;
+        rateRatio = 1f;
+        samplesSinceRateUpdate = 0;
+        samplePhase = 0;
+        scheduleNextSample();
+        // audio.bufferSize is expressed in bytes of the old 8-bit stereo format,
+        // i.e. two bytes per frame.
+        outputRing = new AudioRingBuffer((safeSize / 2) * bufferCount);
         cycleCounter = 0;
         resetDcFilter();
         wasSilent = true;
         invalidateSampleCache();
     }
 
+    /**
+     * Captures register, channel and frame-sequencer state. Output-side state
+     * (sample timing, DC filter, ring, rate control, silence reasons) depends
+     * on the host audio device rather than the machine, so it is neither
+     * stored nor restored.
+     */
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeBoolean(enabled);
+        out.writeInt(channelControlRegister);
+        out.writeInt(channelSelectionRegister);
+        out.writeInts(registerShadow);
+        out.writeInt(frameSequencer);
+        out.writeInt(frameSequencerCycleCounter);
+        channel1.snapshot(out);
+        channel2.snapshot(out);
+        channel3.snapshot(out);
+        channel4.snapshot(out);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        enabled = in.readBoolean();
+        channelControlRegister = in.readInt();
+        channelSelectionRegister = in.readInt();
+        in.readInts(registerShadow);
+        frameSequencer = in.readInt();
+        frameSequencerCycleCounter = in.readInt();
+        channel1.restore(in);
+        channel2.restore(in);
+        channel3.restore(in);
+        channel4.restore(in);
+        updatePanningCache();
+        updateVolumeCache();
+        AudioSynthesizer s = synthesizer;
+        if (s != null && !speculating) {
+            // The audio-thread copy cannot be rewound; reseed it from the
+            // restored state
+            s.requestReseed(this, cycleStamp, silent);
+        }
+    }
+
     public void setCgbMode(boolean cgbMode) {
         this.cgbMode = cgbMode;
         channel3.setCgbMode(cgbMode);
+        AudioSynthesizer s = synthesizer;
+        if (s != null) {
+            s.getTarget().setCgbMode(cgbMode);
+        }
     }
 
     private void updatePanningCache() {
@@ -142,6 +356,28 @@ public class Apu {
     }
 
     public void step(int cycles) {
+        if (speculating) {
+            stepRegisterState(cycles);
+            return;
+        }
+        boolean silenced = silenceReasons.get() != 0;
+        if (silenced != silent) {
+            applySilence(silenced);
+        }
+        cycleStamp += cycles;
+        if (silenced) {
+            stepRegisterState(cycles);
+            return;
+        }
+        AudioSynthesizer s = synthesizer;
+        if (s != null) {
+            stepRegisterState(cycles);
+            s.publish(cycleStamp);
+            if (s.needsReseed()) {
+                s.postReseed(this);
+            }
+            return;
+        }
         if (!enabled || cycles <= 0)
             return;
 
@@ -149,7 +385,7 @@ public class Apu {
         int remainingCycles = cycles;
         while (remainingCycles > 0) {
             // Calculate how many cycles until next sample or frame sequencer tick
-            int cyclesToNextSample = cyclesPerSample - cycleCounter;
+            int cyclesToNextSample = nextSampleCycles - cycleCounter;
             int cyclesToNextFrame = 8192 - frameSequencerCycleCounter;
             int cyclesToProcess = Math.min(remainingCycles, Math.min(cyclesToNextSample, cyclesToNextFrame));
 
@@ -167,42 +403,105 @@ public class Apu {
 
             // Handle frame sequencer tick
             if (frameSequencerCycleCounter >= 8192) {
-                frameSequencerCycleCounter = 0;
-                frameSequencer = (frameSequencer + 1) & 7;
-
-                // Propagate frame sequencer step to channels for length-counter quirks
-                channel1.setFrameSequencerStep(frameSequencer);
-                channel2.setFrameSequencerStep(frameSequencer);
-                channel3.setFrameSequencerStep(frameSequencer);
-                channel4.setFrameSequencerStep(frameSequencer);
-
-                boolean stepLength = (frameSequencer & 1) == 0; // 0,2,4,6
-                boolean stepSweep = frameSequencer == 2 || frameSequencer == 6;
-                boolean stepEnvelope = frameSequencer == 7;
-
-                if (stepLength) {
-                    channel1.stepLength();
-                    channel2.stepLength();
-                    channel3.stepLength();
-                    channel4.stepLength();
-                }
-                if (stepSweep)
-                    channel1.stepSweep();
-                if (stepEnvelope) {
-                    channel1.stepEnvelope();
-                    channel2.stepEnvelope();
-                    channel4.stepEnvelope();
-                }
+                clockFrameSequencer();
             }
 
             // Generate sample when counter reaches threshold
-            if (cycleCounter >= cyclesPerSample) {
+            if (cycleCounter >= nextSampleCycles) {
                 cycleCounter = 0;
                 generateSample();
+                scheduleNextSample();
+            }
+        }
+    }
+
+    /**
+     * Threaded-synthesis and silent step: advances only what the CPU can
+     * observe. The wave channel keeps its exact position because DMG wave RAM
+     * accesses while it plays are redirected to the current sample.
+     */
+    private void stepRegisterState(int cycles) {
+        if (!enabled || cycles <= 0)
+            return;
+        int remainingCycles = cycles;
+        while (remainingCycles > 0) {
+            int cyclesToProcess = Math.min(remainingCycles, 8192 - frameSequencerCycleCounter);
+            frameSequencerCycleCounter += cyclesToProcess;
+            remainingCycles -= cyclesToProcess;
+            channel3.stepCycles(cyclesToProcess);
+            if (frameSequencerCycleCounter >= 8192) {
+                clockFrameSequencer();
             }
         }
     }
 
+    private void clockFrameSequencer() {
+        frameSequencerCycleCounter = 0;
+        frameSequencer = (frameSequencer + 1) & 7;
+
+        // Propagate frame sequencer step to channels for length-counter quirks
+        channel1.setFrameSequencerStep(frameSequencer);
+        channel2.setFrameSequencerStep(frameSequencer);
+        channel3.setFrameSequencerStep(frameSequencer);
+        channel4.setFrameSequencerStep(frameSequencer);
+
+        boolean stepLength = (frameSequencer & 1) == 0; // 0,2,4,6
+        boolean stepSweep = frameSequencer == 2 || frameSequencer == 6;
+        boolean stepEnvelope = frameSequencer == 7;
+
+        if (stepLength) {
+            channel1.stepLength();
+            channel2.stepLength();
+            channel3.stepLength();
+            channel4.stepLength();
+        }
+        if (stepSweep)
+            channel1.stepSweep();
+        if (stepEnvelope) {
+            channel1.stepEnvelope();
+            channel2.stepEnvelope();
+            channel4.stepEnvelope();
+        }
+    }
+
+    /**
+     * Computes the length of the next sample period from the nominal rate and
+     * the current rate-control ratio, carrying the fractional remainder so the
+     * long-run output rate is exact.
+     */
+    private void scheduleNextSample() {
+        samplePhase += baseCyclesPerSample * rateRatio;
+        int cycles = (int) samplePhase;
+        samplePhase -= cycles;
+        nextSampleCycles = Math.max(1, cycles);
+    }
+
+    /**
+     * Adjusts the resampling ratio from the smoothed ring fill level. A fuller
+     * ring lengthens the sample period (fewer samples per emulated second) and
+     * an emptier one shortens it; the pitch change stays below 0.5%.
+     */
+    private void updateRateControl(AudioRingBuffer ring) {
+        if (++samplesSinceRateUpdate < RATE_UPDATE_INTERVAL) {
+            return;
+        }
+        samplesSinceRateUpdate = 0;
+        averageFill += (ring.available() - averageFill) * RATE_FILL_SMOOTHING;
+        float error = clamp((averageFill - rateTargetFrames) / rateTargetFrames, -1f, 1f);
+        rateRatio = 1f + MAX_RATE_DELTA * error;
+    }
+
+    /** Current resampling ratio applied to the nominal sample period. */
+    public float getRateRatio() {
+        AudioSynthesizer s = synthesizer;
+        return s != null ? s.getTarget().getRateRatio() : rateRatio;
+    }
+
+    /** Ring fill level, in frames, that rate control steers towards. */
+    public int getRateTargetFrames() {
+        return rateTargetFrames;
+    }
+
     private void generateSample() {
         // Only recalculate samples when cache is dirty
         if (sampleCacheDirty) {
@@ -225,10 +524,10 @@ public class Apu {
             sampleCacheDirty = false;
         }
 
+        AudioRingBuffer ring = outputRing;
         // Output true silence when all channels are silent to avoid DC filter noise
         if (cachedIsSilent) {
-            stagingBuffer[bufferPosition++] = (byte) 128; // Silence for unsigned 8-bit audio
-            stagingBuffer[bufferPosition++] = (byte) 128;
+            ring.offer((short) 0, (short) 0);
             // Only reset HPF on a real transition to silence, not on every
             // momentary zero-crossing caused by duty cycle / LFSR phases.
             if (!wasSilent) {
@@ -246,44 +545,10 @@ public class Apu {
             leftSample = clamp(leftSample, -1f, 1f);
             rightSample = clamp(rightSample, -1f, 1f);
 
-            stagingBuffer[bufferPosition++] = (byte) (128 + Math.round(leftSample * 127f));
-            stagingBuffer[bufferPosition++] = (byte) (128 + Math.round(rightSample * 127f));
-        }
-
-        if (bufferPosition >= bufferSize) {
-            enqueueFilledBuffer();
-        }
-    }
-
-    private void enqueueFilledBuffer() {
-        synchronized (this) {
-            if (queuedBuffers >= buffers.length) {
-                // Back-pressure: wait up to 4ms for consumer to drain a slot
-                long deadline = System.nanoTime() + 4_000_000L;
-                while (queuedBuffers >= buffers.length) {
-                    long remainNs = deadline - System.nanoTime();
-                    if (remainNs <= 0) {
-                        // Timeout — drop oldest buffer (prevents deadlock during fast-forward)
-                        readBufferIndex = (readBufferIndex + 1) % buffers.length;
-                        queuedBuffers--;
-                        break;
-                    }
-                    try {
-                        // wait() releases the monitor so fetchSamples() can proceed
-                        wait(remainNs / 1_000_000L, (int) (remainNs % 1_000_000L));
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        bufferPosition = 0;
-                        return;
-                    }
-                }
-            }
-            System.arraycopy(stagingBuffer, 0, buffers[writeBufferIndex], 0, bufferSize);
-            queuedBuffers++;
-            writeBufferIndex = (writeBufferIndex + 1) % buffers.length;
-            notifyAll();
+            ring.offer((short) Math.round(leftSample * 32767f),
+                    (short) Math.round(rightSample * 32767f));
         }
-        bufferPosition = 0;
+        updateRateControl(ring);
     }
 
     /** Mark sample cache as dirty - called when audio state changes */
@@ -291,20 +556,14 @@ public class Apu {
         sampleCacheDirty = true;
     }
 
-    public boolean isBufferFull() {
-        return queuedBuffers > 0;
-    }
-
-    public synchronized byte[] fetchSamples() {
-        if (queuedBuffers <= 0) {
-            return null;
-        }
-        byte[] copy = new byte[bufferSize];
-        System.arraycopy(buffers[readBufferIndex], 0, copy, 0, bufferSize);
-        readBufferIndex = (readBufferIndex + 1) % buffers.length;
-        queuedBuffers--;
-        notifyAll(); // wake blocked producer
-        return copy;
+    /**
+     * Returns the ring the APU writes signed 16-bit stereo frames into. The
+     * instance changes when audio settings are reloaded, so consumers should
+     * re-read it rather than caching it indefinitely.
+     */
+    public AudioRingBuffer getOutputRing() {
+        AudioSynthesizer s = synthesizer;
+        return s != null ? s.getTarget().getOutputRing() : outputRing;
     }
 
     private void enableAPU(boolean enable) {
@@ -339,13 +598,6 @@ public class Apu {
             frameSequencer = 0;
             frameSequencerCycleCounter = 0;
             cycleCounter = 0;
-            bufferPosition = 0;
-            synchronized (this) {
-                queuedBuffers = 0;
-                writeBufferIndex = 0;
-                readBufferIndex = 0;
-                notifyAll();
-            }
             channel1.setDutyPosition(0);
             channel2.setDutyPosition(0);
             channel3.setDutyPosition(0);
@@ -434,6 +686,14 @@ public class Apu {
     }
 
     public void writeRegister(int address, int value) {
+        AudioSynthesizer s = synthesizer;
+        if (s != null && !silent && !speculating) {
+            // The synthesizer applies the same disabled-APU filtering itself
+            s.logWrite(cycleStamp, address, value);
+        }
+        if (address >= 0xFF10 && address < 0xFF40) {
+            registerShadow[address - 0xFF10] = value & 0xFF;
+        }
         if (!enabled
                 && address != 0xFF26
                 && !isLengthRegister(address)
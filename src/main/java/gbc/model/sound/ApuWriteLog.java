@@ -0,0 +1,112 @@
+package gbc.model.sound;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer log of APU register writes.
+ *
+ * <p>
+ * Each entry packs the APU cycle stamp of the write together with the low
+ * byte of the register address and the written value into one {@code long}:
+ * {@code cycle << 16 | (address & 0xFF) << 8 | value}. The emulation thread
+ * appends entries; the audio thread replays them in order. A write that
+ * finds the log full is dropped and marks the log desynced, after which the
+ * replayed state can only be repaired by reseeding it from the registers.
+ */
+final class ApuWriteLog {
+    static final long EMPTY = -1L;
+
+    private final long[] entries;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long droppedCount;
+    private volatile boolean desynced;
+
+    ApuWriteLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    static long encode(long cycle, int address, int value) {
+        return (cycle << 16) | ((address & 0xFF) << 8) | (value & 0xFF);
+    }
+
+    static long cycleOf(long entry) {
+        return entry >>> 16;
+    }
+
+    static int addressOf(long entry) {
+        return 0xFF00 | (int) ((entry >>> 8) & 0xFF);
+    }
+
+    static int valueOf(long entry) {
+        return (int) (entry & 0xFF);
+    }
+
+    /**
+     * Producer side. Returns false, counts a drop and marks the log desynced
+     * when the log is full.
+     */
+    boolean append(long cycle, int address, int value) {
+        long t = tail.getPlain();
+        if (t - head.getAcquire() > mask) {
+            droppedCount++;
+            desynced = true;
+            return false;
+        }
+        entries[(int) (t & mask)] = encode(cycle, address, value);
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    /** Consumer side. The index after the last entry the producer has published. */
+    long publishedTail() {
+        return tail.getAcquire();
+    }
+
+    /**
+     * Consumer side. Returns the oldest entry without removing it, or
+     * {@link #EMPTY} when there is none before {@code limit}, a value of
+     * {@link #publishedTail()}.
+     */
+    long peek(long limit) {
+        long h = head.getPlain();
+        if (h >= limit) {
+            return EMPTY;
+        }
+        return entries[(int) (h & mask)];
+    }
+
+    /** Consumer side. Removes the entry last returned by {@link #peek(long)}. */
+    void poll() {
+        head.setRelease(head.getPlain() + 1);
+    }
+
+    /** Consumer side. Discards every entry before {@code index}, a value of {@link #tailIndex()}. */
+    void skipTo(long index) {
+        if (index > head.getPlain()) {
+            head.setRelease(index);
+        }
+    }
+
+    /** Producer side. The index the next appended entry will get. */
+    long tailIndex() {
+        return tail.getPlain();
+    }
+
+    /** True once a write has been dropped, until {@link #clearDesynced()}. */
+    boolean isDesynced() {
+        return desynced;
+    }
+
+    /** Producer side. Called once a reseed covering the dropped writes is posted. */
+    void clearDesynced() {
+        desynced = false;
+    }
+
+    long getDroppedCount() {
+        return droppedCount;
+    }
+}
@@ -0,0 +1,126 @@
+package gbc.model.sound;
+
+import java.nio.ShortBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of signed 16-bit stereo
+ * frames.
+ *
+ * <p>
+ * The APU (emulation thread) is the only writer and the audio backend thread
+ * is the only reader. Positions are monotonically increasing frame counters
+ * published with release/acquire semantics, so neither side ever blocks or
+ * allocates. When the ring is full the newest frame is dropped and counted as
+ * an overrun; when the reader asks for more frames than are queued the short
+ * read is counted as an underrun.
+ */
+public final class AudioRingBuffer {
+    private final short[] data;
+    private final int mask;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+
+    // Each counter has a single writer, so volatile increments are safe.
+    private volatile long overrunCount;
+    private volatile long underrunCount;
+
+    /**
+     * @param capacityFrames requested capacity in stereo frames; rounded up to
+     *                       the next power of two
+     */
+    public AudioRingBuffer(int capacityFrames) {
+        int frames = Integer.highestOneBit(Math.max(2, capacityFrames) - 1) << 1;
+        this.data = new short[frames * 2];
+        this.mask = frames - 1;
+    }
+
+    /**
+     * Appends one stereo frame. Producer side only.
+     *
+     * @return false if the ring was full and the frame was dropped
+     */
+    public boolean offer(short left, short right) {
+        long write = writePosition.getPlain();
+        if (write - readPosition.getAcquire() > mask) {
+            overrunCount++;
+            return false;
+        }
+        int index = (int) (write & mask) << 1;
+        data[index] = left;
+        data[index + 1] = right;
+        writePosition.setRelease(write + 1);
+        return true;
+    }
+
+    /**
+     * Copies up to {@code frames} stereo frames into {@code dst} as interleaved
+     * left/right samples. Consumer side only.
+     *
+     * @return number of frames copied
+     */
+    public int read(short[] dst, int offset, int frames) {
+        long read = readPosition.getPlain();
+        int count = (int) Math.min(frames, writePosition.getAcquire() - read);
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((read + i) & mask) << 1;
+            dst[offset++] = data[index];
+            dst[offset++] = data[index + 1];
+        }
+        finishRead(read, count, frames);
+        return count;
+    }
+
+    /**
+     * Copies up to {@code frames} stereo frames into {@code dst} at its current
+     * position. Consumer side only.
+     *
+     * @return number of frames copied
+     */
+    public int read(ShortBuffer dst, int frames) {
+        long read = readPosition.getPlain();
+        int count = (int) Math.min(Math.min(frames, dst.remaining() / 2), writePosition.getAcquire() - read);
+        for (int i = 0; i < count; i++) {
+            int index = (int) ((read + i) & mask) << 1;
+            dst.put(data[index]);
+            dst.put(data[index + 1]);
+        }
+        finishRead(read, count, frames);
+        return count;
+    }
+
+    private void finishRead(long read, int count, int requested) {
+        if (count < requested) {
+            underrunCount++;
+        }
+        if (count > 0) {
+            readPosition.setRelease(read + count);
+        }
+    }
+
+    /**
+     * Drops everything currently queued, e.g. so stale audio is not played
+     * after a pause. Consumer side only.
+     */
+    public void discard() {
+        readPosition.setRelease(writePosition.getAcquire());
+    }
+
+    /** Number of frames queued and not yet read. */
+    public int available() {
+        return (int) (writePosition.getAcquire() - readPosition.getAcquire());
+    }
+
+    /** Capacity in stereo frames. */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    public long getUnderrunCount() {
+        return underrunCount;
+    }
+}
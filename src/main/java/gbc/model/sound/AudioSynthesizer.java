@@ -0,0 +1,163 @@
+package gbc.model.sound;
+
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+/**
+ * Replays APU register writes on the audio thread.
+ *
+ * <p>
+ * In threaded-synthesis mode the emulation-side {@link Apu} only keeps the
+ * state the CPU can observe and forwards every register write, stamped with
+ * its APU cycle, to this class. The audio thread calls {@link #render()},
+ * which advances a private {@link Apu} with the full channel models up to
+ * the last published cycle, applying each logged write at its stamp, and so
+ * fills that Apu's output ring.
+ *
+ * <p>
+ * If the audio thread falls so far behind that the write log fills up, or
+ * the emulation side jumps to a restored state or resumes after running
+ * silent, the emulation thread posts a copy of its register and channel
+ * state; the audio thread then discards the stale log entries and restores
+ * that copy, so the synthesised state converges again instead of staying
+ * wrong. The synthesizer and its log are reused across reseeds.
+ */
+final class AudioSynthesizer {
+    private static final int LOG_CAPACITY = 1 << 15;
+    /** Backlog beyond which synthesis is skipped (about 250 ms). */
+    private static final long MAX_BACKLOG_CYCLES = 4_194_304L / 4;
+    private static final int MAX_STEP_CYCLES = 1 << 20;
+
+    private final Apu target;
+    private final ApuWriteLog log = new ApuWriteLog(LOG_CAPACITY);
+    private volatile long publishedCycle;
+    private long renderedCycle;
+    /** APU state for a reseed, written before {@link #reseedIndex} is published. */
+    private final StateWriter reseedState = new StateWriter(1024);
+    private long reseedCycle;
+    /** Whether the audio thread jumps to the reseed cycle instead of rendering up to it. */
+    private boolean reseedSkipsGap;
+    /** Log index the posted reseed covers up to, or -1 when none is pending. */
+    private volatile long reseedIndex = -1;
+    /** A reseed asked for while the previous one was still pending. */
+    private boolean reseedRequested;
+
+    AudioSynthesizer(Apu target, long startCycle) {
+        this.target = target;
+        this.publishedCycle = startCycle;
+        this.renderedCycle = startCycle;
+    }
+
+    // --- Emulation thread ---
+
+    void logWrite(long cycle, int address, int value) {
+        log.append(cycle, address, value);
+    }
+
+    void publish(long cycle) {
+        publishedCycle = cycle;
+    }
+
+    /**
+     * True when writes were dropped or a reseed was requested, and no reseed
+     * is waiting for the audio thread.
+     */
+    boolean needsReseed() {
+        return (log.isDesynced() || reseedRequested) && reseedIndex < 0;
+    }
+
+    /**
+     * Posts the state of {@code source}, as of the last published cycle, for
+     * the audio thread to reseed from. Only call when no reseed is pending.
+     */
+    void postReseed(Apu source) {
+        postReseed(source, publishedCycle, false);
+    }
+
+    /**
+     * Reseeds from {@code source} at {@code cycle} as soon as the audio
+     * thread has taken the pending reseed, if any. With {@code skipGap} the
+     * cycles since the last published one are not synthesised, as after
+     * running silent.
+     */
+    void requestReseed(Apu source, long cycle, boolean skipGap) {
+        if (reseedIndex < 0) {
+            postReseed(source, cycle, skipGap);
+        } else {
+            reseedRequested = true;
+        }
+    }
+
+    private void postReseed(Apu source, long cycle, boolean skipGap) {
+        reseedState.reset();
+        source.snapshot(reseedState);
+        reseedCycle = cycle;
+        reseedSkipsGap = skipGap;
+        reseedRequested = false;
+        log.clearDesynced();
+        reseedIndex = log.tailIndex();
+    }
+
+    // --- Audio thread ---
+
+    void render() {
+        // Read the log bound before the reseed: any entry below it that was
+        // appended after a reseed was posted makes that reseed visible here.
+        long limit = log.publishedTail();
+        long index = reseedIndex;
+        if (index >= 0) {
+            // The logged writes up to the reseed are stale; only synthesise
+            // the recent part of that stretch, with the registers as they were.
+            if (reseedSkipsGap) {
+                renderedCycle = Math.max(renderedCycle, reseedCycle);
+            } else {
+                renderedCycle = Math.max(renderedCycle, reseedCycle - MAX_BACKLOG_CYCLES);
+                advanceTo(reseedCycle);
+            }
+            log.skipTo(index);
+            target.restore(new StateReader(reseedState.buffer(), 0, reseedState.size()));
+            reseedIndex = -1;
+        }
+        long end = publishedCycle;
+        if (end - renderedCycle > MAX_BACKLOG_CYCLES) {
+            // The consumer stalled; apply the old writes without synthesising
+            // audio nobody will hear.
+            long skipTo = end - MAX_BACKLOG_CYCLES;
+            for (long entry = log.peek(limit); entry != ApuWriteLog.EMPTY
+                    && ApuWriteLog.cycleOf(entry) <= skipTo; entry = log.peek(limit)) {
+                apply(entry);
+            }
+            renderedCycle = skipTo;
+        }
+        for (long entry = log.peek(limit); entry != ApuWriteLog.EMPTY; entry = log.peek(limit)) {
+            long stamp = ApuWriteLog.cycleOf(entry);
+            if (stamp > end) {
+                break;
+            }
+            advanceTo(stamp);
+            apply(entry);
+        }
+        advanceTo(end);
+    }
+
+    private void apply(long entry) {
+        target.writeRegister(ApuWriteLog.addressOf(entry), ApuWriteLog.valueOf(entry));
+        log.poll();
+    }
+
+    private void advanceTo(long cycle) {
+        while (renderedCycle < cycle) {
+            int chunk = (int) Math.min(cycle - renderedCycle, MAX_STEP_CYCLES);
+            target.step(chunk);
+            renderedCycle += chunk;
+        }
+    }
+
+    Apu getTarget() {
+        return target;
+    }
+
+    long getDroppedWriteCount() {
+        return log.getDroppedCount();
+    }
+}
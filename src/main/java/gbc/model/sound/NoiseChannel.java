@@ -1,5 +1,9 @@
 package gbc.model.sound;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Noise channel (channel 4) for Game Boy APU.
  * Generates pseudo-random noise using a 15-bit or 7-bit LFSR.
@@ -12,8 +16,45 @@ package gbc.model.sound;
  * <p>
  * Envelope: period 0 is treated as 8 internally (matches hardware).
  * Volume envelope ticks on frame sequencer step 7.
+ *
+ * <p>
+ * Batch stepping jumps the LFSR through precomputed sequence tables: both
+ * widths are maximal-length (periods 32767 and 127), so the state after any
+ * number of clocks is a table lookup at {@code (index + clocks) % period}.
  */
-public class NoiseChannel {
+public class NoiseChannel implements Snapshotable {
+    private static final int PERIOD_15 = 0x7FFF;
+    private static final int PERIOD_7 = 0x7F;
+    /** Clocks after which every bit of the 15-bit register follows the 7-bit sequence. */
+    private static final int SETTLE_7 = 8;
+
+    /** 15-bit mode: state at each sequence position, and position of each state. */
+    private static final short[] SEQUENCE_15 = new short[PERIOD_15];
+    private static final short[] INDEX_15 = new short[PERIOD_15 + 1];
+    /** 7-bit mode: position of each low-7-bit state, and the settled full register there. */
+    private static final byte[] INDEX_7 = new byte[PERIOD_7 + 1];
+    private static final short[] SEQUENCE_7 = new short[PERIOD_7];
+
+    static {
+        int state = 0x7FFF;
+        for (int i = 0; i < PERIOD_15; i++) {
+            SEQUENCE_15[i] = (short) state;
+            INDEX_15[state] = (short) i;
+            state = clockLfsr(state, false);
+        }
+        state = 0x7FFF;
+        for (int i = 0; i < PERIOD_7; i++) {
+            INDEX_7[state & PERIOD_7] = (byte) i;
+            state = clockLfsr(state, true);
+        }
+        for (int i = 0; i < SETTLE_7 + PERIOD_7; i++) {
+            if (i >= SETTLE_7) {
+                SEQUENCE_7[INDEX_7[state & PERIOD_7]] = (short) state;
+            }
+            state = clockLfsr(state, true);
+        }
+    }
+
     private final float[] samples = new float[2];
     private int polynomialRegister;
     private int lengthCounter;
@@ -32,6 +73,42 @@ public class NoiseChannel {
     // Frame sequencer step (0-7), updated by APU
     private int frameSequencerStep;
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(polynomialRegister);
+        out.writeInt(lengthCounter);
+        out.writeBoolean(incrementing);
+        out.writeInt(initialVolume);
+        out.writeInt(period);
+        out.writeBoolean(dacOn);
+        out.writeBoolean(enabled);
+        out.writeBoolean(lengthEnabled);
+        out.writeInt(lfsr);
+        out.writeInt(periodTimer);
+        out.writeInt(volume);
+        out.writeInt(frequencyTimer);
+        out.writeFloat(currentSample);
+        out.writeInt(frameSequencerStep);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        polynomialRegister = in.readInt();
+        lengthCounter = in.readInt();
+        incrementing = in.readBoolean();
+        initialVolume = in.readInt();
+        period = in.readInt();
+        dacOn = in.readBoolean();
+        enabled = in.readBoolean();
+        lengthEnabled = in.readBoolean();
+        lfsr = in.readInt();
+        periodTimer = in.readInt();
+        volume = in.readInt();
+        frequencyTimer = in.readInt();
+        currentSample = in.readFloat();
+        frameSequencerStep = in.readInt();
+    }
+
     private int getEffectiveEnvelopePeriod() {
         return period == 0 ? 8 : period;
     }
@@ -83,17 +160,12 @@ public class NoiseChannel {
         if (freqPeriod <= 0)
             freqPeriod = 1;
 
-        frequencyTimer -= cycles;
-        while (frequencyTimer <= 0) {
-            frequencyTimer += freqPeriod;
-
-            // Update LFSR
-            int xorResult = (lfsr & 0b01) ^ ((lfsr & 0b10) >> 1);
-            lfsr = (lfsr >> 1) | (xorResult << 14);
-            if ((polynomialRegister >>> 3 & 0b01) != 0) {
-                lfsr &= ~(1 << 6);
-                lfsr |= xorResult << 6;
-            }
+        if (cycles < frequencyTimer) {
+            frequencyTimer -= cycles;
+        } else {
+            int overshoot = cycles - frequencyTimer;
+            lfsr = advanceLfsr(lfsr, 1 + overshoot / freqPeriod, (polynomialRegister >>> 3 & 0b01) != 0);
+            frequencyTimer = freqPeriod - overshoot % freqPeriod;
         }
 
         // Update cached sample
@@ -233,6 +305,35 @@ public class NoiseChannel {
         throw new RuntimeException("Invalid address: " + Integer.toHexString(address));
     }
 
+    /**
+     * Returns the LFSR state after {@code clocks} shifts. An all-zero register
+     * (reachable by switching to 7-bit width with the low bits clear) locks up
+     * at zero, as on hardware.
+     */
+    static int advanceLfsr(int state, int clocks, boolean narrow) {
+        if (!narrow) {
+            return state == 0 ? 0 : SEQUENCE_15[(INDEX_15[state] + clocks) % PERIOD_15];
+        }
+        if (clocks < SETTLE_7) {
+            for (int i = 0; i < clocks; i++) {
+                state = clockLfsr(state, true);
+            }
+            return state;
+        }
+        int low = state & PERIOD_7;
+        return low == 0 ? 0 : SEQUENCE_7[(INDEX_7[low] + clocks) % PERIOD_7];
+    }
+
+    static int clockLfsr(int state, boolean narrow) {
+        int xorResult = (state & 0b01) ^ ((state & 0b10) >> 1);
+        state = (state >> 1) | (xorResult << 14);
+        if (narrow) {
+            state &= ~(1 << 6);
+            state |= xorResult << 6;
+        }
+        return state;
+    }
+
     private int calculateFrequencyTimer() {
         int divisorCode = polynomialRegister & 0x07;
         return (divisorCode == 0 ? 8 : divisorCode << 4) << (polynomialRegister >>> 4);
@@ -1,5 +1,9 @@
 package gbc.model.sound;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Square wave channel for Game Boy APU (channels 1 and 2).
  * Generates square waves with duty cycle, frequency, and volume envelope
@@ -16,7 +20,7 @@ package gbc.model.sound;
  * <li>DAC disable immediately silences channel</li>
  * </ul>
  */
-public class SquareChannel {
+public class SquareChannel implements Snapshotable {
     private final int lengthDutyRegisterAddress;
     private final int freqLowRegisterAddress;
     private final int freqHighRegisterAddress;
@@ -49,6 +53,40 @@ public class SquareChannel {
         }
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(frequencyTimer);
+        out.writeInt(dutyPosition);
+        out.writeInt(lengthDutyRegister);
+        out.writeInt(freqLowRegister);
+        out.writeInt(freqHighRegister);
+        out.writeBoolean(enabled);
+        out.writeInt(lengthTimer);
+        out.writeFloat(currentSample);
+        out.writeInt(frameSequencerStep);
+        volumeEnvelope.snapshot(out);
+        if (sweep != null) {
+            sweep.snapshot(out);
+        }
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        frequencyTimer = in.readInt();
+        dutyPosition = in.readInt();
+        lengthDutyRegister = in.readInt();
+        freqLowRegister = in.readInt();
+        freqHighRegister = in.readInt();
+        enabled = in.readBoolean();
+        lengthTimer = in.readInt();
+        currentSample = in.readFloat();
+        frameSequencerStep = in.readInt();
+        volumeEnvelope.restore(in);
+        if (sweep != null) {
+            sweep.restore(in);
+        }
+    }
+
     public float[] step(boolean stepLength, boolean stepEnvelope, boolean stepSweep) {
         if (enabled && isDacOn()) {
             // Step timing systems
@@ -94,7 +132,10 @@ public class SquareChannel {
         return samples;
     }
 
-    /** Batch step frequency timer by multiple cycles */
+    /**
+     * Batch step frequency timer by multiple cycles. The duty position is
+     * advanced in closed form, so the cost does not depend on the batch size.
+     */
     public void stepCycles(int cycles) {
         if (!enabled || !isDacOn()) {
             currentSample = 0f;
@@ -109,10 +150,12 @@ public class SquareChannel {
         if (period <= 0)
             period = 1;
 
-        frequencyTimer -= cycles;
-        while (frequencyTimer <= 0) {
-            frequencyTimer += period;
-            dutyPosition = (dutyPosition + 1) & 7;
+        if (cycles < frequencyTimer) {
+            frequencyTimer -= cycles;
+        } else {
+            int overshoot = cycles - frequencyTimer;
+            dutyPosition = (dutyPosition + 1 + overshoot / period) & 7;
+            frequencyTimer = period - overshoot % period;
         }
 
         // Update cached sample
@@ -1,10 +1,14 @@
 package gbc.model.sound;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Frequency sweep for channel 1
  * Handles automatic frequency changes over time
  */
-public class Sweep {
+public class Sweep implements Snapshotable {
     private int shadowFrequency;
     private int timer;
     private int period;
@@ -19,6 +23,30 @@ public class Sweep {
         this.disableChannel = disableChannel;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(shadowFrequency);
+        out.writeInt(timer);
+        out.writeInt(period);
+        out.writeBoolean(enabled);
+        out.writeInt(frequency);
+        out.writeInt(shift);
+        out.writeBoolean(decrementing);
+        out.writeBoolean(negateUsed);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        shadowFrequency = in.readInt();
+        timer = in.readInt();
+        period = in.readInt();
+        enabled = in.readBoolean();
+        frequency = in.readInt();
+        shift = in.readInt();
+        decrementing = in.readBoolean();
+        negateUsed = in.readBoolean();
+    }
+
     public void step() {
         if (timer > 0) {
             timer--;
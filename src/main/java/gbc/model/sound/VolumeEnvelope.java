@@ -1,10 +1,14 @@
 package gbc.model.sound;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Volume envelope for APU channels
  * Handles volume ramping up/down over time
  */
-public class VolumeEnvelope {
+public class VolumeEnvelope implements Snapshotable {
     private int period;
     private int periodTimer;
     private int volume;
@@ -16,6 +20,24 @@ public class VolumeEnvelope {
         this.registerAddress = registerAddress;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(period);
+        out.writeInt(periodTimer);
+        out.writeInt(volume);
+        out.writeBoolean(upwards);
+        out.writeInt(registerValue);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        period = in.readInt();
+        periodTimer = in.readInt();
+        volume = in.readInt();
+        upwards = in.readBoolean();
+        registerValue = in.readInt();
+    }
+
     private int getEffectivePeriod() {
         return period == 0 ? 8 : period;
     }
@@ -1,10 +1,14 @@
 package gbc.model.sound;
 
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
 /**
  * Wave channel (channel 3) for Game Boy APU
  * Plays 4-bit samples from wave RAM with volume control
  */
-public class WaveChannel {
+public class WaveChannel implements Snapshotable {
     private final int[] wavePattern = new int[16]; // 32 4-bit samples (16 bytes)
     private final float[] samples = new float[2];
     private int frequencyTimer;
@@ -22,6 +26,38 @@ public class WaveChannel {
     // Frame sequencer step (0-7), updated by APU
     private int frameSequencerStep;
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInts(wavePattern);
+        out.writeInt(frequencyTimer);
+        out.writeInt(frequency);
+        out.writeInt(dutyPosition);
+        out.writeBoolean(dacOn);
+        out.writeBoolean(lengthEnabled);
+        out.writeInt(lengthCounter);
+        out.writeBoolean(enabled);
+        out.writeInt(outputLevel);
+        out.writeInt(volumeShift);
+        out.writeFloat(currentSample);
+        out.writeInt(frameSequencerStep);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        in.readInts(wavePattern);
+        frequencyTimer = in.readInt();
+        frequency = in.readInt();
+        dutyPosition = in.readInt();
+        dacOn = in.readBoolean();
+        lengthEnabled = in.readBoolean();
+        lengthCounter = in.readInt();
+        enabled = in.readBoolean();
+        outputLevel = in.readInt();
+        volumeShift = in.readInt();
+        currentSample = in.readFloat();
+        frameSequencerStep = in.readInt();
+    }
+
     public void setCgbMode(boolean cgbMode) {
         this.cgbMode = cgbMode;
     }
@@ -64,7 +100,10 @@ public class WaveChannel {
         return samples;
     }
 
-    /** Batch step frequency timer by multiple cycles */
+    /**
+     * Batch step frequency timer by multiple cycles. The wave position is
+     * advanced in closed form, so the cost does not depend on the batch size.
+     */
     public void stepCycles(int cycles) {
         if (!dacOn || !enabled) {
             currentSample = 0f;
@@ -75,10 +114,12 @@ public class WaveChannel {
         if (period <= 0)
             period = 1;
 
-        frequencyTimer -= cycles;
-        while (frequencyTimer <= 0) {
-            frequencyTimer += period;
-            dutyPosition = (dutyPosition + 1) & 31;
+        if (cycles < frequencyTimer) {
+            frequencyTimer -= cycles;
+        } else {
+            int overshoot = cycles - frequencyTimer;
+            dutyPosition = (dutyPosition + 1 + overshoot / period) & 31;
+            frequencyTimer = period - overshoot % period;
         }
 
         // Update cached sample
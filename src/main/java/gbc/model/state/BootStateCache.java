@@ -0,0 +1,81 @@
+package gbc.model.state;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import gbc.model.HardwareType;
+
+/**
+ * Machine states captured the moment a boot ROM unmapped itself, so later
+ * power-ons of the same game can skip the boot animation and still start
+ * from the state the real boot code leaves behind.
+ *
+ * <p>
+ * The key covers everything the outcome depends on: the boot ROM image, the
+ * hardware type, the power-on RAM seed and the cartridge header the boot ROM
+ * reads (logo, title and licensee for the DMG-on-CGB palette, checksum).
+ * The least recently used states are dropped beyond {@link #MAX_ENTRIES}.
+ * Each state comes with the cycles and steps the boot took, so a machine
+ * that skips the boot can advance its host-side counters to match.
+ */
+public final class BootStateCache {
+    static final int MAX_ENTRIES = 16;
+    private static final int HEADER_START = 0x0104;
+    private static final int HEADER_END = 0x0150;
+    private static final BootStateCache SHARED = new BootStateCache();
+
+    private final Map<String, Entry> states = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /** A post-boot machine state and the cycles and steps the boot ROM ran for. */
+    public record Entry(byte[] state, long cycles, long steps) {
+    }
+
+    public static BootStateCache shared() {
+        return SHARED;
+    }
+
+    public static String key(byte[] bootRom, HardwareType hardwareType, long powerOnSeed, byte[] rom) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(bootRom);
+        digest.update(hardwareType.name().getBytes(StandardCharsets.US_ASCII));
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (powerOnSeed >>> shift));
+        }
+        int end = Math.min(HEADER_END, rom.length);
+        if (end > HEADER_START) {
+            digest.update(rom, HEADER_START, end - HEADER_START);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** The cached entry for {@code key}, or null. */
+    public synchronized Entry get(String key) {
+        return states.get(key);
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        states.put(key, entry);
+    }
+
+    public synchronized int size() {
+        return states.size();
+    }
+
+    public synchronized void clear() {
+        states.clear();
+    }
+}
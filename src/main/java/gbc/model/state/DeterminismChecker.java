@@ -0,0 +1,93 @@
+package gbc.model.state;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+
+/**
+ * Runs the same machine twice, in parallel, and reports the first frame and
+ * component whose {@link StateHasher} hashes differ. Frames run from VBlank
+ * to VBlank and the frame buffer is hashed too.
+ */
+public final class DeterminismChecker {
+    /** Where two runs first differed. */
+    public record Divergence(int frame, String component, long firstHash, long secondHash) {
+        @Override
+        public String toString() {
+            return String.format("frame %d, component %s: %016x != %016x", frame, component, firstHash, secondHash);
+        }
+    }
+
+    private record Run(int[] tags, long[][] hashes) {
+    }
+
+    private DeterminismChecker() {
+    }
+
+    /**
+     * Builds two machines with {@code factory}, runs each for {@code frames}
+     * frames on its own thread and compares their per-frame hashes. Returns
+     * null when every frame matched.
+     */
+    public static Divergence check(Supplier<GameBoyColor> factory, int frames) {
+        CompletableFuture<Run> first = CompletableFuture.supplyAsync(() -> run(factory.get(), frames));
+        CompletableFuture<Run> second = CompletableFuture.supplyAsync(() -> run(factory.get(), frames));
+        return compare(first.join(), second.join());
+    }
+
+    /** A factory for deterministic machines running {@code rom}. */
+    public static Supplier<GameBoyColor> deterministicMachine(byte[] rom, long seed) {
+        return () -> {
+            GameBoyColor gbc = new GameBoyColor();
+            gbc.setDeterministic(seed);
+            gbc.insertCartridge(CartridgeFactory.create(rom.clone()));
+            return gbc;
+        };
+    }
+
+    private static Run run(GameBoyColor gbc, int frames) {
+        StateHasher hasher = new StateHasher(true);
+        long[][] hashes = new long[frames][];
+        int[] tags = null;
+        for (int frame = 0; frame < frames; frame++) {
+            gbc.runToVBlank();
+            hasher.update(gbc);
+            int sections = hasher.getSectionCount();
+            if (tags == null) {
+                tags = new int[sections];
+                for (int i = 0; i < sections; i++) {
+                    tags[i] = hasher.getSectionTag(i);
+                }
+            }
+            long[] frameHashes = new long[sections + 1];
+            frameHashes[0] = hasher.getHash();
+            for (int i = 0; i < sections; i++) {
+                frameHashes[i + 1] = hasher.getSectionHash(i);
+            }
+            hashes[frame] = frameHashes;
+        }
+        return new Run(tags == null ? new int[0] : tags, hashes);
+    }
+
+    private static Divergence compare(Run a, Run b) {
+        for (int frame = 0; frame < a.hashes.length; frame++) {
+            long[] ha = a.hashes[frame];
+            long[] hb = b.hashes[frame];
+            if (ha[0] == hb[0]) {
+                continue;
+            }
+            if (ha.length != hb.length) {
+                return new Divergence(frame, "section layout", ha[0], hb[0]);
+            }
+            for (int i = 1; i < ha.length; i++) {
+                if (ha[i] != hb[i]) {
+                    return new Divergence(frame, MachineState.tagName(a.tags[i - 1]), ha[i], hb[i]);
+                }
+            }
+            return new Divergence(frame, "combined", ha[0], hb[0]);
+        }
+        return null;
+    }
+}
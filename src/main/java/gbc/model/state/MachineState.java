@@ -0,0 +1,40 @@
+package gbc.model.state;
+
+/**
+ * Layout constants for a whole-machine snapshot.
+ *
+ * <p>
+ * A snapshot is {@link #MAGIC}, {@link #VERSION}, followed by one section per
+ * component. Memory comes first because restoring it validates the hardware
+ * profile that every other component depends on. Readers skip sections with
+ * tags they do not recognise.
+ */
+public final class MachineState {
+    public static final int MAGIC = tag("GBMS");
+    public static final int VERSION = 1;
+
+    public static final int MEMORY = tag("MEM_");
+    public static final int CPU = tag("CPU_");
+    public static final int TIMER = tag("TIMR");
+    public static final int LCD = tag("LCD_");
+    public static final int DMA = tag("DMA_");
+    public static final int PPU = tag("PPU_");
+    public static final int FRAME = tag("FRAM");
+    public static final int APU = tag("APU_");
+    public static final int CARTRIDGE = tag("CART");
+    public static final int JOYPAD = tag("JOYP");
+
+    private MachineState() {
+    }
+
+    public static int tag(String name) {
+        if (name.length() != 4) {
+            throw new IllegalArgumentException("Section tag must be four characters: " + name);
+        }
+        return name.charAt(0) << 24 | name.charAt(1) << 16 | name.charAt(2) << 8 | name.charAt(3);
+    }
+
+    public static String tagName(int tag) {
+        return StateReader.tagName(tag);
+    }
+}
@@ -0,0 +1,139 @@
+package gbc.model.state;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import gbc.model.GameBoyColor;
+
+/**
+ * A recorded input movie: the machine snapshot it starts from and every
+ * joypad change, stamped with the emulated cycle (counted from the start)
+ * at which it happened. Replaying the changes at the same cycles from the
+ * same snapshot reproduces the run exactly, independent of host frame
+ * pacing.
+ *
+ * <p>
+ * The recording also keeps the length in cycles, the number of host frames
+ * it spanned and a hash of the final machine state, so a playback can tell
+ * whether it ended in the same place.
+ */
+public final class Movie {
+    public static final int MAGIC = MachineState.tag("GBMV");
+    public static final int VERSION = 1;
+
+    private final byte[] initialState;
+    private final long[] eventCycles;
+    private final byte[] eventMasks;
+    private final long lengthCycles;
+    private final int frameCount;
+    private final byte[] endStateHash;
+
+    Movie(byte[] initialState, long[] eventCycles, byte[] eventMasks, long lengthCycles, int frameCount,
+            byte[] endStateHash) {
+        this.initialState = initialState;
+        this.eventCycles = eventCycles;
+        this.eventMasks = eventMasks;
+        this.lengthCycles = lengthCycles;
+        this.frameCount = frameCount;
+        this.endStateHash = endStateHash;
+    }
+
+    public byte[] getInitialState() {
+        return initialState;
+    }
+
+    public int getEventCount() {
+        return eventCycles.length;
+    }
+
+    /** Cycle, relative to the start, at which event {@code index} applies. */
+    public long getEventCycle(int index) {
+        return eventCycles[index];
+    }
+
+    /** Button mask, as {@link gbc.model.input.Controller#getButtonMask()}, of event {@code index}. */
+    public int getEventMask(int index) {
+        return eventMasks[index] & 0xFF;
+    }
+
+    public long getLengthCycles() {
+        return lengthCycles;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public byte[] getEndStateHash() {
+        return endStateHash;
+    }
+
+    public byte[] encode() {
+        StateWriter out = new StateWriter(initialState.length + eventCycles.length * 9 + 128);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeBytes(initialState);
+        out.writeLong(lengthCycles);
+        out.writeInt(frameCount);
+        out.writeInt(eventCycles.length);
+        for (int i = 0; i < eventCycles.length; i++) {
+            out.writeLong(eventCycles[i]);
+            out.writeByte(eventMasks[i]);
+        }
+        out.writeBytes(endStateHash);
+        return out.toByteArray();
+    }
+
+    public static Movie decode(byte[] data) {
+        StateReader in = new StateReader(data);
+        if (in.readInt() != MAGIC) {
+            throw new IllegalStateException("Not a movie");
+        }
+        int version = in.readInt();
+        if (version > VERSION) {
+            throw new IllegalStateException("Movie version " + version + " is newer than supported " + VERSION);
+        }
+        byte[] initialState = in.readByteArray();
+        if (initialState == null) {
+            throw new IllegalStateException("Movie has no initial state");
+        }
+        long lengthCycles = in.readLong();
+        int frameCount = in.readInt();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IllegalStateException("Corrupt movie: " + count + " events");
+        }
+        long[] cycles = new long[count];
+        byte[] masks = new byte[count];
+        for (int i = 0; i < count; i++) {
+            cycles[i] = in.readLong();
+            masks[i] = (byte) in.readByte();
+            if (cycles[i] < 0 || cycles[i] > lengthCycles || (i > 0 && cycles[i] < cycles[i - 1])) {
+                throw new IllegalStateException("Corrupt movie: event " + i + " out of order");
+            }
+        }
+        byte[] endStateHash = in.readByteArray();
+        return new Movie(initialState, cycles, masks, lengthCycles, frameCount, endStateHash);
+    }
+
+    /**
+     * SHA-256 of the machine state without the frame buffer, which depends on
+     * whether frames were drawn rather than on what the game did.
+     */
+    public static byte[] hashState(GameBoyColor gbc) {
+        StateWriter writer = new StateWriter();
+        gbc.snapshot(writer, false);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(writer.buffer(), 0, writer.size());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    public static String toHex(byte[] hash) {
+        return hash == null ? "-" : HexFormat.of().formatHex(hash);
+    }
+}
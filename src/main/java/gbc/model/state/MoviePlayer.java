@@ -0,0 +1,79 @@
+package gbc.model.state;
+
+import java.util.Arrays;
+
+import gbc.model.GameBoyColor;
+
+/**
+ * Plays a {@link Movie} back on a machine. Input is applied between
+ * instructions as soon as the emulated cycle count reaches the recorded
+ * stamp, which is exactly where it was applied while recording, so the run
+ * is reproduced however the caller slices it into frames.
+ */
+public final class MoviePlayer {
+    private final Movie movie;
+    private final GameBoyColor gbc;
+    private final long startCycle;
+    private int nextEvent;
+
+    /** Restores the movie's initial state into {@code gbc}. */
+    public MoviePlayer(Movie movie, GameBoyColor gbc) {
+        this.movie = movie;
+        this.gbc = gbc;
+        gbc.restore(movie.getInitialState());
+        this.startCycle = gbc.getCycleCount();
+    }
+
+    /**
+     * Runs at least {@code maxCycles} cycles, or up to the end of the movie.
+     * Returns false once the end has been reached.
+     */
+    public boolean run(int maxCycles) {
+        long end = movie.getLengthCycles();
+        long target = elapsed() + maxCycles;
+        while (true) {
+            long elapsed = elapsed();
+            applyDueInput(elapsed);
+            if (elapsed >= end) {
+                return false;
+            }
+            if (elapsed >= target) {
+                return true;
+            }
+            gbc.executeCycle();
+        }
+    }
+
+    /** Plays the rest of the movie as fast as possible and returns the end state hash. */
+    public byte[] playToEnd() {
+        while (run(Integer.MAX_VALUE)) {
+            // run() only returns true before the end when the slice is used up
+        }
+        return Movie.hashState(gbc);
+    }
+
+    public boolean isFinished() {
+        return elapsed() >= movie.getLengthCycles();
+    }
+
+    /** Whether the machine now matches the state the recording ended on. */
+    public boolean matchesRecording() {
+        byte[] expected = movie.getEndStateHash();
+        return expected != null && Arrays.equals(expected, Movie.hashState(gbc));
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    private long elapsed() {
+        return gbc.getCycleCount() - startCycle;
+    }
+
+    private void applyDueInput(long elapsed) {
+        while (nextEvent < movie.getEventCount() && movie.getEventCycle(nextEvent) <= elapsed) {
+            gbc.getController().setButtonMask(movie.getEventMask(nextEvent));
+            nextEvent++;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package gbc.model.state;
+
+import java.util.Arrays;
+
+import gbc.model.GameBoyColor;
+import gbc.model.input.Controller;
+
+/**
+ * Records a {@link Movie} from a running machine. Listens to the joypad, so
+ * every button change is stamped with the emulated cycle it landed on no
+ * matter which input source made it; the changes must happen on the thread
+ * that runs the machine.
+ */
+public final class MovieRecorder {
+    private final GameBoyColor gbc;
+    private final byte[] initialState;
+    private final long startCycle;
+    private long[] eventCycles = new long[256];
+    private byte[] eventMasks = new byte[256];
+    private int eventCount;
+    private int frameCount;
+    private boolean finished;
+
+    /** Starts recording from the machine's current state. */
+    public MovieRecorder(GameBoyColor gbc) {
+        this.gbc = gbc;
+        this.initialState = gbc.snapshot();
+        this.startCycle = gbc.getCycleCount();
+        gbc.getController().setButtonListener(this::record);
+    }
+
+    /** Counts a host frame; only informational, playback is cycle-driven. */
+    public void frameCompleted() {
+        frameCount++;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public long getElapsedCycles() {
+        return gbc.getCycleCount() - startCycle;
+    }
+
+    /** Stops listening and returns the movie, ending on the current state. */
+    public Movie finish() {
+        cancel();
+        return new Movie(initialState, Arrays.copyOf(eventCycles, eventCount),
+                Arrays.copyOf(eventMasks, eventCount), getElapsedCycles(), frameCount, Movie.hashState(gbc));
+    }
+
+    /** Stops listening without producing a movie. */
+    public void cancel() {
+        if (!finished) {
+            finished = true;
+            gbc.getController().setButtonListener(null);
+        }
+    }
+
+    private void record(int mask) {
+        if (eventCount == eventCycles.length) {
+            eventCycles = Arrays.copyOf(eventCycles, eventCount * 2);
+            eventMasks = Arrays.copyOf(eventMasks, eventCount * 2);
+        }
+        eventCycles[eventCount] = getElapsedCycles();
+        eventMasks[eventCount] = (byte) mask;
+        eventCount++;
+    }
+}
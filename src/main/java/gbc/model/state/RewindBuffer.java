@@ -0,0 +1,270 @@
+package gbc.model.state;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Size-bounded history of machine snapshots for rewinding.
+ *
+ * <p>
+ * Every {@code keyframeInterval}-th entry is a keyframe; the entries between
+ * keyframes store only the XOR of the snapshot against the most recent
+ * keyframe. Both kinds are run-length encoded as alternating runs of
+ * unchanged (zero) bytes and literal bytes, so a delta costs roughly the
+ * number of bytes that actually changed. When the encoded total exceeds the
+ * capacity, the oldest keyframe is dropped along with its deltas.
+ *
+ * <p>
+ * Not thread-safe; the emulation thread owns it.
+ */
+public final class RewindBuffer {
+    /** Approximate per-entry bookkeeping cost counted against the capacity. */
+    private static final int ENTRY_OVERHEAD = 48;
+
+    private static final class Entry {
+        final byte[] data;
+        final int rawLength;
+        final boolean keyframe;
+
+        Entry(byte[] data, int rawLength, boolean keyframe) {
+            this.data = data;
+            this.rawLength = rawLength;
+            this.keyframe = keyframe;
+        }
+    }
+
+    private final long capacityBytes;
+    private final int keyframeInterval;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    /** Decoded copy of the newest keyframe, the base for new deltas. */
+    private byte[] keyframe;
+    private int keyframeLength = -1;
+    private int deltasSinceKeyframe;
+    private int keyframeCount;
+
+    private byte[] encodeScratch = new byte[0];
+    private byte[] decodeScratch = new byte[0];
+
+    private long storedBytes;
+    private long rawBytes;
+
+    public RewindBuffer(long capacityBytes, int keyframeInterval) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("capacityBytes must be positive");
+        }
+        this.capacityBytes = capacityBytes;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /** Appends the first {@code length} bytes of {@code state}. */
+    public void push(byte[] state, int length) {
+        boolean asKeyframe = keyframe == null || length != keyframeLength
+                || deltasSinceKeyframe >= keyframeInterval - 1;
+        byte[] data = encode(state, length, asKeyframe ? null : keyframe);
+        Entry entry = new Entry(data, length, asKeyframe);
+        if (asKeyframe) {
+            if (keyframe == null || keyframe.length < length) {
+                keyframe = new byte[length];
+            }
+            System.arraycopy(state, 0, keyframe, 0, length);
+            keyframeLength = length;
+            deltasSinceKeyframe = 0;
+            keyframeCount++;
+        } else {
+            deltasSinceKeyframe++;
+        }
+        entries.addLast(entry);
+        storedBytes += cost(entry);
+        rawBytes += length;
+        evict();
+    }
+
+    /**
+     * Removes the newest entry and returns a reader over its decoded
+     * snapshot, or {@code null} when the buffer is empty. The reader is only
+     * valid until the next call on this buffer.
+     */
+    public StateReader pop() {
+        Entry entry = entries.pollLast();
+        if (entry == null) {
+            return null;
+        }
+        storedBytes -= cost(entry);
+        rawBytes -= entry.rawLength;
+        if (decodeScratch.length < entry.rawLength) {
+            decodeScratch = new byte[entry.rawLength];
+        }
+        if (entry.keyframe) {
+            decode(entry, null, decodeScratch);
+            keyframeCount--;
+            reloadKeyframe();
+        } else {
+            decode(entry, keyframe, decodeScratch);
+            deltasSinceKeyframe--;
+        }
+        return new StateReader(decodeScratch, 0, entry.rawLength);
+    }
+
+    public void clear() {
+        entries.clear();
+        keyframe = null;
+        keyframeLength = -1;
+        deltasSinceKeyframe = 0;
+        keyframeCount = 0;
+        storedBytes = 0;
+        rawBytes = 0;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Encoded bytes currently held, including per-entry overhead. */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    /** Raw snapshot bytes represented per stored byte, or 0 when empty. */
+    public double getCompressionRatio() {
+        return storedBytes == 0 ? 0 : (double) rawBytes / storedBytes;
+    }
+
+    private void evict() {
+        // Never drop the newest keyframe group; later deltas depend on it
+        while (storedBytes > capacityBytes && keyframeCount > 1) {
+            Entry oldest = entries.pollFirst();
+            storedBytes -= cost(oldest);
+            rawBytes -= oldest.rawLength;
+            if (oldest.keyframe) {
+                keyframeCount--;
+            }
+            while (!entries.isEmpty() && !entries.peekFirst().keyframe) {
+                Entry delta = entries.pollFirst();
+                storedBytes -= cost(delta);
+                rawBytes -= delta.rawLength;
+            }
+        }
+    }
+
+    /** Re-decodes the newest remaining keyframe after the current one was popped. */
+    private void reloadKeyframe() {
+        deltasSinceKeyframe = 0;
+        Iterator<Entry> it = entries.descendingIterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.keyframe) {
+                if (keyframe.length < entry.rawLength) {
+                    keyframe = new byte[entry.rawLength];
+                }
+                decode(entry, null, keyframe);
+                keyframeLength = entry.rawLength;
+                return;
+            }
+            deltasSinceKeyframe++;
+        }
+        keyframe = null;
+        keyframeLength = -1;
+        deltasSinceKeyframe = 0;
+    }
+
+    private static int cost(Entry entry) {
+        return entry.data.length + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Encodes {@code state ^ base} (or {@code state} when base is null) as a
+     * sequence of {@code skip, literalCount, literals...} runs with varint
+     * counts.
+     */
+    private byte[] encode(byte[] state, int length, byte[] base) {
+        // Worst case: every literal run needs its headers
+        int bound = length + length / 64 + 16;
+        if (encodeScratch.length < bound) {
+            encodeScratch = new byte[bound];
+        }
+        byte[] out = encodeScratch;
+        int o = 0;
+        int i = 0;
+        while (i < length) {
+            int skipStart = i;
+            while (i < length && (state[i] ^ (base == null ? 0 : base[i])) == 0) {
+                i++;
+            }
+            int literalStart = i;
+            // A literal run ends at the first stretch of four unchanged bytes,
+            // so short gaps do not cost a run header each
+            int zeros = 0;
+            while (i < length && zeros < 4) {
+                zeros = (state[i] ^ (base == null ? 0 : base[i])) == 0 ? zeros + 1 : 0;
+                i++;
+            }
+            if (zeros == 4) {
+                i -= 4;
+            }
+            int literalLength = i - literalStart;
+            if (o + 10 + literalLength > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, o + 10 + literalLength));
+                encodeScratch = out;
+            }
+            o = writeVarint(out, o, literalStart - skipStart);
+            o = writeVarint(out, o, literalLength);
+            for (int k = literalStart; k < i; k++) {
+                out[o++] = (byte) (state[k] ^ (base == null ? 0 : base[k]));
+            }
+        }
+        return Arrays.copyOf(out, o);
+    }
+
+    private static void decode(Entry entry, byte[] base, byte[] target) {
+        int length = entry.rawLength;
+        if (base == null) {
+            Arrays.fill(target, 0, length, (byte) 0);
+        } else {
+            System.arraycopy(base, 0, target, 0, length);
+        }
+        byte[] in = entry.data;
+        int p = 0;
+        int position = 0;
+        while (p < in.length) {
+            int skip = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in[p++];
+                skip |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            int literals = 0;
+            shift = 0;
+            do {
+                b = in[p++];
+                literals |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            position += skip;
+            for (int k = 0; k < literals; k++) {
+                target[position] ^= in[p++];
+                position++;
+            }
+        }
+    }
+
+    private static int writeVarint(byte[] out, int o, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[o++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[o++] = (byte) value;
+        return o;
+    }
+}
@@ -0,0 +1,17 @@
+package gbc.model.state;
+
+/**
+ * A model component whose complete internal state can be captured into and
+ * restored from a {@link StateWriter}/{@link StateReader} pair.
+ *
+ * <p>
+ * Implementations copy their fields and arrays directly, without going
+ * through the memory bus, so restoring never triggers I/O side effects.
+ * {@link #restore} must read exactly what {@link #snapshot} wrote, in the
+ * same order.
+ */
+public interface Snapshotable {
+    void snapshot(StateWriter out);
+
+    void restore(StateReader in);
+}
@@ -0,0 +1,127 @@
+package gbc.model.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import gbc.model.GameBoyColor;
+
+/**
+ * Per-frame hash of the machine state. Each call to {@link #update} captures
+ * a snapshot into a reused buffer and hashes every section separately, so a
+ * mismatch can be traced to a component, and folds the result into a chain
+ * covering every frame hashed so far.
+ *
+ * <p>
+ * The hash is a 64-bit multiply-rotate mix over eight bytes at a time: not
+ * cryptographic, but cheap next to the snapshot itself. Not thread-safe.
+ */
+public final class StateHasher {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+
+    private final boolean includeFrameBuffer;
+    private final StateWriter writer = new StateWriter();
+    private int[] tags = new int[16];
+    private long[] hashes = new long[16];
+    private int sectionCount;
+    private long hash;
+    private long chain;
+    private long frames;
+
+    public StateHasher(boolean includeFrameBuffer) {
+        this.includeFrameBuffer = includeFrameBuffer;
+    }
+
+    /** Hashes the current state of {@code gbc} and returns the combined hash. */
+    public long update(GameBoyColor gbc) {
+        writer.reset();
+        gbc.snapshot(writer, includeFrameBuffer);
+        byte[] buffer = writer.buffer();
+        int limit = writer.size();
+        int position = 8; // magic and version
+        sectionCount = 0;
+        long combined = PRIME3;
+        while (position + 8 <= limit) {
+            int tag = readInt(buffer, position);
+            int length = readInt(buffer, position + 4);
+            position += 8;
+            if (sectionCount == tags.length) {
+                tags = Arrays.copyOf(tags, sectionCount * 2);
+                hashes = Arrays.copyOf(hashes, sectionCount * 2);
+            }
+            long sectionHash = hash(buffer, position, length, tag);
+            tags[sectionCount] = tag;
+            hashes[sectionCount] = sectionHash;
+            sectionCount++;
+            combined = mix(combined, sectionHash);
+            position += length;
+        }
+        hash = combined;
+        chain = mix(chain, combined);
+        frames++;
+        return combined;
+    }
+
+    /** Combined hash from the last {@link #update}. */
+    public long getHash() {
+        return hash;
+    }
+
+    /** Hash over every state hashed so far, in order. */
+    public long getChainHash() {
+        return chain;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public int getSectionCount() {
+        return sectionCount;
+    }
+
+    /** Section tag, see {@link MachineState}. */
+    public int getSectionTag(int index) {
+        return tags[index];
+    }
+
+    public long getSectionHash(int index) {
+        return hashes[index];
+    }
+
+    public static long hash(byte[] data, int offset, int length, long seed) {
+        long h = seed * PRIME1 ^ length * PRIME2;
+        int i = offset;
+        int end = offset + length;
+        for (; i + 8 <= end; i += 8) {
+            long k = (long) LONGS.get(data, i);
+            h = Long.rotateLeft(h ^ k * PRIME2, 31) * PRIME1;
+        }
+        for (; i < end; i++) {
+            h = Long.rotateLeft(h ^ (data[i] & 0xFF) * PRIME3, 11) * PRIME1;
+        }
+        return finish(h);
+    }
+
+    private static long mix(long h, long value) {
+        return finish(Long.rotateLeft(h ^ value * PRIME2, 27) * PRIME1 + PRIME3);
+    }
+
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        return h ^ h >>> 32;
+    }
+
+    private static int readInt(byte[] buffer, int at) {
+        return (buffer[at] & 0xFF) << 24 | (buffer[at + 1] & 0xFF) << 16
+                | (buffer[at + 2] & 0xFF) << 8 | buffer[at + 3] & 0xFF;
+    }
+}
@@ -0,0 +1,161 @@
+package gbc.model.state;
+
+/**
+ * Reads data produced by {@link StateWriter}. Any malformed or truncated
+ * input is reported as an {@link IllegalStateException}.
+ */
+public final class StateReader {
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int sectionEnd = -1;
+
+    public StateReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public StateReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * A second reader over the rest of the data, for looking ahead without
+     * moving this one. Only valid between top-level sections.
+     */
+    public StateReader copy() {
+        return new StateReader(buffer, position, limit - position);
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Opens the next top-level section and returns its tag. The caller must
+     * then either consume it completely and call {@link #endSection()}, or
+     * call {@link #skipSection()}.
+     */
+    public int nextSection() {
+        int tag = readInt();
+        int length = readInt();
+        if (length < 0 || position + length > limit) {
+            throw new IllegalStateException("Corrupt snapshot section " + tagName(tag));
+        }
+        sectionEnd = position + length;
+        return tag;
+    }
+
+    public void endSection() {
+        if (position != sectionEnd) {
+            throw new IllegalStateException("Snapshot section size mismatch ("
+                    + (sectionEnd - position) + " bytes unread)");
+        }
+        sectionEnd = -1;
+    }
+
+    public void skipSection() {
+        position = sectionEnd;
+        sectionEnd = -1;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    public int readInt() {
+        require(4);
+        int value = (buffer[position] & 0xFF) << 24
+                | (buffer[position + 1] & 0xFF) << 16
+                | (buffer[position + 2] & 0xFF) << 8
+                | (buffer[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    public long readLong() {
+        long high = readInt();
+        return high << 32 | (readInt() & 0xFFFF_FFFFL);
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads a byte array written by {@link StateWriter#writeBytes} into
+     * {@code target}, whose length must match the recorded one.
+     */
+    public void readBytes(byte[] target) {
+        int length = readInt();
+        int expected = target == null ? -1 : target.length;
+        if (length != expected) {
+            throw new IllegalStateException("Snapshot array length " + length + ", expected " + expected);
+        }
+        if (length > 0) {
+            require(length);
+            System.arraycopy(buffer, position, target, 0, length);
+            position += length;
+        }
+    }
+
+    /** Reads a byte array written by {@link StateWriter#writeBytes} into a new array. */
+    public byte[] readByteArray() {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        byte[] values = new byte[length];
+        System.arraycopy(buffer, position, values, 0, length);
+        position += length;
+        return values;
+    }
+
+    /** Reads an int array written by {@link StateWriter#writeInts} into {@code target}. */
+    public void readInts(int[] target) {
+        int count = readIntCount(target.length);
+        if (count != target.length) {
+            throw new IllegalStateException("Snapshot array length " + count + ", expected " + target.length);
+        }
+        readIntValues(target, count);
+    }
+
+    /** Reads a recorded array length and checks it fits {@code max}. */
+    private int readIntCount(int max) {
+        int count = readInt();
+        if (count < 0 || count > max) {
+            throw new IllegalStateException("Snapshot array length " + count + " exceeds " + max);
+        }
+        return count;
+    }
+
+    private void readIntValues(int[] target, int count) {
+        for (int i = 0; i < count; i++) {
+            target[i] = readInt();
+        }
+    }
+
+    private void require(int bytes) {
+        int end = sectionEnd >= 0 ? sectionEnd : limit;
+        if (position + bytes > end) {
+            throw new IllegalStateException("Snapshot data truncated");
+        }
+    }
+
+    static String tagName(int tag) {
+        char[] chars = { (char) (tag >>> 24 & 0xFF), (char) (tag >>> 16 & 0xFF),
+                (char) (tag >>> 8 & 0xFF), (char) (tag & 0xFF) };
+        return new String(chars);
+    }
+}
@@ -0,0 +1,132 @@
+package gbc.model.state;
+
+import java.util.Arrays;
+
+/**
+ * Growable big-endian buffer for machine snapshots.
+ *
+ * <p>
+ * Sections are framed as {@code tag, length, payload} so readers can locate
+ * components by tag and skip ones they do not know. A writer can be
+ * {@link #reset()} and reused, so repeated captures do not allocate once the
+ * buffer has grown to the snapshot size.
+ */
+public final class StateWriter {
+    private static final int MAX_DEPTH = 8;
+
+    private byte[] buffer;
+    private int position;
+    private final int[] sectionStarts = new int[MAX_DEPTH];
+    private int depth;
+
+    public StateWriter() {
+        this(64 * 1024);
+    }
+
+    public StateWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset() {
+        position = 0;
+        depth = 0;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    /** Returns the backing array; only the first {@link #size()} bytes are valid. */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void beginSection(int tag) {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Snapshot sections nested too deeply");
+        }
+        writeInt(tag);
+        sectionStarts[depth++] = position;
+        writeInt(0); // length, patched by endSection
+    }
+
+    public void endSection() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open snapshot section");
+        }
+        int lengthAt = sectionStarts[--depth];
+        putInt(lengthAt, position - lengthAt - 4);
+    }
+
+    public void writeBoolean(boolean value) {
+        ensure(1);
+        buffer[position++] = (byte) (value ? 1 : 0);
+    }
+
+    public void writeByte(int value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensure(4);
+        putInt(position, value);
+        position += 4;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeFloat(float value) {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /** Writes a length-prefixed byte array; {@code null} is recorded as length -1. */
+    public void writeBytes(byte[] values) {
+        if (values == null) {
+            writeInt(-1);
+            return;
+        }
+        writeInt(values.length);
+        ensure(values.length);
+        System.arraycopy(values, 0, buffer, position, values.length);
+        position += values.length;
+    }
+
+    /** Writes a length-prefixed int array. */
+    public void writeInts(int[] values) {
+        writeInts(values, values.length);
+    }
+
+    public void writeInts(int[] values, int count) {
+        writeInt(count);
+        ensure(count * 4);
+        for (int i = 0; i < count; i++) {
+            putInt(position, values[i]);
+            position += 4;
+        }
+    }
+
+    private void putInt(int at, int value) {
+        buffer[at] = (byte) (value >>> 24);
+        buffer[at + 1] = (byte) (value >>> 16);
+        buffer[at + 2] = (byte) (value >>> 8);
+        buffer[at + 3] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+}
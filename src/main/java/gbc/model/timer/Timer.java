@@ -5,12 +5,15 @@ import java.util.logging.Logger;
 
 import gbc.model.event.EmulatorEvent;
 import gbc.model.event.EventBus;
+import gbc.model.state.Snapshotable;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 /**
  * Game Boy timer subsystem.
  * Manages the 16-bit divider, TIMA, TMA, TAC and overflow/reload state machine.
  */
-public class Timer {
+public class Timer implements Snapshotable {
     private static final Logger LOGGER = Logger.getLogger(Timer.class.getName());
 
     private final EventBus eventBus;
@@ -27,6 +30,8 @@ public class Timer {
         RELOAD_ACTIVE
     }
 
+    /** Events are immutable, so the overflow request is published as one shared instance. */
+    private static final EmulatorEvent.InterruptRequest TIMER_INTERRUPT = new EmulatorEvent.InterruptRequest(0x04);
     private static final boolean TIMER_TRACE = Boolean.getBoolean("gbc.timer.trace");
     private static final long TIMER_TRACE_THRESHOLD = Long.getLong("gbc.timer.trace.start", 0L);
     private static final boolean TIMER_TRACE_INCREMENTS = Boolean.getBoolean("gbc.timer.trace.increments");
@@ -108,23 +113,31 @@ public class Timer {
                 reloadPending = false;
                 timerState = TimerState.NORMAL;
                 overflowDelayActive = false;
-                traceTimer(String.format("write TIMA=%02X (cancelled reload in OVERFLOW_DELAY)", newTima));
+                if (TIMER_TRACE) {
+                    traceTimer(String.format("write TIMA=%02X (cancelled reload in OVERFLOW_DELAY)", newTima));
+                }
                 return;
             } else if (timerState == TimerState.RELOAD_ACTIVE) {
-                traceTimer(String.format("write TIMA=%02X (ignored - in RELOAD_ACTIVE)", newTima));
+                if (TIMER_TRACE) {
+                    traceTimer(String.format("write TIMA=%02X (ignored - in RELOAD_ACTIVE)", newTima));
+                }
                 return;
             }
         }
         tima = newTima;
-        traceTimer(String.format("write TIMA=%02X", newTima));
+        if (TIMER_TRACE) {
+            traceTimer(String.format("write TIMA=%02X", newTima));
+        }
     }
 
     public void writeTMA(int value) {
         tma = value & 0xFF;
         if (reloadPending && timerState == TimerState.RELOAD_ACTIVE) {
             tima = tma;
-            traceTimer(String.format("write TMA=%02X during RELOAD_ACTIVE - also copied to TIMA", tma & 0xFF));
-        } else {
+            if (TIMER_TRACE) {
+                traceTimer(String.format("write TMA=%02X during RELOAD_ACTIVE - also copied to TIMA", tma & 0xFF));
+            }
+        } else if (TIMER_TRACE) {
             traceTimer(String.format("write TMA=%02X", tma & 0xFF));
         }
     }
@@ -137,7 +150,9 @@ public class Timer {
         if (oldSignal && !newSignal) {
             incrementTIMA("tac");
         }
-        traceTimer(String.format("write TAC=%02X", tac & 0xFF));
+        if (TIMER_TRACE) {
+            traceTimer(String.format("write TAC=%02X", tac & 0xFF));
+        }
     }
 
     // --- Step (called once per T-cycle) ---
@@ -285,6 +300,37 @@ public class Timer {
         lastDividerIncrementTac = 0;
     }
 
+    @Override
+    public void snapshot(StateWriter out) {
+        out.writeInt(divider);
+        out.writeInt(tima);
+        out.writeInt(tma);
+        out.writeInt(tac);
+        out.writeInt(timerState.ordinal());
+        out.writeInt(stateCounterT);
+        out.writeBoolean(reloadPending);
+        out.writeBoolean(overflowDelayActive);
+        out.writeLong(totalTCycles);
+    }
+
+    @Override
+    public void restore(StateReader in) {
+        divider = in.readInt();
+        tima = in.readInt();
+        tma = in.readInt();
+        tac = in.readInt();
+        int state = in.readInt();
+        if (state < 0 || state >= TimerState.values().length) {
+            throw new IllegalStateException("Invalid timer state in snapshot: " + state);
+        }
+        timerState = TimerState.values()[state];
+        stateCounterT = in.readInt();
+        reloadPending = in.readBoolean();
+        overflowDelayActive = in.readBoolean();
+        totalTCycles = in.readLong();
+        lastDividerIncrementCycle = -1;
+    }
+
     public void setDivider(int value) {
         this.divider = value;
     }
@@ -320,7 +366,7 @@ public class Timer {
                 int bitIndex = getTimerInputBit(lastDividerIncrementTac);
                 long expectedDelta = 1L << (bitIndex + 1);
                 long delta = totalTCycles - lastDividerIncrementCycle;
-                if (delta != expectedDelta) {
+                if (delta != expectedDelta && TIMER_TRACE) {
                     traceTimer(String.format(
                             "unexpected TIMA interval: delta=%d expected=%d prevTAC=%02X", delta, expectedDelta,
                             lastDividerIncrementTac & 0xFF));
@@ -376,8 +422,10 @@ public class Timer {
 
             if (reloadPending) {
                 tima = tma & 0xFF;
-                eventBus.publish(new EmulatorEvent.InterruptRequest(0x04));
-                traceTimer(String.format("OVERFLOW_DELAY complete -> reloaded TIMA=%02X, req INT", tima));
+                eventBus.publish(TIMER_INTERRUPT);
+                if (TIMER_TRACE) {
+                    traceTimer(String.format("OVERFLOW_DELAY complete -> reloaded TIMA=%02X, req INT", tima));
+                }
             } else {
                 traceTimer("OVERFLOW_DELAY complete -> reload cancelled");
             }
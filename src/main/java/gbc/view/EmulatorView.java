@@ -15,21 +15,17 @@ import java.awt.RenderingHints;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.Serial;
-import java.util.Objects;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-
 import gbc.model.GameBoyColor;
 import gbc.model.graphics.FrameBuffer;
 import gbc.model.graphics.PPU;
-import gbc.model.graphics.Screen;
 
 /**
  * EmulatorView with configurable scaling, filters, and display options
@@ -40,12 +36,16 @@ public class EmulatorView extends JPanel {
     private static final long serialVersionUID = 1L;
 
     private PPU ppu;
-    private Screen screen;
     private FrameBuffer frameBuffer;
     private final ViewSettings settings = new ViewSettings();
-    private final Cache<RenderKey, BufferedImage> renderCache = Caffeine.newBuilder()
-            .maximumSize(6)
-            .build();
+    private static final Color BORDER_COLOR = new Color(0, 0, 0, 40);
+
+    // Rendering buffers, reused across paints so drawing a frame allocates nothing
+    private final BufferedImage frameImage = new BufferedImage(GB_WIDTH, GB_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final int[] framePixels = ((DataBufferInt) frameImage.getRaster().getDataBuffer()).getData();
+    private BufferedImage scaledImage;
+    private boolean scaledSmooth;
+    private long renderedFrameId = -1;
 
     // Display configuration
     private int scaleFactor = 2;
@@ -81,7 +81,6 @@ public class EmulatorView extends JPanel {
 
     public EmulatorView(GameBoyColor gbc) {
         this.ppu = gbc.getPpu();
-        this.screen = ppu.getScreen();
         this.frameBuffer = gbc.getFrameBuffer();
 
         configureFromSettings();
@@ -130,32 +129,14 @@ public class EmulatorView extends JPanel {
         g2d.setColor(backgroundColor);
         g2d.fillRect(0, 0, getWidth(), getHeight());
 
-        // Get frame data from FrameBuffer (model) if available, fall back to Screen
-        BufferedImage image = null;
-        long currentFrameId = 0L;
-        if (frameBuffer != null) {
-            int[] pixels = frameBuffer.getPixels();
-            if (pixels != null && pixels.length == GB_WIDTH * GB_HEIGHT) {
-                image = new BufferedImage(GB_WIDTH, GB_HEIGHT, BufferedImage.TYPE_INT_RGB);
-                image.setRGB(0, 0, GB_WIDTH, GB_HEIGHT, pixels, 0, GB_WIDTH);
-                currentFrameId = frameBuffer.getFrameId();
-            }
-        }
-        if (image == null && screen != null) {
-            image = screen.getImage();
-            currentFrameId = screen.getFrameId();
-        }
-
-        if (image != null) {
+        // Get frame data from the model's FrameBuffer
+        int[] pixels = frameBuffer != null ? frameBuffer.getPixels() : null;
+        if (pixels != null && pixels.length == GB_WIDTH * GB_HEIGHT) {
             Dimension displaySize = calculateDisplaySize();
             int x = (getWidth() - displaySize.width) / 2;
             int y = (getHeight() - displaySize.height) / 2;
 
-            RenderKey key = new RenderKey(currentFrameId, displaySize.width, displaySize.height, colorFilter,
-                    smoothScaling);
-            BufferedImage sourceImage = image;
-            BufferedImage rendered = renderCache.get(key, k -> buildRenderedImage(sourceImage, displaySize));
-
+            BufferedImage rendered = renderFrame(pixels, frameBuffer.getFrameId(), displaySize);
             g2d.drawImage(rendered, x, y, displaySize.width, displaySize.height, this);
 
             // Add scanlines effect if enabled
@@ -164,7 +145,7 @@ public class EmulatorView extends JPanel {
             }
 
             // Draw subtle border around screen
-            g2d.setColor(new Color(0, 0, 0, 40));
+            g2d.setColor(BORDER_COLOR);
             g2d.drawRect(x - 1, y - 1, displaySize.width + 1, displaySize.height + 1);
         } else {
             // Draw a test pattern when no image is available
@@ -218,13 +199,30 @@ public class EmulatorView extends JPanel {
         g2d.drawString(subtitle, subX, subY);
     }
 
-    private BufferedImage buildRenderedImage(BufferedImage original, Dimension displaySize) {
-        BufferedImage filtered = applyColorFilter(original);
-        if (displaySize.width == original.getWidth() && displaySize.height == original.getHeight()) {
-            return filtered;
+    /**
+     * Copies a frame into the reused frame image, filters it in place and
+     * scales it into the reused scaled image. Repaints of an unchanged frame
+     * skip the work entirely.
+     */
+    private BufferedImage renderFrame(int[] pixels, long frameId, Dimension displaySize) {
+        boolean unscaled = displaySize.width == GB_WIDTH && displaySize.height == GB_HEIGHT;
+        boolean scaledStale = !unscaled && (scaledImage == null || scaledImage.getWidth() != displaySize.width
+                || scaledImage.getHeight() != displaySize.height || scaledSmooth != smoothScaling);
+        if (frameId == renderedFrameId && !scaledStale) {
+            return unscaled ? frameImage : scaledImage;
         }
-        BufferedImage scaled = new BufferedImage(displaySize.width, displaySize.height, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = scaled.createGraphics();
+        renderedFrameId = frameId;
+        System.arraycopy(pixels, 0, framePixels, 0, framePixels.length);
+        applyColorFilter(framePixels);
+        if (unscaled) {
+            return frameImage;
+        }
+        if (scaledImage == null || scaledImage.getWidth() != displaySize.width
+                || scaledImage.getHeight() != displaySize.height) {
+            scaledImage = new BufferedImage(displaySize.width, displaySize.height, BufferedImage.TYPE_INT_RGB);
+        }
+        scaledSmooth = smoothScaling;
+        Graphics2D g2d = scaledImage.createGraphics();
         if (smoothScaling) {
             g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
             g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
@@ -232,9 +230,13 @@ public class EmulatorView extends JPanel {
             g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
             g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
         }
-        g2d.drawImage(filtered, 0, 0, displaySize.width, displaySize.height, null);
+        g2d.drawImage(frameImage, 0, 0, displaySize.width, displaySize.height, null);
         g2d.dispose();
-        return scaled;
+        return scaledImage;
+    }
+
+    private void invalidateRender() {
+        renderedFrameId = -1;
     }
 
     // Pre-computed Game Boy green palette as packed ints
@@ -243,25 +245,13 @@ public class EmulatorView extends JPanel {
     private static final int GB_GREEN_LIGHT    = (139 << 16) | (172 << 8) | 15;
     private static final int GB_GREEN_LIGHTEST = (155 << 16) | (188 << 8) | 15;
 
-    private BufferedImage applyColorFilter(BufferedImage original) {
-        if (colorFilter == ColorFilter.NONE) {
-            return original;
-        }
-
-        int w = original.getWidth();
-        int h = original.getHeight();
-        int[] pixels = original.getRGB(0, 0, w, h, null, 0, w);
-
+    private void applyColorFilter(int[] pixels) {
         switch (colorFilter) {
             case GREEN_MONOCHROME -> applyGreenMonochromeFilter(pixels);
             case SEPIA -> applySepiaFilter(pixels);
             case HIGH_CONTRAST -> applyHighContrastFilter(pixels);
             default -> { /* no-op */ }
         }
-
-        BufferedImage filtered = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
-        filtered.setRGB(0, 0, w, h, pixels, 0, w);
-        return filtered;
     }
 
     private void applyGreenMonochromeFilter(int[] pixels) {
@@ -374,7 +364,7 @@ public class EmulatorView extends JPanel {
         if (!maintainAspectRatio) {
             setPreferredSize(new Dimension(GB_WIDTH * this.scaleFactor, GB_HEIGHT * this.scaleFactor));
         }
-        renderCache.invalidateAll();
+        invalidateRender();
         repaint();
     }
 
@@ -404,7 +394,7 @@ public class EmulatorView extends JPanel {
 
     public void setSmoothScaling(boolean smooth) {
         this.smoothScaling = smooth;
-        renderCache.invalidateAll();
+        invalidateRender();
         repaint();
     }
 
@@ -414,7 +404,7 @@ public class EmulatorView extends JPanel {
 
     public void setColorFilter(ColorFilter filter) {
         this.colorFilter = filter;
-        renderCache.invalidateAll();
+        invalidateRender();
         repaint();
     }
 
@@ -436,7 +426,6 @@ public class EmulatorView extends JPanel {
     public void setPPU(PPU ppu) {
         this.ppu = ppu;
         if (ppu != null) {
-            this.screen = ppu.getScreen();
             this.frameBuffer = ppu.getFrameBuffer();
         }
     }
@@ -451,7 +440,7 @@ public class EmulatorView extends JPanel {
         backgroundColor = Color.BLACK;
         setBackground(backgroundColor);
         setPreferredSize(new Dimension(GB_WIDTH * scaleFactor, GB_HEIGHT * scaleFactor));
-        renderCache.invalidateAll();
+        invalidateRender();
         repaint();
     }
 
@@ -465,41 +454,4 @@ public class EmulatorView extends JPanel {
         // For now, just store it in clipboard or show a dialog
         JOptionPane.showMessageDialog(this, "Screenshot captured!", "Screenshot", JOptionPane.INFORMATION_MESSAGE);
     }
-
-    private static final class RenderKey {
-        private final long frameId;
-        private final int width;
-        private final int height;
-        private final ColorFilter filter;
-        private final boolean smooth;
-
-        private RenderKey(long frameId, int width, int height, ColorFilter filter, boolean smooth) {
-            this.frameId = frameId;
-            this.width = width;
-            this.height = height;
-            this.filter = filter;
-            this.smooth = smooth;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof RenderKey)) {
-                return false;
-            }
-            RenderKey key = (RenderKey) o;
-            return frameId == key.frameId
-                    && width == key.width
-                    && height == key.height
-                    && smooth == key.smooth
-                    && filter == key.filter;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(frameId, width, height, filter, smooth);
-        }
-    }
 }
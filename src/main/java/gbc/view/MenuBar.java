@@ -2,6 +2,7 @@ package gbc.view;
 
 import gbc.controller.DiagnosticsService;
 import gbc.controller.EmulatorActions;
+import gbc.controller.io.MovieFile;
 import gbc.view.EmulatorView.ColorFilter;
 
 import javax.swing.*;
@@ -109,6 +110,33 @@ public class MenuBar extends JMenuBar {
         loadStateItem.addActionListener(e -> loadStateDialog());
         fileMenu.add(loadStateItem);
 
+        JMenu movieMenu = new JMenu("Movie");
+        JMenuItem recordMovieItem = new JMenuItem("Start Recording");
+        recordMovieItem.addActionListener(e -> {
+            if (controller != null) {
+                controller.startMovieRecording();
+            }
+        });
+        movieMenu.add(recordMovieItem);
+        JMenuItem saveMovieItem = new JMenuItem("Stop Recording...");
+        saveMovieItem.addActionListener(e -> saveMovieDialog());
+        movieMenu.add(saveMovieItem);
+        movieMenu.addSeparator();
+        JMenuItem playMovieItem = new JMenuItem("Play...");
+        playMovieItem.addActionListener(e -> playMovieDialog(false));
+        movieMenu.add(playMovieItem);
+        JMenuItem playMovieFastItem = new JMenuItem("Play at Max Speed...");
+        playMovieFastItem.addActionListener(e -> playMovieDialog(true));
+        movieMenu.add(playMovieFastItem);
+        JMenuItem stopMovieItem = new JMenuItem("Stop");
+        stopMovieItem.addActionListener(e -> {
+            if (controller != null) {
+                controller.stopMovie();
+            }
+        });
+        movieMenu.add(stopMovieItem);
+        fileMenu.add(movieMenu);
+
         fileMenu.addSeparator();
 
         JMenuItem exportScreenshotItem = new JMenuItem("Export Screenshot...", IconFactory.screenshot());
@@ -423,6 +451,29 @@ public class MenuBar extends JMenuBar {
         }
     }
 
+    private void saveMovieDialog() {
+        if (controller == null) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Save Movie");
+        chooser.setSelectedFile(new File("movie" + MovieFile.EXTENSION));
+        if (chooser.showSaveDialog(window) == JFileChooser.APPROVE_OPTION) {
+            controller.stopMovieRecordingAsync(chooser.getSelectedFile().toPath());
+        }
+    }
+
+    private void playMovieDialog(boolean uncapped) {
+        if (controller == null) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(uncapped ? "Play Movie at Max Speed" : "Play Movie");
+        if (chooser.showOpenDialog(window) == JFileChooser.APPROVE_OPTION) {
+            controller.playMovieAsync(chooser.getSelectedFile().toPath(), uncapped);
+        }
+    }
+
     private void exportScreenshot() {
         emulatorView.takeScreenshot();
         window.setStatusText("Screenshot captured");
@@ -1,4 +1,4 @@
-package gbc.model.graphics;
+package gbc.view;
 
 import java.awt.Dimension;
 import java.awt.Graphics;
@@ -8,7 +8,15 @@ import java.util.logging.Logger;
 
 import javax.swing.JPanel;
 
-public class Screen extends JPanel {
+import gbc.model.graphics.FrameBuffer;
+import gbc.model.graphics.FrameSink;
+
+/**
+ * Swing panel showing the Game Boy screen at 1x. Subscribe it with
+ * {@link gbc.model.GameBoyColor#setFrameSink} to have it follow the
+ * emulation.
+ */
+public class Screen extends JPanel implements FrameSink {
     private static final Logger LOGGER = Logger.getLogger(Screen.class.getName());
     private static final int WIDTH = 160; // Game Boy screen width
     private static final int HEIGHT = 144; // Game Boy screen height
@@ -46,8 +54,9 @@ public class Screen extends JPanel {
         swapBuffers();
     }
 
-    public void render() {
-        swapBuffers();
+    @Override
+    public void frameReady(FrameBuffer frameBuffer) {
+        render(frameBuffer.getPixels());
     }
 
     private void swapBuffers() {
@@ -138,6 +138,15 @@ public class SettingsDialog extends JDialog {
         addInteger(panel, "Frame Rate", "emulator.frameRate", 30, 240, 1);
         addInteger(panel, "Fast Forward", "emulator.fastForwardSpeed", 1, 8, 1);
         addCheckbox(panel, "Throttle", "emulator.throttle");
+        addInteger(panel, "Autosave (s, 0 = off)", "emulator.autosaveSeconds", 0, 3600, 30);
+        addInteger(panel, "Save RAM Flush (s, 0 = off)", "emulator.sramFlushSeconds", 0, 600, 1);
+        addCheckbox(panel, "Sync Save RAM to Disk", "emulator.sramSync");
+        addCheckbox(panel, "Rewind", "rewind.enabled");
+        addInteger(panel, "Rewind Buffer (MB)", "rewind.bufferMb", 4, 512, 4);
+        addInteger(panel, "Rewind Interval", "rewind.interval", 1, 60, 1);
+        addInteger(panel, "Rewind Speed", "rewind.speed", 1, 8, 1);
+        addInteger(panel, "Run-ahead Frames", "runAhead.frames", 0, 4, 1);
+        addCheckbox(panel, "Run-ahead Second Instance", "runAhead.secondInstance");
         addCombo(panel, "Sync Mode", "emulator.syncMode",
                 new String[] { "hybrid", "auto", "video", "audio", "none" });
 
@@ -165,6 +174,7 @@ public class SettingsDialog extends JDialog {
         addInteger(panel, "Sample Rate", "audio.sampleRate", 8000, 96000, 1000);
         addInteger(panel, "Buffer Size", "audio.bufferSize", 128, 8192, 128);
         addInteger(panel, "Latency (ms)", "audio.latencyMs", 10, 250, 5);
+        addCheckbox(panel, "Synthesize on Audio Thread", "audio.threadedSynthesis");
         return wrapWithPadding(panel);
     }
 
@@ -0,0 +1,52 @@
+package gbc;
+
+import gbc.model.cpu.Assembler;
+
+/**
+ * Small ROM images for tests: a 32 KB ROM-only cartridge with the program at
+ * the 0x0100 entry point and the checksum of an empty header, plus the
+ * programs several tests share. A program long enough to run into the header
+ * overwrites it; the cartridge still loads, with a checksum warning.
+ */
+public final class TestRoms {
+    /** Keeps adding the joypad direction bits into 0xC000. */
+    public static final String JOYPAD_SUM = "loop: LD A,0x20 | LDH (0x00),A | LDH A,(0x00) | LD B,A"
+            + " | LD A,(0xC000) | ADD A,B | LD (0xC000),A | JR loop";
+    /** Counts in WRAM at 0xC000 forever; the LCD stays on. */
+    public static final String WRAM_COUNTER = "loop: LD A,(0xC000) | INC A | LD (0xC000),A | JR loop";
+
+    private TestRoms() {
+    }
+
+    /** A ROM running {@code source}, assembled at 0x0100. */
+    public static byte[] rom(String source) {
+        return rom(new Assembler(0x0100).asm(source));
+    }
+
+    /** A ROM running the code assembled so far by {@code asm}, which starts at 0x0100. */
+    public static byte[] rom(Assembler asm) {
+        byte[] code = asm.assemble();
+        byte[] rom = withHeaderChecksum(new byte[0x8000]);
+        System.arraycopy(code, 0, rom, 0x0100, code.length);
+        return rom;
+    }
+
+    /** A ROM running the given machine code. */
+    public static byte[] rom(int... code) {
+        byte[] rom = withHeaderChecksum(new byte[0x8000]);
+        for (int i = 0; i < code.length; i++) {
+            rom[0x0100 + i] = (byte) code[i];
+        }
+        return rom;
+    }
+
+    /** Recomputes the header checksum at 0x014D, e.g. after changing header bytes. */
+    public static byte[] withHeaderChecksum(byte[] rom) {
+        int checksum = 0;
+        for (int i = 0x0134; i <= 0x014C; i++) {
+            checksum = checksum - (rom[i] & 0xFF) - 1;
+        }
+        rom[0x014D] = (byte) checksum;
+        return rom;
+    }
+}
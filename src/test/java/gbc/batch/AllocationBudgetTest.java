@@ -0,0 +1,72 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.cpu.Assembler;
+import gbc.model.sound.Apu;
+
+class AllocationBudgetTest {
+
+    @BeforeAll
+    static void requireAllocationCounters() {
+        Assumptions.assumeTrue(AllocationBudget.isSupported(), "No per-thread allocation counters");
+    }
+
+    @ParameterizedTest
+    @EnumSource(WorkloadRom.Workload.class)
+    void steadyStateFramesDoNotAllocate(WorkloadRom.Workload workload) {
+        for (boolean audio : new boolean[] { false, true }) {
+            AllocationBudget.Report report = AllocationBudget.measure(machine(workload, audio), 30, 60);
+
+            assertEquals(0, report.maxFrameBytes(), () -> workload.id() + (audio ? " with audio: " : ": ")
+                    + AllocationBudget.describe(report));
+        }
+    }
+
+    @Test
+    void dmgFramesWithTheBackgroundOffDoNotAllocate() {
+        byte[] rom = new byte[0x8000];
+        // LCD on, background off: the FIFO is fed blank tiles
+        byte[] code = new Assembler(0x0100).asm("LD A,0x80 | LDH (0x40),A | loop: HALT | JR loop").assemble();
+        System.arraycopy(code, 0, rom, 0x0100, code.length);
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setDeterministic(0);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+
+        AllocationBudget.Report report = AllocationBudget.measure(gbc, 30, 60);
+
+        assertEquals(0, report.maxFrameBytes(), () -> AllocationBudget.describe(report));
+    }
+
+    @Test
+    void chargesAllocationToThePhaseThatMadeIt() {
+        GameBoyColor gbc = machine(WorkloadRom.Workload.ALU, false);
+        // Runs inside the PPU's step when it enters VBlank
+        gbc.setFrameSink(frame -> frame.getClass().getName().chars().toArray());
+
+        AllocationBudget.Report report = AllocationBudget.measure(gbc, 10, 10);
+
+        assertEquals(10, report.allocatingFrames());
+        assertTrue(report.bytesByPhase().get(AllocationBudget.Phase.PPU) > 0, AllocationBudget.describe(report));
+        assertEquals(0, report.bytesByPhase().get(AllocationBudget.Phase.APU));
+    }
+
+    private static GameBoyColor machine(WorkloadRom.Workload workload, boolean audio) {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setDeterministic(0);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, !audio);
+        gbc.insertCartridge(CartridgeFactory.create(WorkloadRom.build(workload)));
+        return gbc;
+    }
+}
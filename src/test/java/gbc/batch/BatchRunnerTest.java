@@ -0,0 +1,142 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.TestRoms;
+import gbc.model.CoreConfig;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void detectorsDecideEachRomInParallel() throws IOException {
+        Path serialPass = write("serial_pass.gb", serial("cpu ok\nPassed\n"));
+        Path serialFail = write("serial_fail.gb", serial("Failed #3\n"));
+        Path fibPass = write("fib_pass.gb", registers(3, 5, 8, 13, 21, 34));
+        Path fibFail = write("fib_fail.gb", registers(0x42, 0x42, 0x42, 0x42, 0x42, 0x42));
+        Path spin = write("spin.gb", program(0x18, 0xFE)); // JR -2
+        Path missing = dir.resolve("missing.gb");
+
+        BatchRunner runner = new BatchRunner(CoreConfig.DEFAULTS, List.of("serial", "fibonacci"),
+                new BatchRunner.Budget(30, 0, 0), 0, 4);
+        List<RomResult> results = runner.run(List.of(serialPass, serialFail, fibPass, fibFail, spin, missing));
+
+        assertEquals(RomResult.Status.PASSED, results.get(0).status());
+        assertEquals("serial", results.get(0).detector());
+        assertTrue(results.get(0).detail().contains("cpu ok"));
+        assertEquals(RomResult.Status.FAILED, results.get(1).status());
+        assertEquals(RomResult.Status.PASSED, results.get(2).status());
+        assertEquals("fibonacci", results.get(2).detector());
+        assertEquals(RomResult.Status.FAILED, results.get(3).status());
+        assertEquals(RomResult.Status.TIMEOUT, results.get(4).status());
+        assertEquals(30, results.get(4).frames());
+        assertEquals(RomResult.Status.ERROR, results.get(5).status());
+        assertNull(results.get(5).frameHash());
+    }
+
+    @Test
+    void debugBreakWaitsForTheImageAndHashIsStable() throws IOException {
+        Path rom = write("ldbb.gb", program(0x40, 0x18, 0xFD)); // loop: LD B,B; JR loop
+        BatchRunner runner = new BatchRunner(CoreConfig.DEFAULTS, List.of("ldbb"),
+                new BatchRunner.Budget(30, 0, 0), 0, 2);
+
+        List<RomResult> results = runner.run(List.of(rom, rom));
+
+        assertEquals(RomResult.Status.PASSED, results.get(0).status());
+        assertTrue(results.get(0).frames() >= 3);
+        assertEquals(results.get(0).frameHash(), results.get(1).frameHash());
+
+        BatchRunner byHash = new BatchRunner(CoreConfig.DEFAULTS, List.of("hash=" + results.get(0).frameHash()),
+                new BatchRunner.Budget(30, 0, 0), 0, 1);
+        assertEquals(RomResult.Status.PASSED, byHash.runRom(rom).status());
+
+        BatchRunner gated = new BatchRunner(CoreConfig.DEFAULTS,
+                List.of("ldbb", "hash=" + results.get(0).frameHash()), new BatchRunner.Budget(30, 0, 0), 0, 1);
+        assertEquals(RomResult.Status.PASSED, gated.runRom(rom).status());
+        BatchRunner wrongImage = new BatchRunner(CoreConfig.DEFAULTS, List.of("ldbb", "hash=" + "0".repeat(64)),
+                new BatchRunner.Budget(30, 0, 0), 0, 1);
+        RomResult wrong = wrongImage.runRom(rom);
+        assertEquals(RomResult.Status.FAILED, wrong.status());
+        assertEquals("ldbb", wrong.detector());
+    }
+
+    @Test
+    void commandLineWritesReports() throws IOException {
+        write("a.gb", registers(3, 5, 8, 13, 21, 34));
+        write("sub/b.gbc", program(0x18, 0xFE));
+        Path json = dir.resolve("out/report.json");
+        Path junit = dir.resolve("out/report.xml");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int status = BatchRunner.run(new String[] {
+                "--frames", "5", "--threads", "2", "--json", json.toString(), "--junit", junit.toString(),
+                dir.toString() + "/**.gb*" },
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(new ByteArrayOutputStream()));
+
+        assertEquals(1, status);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("1/2 passed"));
+        String report = Files.readString(json);
+        assertTrue(report.contains("\"total\": 2"));
+        assertTrue(report.contains("\"status\": \"TIMEOUT\""));
+        String xml = Files.readString(junit);
+        assertTrue(xml.contains("tests=\"2\" failures=\"1\" errors=\"0\""));
+        assertTrue(xml.contains("name=\"a.gb\""));
+    }
+
+    @Test
+    void unknownDetectorIsRejected() {
+        int status = BatchRunner.run(new String[] { "--detect", "nope", "x.gb" },
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(2, status);
+    }
+
+    private Path write(String name, byte[] rom) throws IOException {
+        Path path = dir.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.write(path, rom);
+        return path;
+    }
+
+    /** Sends {@code text} over the serial port, then spins. */
+    private static byte[] serial(String text) {
+        int[] code = new int[text.length() * 8 + 2];
+        int i = 0;
+        for (char c : text.toCharArray()) {
+            code[i++] = 0x3E; // LD A,c
+            code[i++] = c;
+            code[i++] = 0xE0; // LDH (SB),A
+            code[i++] = 0x01;
+            code[i++] = 0x3E; // LD A,0x81
+            code[i++] = 0x81;
+            code[i++] = 0xE0; // LDH (SC),A
+            code[i++] = 0x02;
+        }
+        code[i++] = 0x18;
+        code[i] = 0xFE;
+        return program(code);
+    }
+
+    /** Loads B,C,D,E,H,L, executes LD B,B and spins, like Mooneye's quit routine. */
+    private static byte[] registers(int b, int c, int d, int e, int h, int l) {
+        return program(0x06, b, 0x0E, c, 0x16, d, 0x1E, e, 0x26, h, 0x2E, l, 0x40, 0x18, 0xFE);
+    }
+
+    private static byte[] program(int... code) {
+        return TestRoms.rom(code);
+    }
+}
@@ -0,0 +1,61 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.TestRoms;
+
+class BenchmarkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void iterationsReplayTheSameFrames() throws IOException {
+        Benchmark.Options options = Benchmark.parse(List.of("--frames", "20", "--warmup", "1", "--iterations", "3",
+                "--forks", "0", "--profile", rom().toString()));
+
+        Benchmark.Report report = Benchmark.measure(options);
+
+        assertEquals(3, report.iterations().size());
+        Benchmark.Iteration first = report.iterations().get(0);
+        assertEquals(20, first.frames());
+        assertTrue(first.steps() > 0);
+        for (Benchmark.Iteration iteration : report.iterations()) {
+            assertEquals(first.cycles(), iteration.cycles(), "every iteration runs the same work");
+            assertEquals(first.steps(), iteration.steps());
+        }
+        assertTrue(report.meanFramesPerSecond() > 0);
+    }
+
+    @Test
+    void forkOutputRoundTrips() {
+        Benchmark.Iteration iteration = new Benchmark.Iteration(60, 1_000_000, 4_213_440, 50_000_000, -1, 2, 7);
+        assertEquals(iteration, Benchmark.parseIteration(Benchmark.formatIteration(iteration)));
+
+        Map<Benchmark.Subsystem, Long> samples = Map.of(Benchmark.Subsystem.CPU, 40L, Benchmark.Subsystem.PPU, 12L);
+        assertEquals(samples, Benchmark.parseProfile(Benchmark.formatProfile(samples)));
+    }
+
+    @Test
+    void rejectsBadArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> Benchmark.parse(List.of("--frames", "10")));
+        assertThrows(IllegalArgumentException.class,
+                () -> Benchmark.parse(List.of("--frames", "0", rom().toString())));
+    }
+
+    /** ROM with the LCD on that counts in WRAM forever. */
+    private Path rom() throws IOException {
+        return Files.write(dir.resolve("bench.gb"), TestRoms.rom(TestRoms.WRAM_COUNTER));
+    }
+}
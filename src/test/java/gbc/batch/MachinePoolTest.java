@@ -0,0 +1,195 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.controller.io.RomLoader;
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.HardwareType;
+import gbc.model.cpu.Assembler;
+import gbc.model.sound.Apu;
+
+class MachinePoolTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void reusedMachinesStartLikeFreshOnes() throws IOException {
+        Path alu = write(WorkloadRom.Workload.ALU);
+        Path halt = write(WorkloadRom.Workload.HALT);
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 1);
+
+        for (Path rom : List.of(alu, alu, halt, alu)) {
+            byte[] pooled = pool.withMachine(rom, HardwareType.DMG, gbc -> {
+                byte[] state = gbc.snapshot();
+                for (int i = 0; i < 20; i++) {
+                    gbc.runToVBlank(70224 * 2);
+                }
+                gbc.getController().setButtonMask(0xFF);
+                return state;
+            });
+
+            assertArrayEquals(fresh(rom, HardwareType.DMG), pooled, rom.getFileName().toString());
+        }
+        assertEquals(1, pool.created());
+    }
+
+    @Test
+    void keepsHardwareOverridesApart() throws IOException {
+        Path rom = write(WorkloadRom.Workload.ALU);
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 4);
+
+        assertEquals(HardwareType.DMG,
+                pool.withMachine(rom, HardwareType.DMG, gbc -> gbc.getMemory().getHardwareType()));
+        assertEquals(HardwareType.CGB,
+                pool.withMachine(rom, HardwareType.CGB, gbc -> gbc.getMemory().getHardwareType()));
+        assertEquals(2, pool.created());
+        assertEquals(2, pool.idle());
+    }
+
+    @Test
+    void handsEachMachineToOneCallerAtATime() throws Exception {
+        Path rom = write(WorkloadRom.Workload.MEMCPY);
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 4);
+        Set<GameBoyColor> inUse = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> pool.withMachine(rom, HardwareType.CGB, gbc -> {
+                    assertTrue(inUse.add(gbc), "machine shared between callers");
+                    gbc.runToVBlank(70224 * 2);
+                    inUse.remove(gbc);
+                    return null;
+                })));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(pool.created() <= 4, "created " + pool.created());
+    }
+
+    @Test
+    void returnsMachinesWhenTheActionThrows() throws IOException {
+        Path rom = write(WorkloadRom.Workload.ALU);
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 1);
+
+        assertThrows(IllegalStateException.class, () -> pool.withMachine(rom, null, gbc -> {
+            throw new IllegalStateException("test");
+        }));
+        pool.withMachine(rom, null, gbc -> null);
+
+        assertEquals(1, pool.created());
+    }
+
+    @Test
+    void putsBackHostSettingsOnRelease() throws IOException {
+        byte[] rom = new byte[0x8000];
+        // LD B,B is the debug break
+        byte[] code = new Assembler(0x0100).asm("loop: LD B,B | JR loop").assemble();
+        System.arraycopy(code, 0, rom, 0x0100, code.length);
+        Path path = Files.write(dir.resolve("break.gb"), rom);
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 1);
+        AtomicInteger breaks = new AtomicInteger();
+
+        pool.withMachine(path, HardwareType.DMG, gbc -> {
+            gbc.getCpu().setDebugBreakListener(breaks::incrementAndGet);
+            gbc.setSpeedMultiplier(4.0f);
+            gbc.setAudioSilenced(Apu.SilenceReason.FAST_FORWARD, true);
+            gbc.setAudioSilenced(Apu.SilenceReason.REWIND, true);
+            return gbc.runToVBlank(70224 * 2);
+        });
+        int counted = breaks.get();
+        pool.withMachine(path, HardwareType.DMG, gbc -> {
+            assertEquals(1.0f, gbc.getSpeedMultiplier());
+            assertFalse(gbc.getMemory().getApu().isSilent());
+            return gbc.runToVBlank(70224 * 2);
+        });
+
+        assertTrue(counted > 0);
+        assertEquals(counted, breaks.get());
+        assertEquals(1, pool.created());
+    }
+
+    @Test
+    void dropsMachinesWhoseSettingsChanged() throws IOException {
+        Path rom = write(WorkloadRom.Workload.ALU);
+        List<Consumer<GameBoyColor>> changes = List.of(
+                gbc -> gbc.setConfig(CoreConfig.DEFAULTS.withHardware("cgb")),
+                gbc -> gbc.setDeterministic(0),
+                gbc -> gbc.getMemory().setPowerOnSeed(42),
+                gbc -> gbc.getMemory().setHardwareType(HardwareType.CGB));
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 4);
+
+        for (Consumer<GameBoyColor> change : changes) {
+            pool.withMachine(rom, HardwareType.DMG, gbc -> {
+                change.accept(gbc);
+                return null;
+            });
+            assertEquals(0, pool.idle());
+        }
+        pool.withMachine(rom, null, gbc -> {
+            gbc.getMemory().setHardwareType(HardwareType.DMG);
+            return null;
+        });
+        assertEquals(0, pool.idle());
+
+        byte[] pooled = pool.withMachine(rom, HardwareType.DMG, GameBoyColor::snapshot);
+        assertArrayEquals(fresh(rom, HardwareType.DMG), pooled);
+        assertEquals(changes.size() + 2, pool.created());
+    }
+
+    @Test
+    void recognisesRomsByContent() throws IOException {
+        Path alu = write(WorkloadRom.Workload.ALU);
+        Path copy = Files.copy(alu, dir.resolve("copy.gbc"));
+        MachinePool pool = new MachinePool(CoreConfig.DEFAULTS, 1);
+
+        pool.withMachine(alu, HardwareType.DMG, gbc -> null);
+        byte[] shared = pool.withMachine(copy, HardwareType.DMG, GameBoyColor::snapshot);
+        assertArrayEquals(fresh(alu, HardwareType.DMG), shared);
+
+        // Rewritten in place: same path and size, new contents
+        Files.write(alu, WorkloadRom.build(WorkloadRom.Workload.HALT));
+        Files.setLastModifiedTime(alu, FileTime.fromMillis(Files.getLastModifiedTime(copy).toMillis() + 2000));
+        byte[] rewritten = pool.withMachine(alu, HardwareType.DMG, GameBoyColor::snapshot);
+        assertArrayEquals(fresh(alu, HardwareType.DMG), rewritten);
+        assertEquals(1, pool.created());
+    }
+
+    private Path write(WorkloadRom.Workload workload) throws IOException {
+        return Files.write(dir.resolve(workload.id() + ".gbc"), WorkloadRom.build(workload));
+    }
+
+    private static byte[] fresh(Path rom, HardwareType hardware) throws IOException {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.getMemory().setHardwareType(hardware);
+        gbc.insertCartridge(new RomLoader().load(rom));
+        gbc.reset();
+        return gbc.snapshot();
+    }
+}
@@ -0,0 +1,179 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Performance regression gate. Runs each synthetic workload headless for a
+ * fixed emulated duration and compares emulated cycles per host second with
+ * the checked-in baseline.
+ *
+ * <p>
+ * Raw speed differs from machine to machine, so every score is divided by
+ * the speed of a fixed calibration loop run in the same JVM; the baseline
+ * holds those normalized scores, and a workload without an entry fails. The
+ * baseline is the median of three runs of this gate on a shared single-core
+ * build machine, where best-of-attempts scores still spread by up to a third
+ * between runs. The default threshold sits above that spread, so it catches
+ * gross regressions only; lower it when comparing runs on a quiet machine.
+ * Only runs with {@code -Pperf}:
+ *
+ * <pre>
+ * mvn -Pperf test
+ *   -Dgbc.perf.threshold=0.25   allowed slowdown before failing (default 0.40)
+ *   -Dgbc.perf.frames=600       emulated frames per iteration (default 300)
+ *   -Dgbc.perf.update=true      rewrite the baseline from this run
+ * </pre>
+ */
+@Tag("performance")
+class PerformanceRegressionTest {
+    private static final Path BASELINE = Path.of(System.getProperty("gbc.perf.baseline",
+            "src/test/resources/performance-baseline.properties"));
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("gbc.perf.threshold", "0.40"));
+    private static final int FRAMES = Integer.parseInt(System.getProperty("gbc.perf.frames", "300"));
+    private static final boolean UPDATE = Boolean.getBoolean("gbc.perf.update");
+    private static final int ITERATIONS = 5;
+    private static final int ATTEMPTS = 5;
+
+    private static final Map<String, Double> measured = new TreeMap<>();
+    private static Properties baseline;
+    /** Keeps the calibration loop's result live. */
+    static volatile int blackhole;
+
+    @BeforeAll
+    static void loadBaseline() throws IOException {
+        baseline = new Properties();
+        if (Files.exists(BASELINE)) {
+            try (Reader in = Files.newBufferedReader(BASELINE)) {
+                baseline.load(in);
+            }
+        }
+        calibrationRate(); // warm up
+    }
+
+    static Stream<String> targets() {
+        return Stream.of(WorkloadRom.Workload.values()).map(w -> "workload." + w.id());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("targets")
+    void staysWithinBaseline(String key) throws IOException {
+        Path rom = Path.of(WorkloadRom.PREFIX + key.substring("workload.".length()));
+        String expected = baseline.getProperty(key);
+        if (expected == null && !UPDATE) {
+            fail("No baseline for " + key + "; record one with -Dgbc.perf.update=true");
+        }
+        double floor = expected == null ? 0 : Double.parseDouble(expected) * (1 - THRESHOLD);
+        double score = 0;
+        // A slow result is measured again before it counts, since one noisy
+        // neighbour on a shared machine can cost more than the threshold. Each
+        // run behind the baseline took the best of the same number of attempts.
+        for (int attempt = 0; attempt < ATTEMPTS && (attempt == 0 || UPDATE || score < floor); attempt++) {
+            score = Math.max(score, measure(key, rom, expected));
+        }
+        measured.put(key, score);
+        if (!UPDATE && score < floor) {
+            fail(String.format(Locale.ROOT, "%s regressed: score %.4f is %.1f%% below the baseline %s"
+                    + " (threshold %.0f%%)", key, score, 100 * (1 - score / Double.parseDouble(expected)),
+                    expected, THRESHOLD * 100));
+        }
+    }
+
+    /** One normalized score, printed with its subsystem breakdown. */
+    private static double measure(String key, Path rom, String expected) throws IOException {
+        // Calibrated right before measuring, so both see the same machine load
+        double calibration = calibrationRate();
+        Benchmark.Report report = Benchmark.measure(
+                new Benchmark.Options(rom, null, FRAMES, 1, ITERATIONS, 0, "auto", true));
+        // The fastest iteration is the least disturbed by GC and scheduling
+        double cyclesPerSecond = report.iterations().stream()
+                .mapToDouble(Benchmark.Iteration::cyclesPerSecond).max().orElse(0);
+        double score = cyclesPerSecond / calibration;
+        System.out.printf(Locale.ROOT, "%-20s %6.2f Mcycles/s  calibration %6.1f M/s  score %.4f  baseline %s  %s%n",
+                key, cyclesPerSecond / 1e6, calibration / 1e6, score, expected == null ? "-" : expected,
+                breakdown(report.samples()));
+        return score;
+    }
+
+    @AfterAll
+    static void updateBaseline() throws IOException {
+        if (!UPDATE || measured.isEmpty()) {
+            return;
+        }
+        Properties updated = new Properties();
+        updated.putAll(baseline);
+        measured.forEach((key, score) -> updated.setProperty(key, String.format(Locale.ROOT, "%.4f", score)));
+        Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(BASELINE)) {
+            // Properties.store would reorder keys and add a timestamp
+            out.write("# Emulated cycles per host second divided by the calibration loop rate.\n");
+            out.write("# Regenerate with: mvn -Pperf test -Dgbc.perf.update=true\n");
+            for (String key : new TreeSet<>(updated.stringPropertyNames())) {
+                out.write(key + "=" + updated.getProperty(key) + "\n");
+            }
+        }
+        System.out.println("Baseline written to " + BASELINE);
+    }
+
+    private static String breakdown(Map<Benchmark.Subsystem, Long> samples) {
+        long total = samples.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Benchmark.Subsystem, Long> entry : samples.entrySet()) {
+            sb.append(String.format(Locale.ROOT, " %s %.0f%%", entry.getKey(), 100.0 * entry.getValue() / total));
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Iterations per second of a loop shaped like emulation work: table
+     * lookups, masking, data-dependent branches and array writes. Best of
+     * several short runs.
+     */
+    private static double calibrationRate() {
+        int[] table = new int[0x10000];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = i * 0x9E3779B9 >>> 7;
+        }
+        double best = 0;
+        int sink = 0;
+        for (int run = 0; run < 5; run++) {
+            int iterations = 10_000_000;
+            long start = System.nanoTime();
+            int state = 0x1234 + run;
+            for (int i = 0; i < iterations; i++) {
+                int value = table[state & 0xFFFF];
+                if ((value & 1) != 0) {
+                    state += value >>> 3;
+                } else {
+                    state ^= value << 1;
+                }
+                table[i & 0xFFFF] = state;
+            }
+            long nanos = System.nanoTime() - start;
+            sink += state;
+            best = Math.max(best, iterations * 1e9 / nanos);
+        }
+        blackhole = sink;
+        return best;
+    }
+}
@@ -0,0 +1,155 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import gbc.model.CoreConfig;
+
+class VectorEnvironmentTest {
+    private static final VectorEnvironment.Range WRAM = new VectorEnvironment.Range(0xC000, 0x100);
+
+    @Test
+    void parallelStepsMatchSequentialOnes() {
+        VectorEnvironment.Options options = VectorEnvironment.Options.DEFAULTS
+                .withScreen(VectorEnvironment.Screen.GRAYSCALE, 2).withRam(WRAM);
+        try (VectorEnvironment sequential = environment(WorkloadRom.Workload.SPRITES, 4, options.withThreads(1));
+                VectorEnvironment parallel = environment(WorkloadRom.Workload.SPRITES, 4, options.withThreads(4))) {
+            int[] actions = { 0x00, 0x01, 0x10, 0x80 };
+            for (int step = 0; step < 5; step++) {
+                sequential.step(actions, 3);
+                parallel.step(actions, 3);
+            }
+
+            assertEquals(80 * 72 + 0x100, parallel.observationSize());
+            assertArrayEquals(bytes(sequential.observations()), bytes(parallel.observations()));
+            assertNotEquals(0, parallel.observations().get(0) | parallel.observations().get(80 * 36));
+        }
+    }
+
+    @Test
+    void observesSelectedMemory() {
+        try (VectorEnvironment env = environment(WorkloadRom.Workload.MEMCPY, 2,
+                VectorEnvironment.Options.DEFAULTS.withScreen(VectorEnvironment.Screen.NONE, 1).withRam(WRAM))) {
+            env.step(new int[2], 5);
+
+            byte[] rom = WorkloadRom.build(WorkloadRom.Workload.MEMCPY);
+            ByteBuffer observations = env.observations();
+            for (int i = 0; i < 0x100; i++) {
+                assertEquals(rom[0x4000 + i], observations.get(i));
+                assertEquals(rom[0x4000 + i], observations.get(env.observationSize() + i));
+            }
+        }
+    }
+
+    @Test
+    void resetAndRestoreReturnToEarlierStates() {
+        VectorEnvironment.Options options = VectorEnvironment.Options.DEFAULTS
+                .withScreen(VectorEnvironment.Screen.RGB, 4).withRam(new VectorEnvironment.Range(0xC000, 1));
+        try (VectorEnvironment env = environment(WorkloadRom.Workload.HALT, 2, options)) {
+            byte[] initial = bytes(env.observations());
+            env.step(new int[2], 4);
+            VectorEnvironment.State branch = env.snapshot(0);
+            int counter = env.observations().get(env.ramOffset());
+            env.step(new int[2], 4);
+
+            env.restore(1, branch);
+            assertEquals(counter, env.observations().get(env.observationSize() + env.ramOffset()));
+            env.restore(0, branch);
+            env.step(new int[2], 4);
+            assertArrayEquals(slot(env, 0), slot(env, 1));
+
+            env.reset();
+            assertArrayEquals(initial, bytes(env.observations()));
+            assertEquals(0, env.episodeFrames(0));
+        }
+    }
+
+    @Test
+    void reportsEpisodeEnds() {
+        VectorEnvironment.Options options = VectorEnvironment.Options.DEFAULTS
+                .withScreen(VectorEnvironment.Screen.NONE, 1)
+                .withTermination((machine, frames) -> machine.getMemory().peekByte(0xC000) >= 3, 10);
+        try (VectorEnvironment env = environment(WorkloadRom.Workload.HALT, 1, options)) {
+            env.step(new int[1], 1);
+            assertFalse(env.isDone(0));
+            env.step(new int[1], 5);
+            assertTrue(env.isDone(0));
+
+            env.reset(0);
+            assertFalse(env.isDone(0));
+        }
+        try (VectorEnvironment env = environment(WorkloadRom.Workload.ALU, 1, options)) {
+            env.step(new int[1], 9);
+            assertFalse(env.isDone(0));
+            env.step(new int[1], 1);
+            assertTrue(env.isDone(0));
+            assertThrows(IllegalArgumentException.class, () -> env.step(new int[2], 1));
+        }
+    }
+
+    @Test
+    void stepsDoNotAllocate() {
+        Assumptions.assumeTrue(AllocationBudget.isSupported(), "No per-thread allocation counters");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        VectorEnvironment.Options options = VectorEnvironment.Options.DEFAULTS
+                .withScreen(VectorEnvironment.Screen.GRAYSCALE, 1).withRam(WRAM);
+        for (int workers : new int[] { 1, 2 }) {
+            try (VectorEnvironment env = environment(WorkloadRom.Workload.SPRITES, 2, options.withThreads(workers))) {
+                int[] actions = new int[2];
+                for (int i = 0; i < 30; i++) {
+                    env.step(actions, 2);
+                }
+                // The worker threads step the machines; reading their counters
+                // allocates on this thread, so it happens outside the window
+                long[] workerIds = env.workerThreadIds();
+                long workersBefore = sum(threads.getThreadAllocatedBytes(workerIds));
+                long before = threads.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < 30; i++) {
+                    actions[i & 1] = i;
+                    env.step(actions, 2);
+                }
+                long caller = threads.getCurrentThreadAllocatedBytes() - before;
+                long stepping = sum(threads.getThreadAllocatedBytes(workerIds)) - workersBefore;
+
+                assertEquals(0, caller, workers + " workers, calling thread");
+                assertEquals(0, stepping, workers + " workers, worker threads");
+            }
+        }
+    }
+
+    private static VectorEnvironment environment(WorkloadRom.Workload workload, int count,
+            VectorEnvironment.Options options) {
+        return new VectorEnvironment(WorkloadRom.build(workload), count, CoreConfig.DEFAULTS, options);
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static byte[] slot(VectorEnvironment env, int i) {
+        byte[] slot = new byte[env.observationSize()];
+        env.observations().get(i * env.observationSize(), slot);
+        return slot;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] copy = new byte[buffer.capacity()];
+        buffer.get(0, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,80 @@
+package gbc.batch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.Cartridge;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.memory.Memory;
+import gbc.model.sound.Apu;
+
+class WorkloadRomTest {
+
+    @ParameterizedTest
+    @EnumSource(WorkloadRom.Workload.class)
+    void buildsValidDeterministicImages(WorkloadRom.Workload workload) {
+        byte[] rom = WorkloadRom.build(workload);
+
+        Cartridge cartridge = CartridgeFactory.create(rom);
+        assertTrue(cartridge.validateHeader(), workload.id());
+        assertArrayEquals(rom, WorkloadRom.build("workload:" + workload.id()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(WorkloadRom.Workload.class)
+    void settlesIntoFramesWithTheLcdOn(WorkloadRom.Workload workload) {
+        // SPRITES keeps the LCD off for a few frames' worth of setup
+        GameBoyColor gbc = run(workload, 10);
+        long vblanks = gbc.getPpu().getVblankCount();
+        for (int i = 0; i < 10; i++) {
+            gbc.runToVBlank(70224 * 2);
+        }
+
+        assertEquals(vblanks + 10, gbc.getPpu().getVblankCount(), workload.id());
+    }
+
+    @Test
+    void workloadsDoWhatTheyClaim() {
+        Memory memcpy = run(WorkloadRom.Workload.MEMCPY, 5).getMemory();
+        byte[] rom = WorkloadRom.build(WorkloadRom.Workload.MEMCPY);
+        for (int i = 0; i < 0x100; i++) {
+            assertEquals(rom[0x4000 + i] & 0xFF, memcpy.peekByte(0xC000 + i));
+        }
+
+        assertTrue(run(WorkloadRom.Workload.HALT, 10).getMemory().peekByte(0xC000) >= 8);
+
+        Memory sprites = run(WorkloadRom.Workload.SPRITES, 5).getMemory();
+        assertEquals(0xF7, sprites.peekByte(0xFF40));
+        assertNotEquals(0, sprites.peekByte(0xFE00 + 39 * 4));
+
+        Memory hdma = run(WorkloadRom.Workload.HDMA, 5).getMemory();
+        assertEquals(rom[0x4000 + 1] & 0xFF, hdma.getVramByteBanked(0x8001, 0));
+
+        assertEquals(0x0F, run(WorkloadRom.Workload.AUDIO, 5).getMemory().peekByte(0xFF26) & 0x0F);
+    }
+
+    @Test
+    void rejectsUnknownNames() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadRom.build("workload:nothing"));
+    }
+
+    private static GameBoyColor run(WorkloadRom.Workload workload, int frames) {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setDeterministic(0);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        gbc.insertCartridge(CartridgeFactory.create(WorkloadRom.build(workload)));
+        for (int i = 0; i < frames; i++) {
+            gbc.runToVBlank(70224 * 2);
+        }
+        return gbc;
+    }
+}
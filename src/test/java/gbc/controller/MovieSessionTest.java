@@ -0,0 +1,69 @@
+package gbc.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.controller.input.JoystickManager;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.input.Controller;
+import gbc.model.state.Movie;
+import gbc.model.state.MovieRecorder;
+
+class MovieSessionTest {
+
+    private static final int FRAME_CYCLES = 70224;
+
+    @Test
+    void joystickInputDoesNotReachAPlayingMovie() {
+        Movie movie = record(createMachine());
+        GameBoyColor gbc = createMachine();
+        MovieSession movies = new MovieSession();
+        JoystickManager joystick = new JoystickManager();
+
+        CompletableFuture<Boolean> result = movies.startPlayback(gbc, movie, false);
+        for (int frame = 0; movies.isPlaying(); frame++) {
+            // A pad being wiggled while the movie plays
+            joystick.publishPolledMask((frame & 1) != 0 ? 0x0F : 0x00);
+            EmulatorController.applyJoystickInput(movies, joystick, gbc.getController());
+            movies.playFrame(FRAME_CYCLES);
+        }
+
+        assertTrue(result.join(), "replayed state hash should match the recording");
+        joystick.publishPolledMask(0x05);
+        EmulatorController.applyJoystickInput(movies, joystick, gbc.getController());
+        assertTrue(gbc.getController().isRight());
+        assertFalse(gbc.getController().isLeft());
+    }
+
+    private static Movie record(GameBoyColor gbc) {
+        MovieRecorder recorder = new MovieRecorder(gbc);
+        Controller pad = gbc.getController();
+        for (int frame = 0; frame < 12; frame++) {
+            switch (frame) {
+                case 2 -> pad.setRight(true);
+                case 4 -> pad.setUp(true);
+                case 8 -> pad.setButtonMask(0);
+                default -> {
+                }
+            }
+            for (int executed = 0; executed < FRAME_CYCLES;) {
+                executed += gbc.executeCycle();
+            }
+            recorder.frameCompleted();
+        }
+        return recorder.finish();
+    }
+
+    /** ROM that keeps adding the joypad direction bits into 0xC000. */
+    private static GameBoyColor createMachine() {
+        GameBoyColor gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(TestRoms.rom(TestRoms.JOYPAD_SUM)));
+        return gbc;
+    }
+}
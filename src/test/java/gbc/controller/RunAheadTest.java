@@ -0,0 +1,95 @@
+package gbc.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.controller.config.AppConfig;
+import gbc.controller.config.EmulatorConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.state.StateWriter;
+
+class RunAheadTest {
+
+    private static final int MAX_CYCLES = 70224 + 70224 / 8;
+    private static final int AHEAD = 2;
+    private static final int FRAMES = 6;
+
+    private final EmulatorConfig config = AppConfig.get().getConfig();
+    private int savedFrames;
+    private boolean savedSecondInstance;
+
+    @BeforeEach
+    void setUp() {
+        savedFrames = config.getRunAheadFrames();
+        savedSecondInstance = config.isRunAheadSecondInstance();
+        config.setRunAheadFrames(AHEAD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        config.setRunAheadFrames(savedFrames);
+        config.setRunAheadSecondInstance(savedSecondInstance);
+    }
+
+    @Test
+    void runAheadInPlaceLeavesTheMachineOnItsOwnTimeline() {
+        config.setRunAheadSecondInstance(false);
+        assertRunAheadMatchesPlainExecution();
+    }
+
+    @Test
+    void runAheadOnSecondInstanceShowsTheSameFrames() {
+        config.setRunAheadSecondInstance(true);
+        assertRunAheadMatchesPlainExecution();
+    }
+
+    private void assertRunAheadMatchesPlainExecution() {
+        GameBoyColor main = createMachine();
+        GameBoyColor plain = createMachine();
+        RunAhead runAhead = new RunAhead(new EmulationSettings());
+
+        int[][] shown = new int[FRAMES][];
+        for (int frame = 0; frame < FRAMES; frame++) {
+            runAhead.runFrame(main, MAX_CYCLES);
+            shown[frame] = main.getFrameBuffer().getPixels().clone();
+        }
+        int[][] expected = new int[FRAMES + AHEAD][];
+        for (int frame = 0; frame < FRAMES + AHEAD; frame++) {
+            plain.runToVBlank(MAX_CYCLES);
+            expected[frame] = plain.getFrameBuffer().getPixels().clone();
+            if (frame == FRAMES - 1) {
+                assertArrayEquals(state(plain), state(main), "run-ahead must not disturb the real machine");
+            }
+        }
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            assertArrayEquals(expected[frame + AHEAD], shown[frame], "frame " + frame);
+        }
+        assertFalse(Arrays.equals(expected[AHEAD], expected[AHEAD + 1]), "the test ROM should animate");
+    }
+
+    private static byte[] state(GameBoyColor gbc) {
+        StateWriter writer = new StateWriter();
+        gbc.snapshot(writer, false);
+        return writer.toByteArray();
+    }
+
+    /** DMG ROM that cycles BGP as fast as it can, so every frame differs. */
+    private static GameBoyColor createMachine() {
+        byte[] rom = TestRoms.rom("LD A,0x80 | LDH (0x26),A" // NR52
+                + " | LD A,0xF0 | LDH (0x12),A" // NR12
+                + " | LD A,0x87 | LDH (0x14),A" // NR14
+                + " | loop: INC A | LDH (0x47),A | LDH (0x13),A | JR loop"); // BGP, NR13
+        GameBoyColor gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        return gbc;
+    }
+}
@@ -0,0 +1,116 @@
+package gbc.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.controller.io.SaveState;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+
+class SaveStateManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    private GameBoyColor gbc;
+    private SaveStateManager manager;
+
+    @BeforeEach
+    void setUp() {
+        byte[] rom = new byte[0x8000];
+        rom[0x0100] = 0x18; // JR -2: spin forever
+        rom[0x0101] = (byte) 0xFE;
+        gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        manager = new SaveStateManager(gbc, new ReentrantLock(), ioExecutor, paused -> false, () -> true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ioExecutor.shutdownNow();
+    }
+
+    @Test
+    void savedStateRoundTripsThroughDisk() throws Exception {
+        Path path = dir.resolve("state.ss0");
+        byte[] expected = gbc.snapshot();
+
+        assertTrue(manager.saveStateToAsync(path).get(5, TimeUnit.SECONDS));
+        assertFalse(Files.exists(dir.resolve("state.ss0.tmp")), "temporary file must be renamed away");
+
+        for (int i = 0; i < 1000; i++) {
+            gbc.executeCycle();
+        }
+        assertTrue(manager.loadStateFromAsync(path).get(5, TimeUnit.SECONDS));
+        assertArrayEquals(expected, gbc.snapshot());
+    }
+
+    @Test
+    void repeatedSavesToOneSlotCoalesceWhileQueued() throws Exception {
+        CountDownLatch release = blockExecutor();
+        Path path = dir.resolve("state.ss1");
+
+        CompletableFuture<Boolean> first = manager.saveStateToAsync(path);
+        for (int i = 0; i < 1000; i++) {
+            gbc.executeCycle();
+        }
+        byte[] latest = gbc.snapshot();
+        CompletableFuture<Boolean> second = manager.saveStateToAsync(path);
+
+        assertSame(first, second, "a queued write should absorb the newer snapshot");
+        assertEquals(1, manager.pendingWriteCount());
+        release.countDown();
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+
+        GameBoyColor other = new GameBoyColor();
+        other.insertCartridge(gbc.getMemory().getCartridge());
+        assertTrue(SaveState.load(other, path));
+        assertArrayEquals(latest, other.snapshot(), "the file must hold the newest snapshot");
+    }
+
+    @Test
+    void queueRejectsSavesBeyondItsBound() throws Exception {
+        CountDownLatch release = blockExecutor();
+        for (int i = 0; i < SaveStateManager.MAX_PENDING_WRITES; i++) {
+            manager.saveStateToAsync(dir.resolve("state.ss" + i));
+        }
+
+        CompletableFuture<Boolean> overflow = manager.saveStateToAsync(dir.resolve("overflow.ss0"));
+
+        assertFalse(overflow.get(1, TimeUnit.SECONDS));
+        release.countDown();
+        manager.flush(5000);
+        assertEquals(0, manager.pendingWriteCount());
+        assertFalse(Files.exists(dir.resolve("overflow.ss0")));
+    }
+
+    private CountDownLatch blockExecutor() {
+        CountDownLatch release = new CountDownLatch(1);
+        ioExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return release;
+    }
+}
@@ -0,0 +1,31 @@
+package gbc.controller.audio;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.controller.config.AppConfig;
+import gbc.controller.config.EmulatorConfig;
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.sound.Apu;
+
+class AudioEngineTest {
+
+    @Test
+    void disabledOutputSilencesTheApu() {
+        EmulatorConfig previous = AppConfig.get().getConfig();
+        EmulatorConfig config = new EmulatorConfig();
+        config.setNullOutput(true);
+        AppConfig.get().setConfig(config);
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setAudioSilenced(Apu.SilenceReason.NO_BACKEND, false);
+        try (AudioEngine engine = new AudioEngine()) {
+            engine.start(gbc);
+
+            assertTrue(gbc.getMemory().getApu().isSilent(), "nothing consumes the output ring");
+        } finally {
+            AppConfig.get().setConfig(previous);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package gbc.controller.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.model.cartridge.Cartridge;
+
+class RomStoreTest {
+
+    @Test
+    void instancesOfOneGameShareTheImage(@TempDir Path dir) throws IOException {
+        RomStore store = new RomStore();
+        Path rom = Files.write(dir.resolve("game.gb"), rom(1));
+        Path copy = Files.write(dir.resolve("copy.gb"), rom(1));
+
+        Cartridge first = new RomLoader(store).load(rom);
+        Cartridge second = new RomLoader(store).load(rom);
+        Cartridge third = new RomLoader(store).load(copy);
+
+        assertSame(first.getData(), second.getData());
+        assertSame(first.getData(), third.getData());
+        assertEquals(1, store.getImageCount());
+        assertEquals(0x8000, store.getStoredBytes());
+    }
+
+    @Test
+    void zipEntriesAreInflatedOnce(@TempDir Path dir) throws IOException {
+        RomStore store = new RomStore();
+        Path zip = dir.resolve("game.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("game.gbc"));
+            out.write(rom(2));
+            out.closeEntry();
+        }
+        Path plain = Files.write(dir.resolve("game.gbc"), rom(2));
+
+        Cartridge zipped = new RomLoader(store).load(zip);
+
+        assertSame(zipped.getData(), new RomLoader(store).load(zip).getData());
+        assertSame(zipped.getData(), new RomLoader(store).load(plain).getData());
+    }
+
+    @Test
+    void changedFilesAreReadAgain(@TempDir Path dir) throws IOException {
+        RomStore store = new RomStore();
+        Path rom = Files.write(dir.resolve("game.gb"), rom(1));
+        byte[] before = new RomLoader(store).load(rom).getData();
+
+        try (OutputStream out = Files.newOutputStream(rom)) {
+            out.write(rom(3));
+        }
+        Files.setLastModifiedTime(rom, FileTime.fromMillis(Files.getLastModifiedTime(rom).toMillis() + 2000));
+        byte[] after = new RomLoader(store).load(rom).getData();
+
+        assertNotSame(before, after);
+        assertArrayEquals(rom(3), after);
+    }
+
+    private static byte[] rom(int marker) {
+        byte[] rom = new byte[0x8000];
+        rom[0x0150] = (byte) marker;
+        return rom;
+    }
+}
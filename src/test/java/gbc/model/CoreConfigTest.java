@@ -0,0 +1,83 @@
+package gbc.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.model.cartridge.Cartridge;
+import gbc.model.cartridge.CartridgeFactory;
+
+class CoreConfigTest {
+
+    @Test
+    void parsesPropertiesWithFallbacks() {
+        Properties props = new Properties();
+        props.setProperty("emulator.hardware", " DMG ");
+        props.setProperty("emulator.saveDir", "saves");
+        props.setProperty("gbc.rom.allowWrites", "true");
+        props.setProperty("gbc.lcd.enableDelay", "not a number");
+        props.setProperty("audio.sampleRate", "48000");
+        props.setProperty("audio.dmgMixGain", "9.0");
+
+        CoreConfig config = CoreConfig.fromProperties(props);
+
+        assertEquals("dmg", config.hardware());
+        assertEquals(Path.of("saves"), config.saveDirectory());
+        assertTrue(config.allowRomWrites());
+        assertEquals(CoreConfig.DEFAULT_LCD_ENABLE_DELAY, config.lcdEnableDelay());
+        assertFalse(config.trace());
+        assertEquals(48000, config.audio().sampleRate());
+        assertEquals(2.0f, config.audio().dmgMixGain());
+        assertNull(CoreConfig.DEFAULTS.saveDirectory());
+    }
+
+    @Test
+    void machinesInOneJvmKeepTheirOwnSettings() {
+        GameBoyColor dmg = new GameBoyColor(CoreConfig.DEFAULTS.withHardware("dmg").withSaveDir("a"));
+        GameBoyColor cgb = new GameBoyColor(CoreConfig.DEFAULTS.withHardware("cgb").withSaveDir("b"));
+        dmg.insertCartridge(cartridge());
+        cgb.insertCartridge(cartridge());
+
+        assertEquals(HardwareType.DMG, dmg.getMemory().getHardwareType());
+        assertEquals(HardwareType.CGB, cgb.getMemory().getHardwareType());
+        assertEquals(Path.of("a", "game.sav"), dmg.getMemory().getCartridge().getSaveFilePath());
+        assertEquals(Path.of("b", "game.sav"), cgb.getMemory().getCartridge().getSaveFilePath());
+    }
+
+    @Test
+    void romWritesFollowTheConfig() {
+        GameBoyColor locked = new GameBoyColor(CoreConfig.DEFAULTS);
+        GameBoyColor writable = new GameBoyColor(CoreConfig.DEFAULTS.withAllowRomWrites(true));
+        locked.insertCartridge(cartridge());
+        writable.insertCartridge(cartridge());
+
+        locked.getMemory().writeByte(0x1234, 0x5A);
+        writable.getMemory().writeByte(0x1234, 0x5A);
+
+        assertEquals(0x00, locked.getMemory().readByte(0x1234));
+        assertEquals(0x5A, writable.getMemory().readByte(0x1234));
+    }
+
+    @Test
+    void saveDirectoryChangesApplyToTheLoadedCartridge() {
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.insertCartridge(cartridge());
+
+        gbc.setConfig(gbc.getConfig().withSaveDir("moved"));
+
+        assertEquals(Path.of("moved", "game.sav"), gbc.getMemory().getCartridge().getSaveFilePath());
+    }
+
+    private static Cartridge cartridge() {
+        Cartridge cartridge = CartridgeFactory.create(TestRoms.rom());
+        cartridge.setRomPath("roms/game.gb");
+        return cartridge;
+    }
+}
@@ -0,0 +1,108 @@
+package gbc.model.cartridge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+class Mbc3RtcTest {
+
+    private static final int CYCLES_PER_SECOND = 4_194_304;
+
+    @Test
+    void rtcFollowsEmulatedCyclesNotTheWallClock() {
+        MBC3 cart = createCartridge();
+        AtomicLong now = new AtomicLong(1_000_000L);
+        cart.setClock(now::get);
+
+        now.addAndGet(3_600_000L); // an hour of host time with no emulation
+        tickSeconds(cart, 61);
+        cart.tick(CYCLES_PER_SECOND - 1);
+
+        assertEquals(1, readRegister(cart, 0x08));
+        assertEquals(1, readRegister(cart, 0x09));
+        assertEquals(0, readRegister(cart, 0x0A));
+    }
+
+    @Test
+    void haltStopsTheClock() {
+        MBC3 cart = createCartridge();
+        writeRegister(cart, 0x0C, 0x40);
+        tickSeconds(cart, 5);
+        writeRegister(cart, 0x0C, 0x00);
+        tickSeconds(cart, 2);
+
+        assertEquals(2, readRegister(cart, 0x08));
+    }
+
+    @Test
+    void snapshotKeepsTheSubSecondPhase() {
+        MBC3 cart = createCartridge();
+        tickSeconds(cart, 10);
+        cart.tick(CYCLES_PER_SECOND - 100);
+        StateWriter out = new StateWriter();
+        cart.snapshot(out);
+
+        MBC3 restored = createCartridge();
+        restored.restore(new StateReader(out.toByteArray()));
+        restored.tick(100);
+
+        assertEquals(11, readRegister(restored, 0x08));
+    }
+
+    @Test
+    void loadingTheSaveCatchesUpOnWallClockTime(@TempDir Path dir) {
+        AtomicLong now = new AtomicLong(1_000_000L);
+        MBC3 cart = createCartridge();
+        cart.setClock(now::get);
+        cart.setRomPath(dir.resolve("game.gbc").toString());
+        tickSeconds(cart, 30);
+        cart.saveSRAM();
+
+        now.addAndGet(2 * 3600_000L + 45_000L);
+        MBC3 reloaded = createCartridge();
+        reloaded.setClock(now::get);
+        reloaded.setRomPath(dir.resolve("game.gbc").toString());
+        reloaded.loadSRAM();
+
+        assertEquals(15, readRegister(reloaded, 0x08));
+        assertEquals(1, readRegister(reloaded, 0x09));
+        assertEquals(2, readRegister(reloaded, 0x0A));
+    }
+
+    private static void tickSeconds(MBC3 cart, int seconds) {
+        for (int i = 0; i < seconds; i++) {
+            // Uneven steps, as the CPU hands them out
+            for (int cycles = 0; cycles < CYCLES_PER_SECOND; cycles += 24) {
+                cart.tick(Math.min(24, CYCLES_PER_SECOND - cycles));
+            }
+        }
+    }
+
+    private static int readRegister(MBC3 cart, int register) {
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0x6000, (byte) 0x00);
+        cart.write(0x6000, (byte) 0x01);
+        cart.write(0x4000, (byte) register);
+        return cart.read(0xA000) & 0xFF;
+    }
+
+    private static void writeRegister(MBC3 cart, int register, int value) {
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0x4000, (byte) register);
+        cart.write(0xA000, (byte) value);
+    }
+
+    private static MBC3 createCartridge() {
+        byte[] rom = new byte[0x8000];
+        rom[0x0147] = 0x10; // MBC3+TIMER+RAM+BATTERY
+        rom[0x0149] = 0x02;
+        return new MBC3(rom, true);
+    }
+}
@@ -0,0 +1,115 @@
+package gbc.model.cartridge;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+class SramFlushTest {
+
+    @Test
+    void untouchedRamIsNotWritten(@TempDir Path dir) {
+        MBC5 cart = createCartridge(dir);
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0xA000, (byte) 0x00); // same value as before
+
+        assertNull(cart.captureDirtyRam());
+        assertTrue(Files.notExists(cart.getSaveFilePath()));
+    }
+
+    @Test
+    void firstFlushWritesTheWholeImageThenOnlyChangedPages(@TempDir Path dir) throws IOException {
+        MBC5 cart = createCartridge(dir);
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0xA010, (byte) 0x11);
+
+        Cartridge.RamFlush first = cart.captureDirtyRam();
+        assertNotNull(first);
+        assertEquals(0x2000 / Cartridge.RAM_PAGE_SIZE, first.getPageCount());
+        assertTrue(cart.writeDirtyRam(first, true));
+        assertEquals(0x2000, Files.size(cart.getSaveFilePath()));
+
+        cart.write(0xA123, (byte) 0x22);
+        cart.write(0xA124, (byte) 0x33);
+        cart.write(0xBFFF, (byte) 0x44);
+        Cartridge.RamFlush second = cart.captureDirtyRam();
+        assertEquals(2, second.getPageCount());
+        assertTrue(cart.writeDirtyRam(second, false));
+
+        assertNull(cart.captureDirtyRam());
+        MBC5 reloaded = createCartridge(dir);
+        reloaded.loadSRAM();
+        assertArrayEquals(ramOf(cart), ramOf(reloaded));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutFurtherWrites(@TempDir Path dir) throws IOException {
+        MBC5 cart = createCartridge(dir);
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0xA000, (byte) 0x55);
+        cart.writeDirtyRam(cart.captureDirtyRam(), false);
+        cart.write(0xA200, (byte) 0x77);
+        // A directory where the save file should be makes the write fail
+        Files.delete(cart.getSaveFilePath());
+        Files.createDirectory(cart.getSaveFilePath());
+        assertFalse(cart.writeDirtyRam(cart.captureDirtyRam(), false));
+
+        Files.delete(cart.getSaveFilePath());
+        Cartridge.RamFlush retry = cart.captureDirtyRam();
+        assertNotNull(retry);
+        assertTrue(cart.writeDirtyRam(retry, false));
+
+        assertNull(cart.captureDirtyRam());
+        MBC5 reloaded = createCartridge(dir);
+        reloaded.loadSRAM();
+        assertArrayEquals(ramOf(cart), ramOf(reloaded));
+    }
+
+    @Test
+    void restoringAnIdenticalSnapshotDirtiesNothing(@TempDir Path dir) {
+        MBC5 cart = createCartridge(dir);
+        cart.write(0x0000, (byte) 0x0A);
+        cart.write(0xA000, (byte) 0x55);
+        cart.writeDirtyRam(cart.captureDirtyRam(), false);
+        StateWriter out = new StateWriter();
+        cart.snapshot(out);
+
+        cart.restore(new StateReader(out.toByteArray()));
+        assertNull(cart.captureDirtyRam());
+
+        cart.write(0xA400, (byte) 0x66);
+        cart.restore(new StateReader(out.toByteArray()));
+        assertEquals(1, cart.captureDirtyRam().getPageCount());
+    }
+
+    private static byte[] ramOf(Cartridge cart) {
+        StateWriter out = new StateWriter();
+        cart.snapshot(out);
+        StateReader in = new StateReader(out.toByteArray());
+        in.readInt();
+        in.readInt();
+        in.readInt();
+        return in.readByteArray();
+    }
+
+    private static MBC5 createCartridge(Path dir) {
+        byte[] rom = new byte[0x8000];
+        rom[0x0147] = 0x1B; // MBC5+RAM+BATTERY
+        rom[0x0149] = 0x02; // 8 KB
+        MBC5 cart = new MBC5(rom, true);
+        cart.setRomPath(dir.resolve("game.gbc").toString());
+        return cart;
+    }
+}
@@ -0,0 +1,137 @@
+package gbc.model.cpu;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class AssemblerTest {
+
+    @Test
+    void everyTableOpcodeAssemblesBackToItsEncoding() {
+        checkTable(OperationDefinitions.buildUnprefixedTable(), false);
+        checkTable(OperationDefinitions.buildCbPrefixedTable(), true);
+    }
+
+    @Test
+    void resolvesForwardAndBackwardLabels() {
+        byte[] code = new Assembler(0x0150)
+                .asm("""
+                        start: LD HL,data     ; forward reference
+                        loop:  DEC B
+                               JR NZ,loop
+                               JP start
+                        data:
+                        """)
+                .dw("data+2", "start")
+                .assemble();
+
+        assertArrayEquals(bytes(
+                0x21, 0x59, 0x01, // LD HL,0x0159
+                0x05, // DEC B
+                0x20, 0xFD, // JR NZ,-3
+                0xC3, 0x50, 0x01, // JP 0x0150
+                0x5B, 0x01, 0x50, 0x01), code);
+    }
+
+    @Test
+    void acceptsCommonSpellings() {
+        byte[] code = new Assembler(0)
+                .asm("ld a,[hli] | LD (HLD),A | CP A,$10 | LDH A,($FF44) | LD HL,SP-2 | ADD SP,-1 | LD B,%1010")
+                .assemble();
+
+        assertArrayEquals(bytes(0x2A, 0x32, 0xFE, 0x10, 0xF0, 0x44, 0xF8, 0xFE, 0xE8, 0xFF, 0x06, 0x0A), code);
+    }
+
+    @Test
+    void acceptsHexSuffixLiterals() {
+        byte[] code = new Assembler(0).asm("RST 38H | RST 08h | LD A,0FFH | LD HL,0C000H+10H").assemble();
+
+        assertArrayEquals(bytes(0xFF, 0xCF, 0x3E, 0xFF, 0x21, 0x10, 0xC0), code);
+    }
+
+    @Test
+    void rejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new Assembler(0).op("LD (BC),B"));
+        assertThrows(IllegalArgumentException.class, () -> new Assembler(0).op("JP missing").assemble());
+        assertThrows(IllegalArgumentException.class, () -> new Assembler(0).op("LD A,0x100").assemble());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Assembler(0).label("far").org(0x100).op("JR far").assemble());
+        assertThrows(IllegalArgumentException.class, () -> new Assembler(0).label("HL"));
+    }
+
+    private static void checkTable(EnumMap<OperationType, Map<Integer, Operation>> table, boolean cbPrefixed) {
+        for (Map<Integer, Operation> group : table.values()) {
+            for (Map.Entry<Integer, Operation> entry : group.entrySet()) {
+                Operation operation = entry.getValue();
+                if (operation.getMnemonic().equals("INVALID")) {
+                    continue;
+                }
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                if (cbPrefixed) {
+                    expected.write(0xCB);
+                }
+                expected.write(entry.getKey());
+                String text = render(operation, expected);
+                while (expected.size() < operation.getBytes()) {
+                    expected.write(0x00);
+                }
+
+                byte[] code = new Assembler(0).op(text).assemble();
+
+                assertArrayEquals(expected.toByteArray(), code, text);
+                assertEquals(operation.getBytes(), code.length, text);
+            }
+        }
+    }
+
+    /** Canonical text for an operation, writing its immediate bytes to {@code encoding}. */
+    private static String render(Operation operation, ByteArrayOutputStream encoding) {
+        List<String> operands = new ArrayList<>();
+        for (Map<String, Object> spec : operation.getOperands()) {
+            String name = (String) spec.get("name");
+            boolean memory = Boolean.TRUE.equals(spec.get("memory"));
+            String text = switch (name) {
+                case "d8", "a8" -> {
+                    encoding.write(0x12);
+                    yield "0x12";
+                }
+                case "d16", "a16" -> {
+                    encoding.write(0x34);
+                    encoding.write(0x12);
+                    yield "0x1234";
+                }
+                case "r8" -> {
+                    encoding.write(0x05);
+                    // relative for JR: target = end of instruction + 5
+                    yield operation.getMnemonic().equals("JR") ? String.valueOf(operation.getBytes() + 5) : "5";
+                }
+                case "SP+r8" -> {
+                    encoding.write(0x05);
+                    yield "SP+5";
+                }
+                default -> name.endsWith("H") && name.length() == 3
+                        ? "0x" + name.substring(0, 2)
+                        : name;
+            };
+            operands.add(memory ? "(" + text + ")" : text);
+        }
+        return operands.isEmpty() ? operation.getMnemonic()
+                : operation.getMnemonic() + " " + String.join(",", operands);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package gbc.model.graphics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+
+class FrameSinkTest {
+
+    @Test
+    void sinkReceivesEveryCompletedFrame() {
+        GameBoyColor gbc = createMachine();
+        List<Long> frameIds = new ArrayList<>();
+        gbc.setFrameSink(frameBuffer -> {
+            assertSame(gbc.getFrameBuffer(), frameBuffer);
+            frameIds.add(frameBuffer.getFrameId());
+        });
+
+        long start = gbc.getFrameBuffer().getFrameId();
+        for (int i = 0; i < 5; i++) {
+            gbc.runToVBlank(70224 * 2);
+        }
+
+        assertEquals(List.of(start + 1, start + 2, start + 3, start + 4, start + 5), frameIds);
+    }
+
+    @Test
+    void framesAreProducedWithoutASink() {
+        GameBoyColor gbc = createMachine();
+        long start = gbc.getFrameBuffer().getFrameId();
+
+        gbc.runToVBlank(70224 * 2);
+
+        assertEquals(start + 1, gbc.getFrameBuffer().getFrameId());
+    }
+
+    private static GameBoyColor createMachine() {
+        byte[] rom = new byte[0x8000];
+        rom[0x0100] = 0x18; // JR -2
+        rom[0x0101] = (byte) 0xFE;
+        GameBoyColor gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        return gbc;
+    }
+}
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 class PixelTransferSpriteSchedulingTest {
 
@@ -131,6 +133,16 @@ class PixelTransferSpriteSchedulingTest {
             // no-op
         }
 
+        @Override
+        public void snapshot(StateWriter out) {
+            // no-op
+        }
+
+        @Override
+        public void restore(StateReader in) {
+            // no-op
+        }
+
         @Override
         public void reset() {
             // no-op
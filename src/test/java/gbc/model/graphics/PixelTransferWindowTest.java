@@ -7,6 +7,8 @@ import java.lang.reflect.Field;
 import org.junit.jupiter.api.Test;
 
 import gbc.model.memory.Memory;
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
 
 class PixelTransferWindowTest {
 
@@ -174,6 +176,16 @@ class PixelTransferWindowTest {
             // no-op
         }
 
+        @Override
+        public void snapshot(StateWriter out) {
+            // no-op
+        }
+
+        @Override
+        public void restore(StateReader in) {
+            // no-op
+        }
+
         @Override
         public void reset() {
             // no-op
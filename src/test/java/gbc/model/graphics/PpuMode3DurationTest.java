@@ -56,7 +56,7 @@ class PpuMode3DurationTest {
         private final int pixelTransferProgress;
 
         TestPpu(Memory memory, int baseMode3Duration, int pixelTransferProgress) {
-            super(memory, new FrameBuffer(), new Screen());
+            super(memory, new FrameBuffer());
             this.baseMode3Duration = baseMode3Duration;
             this.pixelTransferProgress = pixelTransferProgress;
         }
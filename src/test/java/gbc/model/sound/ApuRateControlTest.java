@@ -0,0 +1,40 @@
+package gbc.model.sound;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ApuRateControlTest {
+
+    private static final int CYCLES_PER_MS = 4_194_304 / 1000;
+
+    @Test
+    void fullRingSlowsSampleOutput() {
+        Apu apu = new Apu();
+        apu.writeRegister(0xFF26, 0x80);
+
+        // Nobody drains the ring, so fill rises above the latency target
+        for (int ms = 0; ms < 200; ms++) {
+            apu.step(CYCLES_PER_MS);
+        }
+
+        assertTrue(apu.getRateRatio() > 1f, "ratio should lengthen the sample period when the ring is full");
+        assertTrue(apu.getRateRatio() <= 1.005f, "ratio adjustment must stay within the pitch bound");
+    }
+
+    @Test
+    void drainedRingSpeedsUpSampleOutput() {
+        Apu apu = new Apu();
+        apu.writeRegister(0xFF26, 0x80);
+        short[] sink = new short[8192];
+
+        // A consumer that keeps the ring empty pulls the ratio below unity
+        for (int ms = 0; ms < 200; ms++) {
+            apu.step(CYCLES_PER_MS);
+            apu.getOutputRing().read(sink, 0, sink.length / 2);
+        }
+
+        assertTrue(apu.getRateRatio() < 1f, "ratio should shorten the sample period when the ring runs dry");
+        assertTrue(apu.getRateRatio() >= 0.995f, "ratio adjustment must stay within the pitch bound");
+    }
+}
@@ -0,0 +1,43 @@
+package gbc.model.sound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ApuSilentModeTest {
+
+    @Test
+    void silentModeKeepsLengthCounterStatusWithoutOutput() {
+        Apu apu = new Apu();
+        apu.setSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        apu.writeRegister(0xFF26, 0x80);
+        apu.writeRegister(0xFF17, 0xF0);
+        apu.writeRegister(0xFF16, 0x3F); // length 1
+        apu.writeRegister(0xFF19, 0xC0); // trigger with length enabled
+
+        assertEquals(0x02, apu.readRegister(0xFF26) & 0x02, "CH2 should report on after trigger");
+        apu.step(8192 * 4);
+        assertFalse((apu.readRegister(0xFF26) & 0x02) != 0, "length expiry must clear NR52 CH2 bit");
+        assertEquals(0, apu.getOutputRing().available(), "silent mode must not buffer samples");
+    }
+
+    @Test
+    void outputResumesOnlyWhenEveryReasonIsCleared() {
+        Apu apu = new Apu();
+        apu.writeRegister(0xFF26, 0x80);
+        apu.setSilenced(Apu.SilenceReason.FAST_FORWARD, true);
+        apu.setSilenced(Apu.SilenceReason.NO_BACKEND, true);
+        assertTrue(apu.isSilent());
+
+        apu.setSilenced(Apu.SilenceReason.FAST_FORWARD, false);
+        apu.step(4_194_304 / 100);
+        assertEquals(0, apu.getOutputRing().available());
+
+        apu.setSilenced(Apu.SilenceReason.NO_BACKEND, false);
+        assertFalse(apu.isSilent());
+        apu.step(4_194_304 / 100);
+        assertTrue(apu.getOutputRing().available() > 0, "samples should flow again once no reason remains");
+    }
+}
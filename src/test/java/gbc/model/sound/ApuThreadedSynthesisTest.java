@@ -0,0 +1,163 @@
+package gbc.model.sound;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.model.state.StateReader;
+import gbc.model.state.StateWriter;
+
+class ApuThreadedSynthesisTest {
+
+    private static final int CYCLES_PER_MS = 4_194_304 / 1000;
+
+    @Test
+    void replayedWriteLogMatchesDirectSynthesis() {
+        Apu direct = new Apu();
+        Apu threaded = new Apu();
+        threaded.setThreadedSynthesis(true);
+        assertTrue(threaded.isThreadedSynthesis());
+
+        for (Apu apu : new Apu[] { direct, threaded }) {
+            apu.writeRegister(0xFF26, 0x80);
+            apu.writeRegister(0xFF24, 0x77);
+            apu.writeRegister(0xFF25, 0xFF);
+            apu.writeRegister(0xFF16, 0x80); // 50% duty
+            apu.writeRegister(0xFF17, 0xF0); // max volume
+            apu.writeRegister(0xFF18, 0x00);
+            apu.writeRegister(0xFF19, 0x87); // trigger
+            for (int ms = 0; ms < 20; ms++) {
+                apu.step(CYCLES_PER_MS);
+                if (ms == 10) {
+                    apu.writeRegister(0xFF18, 0x80); // pitch change mid-stream
+                }
+            }
+        }
+        threaded.renderPending();
+
+        AudioRingBuffer directRing = direct.getOutputRing();
+        AudioRingBuffer threadedRing = threaded.getOutputRing();
+        assertEquals(directRing.available(), threadedRing.available());
+        short[] expected = new short[directRing.available() * 2];
+        short[] actual = new short[expected.length];
+        directRing.read(expected, 0, expected.length / 2);
+        threadedRing.read(actual, 0, actual.length / 2);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void overflowingWriteLogReseedsFromRegisters() {
+        Apu direct = new Apu();
+        Apu threaded = new Apu();
+        threaded.setThreadedSynthesis(true);
+
+        direct.writeRegister(0xFF26, 0x80);
+        threaded.writeRegister(0xFF26, 0x80);
+        threaded.renderPending();
+
+        for (Apu apu : new Apu[] { direct, threaded }) {
+            apu.writeRegister(0xFF25, 0xFF);
+            apu.writeRegister(0xFF16, 0x80);
+            apu.writeRegister(0xFF17, 0xF0);
+            apu.writeRegister(0xFF18, 0x40);
+            // More writes than the log holds while the audio thread is stalled
+            for (int i = 0; i < 40_000; i++) {
+                apu.writeRegister(0xFF24, i & 0x77);
+            }
+            apu.writeRegister(0xFF24, 0x77);
+            apu.step(CYCLES_PER_MS);
+        }
+        assertTrue(threaded.getDroppedWriteCount() > 0);
+        threaded.renderPending();
+        // What was synthesised from the stale state is lost; compare from here
+        for (Apu apu : new Apu[] { direct, threaded }) {
+            AudioRingBuffer ring = apu.getOutputRing();
+            ring.read(new short[ring.available() * 2], 0, ring.available());
+        }
+
+        for (Apu apu : new Apu[] { direct, threaded }) {
+            apu.writeRegister(0xFF19, 0x87); // trigger
+            for (int ms = 0; ms < 20; ms++) {
+                apu.step(CYCLES_PER_MS);
+            }
+        }
+        threaded.renderPending();
+
+        AudioRingBuffer directRing = direct.getOutputRing();
+        AudioRingBuffer threadedRing = threaded.getOutputRing();
+        assertEquals(directRing.available(), threadedRing.available());
+        short[] expected = new short[directRing.available() * 2];
+        short[] actual = new short[expected.length];
+        directRing.read(expected, 0, expected.length / 2);
+        threadedRing.read(actual, 0, actual.length / 2);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void restoreAndSilenceKeepPlayingChannelsAudible() {
+        Apu apu = new Apu();
+        apu.setThreadedSynthesis(true);
+        apu.writeRegister(0xFF26, 0x80);
+        apu.writeRegister(0xFF24, 0x77);
+        apu.writeRegister(0xFF25, 0xFF);
+        apu.writeRegister(0xFF16, 0x80);
+        apu.writeRegister(0xFF17, 0xF0);
+        apu.writeRegister(0xFF19, 0x87); // trigger, no length
+        apu.step(5 * CYCLES_PER_MS);
+        StateWriter state = new StateWriter();
+        apu.snapshot(state);
+        apu.writeRegister(0xFF17, 0x00); // DAC off: the channel stops
+        apu.step(5 * CYCLES_PER_MS);
+        apu.renderPending();
+        drain(apu);
+        AudioRingBuffer ring = apu.getOutputRing();
+
+        apu.restore(new StateReader(state.toByteArray()));
+        apu.step(10 * CYCLES_PER_MS);
+        apu.renderPending();
+        assertTrue(peak(apu) > 0, "a channel playing in the restored state must be heard without a retrigger");
+
+        apu.setSilenced(Apu.SilenceReason.FAST_FORWARD, true);
+        apu.step(CYCLES_PER_MS);
+        apu.setSilenced(Apu.SilenceReason.FAST_FORWARD, false);
+        apu.step(10 * CYCLES_PER_MS);
+        apu.renderPending();
+        assertTrue(peak(apu) > 0, "a channel playing through a silent stretch must be heard after it");
+        assertSame(ring, apu.getOutputRing(), "the synthesizer is reseeded in place");
+    }
+
+    @Test
+    void emulationSideKeepsLengthCounterStatus() {
+        Apu apu = new Apu();
+        apu.setThreadedSynthesis(true);
+        apu.writeRegister(0xFF26, 0x80);
+        apu.writeRegister(0xFF17, 0xF0);
+        apu.writeRegister(0xFF16, 0x3F); // length 1
+        apu.writeRegister(0xFF19, 0xC0); // trigger with length enabled
+
+        assertEquals(0x02, apu.readRegister(0xFF26) & 0x02, "CH2 should report on after trigger");
+        apu.step(8192 * 4); // several frame-sequencer length clocks
+        assertFalse((apu.readRegister(0xFF26) & 0x02) != 0, "length expiry must clear NR52 CH2 bit");
+        assertEquals(0, apu.getOutputRing().available(), "nothing is synthesised until the audio thread renders");
+    }
+
+    private static void drain(Apu apu) {
+        AudioRingBuffer ring = apu.getOutputRing();
+        ring.read(new short[ring.available() * 2], 0, ring.available());
+    }
+
+    private static int peak(Apu apu) {
+        AudioRingBuffer ring = apu.getOutputRing();
+        short[] samples = new short[ring.available() * 2];
+        ring.read(samples, 0, samples.length / 2);
+        int peak = 0;
+        for (short sample : samples) {
+            peak = Math.max(peak, Math.abs(sample));
+        }
+        return peak;
+    }
+}
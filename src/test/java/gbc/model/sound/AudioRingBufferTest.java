@@ -0,0 +1,81 @@
+package gbc.model.sound;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ShortBuffer;
+
+import org.junit.jupiter.api.Test;
+
+class AudioRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(8, new AudioRingBuffer(5).capacity());
+        assertEquals(1024, new AudioRingBuffer(1024).capacity());
+    }
+
+    @Test
+    void framesAreReadBackInOrderAcrossWrapAround() {
+        AudioRingBuffer ring = new AudioRingBuffer(4);
+        short[] out = new short[8];
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer((short) (round * 10 + i), (short) -(round * 10 + i)));
+            }
+            assertEquals(3, ring.read(out, 0, 3));
+            for (int i = 0; i < 3; i++) {
+                assertEquals(round * 10 + i, out[i * 2]);
+                assertEquals(-(round * 10 + i), out[i * 2 + 1]);
+            }
+        }
+        assertEquals(0, ring.getUnderrunCount());
+    }
+
+    @Test
+    void fullRingDropsNewestFrameAndCountsOverrun() {
+        AudioRingBuffer ring = new AudioRingBuffer(2);
+        assertTrue(ring.offer((short) 1, (short) 1));
+        assertTrue(ring.offer((short) 2, (short) 2));
+        assertFalse(ring.offer((short) 3, (short) 3));
+        assertEquals(1, ring.getOverrunCount());
+
+        short[] out = new short[4];
+        assertEquals(2, ring.read(out, 0, 2));
+        assertEquals(1, out[0]);
+        assertEquals(2, out[2]);
+    }
+
+    @Test
+    void shortReadCountsUnderrunAndFillsShortBuffer() {
+        AudioRingBuffer ring = new AudioRingBuffer(8);
+        ring.offer((short) 100, (short) -100);
+        ShortBuffer buffer = ShortBuffer.allocate(16);
+
+        assertEquals(1, ring.read(buffer, 8));
+        assertEquals(2, buffer.position());
+        assertEquals(100, buffer.get(0));
+        assertEquals(-100, buffer.get(1));
+        assertEquals(1, ring.getUnderrunCount());
+    }
+
+    @Test
+    void discardDropsQueuedFrames() {
+        AudioRingBuffer ring = new AudioRingBuffer(8);
+        ring.offer((short) 1, (short) 1);
+        ring.offer((short) 2, (short) 2);
+        ring.discard();
+        assertEquals(0, ring.available());
+    }
+
+    @Test
+    void apuWritesSixteenBitFramesIntoRing() {
+        Apu apu = new Apu();
+        apu.writeRegister(0xFF26, 0x80); // APU on
+        AudioRingBuffer ring = apu.getOutputRing();
+        apu.step(4_194_304 / 100); // ~10 ms of emulated time
+
+        assertTrue(ring.available() > 0, "APU should publish frames while enabled");
+    }
+}
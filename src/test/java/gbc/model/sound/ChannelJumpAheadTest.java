@@ -0,0 +1,64 @@
+package gbc.model.sound;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ChannelJumpAheadTest {
+
+    @Test
+    void lfsrTableJumpMatchesSequentialClocking() {
+        Random random = new Random(29);
+        for (int trial = 0; trial < 2000; trial++) {
+            int state = random.nextInt(0x8000);
+            int clocks = random.nextInt(trial < 1000 ? 40 : 70_000);
+            boolean narrow = random.nextBoolean();
+            int expected = state;
+            for (int i = 0; i < clocks; i++) {
+                expected = NoiseChannel.clockLfsr(expected, narrow);
+            }
+            assertEquals(expected, NoiseChannel.advanceLfsr(state, clocks, narrow),
+                    "state=" + Integer.toHexString(state) + " clocks=" + clocks + " narrow=" + narrow);
+        }
+    }
+
+    @Test
+    void batchedStepsMatchSingleCycleSteps() {
+        Apu batched = new Apu();
+        Apu stepped = new Apu();
+        for (Apu apu : new Apu[] { batched, stepped }) {
+            apu.writeRegister(0xFF26, 0x80);
+            apu.writeRegister(0xFF24, 0x77);
+            apu.writeRegister(0xFF25, 0xFF);
+            apu.writeRegister(0xFF11, 0x80);
+            apu.writeRegister(0xFF12, 0xF0);
+            apu.writeRegister(0xFF13, 0x40);
+            apu.writeRegister(0xFF14, 0x87);
+            apu.writeRegister(0xFF1A, 0x80);
+            apu.writeRegister(0xFF1C, 0x20);
+            apu.writeRegister(0xFF1D, 0x00);
+            apu.writeRegister(0xFF1E, 0x87);
+            apu.writeRegister(0xFF21, 0xF0);
+            apu.writeRegister(0xFF22, 0x18); // 7-bit width
+            apu.writeRegister(0xFF23, 0x80);
+        }
+        for (int i = 0; i < 50; i++) {
+            batched.step(4096);
+        }
+        for (int i = 0; i < 50 * 4096 / 4; i++) {
+            stepped.step(4);
+        }
+
+        AudioRingBuffer expectedRing = stepped.getOutputRing();
+        AudioRingBuffer actualRing = batched.getOutputRing();
+        assertEquals(expectedRing.available(), actualRing.available());
+        short[] expected = new short[expectedRing.available() * 2];
+        short[] actual = new short[expected.length];
+        expectedRing.read(expected, 0, expected.length / 2);
+        actualRing.read(actual, 0, actual.length / 2);
+        assertArrayEquals(expected, actual);
+    }
+}
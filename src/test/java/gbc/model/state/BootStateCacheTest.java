@@ -0,0 +1,103 @@
+package gbc.model.state;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.model.CoreConfig;
+import gbc.model.GameBoyColor;
+import gbc.model.HardwareType;
+import gbc.model.cartridge.CartridgeFactory;
+
+class BootStateCacheTest {
+
+    private static final byte[] BOOT_ROM = new byte[0x100];
+
+    @Test
+    void keyCoversTheHeaderTheBootRomReads() {
+        byte[] rom = new byte[0x8000];
+        String key = BootStateCache.key(BOOT_ROM, HardwareType.CGB, 0, rom);
+
+        byte[] otherCode = rom.clone();
+        otherCode[0x0200] = 0x12;
+        assertEquals(key, BootStateCache.key(BOOT_ROM, HardwareType.CGB, 0, otherCode));
+
+        byte[] otherTitle = rom.clone();
+        otherTitle[0x0134] = 'A';
+        assertNotEquals(key, BootStateCache.key(BOOT_ROM, HardwareType.CGB, 0, otherTitle));
+        assertNotEquals(key, BootStateCache.key(BOOT_ROM, HardwareType.DMG, 0, rom));
+        assertNotEquals(key, BootStateCache.key(BOOT_ROM, HardwareType.CGB, 1, rom));
+        assertNotEquals(key, BootStateCache.key(new byte[0x900], HardwareType.CGB, 0, rom));
+    }
+
+    @Test
+    void cacheHitMatchesRunningTheBootRom() {
+        BootStateCache.shared().clear();
+        GameBoyColor booted = machine();
+        assertTrue(booted.getMemory().isBootRomMapped());
+        assertEquals(0x0000, booted.getCpu().getRegisters().getPC());
+        while (booted.getMemory().isBootRomMapped()) {
+            booted.executeCycle();
+        }
+        assertEquals(0x0100, booted.getCpu().getRegisters().getPC());
+        assertEquals(1, BootStateCache.shared().size());
+
+        GameBoyColor skipped = machine();
+
+        assertFalse(skipped.getMemory().isBootRomMapped());
+        assertArrayEquals(booted.snapshot(), skipped.snapshot());
+        assertEquals(booted.getCycleCount(), skipped.getCycleCount());
+        assertEquals(booted.getStepCount(), skipped.getStepCount());
+        BootStateCache.shared().clear();
+    }
+
+    @Test
+    void leastRecentlyUsedStatesAreDropped() {
+        BootStateCache cache = new BootStateCache();
+        for (int i = 0; i < BootStateCache.MAX_ENTRIES; i++) {
+            cache.put("state" + i, new BootStateCache.Entry(new byte[] { (byte) i }, i, i));
+        }
+        cache.get("state0");
+        cache.put("extra", new BootStateCache.Entry(new byte[0], 0, 0));
+
+        assertEquals(BootStateCache.MAX_ENTRIES, cache.size());
+        assertNotNull(cache.get("state0"));
+        assertNull(cache.get("state1"));
+    }
+
+    /** A DMG machine with a boot ROM that fills 0xC000-0xC0FF before unmapping itself. */
+    private static GameBoyColor machine() {
+        byte[] boot = new byte[0x100];
+        int[] program = {
+                0x31, 0xFE, 0xFF, // LD SP,0xFFFE
+                0xAF, // XOR A
+                0x21, 0x00, 0xC0, // LD HL,0xC000
+                0x22, // loop: LD (HL+),A
+                0x3C, // INC A
+                0x20, (byte) -4, // JR NZ,loop
+        };
+        for (int i = 0; i < program.length; i++) {
+            boot[i] = (byte) program[i];
+        }
+        // NOPs up to the unmapping write, which ends at 0x0100
+        boot[0xFC] = 0x3E; // LD A,1
+        boot[0xFD] = 0x01;
+        boot[0xFE] = (byte) 0xE0; // LDH (0x50),A
+        boot[0xFF] = 0x50;
+
+        byte[] rom = new byte[0x8000];
+        rom[0x0134] = 'B';
+        GameBoyColor gbc = new GameBoyColor(CoreConfig.DEFAULTS);
+        gbc.setDeterministic(0);
+        gbc.getMemory().setHardwareType(HardwareType.DMG);
+        gbc.getMemory().setBootRom(boot);
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        return gbc;
+    }
+}
@@ -0,0 +1,54 @@
+package gbc.model.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.model.GameBoyColor;
+
+class DeterminismCheckerTest {
+
+    @Test
+    void deterministicRunsHashIdentically() {
+        assertNull(DeterminismChecker.check(DeterminismChecker.deterministicMachine(rom(), 7), 20));
+    }
+
+    @Test
+    void differentPowerOnSeedsAreReportedInMemory() {
+        AtomicInteger seed = new AtomicInteger(1);
+        Supplier<GameBoyColor> factory = () -> DeterminismChecker
+                .deterministicMachine(rom(), seed.getAndIncrement()).get();
+
+        DeterminismChecker.Divergence divergence = DeterminismChecker.check(factory, 5);
+
+        assertNotNull(divergence);
+        assertEquals(0, divergence.frame());
+        assertEquals("MEM_", divergence.component());
+    }
+
+    @Test
+    void chainHashCoversEveryFrame() {
+        GameBoyColor gbc = DeterminismChecker.deterministicMachine(rom(), 7).get();
+        StateHasher hasher = new StateHasher(false);
+        hasher.update(gbc);
+        long firstChain = hasher.getChainHash();
+        long firstHash = hasher.getHash();
+
+        hasher.update(gbc);
+
+        assertEquals(firstHash, hasher.getHash(), "hashing must not change the machine");
+        assertNotEquals(firstChain, hasher.getChainHash());
+    }
+
+    /** ROM that spins on an increment loop in WRAM, with the LCD on. */
+    private static byte[] rom() {
+        return TestRoms.rom(TestRoms.WRAM_COUNTER);
+    }
+}
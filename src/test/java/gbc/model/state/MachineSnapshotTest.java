@@ -0,0 +1,75 @@
+package gbc.model.state;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.cpu.Assembler;
+
+class MachineSnapshotTest {
+
+    @Test
+    void restoredMachineReplaysIdentically() {
+        GameBoyColor gbc = createMachine(0x42);
+        runInstructions(gbc, 5_000);
+        byte[] start = gbc.snapshot();
+
+        runInstructions(gbc, 20_000);
+        byte[] expected = gbc.snapshot();
+
+        gbc.restore(start);
+        assertArrayEquals(start, gbc.snapshot(), "restore must reproduce the captured state");
+        runInstructions(gbc, 20_000);
+        assertArrayEquals(expected, gbc.snapshot(), "execution after restore must match the original run");
+    }
+
+    @Test
+    void snapshotTransfersBetweenInstances() {
+        GameBoyColor source = createMachine(0x42);
+        runInstructions(source, 12_345);
+        GameBoyColor target = createMachine(0x42);
+
+        target.restore(source.snapshot());
+
+        assertEquals(source.getCpu().getRegisters().getPC(), target.getCpu().getRegisters().getPC());
+        assertArrayEquals(source.snapshot(), target.snapshot());
+    }
+
+    @Test
+    void snapshotFromDifferentRomIsRejected() {
+        byte[] state = createMachine(0x42).snapshot();
+        GameBoyColor other = createMachine(0x43);
+
+        runInstructions(other, 5_000);
+        byte[] before = other.snapshot();
+
+        assertThrows(IllegalStateException.class, () -> other.restore(state));
+        assertArrayEquals(before, other.snapshot(), "a refused snapshot must leave the machine as it was");
+    }
+
+    static void runInstructions(GameBoyColor gbc, int count) {
+        for (int i = 0; i < count; i++) {
+            gbc.executeCycle();
+        }
+    }
+
+    static GameBoyColor createMachine(int seed) {
+        byte[] rom = TestRoms.rom(new Assembler(0x0100).asm("NOP | JP main").org(0x0150).label("main")
+                .asm("LD A,0x80 | LDH (0x26),A" // NR52
+                        + " | LD A,0xF0 | LDH (0x12),A" // NR12
+                        + " | LD A,0x87 | LDH (0x14),A" // NR14
+                        + " | loop: INC A | LD (0xC000),A | LDH (0x13),A | JR loop")); // NR13
+        rom[0x0143] = (byte) 0x80; // CGB compatible
+        rom[0x014E] = (byte) seed; // distinguishes ROM images via the global checksum
+        TestRoms.withHeaderChecksum(rom);
+
+        GameBoyColor gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(rom));
+        return gbc;
+    }
+}
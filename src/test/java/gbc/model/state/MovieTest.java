@@ -0,0 +1,91 @@
+package gbc.model.state;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.TestRoms;
+import gbc.model.GameBoyColor;
+import gbc.model.cartridge.CartridgeFactory;
+import gbc.model.input.Controller;
+
+class MovieTest {
+
+    private static final int FRAME_CYCLES = 70224;
+
+    @Test
+    void playbackReproducesTheRecordedRun() {
+        Movie movie = record(createMachine());
+        assertTrue(movie.getEventCount() > 0);
+
+        Movie decoded = Movie.decode(movie.encode());
+        MoviePlayer player = new MoviePlayer(decoded, createMachine());
+
+        assertArrayEquals(movie.getEndStateHash(), player.playToEnd());
+        assertTrue(player.matchesRecording());
+    }
+
+    @Test
+    void playbackDoesNotDependOnFrameSlicing() {
+        Movie movie = record(createMachine());
+        MoviePlayer player = new MoviePlayer(movie, createMachine());
+
+        int slices = 0;
+        while (player.run(997)) {
+            slices++;
+        }
+
+        assertTrue(slices > 10);
+        assertTrue(player.isFinished());
+        assertTrue(player.matchesRecording());
+    }
+
+    @Test
+    void droppingTheInputIsDetectedAsDivergence() {
+        Movie movie = record(createMachine());
+        Movie withoutInput = new Movie(movie.getInitialState(), new long[0], new byte[0],
+                movie.getLengthCycles(), movie.getFrameCount(), movie.getEndStateHash());
+
+        MoviePlayer player = new MoviePlayer(withoutInput, createMachine());
+        player.playToEnd();
+
+        assertFalse(player.matchesRecording());
+    }
+
+    private static Movie record(GameBoyColor gbc) {
+        MovieRecorder recorder = new MovieRecorder(gbc);
+        Controller pad = gbc.getController();
+        for (int frame = 0; frame < 12; frame++) {
+            switch (frame) {
+                case 2 -> pad.setRight(true);
+                case 4 -> pad.setUp(true);
+                case 5 -> {
+                    pad.setRight(false);
+                    pad.setDown(true);
+                }
+                case 8 -> pad.setButtonMask(0);
+                default -> {
+                }
+            }
+            // Uneven frames, like a host that changes speed mid-recording
+            int target = FRAME_CYCLES + frame * 1234;
+            for (int executed = 0; executed < target;) {
+                executed += gbc.executeCycle();
+            }
+            recorder.frameCompleted();
+        }
+        Movie movie = recorder.finish();
+        assertEquals(12, movie.getFrameCount());
+        return movie;
+    }
+
+    /** ROM that keeps adding the joypad direction bits into 0xC000. */
+    private static GameBoyColor createMachine() {
+        GameBoyColor gbc = new GameBoyColor();
+        gbc.insertCartridge(CartridgeFactory.create(TestRoms.rom(TestRoms.JOYPAD_SUM)));
+        return gbc;
+    }
+}
@@ -0,0 +1,127 @@
+package gbc.model.state;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import gbc.model.GameBoyColor;
+
+class RewindBufferTest {
+
+    private static final int STATE_SIZE = 48 * 1024;
+
+    @Test
+    void popsReturnPushedStatesNewestFirst() {
+        RewindBuffer buffer = new RewindBuffer(64L * 1024 * 1024, 5);
+        List<byte[]> states = evolvingStates(23, new Random(1));
+        for (byte[] state : states) {
+            buffer.push(state, state.length);
+        }
+
+        for (int i = states.size() - 1; i >= 0; i--) {
+            assertArrayEquals(states.get(i), read(buffer.pop(), STATE_SIZE), "state " + i);
+        }
+        assertNull(buffer.pop());
+    }
+
+    @Test
+    void pushingAfterPopKeepsDeltasConsistent() {
+        RewindBuffer buffer = new RewindBuffer(64L * 1024 * 1024, 4);
+        Random random = new Random(2);
+        List<byte[]> states = evolvingStates(10, random);
+        for (byte[] state : states) {
+            buffer.push(state, state.length);
+        }
+        // Rewind past a keyframe boundary, then branch off with new states
+        for (int i = 0; i < 3; i++) {
+            buffer.pop();
+        }
+        byte[] branch = mutate(states.get(6), random);
+        buffer.push(branch, branch.length);
+
+        assertArrayEquals(branch, read(buffer.pop(), STATE_SIZE));
+        assertArrayEquals(states.get(6), read(buffer.pop(), STATE_SIZE));
+        assertArrayEquals(states.get(5), read(buffer.pop(), STATE_SIZE));
+    }
+
+    @Test
+    void capacityBoundsStoredBytesAndDropsOldestStates() {
+        long capacity = 256 * 1024;
+        RewindBuffer buffer = new RewindBuffer(capacity, 8);
+        List<byte[]> states = evolvingStates(400, new Random(3));
+        for (byte[] state : states) {
+            buffer.push(state, state.length);
+            assertTrue(buffer.getStoredBytes() <= capacity, "stored bytes exceed the cap");
+        }
+
+        int kept = buffer.size();
+        assertTrue(kept < states.size(), "old entries should have been evicted");
+        for (int i = states.size() - 1; i >= states.size() - kept; i--) {
+            assertArrayEquals(states.get(i), read(buffer.pop(), STATE_SIZE));
+        }
+        assertNull(buffer.pop());
+    }
+
+    @Test
+    void machineSnapshotsCompressAndRoundTrip() {
+        GameBoyColor gbc = MachineSnapshotTest.createMachine(0x42);
+        RewindBuffer buffer = new RewindBuffer(64L * 1024 * 1024, 30);
+        StateWriter writer = new StateWriter();
+        List<byte[]> states = new ArrayList<>();
+        for (int frame = 0; frame < 30; frame++) {
+            MachineSnapshotTest.runInstructions(gbc, 2_000);
+            writer.reset();
+            gbc.snapshot(writer, false);
+            buffer.push(writer.buffer(), writer.size());
+            states.add(writer.toByteArray());
+        }
+
+        assertTrue(buffer.getCompressionRatio() > 10, "ratio was " + buffer.getCompressionRatio());
+        for (int i = states.size() - 1; i >= 0; i--) {
+            byte[] expected = states.get(i);
+            assertArrayEquals(expected, read(buffer.pop(), expected.length));
+        }
+    }
+
+    /** States where each differs from the previous in a few hundred bytes. */
+    private static List<byte[]> evolvingStates(int count, Random random) {
+        List<byte[]> states = new ArrayList<>();
+        byte[] state = new byte[STATE_SIZE];
+        for (int i = 0; i < STATE_SIZE / 4; i++) {
+            state[random.nextInt(STATE_SIZE)] = (byte) random.nextInt();
+        }
+        for (int i = 0; i < count; i++) {
+            state = mutate(state, random);
+            states.add(state);
+        }
+        return states;
+    }
+
+    private static byte[] mutate(byte[] previous, Random random) {
+        byte[] next = Arrays.copyOf(previous, previous.length);
+        for (int i = 0; i < 200; i++) {
+            next[random.nextInt(next.length)] = (byte) random.nextInt();
+        }
+        int run = random.nextInt(next.length - 64);
+        for (int i = 0; i < 64; i++) {
+            next[run + i]++;
+        }
+        return next;
+    }
+
+    private static byte[] read(StateReader reader, int length) {
+        byte[] out = new byte[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = (byte) reader.readByte();
+        }
+        assertTrue(!reader.hasRemaining());
+        return out;
+    }
+}